@@ -1,50 +1,81 @@
 package example.function_approximation;
 
+import gp.Population;
 import gp.core.assessor.IndividualAssessor;
 import gp.core.fitness.Goal;
 import gp.core.fitness.SingleObjectiveFitness;
+import gp.core.individual.AssessedIndividual;
+import gp.impl.assessor.FitnessCaseProvider;
+import gp.impl.assessor.FitnessCases;
 import gp.impl.fitness.SingleObjectiveFit;
 import gp.impl.individual.SingleTreeIndividual;
 import utils.Pair;
 import utils.random.RandomSource;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.BiFunction;
 
 public class DefaultAssessor implements IndividualAssessor<Pair<Double, Double>, Double, SingleTreeIndividual<Pair<Double, Double>, Double>, SingleObjectiveFitness> {
-    final RandomSource random;
-    BiFunction<Double, Double, Double> targetFunction; 
-    final int numSamples;
+    final FitnessCaseProvider<Pair<Double, Double>> provider;
+    volatile FitnessCases<Pair<Double, Double>> cases;
+
     public DefaultAssessor(RandomSource random, int numSamples) {
         this(random, numSamples, (x, y) -> Math.cos(y)*Math.exp(Math.sin(x)));
     }
 
     public DefaultAssessor(RandomSource random, int numSamples, BiFunction<Double, Double, Double> targetFunction) {
-        this.random = random;
-        this.numSamples = numSamples;
-        this.targetFunction = targetFunction;
+        this(FitnessCaseProvider.perGeneration(
+            () -> sample(random, numSamples),
+            p -> targetFunction.apply(p.first(), p.second())
+        ));
+    }
+
+    public DefaultAssessor(FitnessCaseProvider<Pair<Double, Double>> provider) {
+        this.provider = provider;
     }
 
+    static List<Pair<Double, Double>> sample(RandomSource random, int numSamples) {
+        final List<Pair<Double, Double>> samples = new ArrayList<>(numSamples);
+        for (int i = 0; i < numSamples; i++) {
+            samples.add(Pair.of(
+                random.nextDouble(-Math.PI, Math.PI),
+                random.nextDouble(-Math.PI, Math.PI)
+            ));
+        }
+        return samples;
+    }
 
+    /**
+     * Draw this generation's cases once, then assess the whole population against them.
+     */
     @Override
-    public SingleObjectiveFitness evaluate(SingleTreeIndividual<Pair<Double, Double>, Double> individual) {
-        double sum = 0.0;
-        double expectedResult;
-        double result;
-        double currentX;
-        double currentY;
-        for (int y = 0; y < 100; y++) {
-            currentX = random.nextDouble(-Math.PI, Math.PI);
-            currentY = random.nextDouble(-Math.PI, Math.PI);
-            expectedResult = Math.cos(currentY) * Math.exp(Math.sin(currentX));
-
-            result = Math.abs(expectedResult - individual.evaluate(Pair.of(currentX, currentY)));
-            sum += result;
+    public Population<AssessedIndividual<Pair<Double, Double>, Double, SingleTreeIndividual<Pair<Double, Double>, Double>, SingleObjectiveFitness>> assess(
+        Population<SingleTreeIndividual<Pair<Double, Double>, Double>> population
+    ) {
+        this.cases = provider.next();
+        return IndividualAssessor.super.assess(population);
+    }
+
+    synchronized FitnessCases<Pair<Double, Double>> firstCases() {
+        if (this.cases == null) {
+            this.cases = provider.next();
         }
-        return new SingleObjectiveFit(sum, Goal.MINIMIZE);
+        return this.cases;
     }
 
     @Override
-    public boolean shouldParallelize() {
-        return false;
+    public SingleObjectiveFitness evaluate(SingleTreeIndividual<Pair<Double, Double>, Double> individual) {
+        FitnessCases<Pair<Double, Double>> current = this.cases;
+        if (current == null) {
+            current = this.firstCases();
+        }
+        final double[] expectedResults = current.targets();
+        final double[] results = individual.evaluateAllAsDouble(current.columns());
+        double sum = 0.0;
+        for (int i = 0; i < results.length; i++) {
+            sum += Math.abs(expectedResults[i] - results[i]);
+        }
+        return new SingleObjectiveFit(sum, Goal.MINIMIZE);
     }
 }
@@ -13,23 +13,24 @@ import gp.impl.individual.SingleTreeIndividual;
 import gp.impl.selectors.Elitism;
 import gp.impl.selectors.TournamentSelection;
 import gp.impl.selectors.random.DistributionBuilder;
-import utils.random.RandomSource;
+import utils.random.SplittableRandomSource;
 
 public class DefaultBreeder<T, R> implements Breeder<AssessedIndividual<T, R, SingleTreeIndividual<T, R>, SingleObjectiveFitness>, SingleTreeIndividual<T, R>> {
-    protected final RandomSource random;
+    protected final SplittableRandomSource random;
     protected final int populationSize = 1000;
     protected final int tournamentSize = 7;
     protected final int elitismCount = 10;
     protected final PrimitiveSet<T> primitiveSet;
 
-    protected final Breeder<AssessedIndividual<
+    protected final NaiveBreeder<
         T, R,
         SingleTreeIndividual<T, R>,
         SingleObjectiveFitness
-    >, SingleTreeIndividual<T, R>> breeder;
+    > breeder;
+    private long generation = 0;
 
 
-    public DefaultBreeder(RandomSource random, PrimitiveSet<T> primitiveSet) {
+    public DefaultBreeder(SplittableRandomSource random, PrimitiveSet<T> primitiveSet) {
         this.random = random;
         this.primitiveSet = primitiveSet;
         final var sampler = DistributionBuilder.startingWith(
@@ -56,7 +57,7 @@ public class DefaultBreeder<T, R> implements Breeder<AssessedIndividual<T, R, Si
     public Population<SingleTreeIndividual<T, R>> breed(
             Population<AssessedIndividual<T, R, SingleTreeIndividual<T, R>, SingleObjectiveFitness>> population
     ) {
-        return this.breeder.breed(population);
+        return this.breeder.breed(population, random.fork(generation++));
     }
 }
 
@@ -5,15 +5,17 @@ import gp.core.initializer.Initialiser;
 import gp.core.initializer.PrimitiveSet;
 import gp.impl.individual.SingleTreeIndividual;
 import gp.impl.initializers.Initializers;
-import utils.random.RandomSource;
+import gp.impl.initializers.RampedHalfAndHalf;
+import utils.random.SplittableRandomSource;
 
 public class DefaultInitialiser<T, R> implements Initialiser<SingleTreeIndividual<T, R>> {
-    final Initialiser<SingleTreeIndividual<T, R>> initialiser;
+    final RampedHalfAndHalf<T, R> initialiser;
+    final SplittableRandomSource random;
     final int maxDepth = 7;
     int startingPopulationSize = 1000;
     protected final PrimitiveSet<T> primitiveSet;
 
-    public DefaultInitialiser(RandomSource random, PrimitiveSet<T> primitiveSet, Class<R> returnType) {
+    public DefaultInitialiser(SplittableRandomSource random, PrimitiveSet<T> primitiveSet, Class<R> returnType) {
         this.initialiser = Initializers.rampedHalfAndHalf(
             maxDepth, 
             random,
@@ -23,11 +25,12 @@ public class DefaultInitialiser<T, R> implements Initialiser<SingleTreeIndividua
             returnType
         );
         this.primitiveSet = primitiveSet;
+        this.random = random;
     }
 
     @Override
     public Population<SingleTreeIndividual<T, R>> initialize() {
-        return this.initialiser.initialize();
+        return this.initialiser.initialize(random);
     }
 }
 
@@ -1,9 +1,11 @@
 package example.function_approximation.parameters;
 
 import gp.core.initializer.TypedNonTerminal;
-import utils.operators.BinaryOperator;
+import gp.impl.individual.tree.RewriteRule;
+import gp.impl.individual.tree.RewriteRules;
+import utils.operators.DoubleBinaryOperator;
+import utils.operators.DoubleUnaryOperator;
 import utils.operators.Operator;
-import utils.operators.UnaryOperator;
 
 import java.util.Arrays;
 import java.util.List;
@@ -12,7 +14,7 @@ public enum DoubleNonTerminals {
     NEG("neg", a -> -a),
     MIN("min", Math::min),
     MAX("max", Math::max),
-    MUL("%", (a, b) -> a*b),
+    MUL("*", (a, b) -> a*b),
     DIV("%", (a, b) -> {
         if (b == 0) {return 1.0;}
         return a / b;
@@ -33,11 +35,29 @@ public enum DoubleNonTerminals {
                 .toList();
     }
 
-    DoubleNonTerminals(String symbol, BinaryOperator<Double, Double> o) {
+    /**
+     * @return the algebraic identities of these non-terminals,
+     *  exact for finite inputs.
+     */
+    public static List<RewriteRule> rewriteRules() {
+        return List.of(
+            RewriteRules.involution(NEG.symbol),
+            RewriteRules.idempotent(MIN.symbol),
+            RewriteRules.idempotent(MAX.symbol),
+            RewriteRules.identity(MUL.symbol, 1.0),
+            RewriteRules.identity(PLUS.symbol, 0.0),
+            RewriteRules.rightIdentity(SUB.symbol, 0.0),
+            RewriteRules.selfCancelling(SUB.symbol, 0.0),
+            RewriteRules.rightIdentity(DIV.symbol, 1.0),
+            RewriteRules.selfCancelling(DIV.symbol, 1.0)
+        );
+    }
+
+    DoubleNonTerminals(String symbol, DoubleBinaryOperator o) {
         this.symbol = symbol;
         this.op = o;
     }
-    DoubleNonTerminals(String symbol, UnaryOperator<Double, Double> o) {
+    DoubleNonTerminals(String symbol, DoubleUnaryOperator o) {
         this.symbol = symbol;
         this.op = o;
     }
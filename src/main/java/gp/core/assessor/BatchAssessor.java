@@ -0,0 +1,77 @@
+package gp.core.assessor;
+
+import gp.Population;
+import gp.core.fitness.Fitness;
+import gp.core.individual.AssessedIndividual;
+import gp.core.individual.Individual;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An evaluator that assesses a whole population against a dataset at once.
+ * Every individual is evaluated on every fitness case, giving
+ *  a population × case matrix of errors, and each individual's fitness
+ *  is reduced from its row.
+ * Seeing the whole population lets implementations share work between
+ *  individuals, such as extracting terminals once per case,
+ *  and block over individuals and cases.
+ * @param <T> The terminal type
+ * @param <R> The return type
+ * @param <I> The individual type
+ * @param <F> The fitness type
+ */
+public interface BatchAssessor<
+        T, R,
+        I extends Individual<T, R>,
+        F extends Fitness<F>
+> extends Assessor<T, R, I, F> {
+    /**
+     * @return the dataset populations are assessed against by default.
+     */
+    List<T> cases();
+
+    /**
+     * Evaluates every individual on every fitness case.
+     * @param population The individuals to evaluate.
+     * @param cases The fitness cases.
+     * @return A matrix where the `i`th row holds the errors of
+     *  the `i`th individual, and the `j`th column the errors on the `j`th case.
+     */
+    double[][] errors(Population<I> population, List<T> cases);
+
+    /**
+     * Reduces the errors of one individual to its fitness.
+     * @param errors The errors of an individual on every fitness case.
+     * @return The fitness of the individual.
+     */
+    F fitness(double[] errors);
+
+    /**
+     * Evaluates all individuals in a population against a dataset.
+     * @param population The population to evaluate
+     * @param cases The fitness cases.
+     * @return A new population of evaluated individuals
+     */
+    default Population<AssessedIndividual<T, R, I, F>> assess(
+            final Population<I> population,
+            final List<T> cases
+    ) {
+        final double[][] errors = this.errors(population, cases);
+        final List<AssessedIndividual<T, R, I, F>> assessed =
+                new ArrayList<>(population.size());
+        for (int i = 0; i < errors.length; i++) {
+            assessed.add(AssessedIndividual.of(
+                    population.individuals().get(i), this.fitness(errors[i])
+            ));
+        }
+        return Population.of(assessed);
+    }
+
+    @Override
+    default Population<AssessedIndividual<T, R, I, F>> assess(
+            final Population<I> population
+    ) {
+        return this.assess(population, this.cases());
+    }
+}
@@ -5,6 +5,8 @@ import utils.Parallelizeable;
 import gp.core.fitness.Fitness;
 import gp.core.individual.AssessedIndividual;
 import gp.core.individual.Individual;
+import utils.random.RandomSource;
+import utils.random.SplittableRandomSource;
 
 /**
  * An evaluator interface, which evaluates individuals one at a time.
@@ -26,6 +28,19 @@ public interface IndividualAssessor<
      */
     F evaluate(I individual);
 
+    /**
+     * Evaluates a single individual, drawing from the given source
+     *  rather than this assessor's own, e.g. to subsample fitness cases.
+     * By default the source is ignored, assessors that draw random numbers
+     *  override this.
+     * @param individual The individual to evaluate
+     * @param random The source of randomness for this evaluation
+     * @return The evaluated individual with fitness
+     */
+    default F evaluate(I individual, RandomSource random) {
+        return this.evaluate(individual);
+    }
+
     @Override
     default Population<AssessedIndividual<T, R, I, F>> assess(
             final Population<I> population
@@ -38,6 +53,26 @@ public interface IndividualAssessor<
         );
     }
 
+    /**
+     * Assesses a population, evaluating the `i`th individual with
+     *  the `i`th fork of a random source, so the fitnesses are the same
+     *  however many threads evaluate them.
+     * @param population The population to assess
+     * @param random The source to fork each evaluation's source from
+     * @return The assessed population
+     */
+    default Population<AssessedIndividual<T, R, I, F>> assess(
+            final Population<I> population,
+            final SplittableRandomSource random
+    ) {
+        return Population.of(
+                this.parallelize(
+                        population.individuals(), random,
+                        (source, i) -> AssessedIndividual.of(i, evaluate(i, source))
+                ).toList()
+        );
+    }
+
     @Override
     default boolean shouldParallelize() {
         return true;
@@ -1,6 +1,7 @@
 package gp.core.breeder;
 
 import gp.core.selector.Sampler;
+import utils.random.RandomSource;
 
 import java.util.List;
 
@@ -17,6 +18,19 @@ public interface SelectionMechanism<From, To> {
      */
     Sampler<To> selectorFrom(List<From> items);
 
+    /**
+     * Creates a selector that draws from the given source rather than
+     *  this mechanism's own, so parallel tasks can each select with a fork.
+     * By default the source is ignored, mechanisms that draw random numbers
+     *  override this.
+     * @param items The items to select from
+     * @param random The source of randomness for the selector.
+     * @return A primed selector
+     */
+    default Sampler<To> selectorFrom(List<From> items, RandomSource random) {
+        return this.selectorFrom(items);
+    }
+
     /**
      * Primes the selector with items.
      * @param items The items to select from
@@ -1,6 +1,7 @@
 package gp.core.initializer;
 
 import utils.Preconditions;
+import utils.operators.Constant;
 
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -67,13 +68,15 @@ public record EphemeralConstant<R>(
     /**
      * Create a concrete terminal from `this`,
      *  expected to produce a different value on every call.
+     * The terminal's extractor is a {@link Constant},
+     *  so it can be folded by {@link gp.impl.individual.tree.Simplifier}.
      * @return a new concrete TypedTerminal
      * @param <T> The input terminal type - effectively anything as it's not used.
      */
     public <T> TypedTerminal<T, R> instantiate() {
         final R value = constantCreator.get();
-        return TypedTerminal.nonCached(
-            namingFunction.apply(value), _ -> value, returnType
-        );
+        return TypedTerminal.<T, R>nonCached(
+            namingFunction.apply(value), Constant.of(value), returnType
+        ).specialised();
     }
 }
@@ -2,7 +2,10 @@ package gp.core.initializer;
 
 import gp.Population;
 import utils.Cache;
+import utils.CachePolicy;
 import utils.Parallelizeable;
+import utils.random.RandomSource;
+import utils.random.SplittableRandomSource;
 
 import java.util.function.Function;
 
@@ -23,12 +26,38 @@ public interface IndividualInitialiser<I> extends Initialiser<I>, Parallelizeabl
         );
     }
 
+    /**
+     * Initializes a population, creating the `i`th individual with
+     *  the `i`th fork of a random source, so the population is the same
+     *  however many threads create it.
+     * @param random The source to fork each individual's source from
+     * @return A population containing the created individuals
+     */
+    default Population<I> initialize(SplittableRandomSource random) {
+        return Population.of(
+                this.generateN(this::createIndividual, this.populationSize(), random)
+                        .toList()
+        );
+    }
+
     /**
      * Creates a single individual.
      * @return The created individual
      */
     I createIndividual();
 
+    /**
+     * Creates a single individual, drawing from the given source
+     *  rather than this initializer's own.
+     * By default the source is ignored, initializers that draw random
+     *  numbers override this.
+     * @param random The source of randomness for this individual
+     * @return The created individual
+     */
+    default I createIndividual(RandomSource random) {
+        return this.createIndividual();
+    }
+
     /**
      * Returns the size of the population to initialize.
      *
@@ -57,6 +86,11 @@ public interface IndividualInitialiser<I> extends Initialiser<I>, Parallelizeabl
                 return function.apply(self.createIndividual());
             }
 
+            @Override
+            public U createIndividual(final RandomSource random) {
+                return function.apply(self.createIndividual(random));
+            }
+
             @Override
             public int populationSize() {
                 return self.populationSize();
@@ -70,14 +104,34 @@ public interface IndividualInitialiser<I> extends Initialiser<I>, Parallelizeabl
      *  or until numTries is exceeded.
      * Note: This method determines uniqueness based on .hashCode and .equals
      *  therefore these must be implemented correctly on I.
+     * When individuals are created in parallel, which of two duplicates is
+     *  recreated depends on timing, so forked populations are only
+     *  reproducible at any thread count without enforcing uniqueness.
      * @param numTries The number of times to recreate an individual
      *   before accepting a duplicate
      * @return The new initializer that tries to produce a unique population
      */
     default IndividualInitialiser<I> attemptToEnforceUniqueness(int numTries) {
+        return this.attemptToEnforceUniqueness(numTries, CachePolicy.unbounded());
+    }
+
+    /**
+     * Create an initializer that tries to obtain a unique population,
+     *  only remembering as many individuals as the policy allows.
+     * A bounded policy caps the memory used on very large populations,
+     *  at the cost of possibly recreating an individual it has forgotten.
+     * @param numTries The number of times to recreate an individual
+     *   before accepting a duplicate
+     * @param policy The policy of the cache of created individuals.
+     * @return The new initializer that tries to produce a unique population
+     */
+    default IndividualInitialiser<I> attemptToEnforceUniqueness(
+        int numTries,
+        CachePolicy policy
+    ) {
         final IndividualInitialiser<I> inner = this;
         return new IndividualInitialiser<>() {
-            private final Cache<I> createdIndividuals = Cache.empty();
+            private final Cache<I> createdIndividuals = Cache.withPolicy(policy);
             @Override
             public I createIndividual() {
                return createdIndividuals.repeatUntilAbsent(
@@ -85,6 +139,13 @@ public interface IndividualInitialiser<I> extends Initialiser<I>, Parallelizeabl
                );
             }
 
+            @Override
+            public I createIndividual(final RandomSource random) {
+               return createdIndividuals.repeatUntilAbsent(
+                   () -> inner.createIndividual(random), numTries
+               );
+            }
+
             @Override
             public int populationSize() {
                 return inner.populationSize();
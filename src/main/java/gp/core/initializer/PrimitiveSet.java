@@ -1,9 +1,9 @@
 package gp.core.initializer;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 public interface PrimitiveSet<T> {
@@ -79,7 +79,8 @@ final class PrimitiveSetImpl<T> implements PrimitiveSet<T> {
     private final TypedNonTerminal<?, ?>[] nonTerminals;
     private final EphemeralConstant<?>[] ephemeralConstants;
 
-    private final Map<Class<?>, TypedNonTerminal[]> nonterminalMap = new HashMap<>();
+    private final Map<Class<?>, TypedNonTerminal[]> nonterminalMap =
+        new ConcurrentHashMap<>();
 
     PrimitiveSetImpl(
         List<TypedTerminal<T, ?>> terminals,
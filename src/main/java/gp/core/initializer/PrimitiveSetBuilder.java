@@ -1,22 +1,39 @@
 package gp.core.initializer;
 
+import utils.operators.BinaryOperator;
+import utils.operators.DoubleBinaryOperator;
+import utils.operators.DoubleUnaryOperator;
+import utils.operators.LazyOperator;
+import utils.operators.MemoScope;
 import utils.operators.Operator;
+import utils.operators.TernaryOperator;
+import utils.operators.ToDoubleOperator;
 import utils.operators.UnaryOperator;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
  * A utility class to help build primitive sets.
+ * Terminals returning Double and non-terminals from Double to Double
+ *  are specialised to primitive operators as they are added,
+ *  so numeric trees are evaluated without boxing.
+ * Cached terminals are memoised in the global scope unless another is
+ *  given with {@link #memoiseIn}, a scope that's cleared with each
+ *  generation or dataset keeps the memo from growing with every case seen.
+ * In the global scope an extractor is always given the same memo,
+ *  so adding it twice is caught as a duplicate.
  * @param <T> The terminal type.
  */
 public final class PrimitiveSetBuilder<T> {
     private final List<TypedTerminal<T, ?>> terminals = new ArrayList<>();
     private final List<TypedNonTerminal<?, ?>> nonTerminals = new ArrayList<>();
     private final List<EphemeralConstant<?>> ephemeralConstants = new ArrayList<>();
+    private MemoScope memoScope = MemoScope.global();
 
     private PrimitiveSetBuilder() {}
 
@@ -28,6 +45,17 @@ public final class PrimitiveSetBuilder<T> {
         return new PrimitiveSetBuilder<>();
     }
 
+    /**
+     * Set the scope that terminals added with {@link #addTerminal(String,
+     *  UnaryOperator, Class)} from now on are memoised in.
+     * @param scope The scope to memoise terminals in.
+     * @return this
+     */
+    public PrimitiveSetBuilder<T> memoiseIn(final MemoScope scope) {
+        this.memoScope = Objects.requireNonNull(scope);
+        return this;
+    }
+
     /**
      * Add the terminal into the terminal set, terminals must be unique.
      * @param terminal the terminal to add.
@@ -36,15 +64,17 @@ public final class PrimitiveSetBuilder<T> {
      * @return this
      */
     public PrimitiveSetBuilder<T> addTerminal(TypedTerminal<T, ?> terminal)  {
-        if (this.terminals.contains(terminal)) {
+        final TypedTerminal<T, ?> specialised = terminal.specialised();
+        if (this.terminals.contains(specialised)) {
             throw new IllegalArgumentException("This terminal already exists");
         }
-        this.terminals.add(terminal);
+        this.terminals.add(specialised);
         return this;
     }
 
     /**
-     * Adds a cached terminal to the terminal set. Must be unique.
+     * Adds a terminal memoised in this builder's scope to the terminal set.
+     * Must be unique.
      * @param name The name of the terminal.
      * @param terminal The extractor that gets the value from the given terminal.
      * @param returnType The return type of this terminal.
@@ -56,7 +86,7 @@ public final class PrimitiveSetBuilder<T> {
     public <R> PrimitiveSetBuilder<T> addTerminal(
         String name, UnaryOperator<T, R> terminal, Class<R> returnType
     ) {
-        return this.addTerminal(TypedTerminal.of(name, terminal, returnType));
+        return this.addTerminal(TypedTerminal.of(name, terminal, returnType, memoScope));
     }
 
     /**
@@ -75,6 +105,20 @@ public final class PrimitiveSetBuilder<T> {
         return this.addTerminal(TypedTerminal.nonCached(name, terminal, returnType));
     }
 
+    /**
+     * Adds a non-cached primitive double terminal to the terminal set. Must be unique.
+     * @param name The name of the terminal.
+     * @param terminal The extractor that gets the value from the given terminal.
+     * @throws IllegalArgumentException if the terminal is already
+     *  present in the terminal set.
+     * @return this
+     */
+    public PrimitiveSetBuilder<T> addDoubleTerminal(
+        String name, ToDoubleOperator<T> terminal
+    ) {
+        return this.addUncachedTerminal(name, terminal, Double.class);
+    }
+
     /**
      * Adds an ephemeral constant to the terminal set. Must be unique.
      * @param constantCreator The Supplier of the constants,
@@ -165,10 +209,11 @@ public final class PrimitiveSetBuilder<T> {
      * @return this
      */
     public PrimitiveSetBuilder<T> addNonTerminal(TypedNonTerminal<?, ?> nonTerminal) {
-        if (this.nonTerminals.contains(nonTerminal)) {
+        final TypedNonTerminal<?, ?> specialised = nonTerminal.specialised();
+        if (this.nonTerminals.contains(specialised)) {
             throw new IllegalArgumentException("This non-terminal already exists");
         }
-        this.nonTerminals.add(nonTerminal);
+        this.nonTerminals.add(specialised);
         return this;
     }
 
@@ -192,6 +237,118 @@ public final class PrimitiveSetBuilder<T> {
         ));
     }
 
+    /**
+     * Adds a unary non-terminal to the primitive set. Must be unique.
+     * Unary, binary and ternary operators are applied directly to their
+     *  operands when evaluated, without packing them into an array.
+     * @param name The name of the non-terminal.
+     * @param nonTerminal The operator to apply.
+     * @param inputType The type of the input of this non-terminal.
+     * @param returnType The return type of the non-terminal
+     * @return this
+     * @param <In> The input type of the terminal.
+     * @param <Out> The output type of the terminal.
+     */
+    public <In, Out> PrimitiveSetBuilder<T> addNonTerminal(
+            String name, UnaryOperator<In, Out> nonTerminal,
+            Class<In> inputType,
+            Class<Out> returnType
+    ) {
+        return this.addNonTerminal(
+            name, (Operator<In, Out>) nonTerminal, inputType, returnType
+        );
+    }
+
+    /**
+     * Adds a binary non-terminal to the primitive set. Must be unique.
+     * @param name The name of the non-terminal.
+     * @param nonTerminal The operator to apply.
+     * @param inputType The type of the input of this non-terminal.
+     * @param returnType The return type of the non-terminal
+     * @return this
+     * @param <In> The input type of the terminal.
+     * @param <Out> The output type of the terminal.
+     */
+    public <In, Out> PrimitiveSetBuilder<T> addNonTerminal(
+            String name, BinaryOperator<In, Out> nonTerminal,
+            Class<In> inputType,
+            Class<Out> returnType
+    ) {
+        return this.addNonTerminal(
+            name, (Operator<In, Out>) nonTerminal, inputType, returnType
+        );
+    }
+
+    /**
+     * Adds a ternary non-terminal to the primitive set. Must be unique.
+     * @param name The name of the non-terminal.
+     * @param nonTerminal The operator to apply.
+     * @param inputType The type of the input of this non-terminal.
+     * @param returnType The return type of the non-terminal
+     * @return this
+     * @param <In> The input type of the terminal.
+     * @param <Out> The output type of the terminal.
+     */
+    public <In, Out> PrimitiveSetBuilder<T> addNonTerminal(
+            String name, TernaryOperator<In, Out> nonTerminal,
+            Class<In> inputType,
+            Class<Out> returnType
+    ) {
+        return this.addNonTerminal(
+            name, (Operator<In, Out>) nonTerminal, inputType, returnType
+        );
+    }
+
+    /**
+     * Adds a lazy non-terminal to the primitive set. Must be unique.
+     * The operator is given a handle to its operands and only the ones
+     *  it evaluates are computed, e.g. the taken branch of an if-then-else.
+     * @param name The name of the non-terminal.
+     * @param arity The number of operands of the non-terminal.
+     * @param nonTerminal The function of the operands.
+     * @param inputType The type of the operands of this non-terminal.
+     * @param returnType The return type of the non-terminal
+     * @return this
+     * @param <In> The input type of the terminal.
+     * @param <Out> The output type of the terminal.
+     */
+    public <In, Out> PrimitiveSetBuilder<T> addLazyNonTerminal(
+            String name, int arity,
+            Function<LazyOperator.Operands<In>, Out> nonTerminal,
+            Class<In> inputType,
+            Class<Out> returnType
+    ) {
+        return this.addNonTerminal(
+            name, LazyOperator.of(arity, nonTerminal), inputType, returnType
+        );
+    }
+
+    /**
+     * Adds a primitive unary non-terminal on doubles. Must be unique.
+     * @param name The name of the non-terminal.
+     * @param nonTerminal The operator to apply.
+     * @throws IllegalArgumentException if nonTerminal is already in the primitive set.
+     * @return this
+     */
+    public PrimitiveSetBuilder<T> addDoubleNonTerminal(
+        String name, DoubleUnaryOperator nonTerminal
+    ) {
+        return this.addNonTerminal(TypedNonTerminal.of(name, nonTerminal, Double.class));
+    }
+
+    /**
+     * Adds a primitive binary non-terminal on doubles. Must be unique.
+     * @param name The name of the non-terminal.
+     * @param nonTerminal The operator to apply.
+     * @throws IllegalArgumentException if nonTerminal is already in the primitive set.
+     * @return this
+     */
+    public PrimitiveSetBuilder<T> addDoubleNonTerminal(
+        String name, DoubleBinaryOperator nonTerminal
+    ) {
+        return this.addNonTerminal(TypedNonTerminal.of(name, nonTerminal, Double.class));
+    }
+
     /**
      * Add all the non-terminals in a batch to the primitive set.
      * @param nonTerminals a collection of non-terminals.
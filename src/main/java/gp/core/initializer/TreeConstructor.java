@@ -45,6 +45,19 @@ public interface TreeConstructor<T, R>
      */
     boolean shouldTerminate(int depth);
 
+    /**
+     * Checks if tree construction should terminate at this depth,
+     *  drawing from the given source if the check is random.
+     * By default the source is ignored.
+     *
+     * @param depth The current depth
+     * @param random The source of randomness for this tree
+     * @return True if construction should terminate
+     */
+    default boolean shouldTerminate(int depth, RandomSource random) {
+        return this.shouldTerminate(depth);
+    }
+
     /**
      * Recursively constructs a tree node of the given return type.
      *
@@ -60,10 +73,33 @@ public interface TreeConstructor<T, R>
         final int currentDepth,
         final Class<ReturnType> returnType
     ) {
-        if (shouldTerminate(currentDepth)) {
+        return this.recursivelyConstructIndividual(
+            currentDepth, returnType, this.random()
+        );
+    }
+
+    /**
+     * Recursively constructs a tree node of the given return type,
+     *  drawing from the given source rather than {@link #random()}.
+     *
+     * @param <ReturnType> The return type
+     * @param currentDepth The current depth in the tree
+     * @param returnType   The desired return type
+     * @param random       The source of randomness for this tree
+     * @return An optional containing the constructed node if
+     * successful
+     */
+    default <ReturnType> Optional<
+        ImmutableNode<T, ?, ReturnType, ?, ?>
+    > recursivelyConstructIndividual(
+        final int currentDepth,
+        final Class<ReturnType> returnType,
+        final RandomSource random
+    ) {
+        if (shouldTerminate(currentDepth, random)) {
             return RandomSampler.sample(
                     this.primitiveSet().terminalsOfType(returnType),
-                    this.random()
+                    random
             ).map(term -> Node.term(
                 term.name(), term.terminal(), term.returnType()
             ));
@@ -71,9 +107,9 @@ public interface TreeConstructor<T, R>
 
         return RandomSampler.sample(
                 this.primitiveSet().validNonTerminals(returnType),
-                this.random()
+                random
         ).flatMap(nonTerm -> buildNonTerminal(
-                nonTerm, currentDepth
+                nonTerm, currentDepth, random
         ));
     }
 
@@ -90,6 +126,26 @@ public interface TreeConstructor<T, R>
     > buildNonTerminal(
         TypedNonTerminal<I, ReturnType> typedNonTerminal,
         int currentDepth
+    ) {
+        return this.buildNonTerminal(typedNonTerminal, currentDepth, this.random());
+    }
+
+    /**
+     * Create a non-terminal node, drawing from the given source
+     *  rather than {@link #random()}.
+     * @param typedNonTerminal The typed non-terminal to create a node for.
+     * @param currentDepth The current depth in the tree.
+     * @param random The source of randomness for this tree.
+     * @return An optional containing the constructed node if successful.
+     * @param <I> The input type for the non-terminal.
+     * @param <ReturnType> The return type of the non-terminal.
+     */
+    default <I, ReturnType> Optional<
+        ImmutableNode<T, ?, ReturnType, ?, ?>
+    > buildNonTerminal(
+        TypedNonTerminal<I, ReturnType> typedNonTerminal,
+        int currentDepth,
+        RandomSource random
     ) {
         @SuppressWarnings("unchecked")
         final ImmutableNode<T, ?, I, ?, ?>[] children = (ImmutableNode<T, ?, I, ?, ?>[])
@@ -97,7 +153,8 @@ public interface TreeConstructor<T, R>
         for (int i = 0; i < typedNonTerminal.nonTerminal().arity(); i++) {
             final var child = recursivelyConstructIndividual(
                     currentDepth + 1,
-                    typedNonTerminal.inputType()
+                    typedNonTerminal.inputType(),
+                    random
             );
             if (child.isEmpty()) {
                 return Optional.empty();
@@ -1,6 +1,10 @@
 package gp.core.initializer;
 
+import utils.operators.BinaryOperator;
+import utils.operators.DoubleBinaryOperator;
+import utils.operators.DoubleUnaryOperator;
 import utils.operators.Operator;
+import utils.operators.UnaryOperator;
 
 /**
  * Record representing a typed non-terminal node with input and return types.
@@ -53,4 +57,33 @@ public record TypedNonTerminal<In, Out>(
     ) {
         return new TypedNonTerminal<>(name, nonTerminal, type, type);
     }
+
+    /**
+     * Specialise non-terminals from doubles to doubles so they can be
+     *  evaluated without boxing.
+     * @return this non-terminal with a primitive operator if its input and
+     *  return types are Double and its operator is unary or binary,
+     *  otherwise this.
+     */
+    @SuppressWarnings("unchecked")
+    TypedNonTerminal<In, Out> specialised() {
+        if (inputType != Double.class || returnType != Double.class) {
+            return this;
+        }
+        final Operator<Double, Double> operator = switch (nonTerminal) {
+            case final UnaryOperator<In, Out> unary -> DoubleUnaryOperator.of(
+                (UnaryOperator<Double, Double>) unary
+            );
+            case final BinaryOperator<In, Out> binary -> DoubleBinaryOperator.of(
+                (BinaryOperator<Double, Double>) binary
+            );
+            default -> (Operator<Double, Double>) nonTerminal;
+        };
+        if (operator == nonTerminal) {
+            return this;
+        }
+        return new TypedNonTerminal<>(
+            name, (Operator<In, Out>) operator, inputType, returnType
+        );
+    }
 }
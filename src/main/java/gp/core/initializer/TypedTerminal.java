@@ -1,5 +1,7 @@
 package gp.core.initializer;
 
+import utils.operators.MemoScope;
+import utils.operators.ToDoubleOperator;
 import utils.operators.UnaryOperator;
 
 
@@ -31,6 +33,26 @@ public record TypedTerminal<T, R>(
         return new TypedTerminal<>(name, terminal.cached(), returnType);
     }
 
+    /**
+     * Creates a new typed terminal whose extractor is memoised in a scope,
+     *  so the memo can be bounded and cleared with a generation or a dataset.
+     * @param <T> The terminal input type
+     * @param <R> The return type
+     * @param name The name of the terminal
+     * @param terminal The extractor function
+     * @param returnType The return type class
+     * @param scope The scope to memoise the extractor in
+     * @return A new typed terminal
+     */
+    public static <T, R> TypedTerminal<T, R> of(
+            String name,
+            final UnaryOperator<T, R> terminal,
+            final Class<R> returnType,
+            final MemoScope scope
+    ) {
+        return new TypedTerminal<>(name, terminal.cachedIn(scope), returnType);
+    }
+
     /**
      * Creates a terminal without caching.
      *
@@ -48,4 +70,21 @@ public record TypedTerminal<T, R>(
     ) {
         return new TypedTerminal<>(name, terminal, returnType);
     }
+
+    /**
+     * Specialise terminals that return doubles so they can be
+     *  evaluated without boxing.
+     * @return this terminal with a primitive extractor if it returns
+     *  a Double, otherwise this.
+     */
+    @SuppressWarnings("unchecked")
+    TypedTerminal<T, R> specialised() {
+        if (returnType != Double.class || terminal instanceof ToDoubleOperator<?>) {
+            return this;
+        }
+        final ToDoubleOperator<T> primitive = ToDoubleOperator.of(
+            (UnaryOperator<T, Double>) terminal
+        );
+        return new TypedTerminal<>(name, (UnaryOperator<T, R>) primitive, returnType);
+    }
 }
@@ -1,5 +1,7 @@
 package gp.core.selector;
 
+import utils.random.RandomSource;
+
 import java.util.function.Function;
 
 /**
@@ -13,6 +15,18 @@ public interface Sampler<T> {
      */
     T sample();
 
+    /**
+     * Samples an element drawing from the given source rather than
+     *  this sampler's own, so parallel tasks can each sample from a fork.
+     * By default the source is ignored, samplers that draw random numbers
+     *  override this.
+     * @param random The source of randomness for this sample.
+     * @return A selected element
+     */
+    default T sample(RandomSource random) {
+        return this.sample();
+    }
+
     /**
      * Convert this sampler into a sampler of R,
      *  by passing all outputs of this through converter.
@@ -21,7 +35,18 @@ public interface Sampler<T> {
      * @param <R> The return type of the new sampler.
      */
     default <R> Sampler<R> wrap(Function<T, R> converter) {
-        return () -> converter.apply(this.sample());
+        final Sampler<T> self = this;
+        return new Sampler<>() {
+            @Override
+            public R sample() {
+                return converter.apply(self.sample());
+            }
+
+            @Override
+            public R sample(final RandomSource random) {
+                return converter.apply(self.sample(random));
+            }
+        };
     }
 }
 
@@ -0,0 +1,45 @@
+package gp.impl.assessor;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Provides the fitness cases a population is assessed against.
+ * It's asked once per generation, so every individual in a generation
+ *  is assessed against the same cases and their fitnesses are comparable.
+ * @param <T> The terminal type
+ */
+@FunctionalInterface
+public interface FitnessCaseProvider<T> {
+    /**
+     * @return the fitness cases of the next generation.
+     */
+    FitnessCases<T> next();
+
+    /**
+     * Use the same fitness cases for the whole run.
+     * @param cases The fitness cases.
+     * @return A provider that always provides `cases`.
+     * @param <T> The terminal type
+     */
+    static <T> FitnessCaseProvider<T> perRun(final FitnessCases<T> cases) {
+        Objects.requireNonNull(cases);
+        return () -> cases;
+    }
+
+    /**
+     * Sample new fitness cases every generation.
+     * @param sampler Samples the cases of a generation.
+     * @param target The expected output of a case.
+     * @return A provider that samples new cases each time it's asked.
+     * @param <T> The terminal type
+     */
+    static <T> FitnessCaseProvider<T> perGeneration(
+            final Supplier<List<T>> sampler,
+            final ToDoubleFunction<? super T> target
+    ) {
+        return () -> FitnessCases.of(sampler.get(), target);
+    }
+}
@@ -0,0 +1,59 @@
+package gp.impl.assessor;
+
+import gp.impl.individual.tree.TerminalColumns;
+import utils.Preconditions;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A set of fitness cases with their expected outputs computed once,
+ *  shared by every individual that's assessed against them.
+ * The cases are bound to {@link TerminalColumns}, so each terminal is also
+ *  extracted once per case rather than once per individual.
+ * @param <T> The terminal type
+ * @param columns The fitness cases and their terminal columns.
+ * @param targets The expected output of each case, which must not be modified.
+ */
+public record FitnessCases<T>(TerminalColumns<T> columns, double[] targets) {
+    /**
+     * Create a set of fitness cases.
+     * @throws IllegalArgumentException if there isn't a target for every case.
+     */
+    public FitnessCases {
+        Preconditions.assertTrue(
+            columns.size() == targets.length, "Every case must have a target"
+        );
+    }
+
+    /**
+     * Compute the expected outputs of a list of fitness cases.
+     * @param cases The fitness cases.
+     * @param target The expected output of a case.
+     * @return The cases with their expected outputs.
+     * @param <T> The terminal type
+     */
+    public static <T> FitnessCases<T> of(
+            final List<T> cases,
+            final ToDoubleFunction<? super T> target
+    ) {
+        return new FitnessCases<>(
+            TerminalColumns.of(cases),
+            cases.stream().mapToDouble(target).toArray()
+        );
+    }
+
+    /**
+     * @return the fitness cases.
+     */
+    public List<T> cases() {
+        return columns.cases();
+    }
+
+    /**
+     * @return the number of fitness cases.
+     */
+    public int size() {
+        return targets.length;
+    }
+}
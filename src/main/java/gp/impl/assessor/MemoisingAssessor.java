@@ -0,0 +1,245 @@
+package gp.impl.assessor;
+
+import gp.Population;
+import gp.core.assessor.IndividualAssessor;
+import gp.core.fitness.Fitness;
+import gp.core.individual.AssessedIndividual;
+import gp.core.individual.Individual;
+import gp.impl.individual.SingleTreeIndividual;
+import utils.CachePolicy;
+import utils.ClockCache;
+import utils.random.RandomSource;
+import utils.random.SplittableRandomSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * An assessor that remembers the fitness of the individuals it's assessed,
+ *  across generations, so elites, copies and offspring that reproduce
+ *  a parent aren't evaluated again.
+ * Individuals are identified by a key whose equality is structural,
+ *  so two individuals with equal keys are assumed to have the same fitness.
+ * Each generation the individuals that aren't remembered, less duplicates,
+ *  are assessed together by the wrapped assessor's own `assess`, so any
+ *  work it does once per generation still happens.
+ * Fitness is only reusable while the fitness cases stay the same,
+ *  assessors that change their cases, like sampling new ones each
+ *  generation, must call {@link #invalidate()} when they do.
+ * @param <T> The terminal type
+ * @param <R> The return type
+ * @param <I> The individual type
+ * @param <F> The fitness type
+ */
+public final class MemoisingAssessor<
+        T, R,
+        I extends Individual<T, R>,
+        F extends Fitness<F>
+> implements IndividualAssessor<T, R, I, F> {
+    private final IndividualAssessor<T, R, I, F> assessor;
+    private final Function<? super I, ?> key;
+    private final ClockCache<Object, F> cache;
+    private volatile long savedLastGeneration;
+    private volatile long totalSaved;
+
+    private MemoisingAssessor(
+            final IndividualAssessor<T, R, I, F> assessor,
+            final Function<? super I, ?> key,
+            final CachePolicy policy
+    ) {
+        this.assessor = Objects.requireNonNull(assessor);
+        this.key = Objects.requireNonNull(key);
+        this.cache = ClockCache.of(policy);
+    }
+
+    /**
+     * Memoise an assessor, identifying individuals by a key.
+     * @param assessor The assessor to memoise.
+     * @param key The key of an individual, keys must be equal exactly when
+     *  the individuals have the same structure.
+     * @param policy How the cache of fitnesses is bounded.
+     * @return An assessor that only evaluates unseen individuals.
+     * @param <T> The terminal type
+     * @param <R> The return type
+     * @param <I> The individual type
+     * @param <F> The fitness type
+     */
+    public static <
+            T, R,
+            I extends Individual<T, R>,
+            F extends Fitness<F>
+    > MemoisingAssessor<T, R, I, F> of(
+            final IndividualAssessor<T, R, I, F> assessor,
+            final Function<? super I, ?> key,
+            final CachePolicy policy
+    ) {
+        return new MemoisingAssessor<>(assessor, key, policy);
+    }
+
+    /**
+     * Memoise an assessor of tree individuals,
+     *  identifying them by their canonical tree, which compares the
+     *  operators and extractors as well as the names of its nodes.
+     * @param assessor The assessor to memoise.
+     * @param capacity The maximum number of fitnesses to remember.
+     * @return An assessor that only evaluates unseen trees.
+     * @param <T> The terminal type
+     * @param <R> The return type
+     * @param <I> The individual type
+     * @param <F> The fitness type
+     * @throws IllegalArgumentException if the capacity isn't positive.
+     */
+    public static <
+            T, R,
+            I extends SingleTreeIndividual<T, R>,
+            F extends Fitness<F>
+    > MemoisingAssessor<T, R, I, F> ofTrees(
+            final IndividualAssessor<T, R, I, F> assessor,
+            final int capacity
+    ) {
+        return new MemoisingAssessor<>(
+                assessor, SingleTreeIndividual::tree, CachePolicy.bounded(capacity)
+        );
+    }
+
+    @Override
+    public F evaluate(final I individual) {
+        return this.evaluate(individual, assessor::evaluate);
+    }
+
+    @Override
+    public F evaluate(final I individual, final RandomSource random) {
+        return this.evaluate(individual, i -> assessor.evaluate(i, random));
+    }
+
+    private F evaluate(final I individual, final Function<I, F> evaluator) {
+        final Object individualKey = key.apply(individual);
+        final F cached = cache.get(individualKey);
+        if (cached != null) {
+            return cached;
+        }
+        final F fitness = evaluator.apply(individual);
+        cache.putIfAbsent(individualKey, fitness);
+        return fitness;
+    }
+
+    @Override
+    public Population<AssessedIndividual<T, R, I, F>> assess(
+            final Population<I> population
+    ) {
+        return this.assess(population, assessor::assess);
+    }
+
+    /**
+     * Assesses a population, the wrapped assessor assesses the misses
+     *  with the `i`th miss getting the `i`th fork of the source.
+     * @param population The population to assess
+     * @param random The source to fork each evaluation's source from
+     * @return The assessed population
+     */
+    @Override
+    public Population<AssessedIndividual<T, R, I, F>> assess(
+            final Population<I> population,
+            final SplittableRandomSource random
+    ) {
+        return this.assess(population, misses -> assessor.assess(misses, random));
+    }
+
+    private Population<AssessedIndividual<T, R, I, F>> assess(
+            final Population<I> population,
+            final Function<
+                    Population<I>, Population<AssessedIndividual<T, R, I, F>>
+            > evaluator
+    ) {
+        final List<I> individuals = population.individuals();
+        final List<Object> keys = new ArrayList<>(individuals.size());
+        final Map<Object, F> fitnesses = new LinkedHashMap<>();
+        final Map<Object, I> misses = new LinkedHashMap<>();
+        for (final I individual : individuals) {
+            final Object individualKey = key.apply(individual);
+            keys.add(individualKey);
+            if (!fitnesses.containsKey(individualKey)
+                    && !misses.containsKey(individualKey)) {
+                final F cached = cache.get(individualKey);
+                if (cached != null) {
+                    fitnesses.put(individualKey, cached);
+                } else {
+                    misses.put(individualKey, individual);
+                }
+            }
+        }
+        if (!misses.isEmpty()) {
+            final List<AssessedIndividual<T, R, I, F>> evaluated = evaluator.apply(
+                    Population.of(new ArrayList<>(misses.values()))
+            ).individuals();
+            int i = 0;
+            for (final Object missKey : misses.keySet()) {
+                final F fitness = evaluated.get(i++).fitness();
+                cache.putIfAbsent(missKey, fitness);
+                fitnesses.put(missKey, fitness);
+            }
+        }
+        final List<AssessedIndividual<T, R, I, F>> assessed =
+                new ArrayList<>(individuals.size());
+        for (int i = 0; i < individuals.size(); i++) {
+            assessed.add(AssessedIndividual.of(
+                    individuals.get(i), fitnesses.get(keys.get(i))
+            ));
+        }
+        final long generation = individuals.size() - misses.size();
+        this.savedLastGeneration = generation;
+        this.totalSaved += generation;
+        return Population.of(assessed);
+    }
+
+    /**
+     * Forget every remembered fitness,
+     *  call this whenever the fitness cases change.
+     */
+    public void invalidate() {
+        cache.clear();
+    }
+
+    /**
+     * Forget the fitness of one individual.
+     * @param individual The individual to forget.
+     */
+    public void invalidate(final I individual) {
+        cache.invalidate(key.apply(individual));
+    }
+
+    /**
+     * @return the number of evaluations skipped by the last call to `assess`.
+     */
+    public long savedLastGeneration() {
+        return savedLastGeneration;
+    }
+
+    /**
+     * @return the number of evaluations skipped by every call to `assess`.
+     */
+    public long totalSaved() {
+        return totalSaved;
+    }
+
+    /**
+     * @return the hits, misses and evictions of the fitness cache.
+     */
+    public ClockCache.Stats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public boolean shouldParallelize() {
+        return assessor.shouldParallelize();
+    }
+
+    @Override
+    public int batchSize() {
+        return assessor.batchSize();
+    }
+}
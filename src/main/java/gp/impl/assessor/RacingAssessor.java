@@ -0,0 +1,181 @@
+package gp.impl.assessor;
+
+import gp.Population;
+import gp.core.assessor.IndividualAssessor;
+import gp.core.fitness.Goal;
+import gp.core.fitness.SingleObjectiveFitness;
+import gp.core.individual.AssessedIndividual;
+import gp.impl.fitness.SingleObjectiveFit;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.tree.TerminalColumns;
+import utils.Preconditions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * An assessor of double valued trees that minimises the summed error over
+ *  a fixed dataset, and stops evaluating an individual once its error passes
+ *  a bound, since it can no longer be selected.
+ * Cases are evaluated in chunks and the bound is checked after each chunk,
+ *  it's picked by a {@link RacingBound} from the errors of the last
+ *  population assessed, so the first population is always evaluated fully.
+ * An individual that's stopped early is given an infinite error rather than
+ *  the error it had reached, which would flatter it, so it's ranked behind
+ *  every individual that was evaluated fully and selection never prefers it.
+ * @param <T> The terminal type
+ * @param <I> The individual type
+ */
+public final class RacingAssessor<T, I extends SingleTreeIndividual<T, Double>>
+        implements IndividualAssessor<T, Double, I, SingleObjectiveFitness> {
+    /** The default number of cases between checks of the bound. */
+    public static final int CHUNK_SIZE = 32;
+
+    private final List<TerminalColumns<T>> chunks;
+    private final double[] targets;
+    private final DoubleBinaryOperator error;
+    private final RacingBound racingBound;
+    private volatile double bound = Double.POSITIVE_INFINITY;
+    private final LongAdder casesEvaluated = new LongAdder();
+    private final LongAdder aborted = new LongAdder();
+    private volatile long casesLastGeneration;
+    private volatile long abortedLastGeneration;
+
+    private RacingAssessor(
+            final List<T> cases,
+            final ToDoubleFunction<? super T> target,
+            final DoubleBinaryOperator error,
+            final RacingBound racingBound,
+            final int chunkSize
+    ) {
+        Preconditions.assertTrue(chunkSize > 0, "Chunk size must be positive");
+        Preconditions.assertTrue(!cases.isEmpty(), "There must be a fitness case");
+        this.chunks = new ArrayList<>();
+        for (int start = 0; start < cases.size(); start += chunkSize) {
+            this.chunks.add(TerminalColumns.of(
+                    cases.subList(start, Math.min(start + chunkSize, cases.size()))
+            ));
+        }
+        this.targets = cases.stream().mapToDouble(target).toArray();
+        this.error = Objects.requireNonNull(error);
+        this.racingBound = Objects.requireNonNull(racingBound);
+    }
+
+    /**
+     * Create a racing assessor that sums the absolute error over a dataset.
+     * @param cases The dataset.
+     * @param target The expected output of a case.
+     * @param racingBound Picks the error past which evaluation stops.
+     * @return A racing assessor checking the bound every {@value CHUNK_SIZE} cases.
+     * @param <T> The terminal type
+     * @param <I> The individual type
+     * @throws IllegalArgumentException if there are no cases.
+     */
+    public static <T, I extends SingleTreeIndividual<T, Double>> RacingAssessor<T, I> of(
+            final List<T> cases,
+            final ToDoubleFunction<? super T> target,
+            final RacingBound racingBound
+    ) {
+        return of(
+                cases, target, (output, expected) -> Math.abs(output - expected),
+                racingBound, CHUNK_SIZE
+        );
+    }
+
+    /**
+     * Create a racing assessor that sums an error over a dataset.
+     * @param cases The dataset.
+     * @param target The expected output of a case.
+     * @param error The error of an output given the expected output,
+     *  which mustn't be negative.
+     * @param racingBound Picks the error past which evaluation stops.
+     * @param chunkSize The number of cases between checks of the bound.
+     * @return A racing assessor.
+     * @param <T> The terminal type
+     * @param <I> The individual type
+     * @throws IllegalArgumentException if there are no cases
+     *  or the chunk size isn't positive.
+     */
+    public static <T, I extends SingleTreeIndividual<T, Double>> RacingAssessor<T, I> of(
+            final List<T> cases,
+            final ToDoubleFunction<? super T> target,
+            final DoubleBinaryOperator error,
+            final RacingBound racingBound,
+            final int chunkSize
+    ) {
+        return new RacingAssessor<>(cases, target, error, racingBound, chunkSize);
+    }
+
+    @Override
+    public SingleObjectiveFitness evaluate(final I individual) {
+        final double limit = this.bound;
+        double sum = 0;
+        int offset = 0;
+        for (final TerminalColumns<T> chunk : chunks) {
+            final double[] outputs = individual.evaluateAllAsDouble(chunk);
+            for (int j = 0; j < outputs.length; j++) {
+                sum += error.applyAsDouble(outputs[j], targets[offset + j]);
+            }
+            offset += outputs.length;
+            if (sum > limit && offset < targets.length) {
+                aborted.increment();
+                casesEvaluated.add(offset);
+                return SingleObjectiveFit.of(Double.POSITIVE_INFINITY, Goal.MINIMIZE);
+            }
+        }
+        casesEvaluated.add(offset);
+        return SingleObjectiveFit.of(sum, Goal.MINIMIZE);
+    }
+
+    @Override
+    public Population<AssessedIndividual<T, Double, I, SingleObjectiveFitness>> assess(
+            final Population<I> population
+    ) {
+        casesEvaluated.reset();
+        aborted.reset();
+        final Population<AssessedIndividual<T, Double, I, SingleObjectiveFitness>>
+                assessed = IndividualAssessor.super.assess(population);
+        this.casesLastGeneration = casesEvaluated.sumThenReset();
+        this.abortedLastGeneration = aborted.sumThenReset();
+        if (assessed.size() > 0) {
+            final double[] errors = assessed.stream()
+                    .mapToDouble(i -> i.fitness().score())
+                    .sorted()
+                    .toArray();
+            this.bound = racingBound.bound(errors);
+        }
+        return assessed;
+    }
+
+    /**
+     * @return the error past which the next individuals stop being evaluated.
+     */
+    public double bound() {
+        return bound;
+    }
+
+    /**
+     * Forget the bound, so the next population is evaluated fully.
+     */
+    public void resetBound() {
+        this.bound = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @return the number of cases evaluated by the last call to `assess`.
+     */
+    public long casesLastGeneration() {
+        return casesLastGeneration;
+    }
+
+    /**
+     * @return the number of individuals stopped early by the last call to `assess`.
+     */
+    public long abortedLastGeneration() {
+        return abortedLastGeneration;
+    }
+}
@@ -0,0 +1,69 @@
+package gp.impl.assessor;
+
+import utils.Preconditions;
+
+/**
+ * Picks the error past which a {@link RacingAssessor} stops evaluating
+ *  an individual, from the errors of the last population it assessed.
+ */
+@FunctionalInterface
+public interface RacingBound {
+    /**
+     * Picks the bound on the error of the next population.
+     * @param errors The errors of the last population in ascending order,
+     *  never empty.
+     * @return The error past which evaluation stops.
+     */
+    double bound(double[] errors);
+
+    /**
+     * @return a bound that never stops evaluation early.
+     */
+    static RacingBound none() {
+        return errors -> Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Stop once an individual is worse than the worst elite.
+     * @param numElites The number of individuals kept as elites.
+     * @return A bound at the error of the `numElites`th best individual.
+     * @throws IllegalArgumentException if the number of elites isn't positive.
+     */
+    static RacingBound elite(final int numElites) {
+        Preconditions.assertTrue(numElites > 0, "Number of elites must be positive");
+        return errors -> errors[Math.min(numElites, errors.length) - 1];
+    }
+
+    /**
+     * Stop once an individual is worse than a quantile of the last population.
+     * @param quantile The quantile, between 0 and 1.
+     * @return A bound at the quantile of the last population's errors.
+     * @throws IllegalArgumentException if the quantile isn't between 0 and 1.
+     */
+    static RacingBound quantile(final double quantile) {
+        Preconditions.assertTrue(
+            quantile >= 0 && quantile <= 1, "Quantile must be between 0 and 1"
+        );
+        return errors -> errors[(int) Math.floor(quantile * (errors.length - 1))];
+    }
+
+    /**
+     * Stop once an individual is unlikely to win a tournament.
+     * An individual that's worse than a fraction `p` of the population wins
+     *  a tournament with probability at most `(1 - p)^(size - 1)`,
+     *  the bound is the quantile where that falls below `probability`.
+     * @param size The tournament size.
+     * @param probability The probability of winning a tournament below which
+     *  an individual isn't worth evaluating fully.
+     * @return A bound derived from the tournament size.
+     * @throws IllegalArgumentException if the size is less than 2
+     *  or the probability isn't between 0 and 1.
+     */
+    static RacingBound tournament(final int size, final double probability) {
+        Preconditions.assertTrue(size >= 2, "Tournament size must be at least 2");
+        Preconditions.assertTrue(
+            probability > 0 && probability < 1, "Probability must be between 0 and 1"
+        );
+        return quantile(1 - Math.pow(probability, 1.0 / (size - 1)));
+    }
+}
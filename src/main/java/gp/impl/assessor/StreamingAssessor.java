@@ -0,0 +1,166 @@
+package gp.impl.assessor;
+
+import gp.Population;
+import gp.core.assessor.Assessor;
+import gp.core.fitness.Fitness;
+import gp.core.individual.AssessedIndividual;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.tree.TerminalColumns;
+import utils.ColumnarDataSet;
+import utils.ColumnarFile;
+import utils.Preconditions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * An assessor of double valued trees against a binary dataset on disk
+ *  that's too big to hold in memory.
+ * The file is read a chunk of rows at a time and the whole population is
+ *  evaluated on a chunk before the next, summing each individual's error,
+ *  so each chunk is read once per generation rather than once per
+ *  individual, and at most two chunks are in memory at once.
+ * The next chunk is read on a background thread while the population is
+ *  evaluated in parallel on the current one, so reading overlaps evaluation.
+ * The file is read by the assessor but not owned by it, so it's left open.
+ * @param <I> The individual type
+ * @param <F> The fitness type
+ */
+public final class StreamingAssessor<
+        I extends SingleTreeIndividual<ColumnarDataSet.Row, Double>,
+        F extends Fitness<F>
+> implements Assessor<ColumnarDataSet.Row, Double, I, F> {
+    /** The default number of rows in a chunk. */
+    public static final int CHUNK_SIZE = 1 << 16;
+
+    private final ColumnarFile file;
+    private final DoubleBinaryOperator error;
+    private final DoubleFunction<F> fitness;
+    private final int chunkSize;
+
+    private StreamingAssessor(
+            final ColumnarFile file,
+            final DoubleBinaryOperator error,
+            final DoubleFunction<F> fitness,
+            final int chunkSize
+    ) {
+        Preconditions.assertTrue(chunkSize > 0, "Chunk size must be positive");
+        Preconditions.assertTrue(file.size() > 0, "There must be a fitness case");
+        this.file = Objects.requireNonNull(file);
+        this.error = Objects.requireNonNull(error);
+        this.fitness = Objects.requireNonNull(fitness);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Create a streaming assessor that sums the absolute error over a file.
+     * @param file The dataset, the target column is the expected output.
+     * @param fitness The fitness of an individual's summed error.
+     * @return A streaming assessor reading {@value CHUNK_SIZE} rows at a time.
+     * @param <I> The individual type
+     * @param <F> The fitness type
+     * @throws IllegalArgumentException if the file has no rows.
+     */
+    public static <
+            I extends SingleTreeIndividual<ColumnarDataSet.Row, Double>,
+            F extends Fitness<F>
+    > StreamingAssessor<I, F> of(
+            final ColumnarFile file,
+            final DoubleFunction<F> fitness
+    ) {
+        return new StreamingAssessor<>(
+                file, (output, expected) -> Math.abs(output - expected),
+                fitness, CHUNK_SIZE
+        );
+    }
+
+    /**
+     * @param newError The error of an output given the expected output.
+     * @return this assessor with a different error function.
+     */
+    public StreamingAssessor<I, F> withError(final DoubleBinaryOperator newError) {
+        return new StreamingAssessor<>(file, newError, fitness, chunkSize);
+    }
+
+    /**
+     * @param rows The number of rows to read at a time.
+     * @return this assessor with a different chunk size.
+     * @throws IllegalArgumentException if the chunk size isn't positive.
+     */
+    public StreamingAssessor<I, F> withChunkSize(final int rows) {
+        return new StreamingAssessor<>(file, error, fitness, rows);
+    }
+
+    @Override
+    public Population<AssessedIndividual<ColumnarDataSet.Row, Double, I, F>> assess(
+            final Population<I> population
+    ) {
+        final List<I> individuals = population.individuals();
+        final double[] totals = new double[individuals.size()];
+        try (ExecutorService prefetcher = Executors.newSingleThreadExecutor()) {
+            Future<ColumnarDataSet> next = prefetcher.submit(() -> this.read(0));
+            for (int start = 0; start < file.size(); start += chunkSize) {
+                final ColumnarDataSet chunk = next.get();
+                final int following = start + chunkSize;
+                if (following < file.size()) {
+                    next = prefetcher.submit(() -> this.read(following));
+                }
+                this.accumulate(individuals, chunk, totals);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted reading fitness cases", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        final List<AssessedIndividual<ColumnarDataSet.Row, Double, I, F>> assessed =
+                new ArrayList<>(individuals.size());
+        for (int i = 0; i < totals.length; i++) {
+            assessed.add(AssessedIndividual.of(
+                    individuals.get(i), fitness.apply(totals[i])
+            ));
+        }
+        return Population.of(assessed);
+    }
+
+    private ColumnarDataSet read(final int start) throws IOException {
+        return file.read(start, Math.min(start + chunkSize, file.size()));
+    }
+
+    /**
+     * Add every individual's error on a chunk to its total.
+     * @param individuals The individuals to evaluate.
+     * @param chunk The rows to evaluate them on.
+     * @param totals The summed error of each individual.
+     */
+    private void accumulate(
+            final List<I> individuals,
+            final ColumnarDataSet chunk,
+            final double[] totals
+    ) {
+        final TerminalColumns<ColumnarDataSet.Row> columns =
+                TerminalColumns.of(chunk.rows());
+        final double[] targets = chunk.target().toArray();
+        IntStream.range(0, individuals.size()).parallel().forEach(i -> {
+            final double[] outputs = individuals.get(i).evaluateAllAsDouble(columns);
+            double sum = 0;
+            for (int j = 0; j < outputs.length; j++) {
+                sum += error.applyAsDouble(outputs[j], targets[j]);
+            }
+            totals[i] += sum;
+        });
+    }
+}
@@ -0,0 +1,178 @@
+package gp.impl.assessor;
+
+import gp.Population;
+import gp.core.assessor.BatchAssessor;
+import gp.core.fitness.Fitness;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.tree.TerminalColumns;
+import utils.Preconditions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * A batch assessor of double valued trees that splits the error matrix into
+ *  tiles of individuals × cases and assesses the tiles in parallel.
+ * The dataset is split into blocks of cases, each with its own
+ *  {@link TerminalColumns}, so terminals are extracted once per case for
+ *  the whole population and a block's columns stay in cache while every
+ *  individual in a tile is evaluated on it.
+ * The blocks and targets of the last dataset assessed are kept,
+ *  so assessing against the same list again doesn't recompute them.
+ * @param <T> The terminal type
+ * @param <I> The individual type
+ * @param <F> The fitness type
+ */
+public final class TiledAssessor<
+        T,
+        I extends SingleTreeIndividual<T, Double>,
+        F extends Fitness<F>
+> implements BatchAssessor<T, Double, I, F> {
+    /** The default number of individuals in a tile. */
+    public static final int INDIVIDUAL_TILE = 16;
+    /** The default number of cases in a tile. */
+    public static final int CASE_TILE = 256;
+
+    private final List<T> cases;
+    private final ToDoubleFunction<? super T> target;
+    private final DoubleBinaryOperator error;
+    private final Function<double[], F> fitness;
+    private final int individualTile;
+    private final int caseTile;
+    private volatile Tiles<T> tiles;
+
+    private TiledAssessor(
+            final List<T> cases,
+            final ToDoubleFunction<? super T> target,
+            final DoubleBinaryOperator error,
+            final Function<double[], F> fitness,
+            final int individualTile,
+            final int caseTile
+    ) {
+        Preconditions.assertTrue(individualTile > 0, "Tile size must be positive");
+        Preconditions.assertTrue(caseTile > 0, "Tile size must be positive");
+        this.cases = List.copyOf(cases);
+        this.target = Objects.requireNonNull(target);
+        this.error = Objects.requireNonNull(error);
+        this.fitness = Objects.requireNonNull(fitness);
+        this.individualTile = individualTile;
+        this.caseTile = caseTile;
+    }
+
+    /**
+     * Create a tiled assessor that scores outputs by their absolute error.
+     * @param cases The dataset.
+     * @param target The expected output of a case.
+     * @param fitness The fitness of an individual's row of errors.
+     * @return A tiled assessor with the default tile sizes.
+     * @param <T> The terminal type
+     * @param <I> The individual type
+     * @param <F> The fitness type
+     */
+    public static <
+            T,
+            I extends SingleTreeIndividual<T, Double>,
+            F extends Fitness<F>
+    > TiledAssessor<T, I, F> of(
+            final List<T> cases,
+            final ToDoubleFunction<? super T> target,
+            final Function<double[], F> fitness
+    ) {
+        return new TiledAssessor<>(
+                cases, target, (output, expected) -> Math.abs(output - expected),
+                fitness, INDIVIDUAL_TILE, CASE_TILE
+        );
+    }
+
+    /**
+     * @param error The error of an output given the expected output.
+     * @return this assessor with a different error function.
+     */
+    public TiledAssessor<T, I, F> withError(final DoubleBinaryOperator error) {
+        return new TiledAssessor<>(
+                cases, target, error, fitness, individualTile, caseTile
+        );
+    }
+
+    /**
+     * @param individuals The number of individuals in a tile.
+     * @param numCases The number of cases in a tile.
+     * @return this assessor with different tile sizes.
+     * @throws IllegalArgumentException if either size isn't positive.
+     */
+    public TiledAssessor<T, I, F> withTiles(final int individuals, final int numCases) {
+        return new TiledAssessor<>(
+                cases, target, error, fitness, individuals, numCases
+        );
+    }
+
+    @Override
+    public List<T> cases() {
+        return cases;
+    }
+
+    @Override
+    public F fitness(final double[] errors) {
+        return fitness.apply(errors);
+    }
+
+    @Override
+    public double[][] errors(final Population<I> population, final List<T> dataset) {
+        final Tiles<T> blocks = this.tiles(dataset);
+        final List<I> individuals = population.individuals();
+        final double[][] errors = new double[individuals.size()][blocks.targets.length];
+        final int individualTiles = Math.ceilDiv(individuals.size(), individualTile);
+        final int numTiles = individualTiles * blocks.columns.size();
+        IntStream.range(0, numTiles).parallel().forEach(tile -> {
+            final int first = (tile % individualTiles) * individualTile;
+            final int last = Math.min(first + individualTile, individuals.size());
+            final int block = tile / individualTiles;
+            final TerminalColumns<T> columns = blocks.columns.get(block);
+            final int offset = block * caseTile;
+            for (int i = first; i < last; i++) {
+                final double[] outputs = individuals.get(i).evaluateAllAsDouble(columns);
+                for (int j = 0; j < outputs.length; j++) {
+                    errors[i][offset + j] = error.applyAsDouble(
+                            outputs[j], blocks.targets[offset + j]
+                    );
+                }
+            }
+        });
+        return errors;
+    }
+
+    private Tiles<T> tiles(final List<T> dataset) {
+        final Tiles<T> current = this.tiles;
+        if (current != null && current.cases == dataset) {
+            return current;
+        }
+        final List<TerminalColumns<T>> columns = new ArrayList<>();
+        for (int start = 0; start < dataset.size(); start += caseTile) {
+            columns.add(TerminalColumns.of(
+                    dataset.subList(start, Math.min(start + caseTile, dataset.size()))
+            ));
+        }
+        final double[] targets = dataset.stream().mapToDouble(target).toArray();
+        final Tiles<T> created = new Tiles<>(dataset, columns, targets);
+        this.tiles = created;
+        return created;
+    }
+
+    /**
+     * A dataset split into blocks of cases.
+     * @param cases The dataset.
+     * @param columns The terminal columns of each block.
+     * @param targets The expected output of every case.
+     * @param <T> The terminal type
+     */
+    private record Tiles<T>(
+            List<T> cases,
+            List<TerminalColumns<T>> columns,
+            double[] targets
+    ) { }
+}
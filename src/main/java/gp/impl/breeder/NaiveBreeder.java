@@ -7,9 +7,12 @@ import gp.core.fitness.Fitness;
 import gp.core.individual.AssessedIndividual;
 import gp.core.individual.Individual;
 import gp.impl.selectors.Elitism;
+import utils.Parallelizeable;
 import utils.Preconditions;
 import utils.operators.Operator;
 import gp.core.selector.Sampler;
+import utils.random.RandomSource;
+import utils.random.SplittableRandomSource;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,6 +21,9 @@ import java.util.List;
 /**
  * A breeder that samples operators from a distribution and applies
  * them to individuals selected from the population.
+ * Given a splittable source, each application of an operator, a brood,
+ *  draws from its own fork of the source and broods are bred in parallel,
+ *  so the next generation is the same however many threads breed it.
  * @param distribution A distribution over operators to sample from.
  * @param newPopulationSize The desired size of the next generation.
  * @param selectionMechanism The method to select individuals from the
@@ -35,7 +41,7 @@ public record NaiveBreeder<
         int newPopulationSize,
         SimpleSelectionMechanism<AssessedIndividual<T, R, I, F>> selectionMechanism,
         Elitism<T, R, I, F> elitism
-) implements Breeder<AssessedIndividual<T, R, I, F>, I> {
+) implements Breeder<AssessedIndividual<T, R, I, F>, I>, Parallelizeable {
     /**
      * Compact constructor to validate parameters.
      *
@@ -83,6 +89,59 @@ public record NaiveBreeder<
         );
     }
 
+    /**
+     * Breeds the next generation in parallel, the `j`th brood of the
+     *  `k`th round draws its operator, parents and any randomness the
+     *  operator needs from `random.forkAt(k, j)`.
+     * @param population The parent population
+     * @param random The source to fork each brood's source from
+     * @return The child population
+     */
+    public Population<I> breed(
+            final Population<AssessedIndividual<T, R, I, F>> population,
+            final SplittableRandomSource random
+    ) {
+        final List<AssessedIndividual<T, R, I, F>> parents = population.individuals();
+        List<I> nextGeneration = new ArrayList<>(this.newPopulationSize);
+
+        addElites(nextGeneration, population);
+
+        long round = 0;
+        while (nextGeneration.size() < this.newPopulationSize) {
+            // Most operators produce one or two children, so this rarely overshoots
+            final int broods = Math.max(
+                    1, (this.newPopulationSize - nextGeneration.size()) / 2
+            );
+            this.generateN(
+                    source -> this.brood(parents, source), broods, random.fork(round++)
+            ).forEachOrdered(nextGeneration::addAll);
+        }
+
+        if (nextGeneration.size() > this.newPopulationSize) {
+            nextGeneration = nextGeneration.subList(0, this.newPopulationSize);
+        }
+
+        return Population.of(
+                nextGeneration
+        );
+    }
+
+    private List<I> brood(
+            final List<AssessedIndividual<T, R, I, F>> parents,
+            final RandomSource random
+    ) {
+        return this.distribution.sample(random).sampleFrom(
+                selectionMechanism.selectorFrom(parents, random),
+                AssessedIndividual::individual,
+                random
+        );
+    }
+
+    @Override
+    public boolean shouldParallelize() {
+        return true;
+    }
+
     private void addElites(
             List<I> nextGeneration,
             Population<AssessedIndividual<T, R, I, F>> population
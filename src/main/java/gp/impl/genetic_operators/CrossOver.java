@@ -33,6 +33,14 @@ public record CrossOver<T, Out>(RandomSource random) implements BinaryOperator<
         );
     }
 
+    @Override
+    public List<ImmutableNode<T, ?, Out, ?, ?>> produce(
+        final List<Node<T, ?, Out, ?, ?>> parents,
+        final RandomSource source
+    ) {
+        return new CrossOver<T, Out>(source).produce(parents);
+    }
+
     @SuppressWarnings("unchecked")
     private <R> List<ImmutableNode<T, ?, Out, ?, ?>> helper(
         final MutableNode<T, ?, Out, ?, ?> parent1,
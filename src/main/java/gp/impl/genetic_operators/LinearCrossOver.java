@@ -0,0 +1,59 @@
+package gp.impl.genetic_operators;
+
+import gp.impl.individual.linear.LinearTreeIndividual;
+import utils.operators.BinaryOperator;
+import utils.random.RandomSource;
+
+import java.util.List;
+
+/**
+ * Subtree crossover on linear individuals, see {@link CrossOver}.
+ * A crossover point is sampled in the first parent, then one in the second
+ *  parent whose subtree can be swapped with it in both directions.
+ * Both offspring are two {@link System#arraycopy} splices of the parents.
+ * If the second parent has no compatible subtree the parents are returned.
+ * @param random The source of randomness, used to sample the crossover points.
+ * @param <T> The terminal type
+ * @param <Out> The return type of the input and output individuals
+ */
+public record LinearCrossOver<T, Out>(RandomSource random) implements BinaryOperator<
+    LinearTreeIndividual<T, Out>,
+    List<LinearTreeIndividual<T, Out>>
+> {
+    @Override
+    public List<LinearTreeIndividual<T, Out>> produce(
+        final LinearTreeIndividual<T, Out> parent1,
+        final LinearTreeIndividual<T, Out> parent2
+    ) {
+        final int point1 = random.nextInt(0, parent1.length());
+        final Class<?> slot1 = parent1.slotType(point1);
+        final Class<?> type1 = parent1.returnType(point1);
+
+        final Class<?>[] slots2 = parent2.slotTypes();
+        final int[] candidates = new int[parent2.length()];
+        int numCandidates = 0;
+        for (int i = 0; i < parent2.length(); i++) {
+            if (slot1.isAssignableFrom(parent2.returnType(i))
+                && slots2[i].isAssignableFrom(type1)) {
+                candidates[numCandidates++] = i;
+            }
+        }
+        if (numCandidates == 0) {
+            return List.of(parent1, parent2);
+        }
+        final int point2 = candidates[random.nextInt(0, numCandidates)];
+
+        return List.of(
+            parent1.replace(point1, parent2, point2),
+            parent2.replace(point2, parent1, point1)
+        );
+    }
+
+    @Override
+    public List<LinearTreeIndividual<T, Out>> produce(
+        final List<LinearTreeIndividual<T, Out>> parents,
+        final RandomSource source
+    ) {
+        return new LinearCrossOver<T, Out>(source).produce(parents);
+    }
+}
@@ -0,0 +1,58 @@
+package gp.impl.genetic_operators;
+
+import gp.core.initializer.PrimitiveSet;
+import gp.impl.individual.linear.LinearTreeIndividual;
+import gp.impl.individual.tree.ImmutableNode;
+import gp.impl.initializers.NodeInitialiser;
+import utils.operators.UnaryOperator;
+import utils.random.RandomSource;
+
+import java.util.List;
+
+/**
+ * Subtree mutation on linear individuals, see {@link SubtreeMutation}.
+ * A random subtree is replaced with a newly grown one, which is flattened
+ *  with the parent's opcode table and spliced in with {@link System#arraycopy}.
+ *
+ * @param <T> The terminal input type
+ * @param <Out> The output type
+ * @param random The random number generator
+ * @param primitiveSet The set of terminals and non-terminals.
+ * @param depthLimit Maximum depth of the mutated individual
+ * @param attemptLimit Maximum attempts to generate a valid subtree
+ */
+public record LinearSubtreeMutation<T, Out>(
+    RandomSource random,
+    PrimitiveSet<T> primitiveSet,
+    int depthLimit,
+    int attemptLimit
+) implements UnaryOperator<
+    LinearTreeIndividual<T, Out>,
+    List<LinearTreeIndividual<T, Out>>
+> {
+    @Override
+    public List<LinearTreeIndividual<T, Out>> produce(
+        final LinearTreeIndividual<T, Out> parent
+    ) {
+        final int point = random.nextInt(0, parent.length());
+        final int maxDepth = Math.max(0, depthLimit - parent.level(point));
+        final ImmutableNode<T, ?, ?, ?, ?> subTree = NodeInitialiser.grow(
+            random, primitiveSet, 1,
+            attemptLimit, maxDepth, parent.slotType(point)
+        ).createIndividual();
+
+        return List.of(parent.replace(
+            point, LinearTreeIndividual.of(subTree, parent.table()), 0
+        ));
+    }
+
+    @Override
+    public List<LinearTreeIndividual<T, Out>> produce(
+        final List<LinearTreeIndividual<T, Out>> parents,
+        final RandomSource source
+    ) {
+        return new LinearSubtreeMutation<T, Out>(
+            source, primitiveSet, depthLimit, attemptLimit
+        ).produce(parents);
+    }
+}
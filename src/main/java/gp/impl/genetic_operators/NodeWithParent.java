@@ -2,10 +2,12 @@ package gp.impl.genetic_operators;
 
 import gp.impl.individual.tree.MutableNode;
 import gp.impl.individual.tree.MutableNonTerminal;
+import gp.impl.individual.tree.TreeCursor;
 
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -23,36 +25,29 @@ public record NodeWithParent<T, Out>(
         OptionalInt childIndex,
         Optional<MutableNonTerminal<T, Out, ?>> parent
 ) {
+    /**
+     * List every node of a tree in preorder along with its parent.
+     * The tree is walked with a {@link TreeCursor}, so this is linear in
+     *  the size of the tree and doesn't recurse.
+     * @param node The root of the tree.
+     * @return The root followed by every node below it.
+     * @param <T> The terminal type
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
     static <T> List<NodeWithParent<T, ?>> collect(MutableNode<T, ?, ?, ?, ?> node) {
-        List<NodeWithParent<T, ?>> result = new ArrayList<>();
-
-        result.add(new NodeWithParent<>(
-                node,  OptionalInt.empty(), Optional.empty()
-        ));
-        collectHelper(node, result);
-        return List.copyOf(result);
-    }
-
-    @SuppressWarnings("unchecked")
-    static <T, I> void collectHelper(
-            MutableNode<T, ?, ?, ?, ?> node, List<NodeWithParent<T, ?>> result
-    ) {
-        if (node instanceof MutableNonTerminal<?, ?, ?> nonTerminal) {
-            MutableNonTerminal<T, I, ?> actualNonTerminal =
-                    (MutableNonTerminal<T, I, ?>) nonTerminal;
-
-            int i = 0;
-            for (MutableNode<T, ?, I, ?, ?> child : actualNonTerminal.children()) {
-                result.add(new NodeWithParent<>(
-                        child,
-                        OptionalInt.of(i),
-                        Optional.of(actualNonTerminal)
-                ));
-
-                i += 1;
-                collectHelper(child, result);
-            }
+        final List<NodeWithParent<T, ?>> result = new ArrayList<>();
+        final TreeCursor<T> cursor = TreeCursor.of(node);
+        while (cursor.advance()) {
+            final MutableNonTerminal parent = (MutableNonTerminal) cursor.parent();
+            result.add(new NodeWithParent<>(
+                    (MutableNode<T, ?, ?, ?, ?>) cursor.node(),
+                    parent == null
+                        ? OptionalInt.empty()
+                        : OptionalInt.of(cursor.childIndex()),
+                    Optional.ofNullable(parent)
+            ));
         }
+        return Collections.unmodifiableList(result);
     }
 
     boolean isRoot() {
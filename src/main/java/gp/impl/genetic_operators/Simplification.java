@@ -0,0 +1,59 @@
+package gp.impl.genetic_operators;
+
+import gp.impl.individual.tree.ImmutableNode;
+import gp.impl.individual.tree.Node;
+import gp.impl.individual.tree.Simplifier;
+import utils.operators.Operator;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Simplifies the offspring of another genetic operator,
+ *  see {@link Simplifier}.
+ * Note: simplification removes introns, which also removes material
+ *  crossover could otherwise have used, so it's best applied sparingly,
+ *  e.g. only to the individuals that are evaluated.
+ * @param <T> The terminal input type
+ * @param <Out> The output type
+ * @param simplifier The simplifier to apply to each offspring.
+ */
+public record Simplification<T, Out>(Simplifier simplifier) implements Function<
+    List<ImmutableNode<T, ?, Out, ?, ?>>,
+    List<ImmutableNode<T, ?, Out, ?, ?>>
+> {
+    /**
+     * Simplify every offspring.
+     * @param offspring The offspring to simplify.
+     * @return The simplified offspring, in the same order.
+     */
+    @Override
+    public List<ImmutableNode<T, ?, Out, ?, ?>> apply(
+        final List<ImmutableNode<T, ?, Out, ?, ?>> offspring
+    ) {
+        return offspring.stream()
+            .<ImmutableNode<T, ?, Out, ?, ?>>map(simplifier::simplify)
+            .toList();
+    }
+
+    /**
+     * Wrap a node operator so that its offspring are simplified.
+     * @param operator The operator producing offspring.
+     * @param simplifier The simplifier to apply to each offspring.
+     * @return An operator producing simplified offspring.
+     * @param <T> The terminal input type
+     * @param <Out> The output type
+     */
+    public static <T, Out> Operator<
+        Node<T, ?, Out, ?, ?>,
+        List<ImmutableNode<T, ?, Out, ?, ?>>
+    > after(
+        final Operator<
+            Node<T, ?, Out, ?, ?>,
+            List<ImmutableNode<T, ?, Out, ?, ?>>
+        > operator,
+        final Simplifier simplifier
+    ) {
+        return operator.wrap(new Simplification<>(simplifier));
+    }
+}
@@ -77,6 +77,16 @@ public record SubtreeMutation<T, Out>(
         return List.of(node);
     }
 
+    @Override
+    public List<ImmutableNode<T, ?, Out, ?, ?>> produce(
+        final List<Node<T, ?, Out, ?, ?>> parents,
+        final RandomSource source
+    ) {
+        return new SubtreeMutation<T, Out>(
+            source, primitiveSet, depthLimit, attemptLimit
+        ).produce(parents);
+    }
+
     // Another type erasure L
     @SuppressWarnings({"unchecked", "rawtypes"})
     private ImmutableNode<T, ?, Out, ?, ?> mutateSubTree(
@@ -46,6 +46,11 @@ public class FullyTypedOneSwapOneCrossover<
         ));
     }
 
+    @Override
+    public List<I> produce(final List<I> parents, final RandomSource random) {
+        return new FullyTypedOneSwapOneCrossover<T, R, Tail, I>(random).produce(parents);
+    }
+
     private MultiTree<T, R, Tail, ?> listToMultiTree(
         final List<SingleTreeIndividual<?, ?>> trees
     ) {
@@ -54,6 +54,11 @@ public class OneSwapOneCrossover<I extends MultiTreeIndividual<I>>
         ));
     }
 
+    @Override
+    public List<I> produce(final List<I> parents, final RandomSource random) {
+        return new OneSwapOneCrossover<I>(random).produce(parents);
+    }
+
     /**
      * Perform the one-swap, one-crossover operation on the two parents.
      * This method is static so that it can be used in other contexts.
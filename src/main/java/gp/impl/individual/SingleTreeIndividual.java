@@ -1,9 +1,12 @@
 package gp.impl.individual;
 
 import gp.core.individual.Individual;
+import gp.impl.individual.tree.EvalContext;
 import gp.impl.individual.tree.ImmutableNode;
 import gp.impl.individual.tree.Node;
+import gp.impl.individual.tree.TerminalColumns;
 import utils.operators.Operator;
+import utils.random.RandomSource;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,7 +29,12 @@ record SingleTreeIndividualImpl<T, Out>(
 
     @Override
     public Out evaluate(final T terminals) {
-        return this.tree.evaluate(terminals);
+        return this.tree.compile().evaluate(terminals);
+    }
+
+    @Override
+    public double evaluateAsDouble(final T terminals) {
+        return this.tree.compile().evaluateAsDouble(terminals);
     }
 }
 
@@ -56,9 +64,88 @@ public interface SingleTreeIndividual<T, Out> extends Individual<T, Out> {
      */
     ImmutableNode<T, ?, Out, ?, ?> tree();
 
+    /**
+     * Get the structural fingerprint of this individual's tree,
+     *  see {@link ImmutableNode#fingerprint()}.
+     * @return The fingerprint of the inner node.
+     */
+    default long fingerprint() {
+        return this.tree().fingerprint();
+    }
+
     @Override
     default Out evaluate(final T terminals) {
-        return this.tree().evaluate(terminals);
+        return this.tree().compile().evaluate(terminals);
+    }
+
+    /**
+     * Evaluate this individual as a primitive double,
+     *  avoiding boxing when the tree is double specialised.
+     * @param terminals The terminals to evaluate on.
+     * @return The output of the individual.
+     * @throws ClassCastException if the output is not a Number.
+     */
+    default double evaluateAsDouble(final T terminals) {
+        return this.tree().compile().evaluateAsDouble(terminals);
+    }
+
+    /**
+     * Evaluate this individual, borrowing scratch space from the given context
+     *  so evaluation loops don't allocate per node.
+     * @param terminals The terminals to evaluate on.
+     * @param context The context to borrow scratch space from.
+     * @return The output of the individual.
+     */
+    default Out evaluate(final T terminals, final EvalContext context) {
+        return this.tree().compile().evaluate(terminals, context);
+    }
+
+    /**
+     * Evaluate this individual as a primitive double,
+     *  borrowing scratch space from the given context.
+     * @param terminals The terminals to evaluate on.
+     * @param context The context to borrow scratch space from.
+     * @return The output of the individual.
+     * @throws ClassCastException if the output is not a Number.
+     */
+    default double evaluateAsDouble(final T terminals, final EvalContext context) {
+        return this.tree().compile().evaluateAsDouble(terminals, context);
+    }
+
+    /**
+     * Evaluate this individual on every fitness case a node at a time,
+     *  see {@link gp.impl.individual.tree.PostfixProgram#evaluateAll}.
+     * @param terminals The List of terminals to evaluate on.
+     * @return An output list where the `i`th element of the output corresponds
+     *  to the `i`th element in terminals
+     */
+    @Override
+    default List<Out> evaluateAll(final List<T> terminals) {
+        return this.tree().compile().evaluateAll(terminals);
+    }
+
+    /**
+     * Evaluate this individual on every fitness case as primitive doubles,
+     *  avoiding boxing when the tree is double specialised.
+     * @param terminals The List of terminals to evaluate on.
+     * @return An output array where the `i`th element of the output corresponds
+     *  to the `i`th element in terminals
+     * @throws ClassCastException if the output is not a Number.
+     */
+    default double[] evaluateAllAsDouble(final List<T> terminals) {
+        return this.tree().compile().evaluateAllAsDouble(terminals);
+    }
+
+    /**
+     * Evaluate this individual on every fitness case of a dataset as primitive
+     *  doubles, reading terminals from their precomputed columns.
+     * @param columns The fitness cases and their terminal columns.
+     * @return An output array where the `i`th element of the output corresponds
+     *  to the `i`th fitness case
+     * @throws ClassCastException if the output is not a Number.
+     */
+    default double[] evaluateAllAsDouble(final TerminalColumns<T> columns) {
+        return this.tree().compile().evaluateAllAsDouble(columns);
     }
 
     /**
@@ -83,16 +170,33 @@ public interface SingleTreeIndividual<T, Out> extends Individual<T, Out> {
             @Override
             public List<SingleTreeIndividual<T, Out>> produce(
                     final List<SingleTreeIndividual<T, Out>> parents
+            ) {
+                return nodeOperator.produce(trees(parents))
+                    .stream()
+                    .map(SingleTreeIndividual::of)
+                    .toList();
+            }
+
+            @Override
+            public List<SingleTreeIndividual<T, Out>> produce(
+                    final List<SingleTreeIndividual<T, Out>> parents,
+                    final RandomSource random
+            ) {
+                return nodeOperator.produce(trees(parents), random)
+                    .stream()
+                    .map(SingleTreeIndividual::of)
+                    .toList();
+            }
+
+            private List<Node<T, ?, Out, ?, ?>> trees(
+                    final List<SingleTreeIndividual<T, Out>> parents
             ) {
                 final List<Node<T, ?, Out, ?, ?>> trees
                     = new ArrayList<>(parents.size());
                 for (final SingleTreeIndividual<T, Out> parent : parents) {
                     trees.add(parent.tree());
                 }
-                return nodeOperator.produce(trees)
-                    .stream()
-                    .map(SingleTreeIndividual::of)
-                    .toList();
+                return trees;
             }
 
             @Override
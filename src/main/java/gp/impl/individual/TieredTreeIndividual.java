@@ -0,0 +1,242 @@
+package gp.impl.individual;
+
+import gp.Population;
+import gp.impl.individual.tree.BytecodeCompiler;
+import gp.impl.individual.tree.CompiledTree;
+import gp.impl.individual.tree.EvalContext;
+import gp.impl.individual.tree.ImmutableNode;
+import gp.impl.individual.tree.Simplifier;
+import gp.impl.individual.tree.TerminalColumns;
+import utils.Preconditions;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * A single tree individual that starts out evaluating its postfix program
+ *  and is promoted to generated bytecode once it has been evaluated on
+ *  `compileThreshold` fitness cases.
+ * Individuals that survive selection unchanged (elites, identity offspring)
+ *  keep their evaluation count between generations,
+ *  so it's the long-lived individuals that end up being compiled.
+ * A tiered individual may evaluate a simplified copy of its tree (the phenotype),
+ *  while breeding keeps operating on the unsimplified tree (the genotype).
+ * @param <T> The terminal type
+ * @param <Out> The output type
+ */
+public final class TieredTreeIndividual<T, Out> implements SingleTreeIndividual<T, Out> {
+    private final ImmutableNode<T, ?, Out, ?, ?> tree;
+    private final ImmutableNode<T, ?, Out, ?, ?> phenotype;
+    private final int compileThreshold;
+    private final AtomicInteger evaluations = new AtomicInteger();
+    private volatile CompiledTree<T, Out> compiled;
+
+    private TieredTreeIndividual(
+        final ImmutableNode<T, ?, Out, ?, ?> tree,
+        final ImmutableNode<T, ?, Out, ?, ?> phenotype,
+        final int compileThreshold
+    ) {
+        this.tree = Objects.requireNonNull(tree);
+        this.phenotype = Objects.requireNonNull(phenotype);
+        this.compileThreshold = compileThreshold;
+    }
+
+    /**
+     * Create a tiered individual.
+     * @param tree The tree this individual wraps.
+     * @param compileThreshold The number of evaluations before the tree
+     *  is compiled to bytecode.
+     * @return A new tiered individual.
+     * @param <T> The terminal type.
+     * @param <Out> The output type.
+     * @throws IllegalArgumentException if the compileThreshold is negative.
+     */
+    public static <T, Out> TieredTreeIndividual<T, Out> of(
+        final ImmutableNode<T, ?, Out, ?, ?> tree,
+        final int compileThreshold
+    ) {
+        Preconditions.assertTrue(
+            compileThreshold >= 0, "Compile threshold must be non-negative"
+        );
+        return new TieredTreeIndividual<>(tree, tree, compileThreshold);
+    }
+
+    /**
+     * Create a tiered individual that evaluates a simplified copy of its tree.
+     * @param tree The tree this individual wraps.
+     * @param simplifier The simplifier used to create the evaluated tree.
+     * @param compileThreshold The number of evaluations before the simplified
+     *  tree is compiled to bytecode.
+     * @return A new tiered individual.
+     * @param <T> The terminal type.
+     * @param <Out> The output type.
+     * @throws IllegalArgumentException if the compileThreshold is negative.
+     */
+    public static <T, Out> TieredTreeIndividual<T, Out> of(
+        final ImmutableNode<T, ?, Out, ?, ?> tree,
+        final Simplifier simplifier,
+        final int compileThreshold
+    ) {
+        Preconditions.assertTrue(
+            compileThreshold >= 0, "Compile threshold must be non-negative"
+        );
+        return new TieredTreeIndividual<>(
+            tree, simplifier.simplify(tree), compileThreshold
+        );
+    }
+
+    /**
+     * Create a step that makes every individual in a population tiered.
+     * Individuals which are already tiered are kept as is,
+     *  so they retain their evaluation counts and compiled code.
+     * @param compileThreshold The number of evaluations before a tree
+     *  is compiled to bytecode.
+     * @return A function that converts a population to tiered individuals.
+     * @param <T> The terminal type.
+     * @param <Out> The output type.
+     */
+    public static <T, Out> Function<
+        Population<SingleTreeIndividual<T, Out>>,
+        Population<SingleTreeIndividual<T, Out>>
+    > tiered(final int compileThreshold) {
+        return population -> population.stream()
+            .map(individual -> individual instanceof TieredTreeIndividual<T, Out>
+                ? individual
+                : TieredTreeIndividual.of(individual.tree(), compileThreshold)
+            ).collect(Population.toPopulation());
+    }
+
+    /**
+     * Create a step that makes every individual in a population tiered,
+     *  evaluating simplified copies of their trees.
+     * Individuals which are already tiered are kept as is,
+     *  so they retain their evaluation counts and compiled code.
+     * @param compileThreshold The number of evaluations before a tree
+     *  is compiled to bytecode.
+     * @param simplifier The simplifier used to create the evaluated trees.
+     * @return A function that converts a population to tiered individuals.
+     * @param <T> The terminal type.
+     * @param <Out> The output type.
+     */
+    public static <T, Out> Function<
+        Population<SingleTreeIndividual<T, Out>>,
+        Population<SingleTreeIndividual<T, Out>>
+    > tiered(final int compileThreshold, final Simplifier simplifier) {
+        return population -> population.stream()
+            .map(individual -> individual instanceof TieredTreeIndividual<T, Out>
+                ? individual
+                : TieredTreeIndividual.of(individual.tree(), simplifier, compileThreshold)
+            ).collect(Population.toPopulation());
+    }
+
+    @Override
+    public ImmutableNode<T, ?, Out, ?, ?> tree() {
+        return this.tree;
+    }
+
+    /**
+     * @return the tree this individual is evaluated with,
+     *  which is `tree()` unless a simplifier was given.
+     */
+    public ImmutableNode<T, ?, Out, ?, ?> phenotype() {
+        return this.phenotype;
+    }
+
+    @Override
+    public Out evaluate(final T terminals) {
+        return this.evaluator(1).evaluate(terminals);
+    }
+
+    @Override
+    public double evaluateAsDouble(final T terminals) {
+        return this.evaluator(1).evaluateAsDouble(terminals);
+    }
+
+    @Override
+    public Out evaluate(final T terminals, final EvalContext context) {
+        return this.evaluator(1).evaluate(terminals, context);
+    }
+
+    @Override
+    public double evaluateAsDouble(final T terminals, final EvalContext context) {
+        return this.evaluator(1).evaluateAsDouble(terminals, context);
+    }
+
+    @Override
+    public List<Out> evaluateAll(final List<T> terminals) {
+        return this.evaluator(terminals.size()).evaluateAll(terminals);
+    }
+
+    @Override
+    public double[] evaluateAllAsDouble(final List<T> terminals) {
+        return this.evaluator(terminals.size()).evaluateAllAsDouble(terminals);
+    }
+
+    @Override
+    public double[] evaluateAllAsDouble(final TerminalColumns<T> columns) {
+        return this.evaluator(columns.size()).evaluateAllAsDouble(columns);
+    }
+
+    /**
+     * Pick the tier to evaluate with, promoting this individual if
+     *  these evaluations take it over the threshold.
+     * @param cases The number of fitness cases about to be evaluated.
+     * @return The generated class if promoted, otherwise the postfix program.
+     */
+    private CompiledTree<T, Out> evaluator(final int cases) {
+        final CompiledTree<T, Out> bytecode = this.compiled;
+        if (bytecode != null) {
+            return bytecode;
+        }
+        if (evaluations.addAndGet(cases) >= compileThreshold) {
+            return this.promote();
+        }
+        return this.phenotype.compile();
+    }
+
+    /**
+     * Compile this individual to bytecode now, regardless of how many
+     *  times it has been evaluated.
+     * @return The compiled form of this individual.
+     */
+    public CompiledTree<T, Out> promote() {
+        CompiledTree<T, Out> bytecode = this.compiled;
+        if (bytecode == null) {
+            bytecode = BytecodeCompiler.compile(this.phenotype);
+            this.compiled = bytecode;
+        }
+        return bytecode;
+    }
+
+    /**
+     * @return true if this individual has been compiled to bytecode.
+     */
+    public boolean isPromoted() {
+        return this.compiled != null;
+    }
+
+    /**
+     * @return the number of fitness cases this individual was evaluated on
+     *  before it was promoted.
+     */
+    public int evaluations() {
+        return this.evaluations.get();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof TieredTreeIndividual<?, ?> that && tree.equals(that.tree);
+    }
+
+    @Override
+    public int hashCode() {
+        return tree.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "SingleTreeIndividual[" + tree.getExpression() + "]";
+    }
+}
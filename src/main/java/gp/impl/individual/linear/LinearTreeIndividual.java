@@ -0,0 +1,340 @@
+package gp.impl.individual.linear;
+
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.tree.ImmutableNode;
+import gp.impl.individual.tree.TreeCursor;
+import utils.Preconditions;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A single tree individual stored as a prefix ordered array of opcodes
+ *  from an {@link OpcodeTable}, alongside the size of the subtree rooted
+ *  at each position.
+ * Every subtree is a contiguous range of the arrays, so crossover and
+ *  mutation are array splices, see {@link #replace}, and no nodes are
+ *  allocated while breeding.
+ * The tree is only rebuilt from its opcodes when it's evaluated, and is
+ *  only held softly afterwards, so the opcodes are all an individual keeps
+ *  alive once memory is short.
+ * The rebuilt tree is hash-consed so identical individuals share their
+ *  nodes and compiled programs.
+ * @param <T> The terminal type
+ * @param <Out> The output type
+ */
+public final class LinearTreeIndividual<T, Out> implements SingleTreeIndividual<T, Out> {
+    private final OpcodeTable<T> table;
+    private final int[] code;
+    private final int[] sizes;
+    private volatile SoftReference<ImmutableNode<T, ?, Out, ?, ?>> tree;
+
+    private LinearTreeIndividual(
+        final OpcodeTable<T> table,
+        final int[] code,
+        final int[] sizes,
+        final ImmutableNode<T, ?, Out, ?, ?> tree
+    ) {
+        this.table = table;
+        this.code = code;
+        this.sizes = sizes;
+        this.tree = tree == null ? null : new SoftReference<>(tree);
+    }
+
+    /**
+     * Flatten a tree into its linear representation.
+     * @param tree The tree to flatten.
+     * @param table The table to look up opcodes in,
+     *  individuals bred together must share a table.
+     * @return A linear individual that evaluates identically to `tree`.
+     * @param <T> The terminal type.
+     * @param <Out> The output type.
+     */
+    public static <T, Out> LinearTreeIndividual<T, Out> of(
+        final ImmutableNode<T, ?, Out, ?, ?> tree,
+        final OpcodeTable<T> table
+    ) {
+        final int length = tree.size();
+        final int[] code = new int[length];
+        final TreeCursor<T> cursor = TreeCursor.of(tree);
+        for (int i = 0; cursor.advance(); i++) {
+            code[i] = table.opcodeOf(cursor.node());
+        }
+        return new LinearTreeIndividual<>(table, code, sizesOf(table, code), tree);
+    }
+
+    /**
+     * Wrap existing arrays without copying them.
+     * @param table The table the opcodes are from.
+     * @param code The opcodes in prefix order.
+     * @param sizes The subtree size at each position.
+     * @return A linear individual over the arrays.
+     * @param <T> The terminal type.
+     * @param <Out> The output type.
+     */
+    static <T, Out> LinearTreeIndividual<T, Out> wrap(
+        final OpcodeTable<T> table,
+        final int[] code,
+        final int[] sizes
+    ) {
+        return new LinearTreeIndividual<>(table, code, sizes, null);
+    }
+
+    /**
+     * Compute the subtree sizes of a prefix program in a single reverse scan,
+     *  a node's size is one more than the sum of the sizes of its children.
+     * @param table The table the opcodes are from.
+     * @param code The opcodes in prefix order.
+     * @return The size of the subtree starting at each position.
+     */
+    private static int[] sizesOf(final OpcodeTable<?> table, final int[] code) {
+        final int[] sizes = new int[code.length];
+        final int[] stack = new int[code.length];
+        int top = 0;
+        for (int i = code.length - 1; i >= 0; i--) {
+            int size = 1;
+            for (int child = table.arity(code[i]); child > 0; child--) {
+                size += stack[--top];
+            }
+            sizes[i] = size;
+            stack[top++] = size;
+        }
+        return sizes;
+    }
+
+    /**
+     * Rebuild the tree this individual represents,
+     *  the tree is held softly and rebuilt if it's been collected.
+     * @return The root of the tree.
+     */
+    @Override
+    public ImmutableNode<T, ?, Out, ?, ?> tree() {
+        final SoftReference<ImmutableNode<T, ?, Out, ?, ?>> reference = this.tree;
+        ImmutableNode<T, ?, Out, ?, ?> root = reference == null ? null : reference.get();
+        if (root == null) {
+            root = this.decode();
+            this.tree = new SoftReference<>(root);
+        }
+        return root;
+    }
+
+    /**
+     * Build the tree from the opcodes in a single reverse scan,
+     *  so each node's children are on top of the stack, first child topmost.
+     * @return The root of the tree.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ImmutableNode<T, ?, Out, ?, ?> decode() {
+        final ImmutableNode<T, ?, ?, ?, ?>[] stack =
+            new ImmutableNode[code.length];
+        int top = 0;
+        for (int i = code.length - 1; i >= 0; i--) {
+            final int arity = table.arity(code[i]);
+            final ImmutableNode<T, ?, ?, ?, ?>[] children =
+                new ImmutableNode[arity];
+            for (int child = 0; child < arity; child++) {
+                children[child] = stack[--top];
+                stack[top] = null;
+            }
+            stack[top++] = table.node(code[i], children);
+        }
+        return (ImmutableNode<T, ?, Out, ?, ?>) stack[0];
+    }
+
+    /**
+     * @return the opcodes of this individual, not a copy.
+     */
+    int[] code() {
+        return this.code;
+    }
+
+    /**
+     * @return the subtree sizes of this individual, not a copy.
+     */
+    int[] sizes() {
+        return this.sizes;
+    }
+
+    /**
+     * @return the table this individual's opcodes are from.
+     */
+    public OpcodeTable<T> table() {
+        return this.table;
+    }
+
+    /**
+     * @return the number of nodes in the tree.
+     */
+    public int length() {
+        return code.length;
+    }
+
+    /**
+     * @param position A position in prefix order.
+     * @return the opcode at the position.
+     */
+    public int opcode(final int position) {
+        return code[position];
+    }
+
+    /**
+     * @param position A position in prefix order.
+     * @return the number of nodes in the subtree starting at the position.
+     */
+    public int subtreeSize(final int position) {
+        return sizes[position];
+    }
+
+    /**
+     * @param position A position in prefix order.
+     * @return the return type of the subtree starting at the position.
+     */
+    public Class<?> returnType(final int position) {
+        return table.returnType(code[position]);
+    }
+
+    /**
+     * Get the type a subtree must return to replace the one at a position,
+     *  the input type of its parent or the tree's return type for the root.
+     * @param position A position in prefix order.
+     * @return The type required at the position.
+     */
+    public Class<?> slotType(final int position) {
+        final int parent = this.parent(position);
+        return parent < 0
+            ? table.returnType(code[0])
+            : table.inputType(code[parent]);
+    }
+
+    /**
+     * Get the slot type of every position in a single scan,
+     *  rather than searching for each position's parent in turn.
+     * @return The type required at each position, see {@link #slotType}.
+     */
+    public Class<?>[] slotTypes() {
+        final Class<?>[] slots = new Class<?>[code.length];
+        // The positions of the open subtrees, the top is the current parent
+        final int[] open = new int[code.length];
+        int top = 0;
+        for (int i = 0; i < code.length; i++) {
+            while (top > 0 && open[top - 1] + sizes[open[top - 1]] <= i) {
+                top--;
+            }
+            slots[i] = top == 0
+                ? table.returnType(code[0])
+                : table.inputType(code[open[top - 1]]);
+            open[top++] = i;
+        }
+        return slots;
+    }
+
+    /**
+     * @param position A position in prefix order.
+     * @return the position of the parent, or -1 for the root.
+     */
+    public int parent(final int position) {
+        for (int i = position - 1; i >= 0; i--) {
+            if (i + sizes[i] > position) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param position A position in prefix order.
+     * @return the number of ancestors of the position, 0 for the root.
+     */
+    public int level(final int position) {
+        int level = 0;
+        for (int i = 0; i < position; i++) {
+            if (i + sizes[i] > position) {
+                level++;
+            }
+        }
+        return level;
+    }
+
+    /**
+     * @return the level of the deepest node, 0 for a single terminal,
+     *  as {@link ImmutableNode#depth()}.
+     */
+    public int depth() {
+        // The end of each open subtree, the stack height is the current level
+        final int[] ends = new int[code.length];
+        int top = 0;
+        int depth = 0;
+        for (int i = 0; i < code.length; i++) {
+            while (top > 0 && ends[top - 1] <= i) {
+                top--;
+            }
+            ends[top++] = i + sizes[i];
+            depth = Math.max(depth, top - 1);
+        }
+        return depth;
+    }
+
+    /**
+     * Replace the subtree at a position with a subtree of another individual.
+     * The opcodes are spliced with {@link System#arraycopy}, and only the
+     *  sizes of the replaced subtree's ancestors change.
+     * @param position The position of the subtree to replace.
+     * @param donor The individual to take the new subtree from.
+     * @param donorPosition The position of the new subtree in the donor.
+     * @return A new individual, this one is unchanged.
+     * @throws IllegalArgumentException if the individuals have different tables,
+     *  or the donated subtree can't be used at the position.
+     */
+    public LinearTreeIndividual<T, Out> replace(
+        final int position,
+        final LinearTreeIndividual<T, ?> donor,
+        final int donorPosition
+    ) {
+        Preconditions.assertTrue(
+            donor.table == this.table, "Individuals must share an opcode table"
+        );
+        Preconditions.assertTrue(
+            this.slotType(position).isAssignableFrom(donor.returnType(donorPosition)),
+            "Donated subtree has the wrong return type"
+        );
+        final int removed = sizes[position];
+        final int added = donor.sizes[donorPosition];
+        final int tail = position + removed;
+        final int length = code.length - removed + added;
+
+        final int[] newCode = new int[length];
+        final int[] newSizes = new int[length];
+        System.arraycopy(code, 0, newCode, 0, position);
+        System.arraycopy(sizes, 0, newSizes, 0, position);
+        System.arraycopy(donor.code, donorPosition, newCode, position, added);
+        System.arraycopy(donor.sizes, donorPosition, newSizes, position, added);
+        System.arraycopy(code, tail, newCode, position + added, code.length - tail);
+        System.arraycopy(sizes, tail, newSizes, position + added, code.length - tail);
+
+        final int delta = added - removed;
+        for (int i = 0; i < position; i++) {
+            if (i + sizes[i] > position) {
+                newSizes[i] += delta;
+            }
+        }
+        return new LinearTreeIndividual<>(table, newCode, newSizes, null);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof LinearTreeIndividual<?, ?> that
+            && table == that.table
+            && Arrays.equals(code, that.code);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(table), Arrays.hashCode(code));
+    }
+
+    @Override
+    public String toString() {
+        return "LinearTreeIndividual[" + this.tree().getExpression() + "]";
+    }
+}
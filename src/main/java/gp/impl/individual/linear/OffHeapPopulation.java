@@ -0,0 +1,356 @@
+package gp.impl.individual.linear;
+
+import gp.core.fitness.Goal;
+import gp.core.fitness.SingleObjectiveFitness;
+import gp.core.individual.AssessedIndividual;
+import gp.impl.fitness.SingleObjectiveFit;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.tree.ImmutableNode;
+import utils.Preconditions;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * A view of an individual in an off-heap population,
+ *  the tree is decoded from the population's memory when it's first used.
+ * @param <T> The terminal type
+ * @param <Out> The output type
+ */
+final class OffHeapIndividual<T, Out> implements SingleTreeIndividual<T, Out> {
+    private final OffHeapPopulation<T, Out> population;
+    private final int index;
+    private ImmutableNode<T, ?, Out, ?, ?> tree;
+
+    OffHeapIndividual(final OffHeapPopulation<T, Out> population, final int index) {
+        this.population = population;
+        this.index = index;
+    }
+
+    @Override
+    public ImmutableNode<T, ?, Out, ?, ?> tree() {
+        if (tree == null) {
+            tree = population.genome(index).tree();
+        }
+        return tree;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof OffHeapIndividual<?, ?> that
+            && population == that.population
+            && index == that.index;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(population), index);
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapIndividual[" + this.tree().getExpression() + "]";
+    }
+}
+
+/**
+ * A view of an assessed individual in an off-heap population.
+ * @param population The population the individual is in.
+ * @param index The index of the individual.
+ * @param <T> The terminal type
+ * @param <Out> The output type
+ */
+record OffHeapAssessedIndividual<T, Out>(
+    OffHeapPopulation<T, Out> population,
+    int index
+) implements AssessedIndividual<
+    T, Out, SingleTreeIndividual<T, Out>, SingleObjectiveFitness
+> {
+    @Override
+    public SingleTreeIndividual<T, Out> individual() {
+        return population.get(index);
+    }
+
+    @Override
+    public SingleObjectiveFitness fitness() {
+        return SingleObjectiveFit.of(population.fitness(index), population.goal());
+    }
+}
+
+/**
+ * A population of linear individuals and their fitness values stored in
+ *  memory segments outside the Java heap, so very large populations don't
+ *  add to the work of the garbage collector.
+ * The opcodes and subtree sizes of every individual are packed into two
+ *  int segments, with the start and length of each individual and its
+ *  fitness in segments of their own, all allocated from a single arena.
+ * Individuals are appended with {@link #add}, which is safe to call from
+ *  many threads at once, and read as lightweight views with {@link #get}
+ *  and {@link #assessed} once every individual has been added.
+ * Generations are swapped by filling a new population with the offspring,
+ *  then closing the old one, which frees all of its memory at once.
+ * Views of a closed population throw {@link IllegalStateException}
+ *  when they read from it.
+ * @param <T> The terminal type
+ * @param <Out> The output type
+ */
+public final class OffHeapPopulation<T, Out> implements AutoCloseable {
+    private final OpcodeTable<T> table;
+    private final Goal goal;
+    private final Arena arena;
+    private final int capacity;
+    private final long maxNodes;
+    private final MemorySegment starts;
+    private final MemorySegment lengths;
+    private final MemorySegment code;
+    private final MemorySegment sizes;
+    private final MemorySegment fitness;
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicLong nodes = new AtomicLong();
+    private final Object reservation = new Object();
+
+    private OffHeapPopulation(
+        final OpcodeTable<T> table,
+        final Goal goal,
+        final int capacity,
+        final long maxNodes
+    ) {
+        this.table = Objects.requireNonNull(table);
+        this.goal = Objects.requireNonNull(goal);
+        this.capacity = capacity;
+        this.maxNodes = maxNodes;
+        this.arena = Arena.ofShared();
+        this.starts = allocate(arena, ValueLayout.JAVA_LONG, capacity);
+        this.lengths = allocate(arena, ValueLayout.JAVA_INT, capacity);
+        this.code = allocate(arena, ValueLayout.JAVA_INT, maxNodes);
+        this.sizes = allocate(arena, ValueLayout.JAVA_INT, maxNodes);
+        this.fitness = allocate(arena, ValueLayout.JAVA_DOUBLE, capacity);
+        for (int i = 0; i < capacity; i++) {
+            fitness.setAtIndex(ValueLayout.JAVA_DOUBLE, i, Double.NaN);
+        }
+    }
+
+    private static MemorySegment allocate(
+        final Arena arena,
+        final MemoryLayout element,
+        final long count
+    ) {
+        return arena.allocate(MemoryLayout.sequenceLayout(count, element));
+    }
+
+    /**
+     * Allocate an empty population.
+     * @param table The table the individuals' opcodes are from.
+     * @param goal Whether fitness values are minimised or maximised.
+     * @param capacity The maximum number of individuals.
+     * @param maxNodes The maximum total number of nodes of every individual.
+     * @return A new population with no individuals.
+     * @param <T> The terminal type.
+     * @param <Out> The output type.
+     * @throws IllegalArgumentException if the capacity or maxNodes is negative.
+     */
+    public static <T, Out> OffHeapPopulation<T, Out> allocate(
+        final OpcodeTable<T> table,
+        final Goal goal,
+        final int capacity,
+        final long maxNodes
+    ) {
+        Preconditions.assertTrue(capacity >= 0, "Capacity must be non-negative");
+        Preconditions.assertTrue(maxNodes >= 0, "Max nodes must be non-negative");
+        return new OffHeapPopulation<>(table, goal, capacity, maxNodes);
+    }
+
+    /**
+     * Copy a list of individuals into a new population of exactly their size.
+     * @param individuals The individuals, all from the same opcode table.
+     * @param table The table the individuals' opcodes are from.
+     * @param goal Whether fitness values are minimised or maximised.
+     * @return A new population containing the individuals in order.
+     * @param <T> The terminal type.
+     * @param <Out> The output type.
+     */
+    public static <T, Out> OffHeapPopulation<T, Out> of(
+        final List<LinearTreeIndividual<T, Out>> individuals,
+        final OpcodeTable<T> table,
+        final Goal goal
+    ) {
+        long totalNodes = 0;
+        for (final LinearTreeIndividual<T, Out> individual : individuals) {
+            totalNodes += individual.length();
+        }
+        final OffHeapPopulation<T, Out> population = allocate(
+            table, goal, individuals.size(), totalNodes
+        );
+        individuals.forEach(population::add);
+        return population;
+    }
+
+    /**
+     * Append an individual, may be called from several threads at once.
+     * @param individual The individual to copy into this population.
+     * @return The index of the individual.
+     * @throws IllegalArgumentException if the individual has a different table.
+     * @throws IllegalStateException if the population is full.
+     */
+    public int add(final LinearTreeIndividual<T, Out> individual) {
+        Preconditions.assertTrue(
+            individual.table() == table, "Individuals must share an opcode table"
+        );
+        final int length = individual.length();
+        // Both limits are checked before either is reserved, so a failed add
+        //  never leaves behind nodes or an index without a genome,
+        //  a reservation can't be given back once a later add has been made
+        final long start;
+        final int index;
+        synchronized (reservation) {
+            start = nodes.get();
+            if (start + length > maxNodes) {
+                throw new IllegalStateException("Population has no room for more nodes");
+            }
+            index = count.get();
+            if (index >= capacity) {
+                throw new IllegalStateException("Population is full");
+            }
+            nodes.set(start + length);
+            count.set(index + 1);
+        }
+        final long offset = start * Integer.BYTES;
+        MemorySegment.copy(
+            individual.code(), 0, code, ValueLayout.JAVA_INT, offset, length
+        );
+        MemorySegment.copy(
+            individual.sizes(), 0, sizes, ValueLayout.JAVA_INT, offset, length
+        );
+        starts.setAtIndex(ValueLayout.JAVA_LONG, index, start);
+        lengths.setAtIndex(ValueLayout.JAVA_INT, index, length);
+        return index;
+    }
+
+    /**
+     * @return the number of individuals in this population.
+     */
+    public int size() {
+        return count.get();
+    }
+
+    /**
+     * @return the total number of nodes of every individual in this population.
+     */
+    public long nodes() {
+        return nodes.get();
+    }
+
+    /**
+     * @return the table the individuals' opcodes are from.
+     */
+    public OpcodeTable<T> table() {
+        return this.table;
+    }
+
+    /**
+     * @return whether fitness values are minimised or maximised.
+     */
+    public Goal goal() {
+        return this.goal;
+    }
+
+    /**
+     * Copy an individual's genome onto the heap, for breeding.
+     * @param index The index of the individual.
+     * @return A new linear individual with the same genome.
+     */
+    public LinearTreeIndividual<T, Out> genome(final int index) {
+        Objects.checkIndex(index, this.size());
+        final long start = starts.getAtIndex(ValueLayout.JAVA_LONG, index);
+        final int length = lengths.getAtIndex(ValueLayout.JAVA_INT, index);
+        final int[] genomeCode = new int[length];
+        final int[] genomeSizes = new int[length];
+        MemorySegment.copy(
+            code, ValueLayout.JAVA_INT, start * Integer.BYTES, genomeCode, 0, length
+        );
+        MemorySegment.copy(
+            sizes, ValueLayout.JAVA_INT, start * Integer.BYTES, genomeSizes, 0, length
+        );
+        return LinearTreeIndividual.wrap(table, genomeCode, genomeSizes);
+    }
+
+    /**
+     * Get a view of an individual, its tree is only decoded when it's evaluated.
+     * @param index The index of the individual.
+     * @return A view of the individual.
+     */
+    public SingleTreeIndividual<T, Out> get(final int index) {
+        Objects.checkIndex(index, this.size());
+        return new OffHeapIndividual<>(this, index);
+    }
+
+    /**
+     * Get a view of an individual and its fitness.
+     * @param index The index of the individual.
+     * @return A view of the assessed individual.
+     * @throws IllegalStateException if the individual hasn't been assessed.
+     */
+    public AssessedIndividual<
+        T, Out, SingleTreeIndividual<T, Out>, SingleObjectiveFitness
+    > assessed(final int index) {
+        if (!this.isAssessed(index)) {
+            throw new IllegalStateException("Individual " + index + " is not assessed");
+        }
+        return new OffHeapAssessedIndividual<>(this, index);
+    }
+
+    /**
+     * @param index The index of an individual.
+     * @return the fitness of the individual, NaN if it hasn't been assessed.
+     */
+    public double fitness(final int index) {
+        Objects.checkIndex(index, this.size());
+        return fitness.getAtIndex(ValueLayout.JAVA_DOUBLE, index);
+    }
+
+    /**
+     * @param index The index of an individual.
+     * @return true if the individual has a fitness value.
+     */
+    public boolean isAssessed(final int index) {
+        return !Double.isNaN(this.fitness(index));
+    }
+
+    /**
+     * Set the fitness of an individual.
+     * @param index The index of the individual.
+     * @param score The fitness of the individual, not NaN.
+     * @throws IllegalArgumentException if the score is NaN.
+     */
+    public void setFitness(final int index, final double score) {
+        Preconditions.assertTrue(!Double.isNaN(score), "Fitness must not be NaN");
+        Objects.checkIndex(index, this.size());
+        fitness.setAtIndex(ValueLayout.JAVA_DOUBLE, index, score);
+    }
+
+    /**
+     * Assess every individual in parallel, storing their fitness off-heap.
+     * @param assessor The function giving the fitness of an individual.
+     */
+    public void assess(final ToDoubleFunction<SingleTreeIndividual<T, Out>> assessor) {
+        IntStream.range(0, this.size()).parallel().forEach(
+            index -> this.setFitness(index, assessor.applyAsDouble(this.get(index)))
+        );
+    }
+
+    /**
+     * Free every segment of this population, views of it can't be used after.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,171 @@
+package gp.impl.individual.linear;
+
+import gp.impl.individual.tree.ImmutableNode;
+import gp.impl.individual.tree.ImmutableNonTerminal;
+import gp.impl.individual.tree.ImmutableTerminal;
+import gp.impl.individual.tree.Node;
+import utils.operators.Operator;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns an integer opcode to every distinct primitive of a run,
+ *  so trees can be stored as arrays of opcodes, see {@link LinearTreeIndividual}.
+ * A terminal's opcode identifies the terminal itself, a non-terminal's
+ *  identifies its name, operator, input and return types and arity.
+ * Opcodes are never released, so every ephemeral constant instantiated
+ *  during a run takes up an entry, individuals sharing a table should
+ *  come from the same run.
+ * Lookups by opcode are lock free, new opcodes are added under a lock.
+ * @param <T> The terminal type of the primitives.
+ */
+public final class OpcodeTable<T> {
+    private final Map<Object, Integer> opcodes = new ConcurrentHashMap<>();
+    private volatile Object[] entries = new Object[16];
+    private volatile int[] arities = new int[16];
+    private volatile Class<?>[] inputTypes = new Class<?>[16];
+    private volatile Class<?>[] returnTypes = new Class<?>[16];
+    private int size = 0;
+
+    private OpcodeTable() { }
+
+    /**
+     * @return a new table with no opcodes.
+     * @param <T> The terminal type of the primitives.
+     */
+    public static <T> OpcodeTable<T> empty() {
+        return new OpcodeTable<>();
+    }
+
+    /**
+     * Get the opcode of the primitive at the root of a node,
+     *  adding it to the table if it hasn't been seen before.
+     * @param node The node whose primitive to look up, its children are ignored.
+     * @return The opcode of the node's primitive.
+     */
+    public int opcodeOf(final Node<T, ?, ?, ?, ?> node) {
+        final Object key = switch ((Node<?, ?, ?, ?, ?>) node.immutableCopy()) {
+            case final ImmutableTerminal<?, ?> term -> term;
+            case final ImmutableNonTerminal<?, ?, ?> nonTerm ->
+                NonTerminalKey.of(nonTerm);
+            default -> throw new IllegalArgumentException("Unknown node " + node);
+        };
+        final Integer opcode = opcodes.get(key);
+        return opcode != null ? opcode : this.insert(key);
+    }
+
+    private synchronized int insert(final Object key) {
+        final Integer existing = opcodes.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        final int opcode = size;
+        if (opcode == entries.length) {
+            final int capacity = opcode * 2;
+            // Grow the metadata first so a reader that sees the new entry
+            //  always sees its metadata.
+            arities = Arrays.copyOf(arities, capacity);
+            inputTypes = Arrays.copyOf(inputTypes, capacity);
+            returnTypes = Arrays.copyOf(returnTypes, capacity);
+            entries = Arrays.copyOf(entries, capacity);
+        }
+        switch (key) {
+            case final ImmutableTerminal<?, ?> term ->
+                returnTypes[opcode] = term.returnType();
+            case final NonTerminalKey nonTerm -> {
+                arities[opcode] = nonTerm.arity();
+                inputTypes[opcode] = nonTerm.inputType();
+                returnTypes[opcode] = nonTerm.returnType();
+            }
+            default -> throw new IllegalStateException("Unknown primitive " + key);
+        }
+        entries[opcode] = key;
+        size++;
+        opcodes.put(key, opcode);
+        return opcode;
+    }
+
+    /**
+     * @param opcode An opcode from this table.
+     * @return the number of children the primitive takes, 0 for terminals.
+     */
+    public int arity(final int opcode) {
+        return arities[opcode];
+    }
+
+    /**
+     * @param opcode An opcode from this table.
+     * @return the type of the primitive's children, null for terminals.
+     */
+    public Class<?> inputType(final int opcode) {
+        return inputTypes[opcode];
+    }
+
+    /**
+     * @param opcode An opcode from this table.
+     * @return the return type of the primitive.
+     */
+    public Class<?> returnType(final int opcode) {
+        return returnTypes[opcode];
+    }
+
+    /**
+     * @return the number of opcodes in this table.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Create the node of a primitive.
+     * @param opcode The opcode of the primitive.
+     * @param children The children of the node, empty for terminals.
+     * @return The node of the primitive with the given children.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ImmutableNode<T, ?, ?, ?, ?> node(
+        final int opcode,
+        final ImmutableNode<T, ?, ?, ?, ?>[] children
+    ) {
+        return switch (entries[opcode]) {
+            case final ImmutableTerminal<?, ?> term ->
+                (ImmutableNode<T, ?, ?, ?, ?>) term;
+            case final NonTerminalKey key -> ImmutableNonTerminal.of(
+                key.name(), (Operator) key.function(), (ImmutableNode[]) children,
+                (Class) key.inputType(), key.returnType()
+            );
+            default -> throw new IllegalStateException("Unknown opcode " + opcode);
+        };
+    }
+
+    /**
+     * Everything that identifies a non-terminal apart from its children.
+     * @param name The name of the non-terminal.
+     * @param function The operator of the non-terminal.
+     * @param inputType The type of the children.
+     * @param returnType The return type of the non-terminal.
+     * @param arity The number of children.
+     */
+    private record NonTerminalKey(
+        String name,
+        Operator<?, ?> function,
+        Class<?> inputType,
+        Class<?> returnType,
+        int arity
+    ) {
+        static NonTerminalKey of(final ImmutableNonTerminal<?, ?, ?> nonTerm) {
+            return new NonTerminalKey(
+                nonTerm.name(), nonTerm.function(), nonTerm.inputType(),
+                nonTerm.returnType(), nonTerm.numChildren()
+            );
+        }
+
+        NonTerminalKey {
+            Objects.requireNonNull(name);
+            Objects.requireNonNull(function);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package gp.impl.individual.tree;
+
+import utils.operators.BinaryOperator;
+import utils.operators.DoubleBinaryOperator;
+import utils.operators.DoubleUnaryOperator;
+import utils.operators.Operator;
+import utils.operators.TernaryOperator;
+import utils.operators.ToDoubleOperator;
+import utils.operators.UnaryOperator;
+
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.attribute.CodeAttribute;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDescs;
+import java.lang.constant.DynamicConstantDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Compiles immutable trees into hidden classes whose `evaluate` method is
+ *  the whole expression as straight-line bytecode.
+ * Every operator and extractor is loaded as a class data constant, so once
+ *  the generated method is hot the JIT can inline the operators as if the
+ *  expression had been written by hand.
+ * Double specialised subtrees are emitted as primitive arithmetic and only
+ *  boxed where they meet a generic operator.
+ * Generating and loading a class is expensive, so this should only be used
+ *  for trees that will be evaluated many times, see
+ *  {@link gp.impl.individual.TieredTreeIndividual}.
+ */
+public enum BytecodeCompiler {;
+    /**
+     * Trees larger than this fall back to a {@link PostfixProgram},
+     *  each node emits around ten bytes of code so larger trees would
+     *  usually exceed {@link #HUGE_METHOD_LIMIT}.
+     */
+    public static final int MAXIMUM_INLINED_SIZE = 700;
+
+    /**
+     * HotSpot's default `HugeMethodLimit`, methods with more bytes of code
+     *  than this are never JIT compiled, so they'd run slower than the
+     *  postfix interpreter, and trees whose code is longer fall back to it.
+     */
+    public static final int HUGE_METHOD_LIMIT = 8_000;
+
+    /**
+     * Compiled classes, shared between structurally identical trees.
+     * The keys are weak so classes of dead individuals can be unloaded.
+     */
+    private static final Map<ImmutableNode<?, ?, ?, ?, ?>, CompiledTree<?, ?>> CACHE =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final ClassDesc CD_COMPILED_TREE = ClassDesc.of(
+        CompiledTree.class.getName()
+    );
+    private static final ClassDesc CD_OPERATOR = ClassDesc.of(
+        Operator.class.getName()
+    );
+    private static final ClassDesc CD_UNARY = ClassDesc.of(
+        UnaryOperator.class.getName()
+    );
+    private static final ClassDesc CD_BINARY = ClassDesc.of(
+        BinaryOperator.class.getName()
+    );
+    private static final ClassDesc CD_TERNARY = ClassDesc.of(
+        TernaryOperator.class.getName()
+    );
+    private static final ClassDesc CD_ARRAY = ClassDesc.of(Array.class.getName());
+    private static final ClassDesc CD_DOUBLE_UNARY = ClassDesc.of(
+        DoubleUnaryOperator.class.getName()
+    );
+    private static final ClassDesc CD_DOUBLE_BINARY = ClassDesc.of(
+        DoubleBinaryOperator.class.getName()
+    );
+    private static final ClassDesc CD_TO_DOUBLE = ClassDesc.of(
+        ToDoubleOperator.class.getName()
+    );
+
+    private static final MethodTypeDesc MTD_UNARY = MethodTypeDesc.of(
+        ConstantDescs.CD_Object, ConstantDescs.CD_Object
+    );
+    private static final MethodTypeDesc MTD_BINARY = MethodTypeDesc.of(
+        ConstantDescs.CD_Object, ConstantDescs.CD_Object, ConstantDescs.CD_Object
+    );
+    private static final MethodTypeDesc MTD_TERNARY = MethodTypeDesc.of(
+        ConstantDescs.CD_Object,
+        ConstantDescs.CD_Object, ConstantDescs.CD_Object, ConstantDescs.CD_Object
+    );
+    private static final MethodTypeDesc MTD_NARY = MethodTypeDesc.of(
+        ConstantDescs.CD_Object, ConstantDescs.CD_Object.arrayType()
+    );
+    private static final MethodTypeDesc MTD_NEW_ARRAY = MethodTypeDesc.of(
+        ConstantDescs.CD_Object, ConstantDescs.CD_Class, ConstantDescs.CD_int
+    );
+    private static final MethodTypeDesc MTD_TO_DOUBLE = MethodTypeDesc.of(
+        ConstantDescs.CD_double, ConstantDescs.CD_Object
+    );
+    private static final MethodTypeDesc MTD_DOUBLE_UNARY = MethodTypeDesc.of(
+        ConstantDescs.CD_double, ConstantDescs.CD_double
+    );
+    private static final MethodTypeDesc MTD_DOUBLE_BINARY = MethodTypeDesc.of(
+        ConstantDescs.CD_double, ConstantDescs.CD_double, ConstantDescs.CD_double
+    );
+    private static final MethodTypeDesc MTD_BOX = MethodTypeDesc.of(
+        ConstantDescs.CD_Double, ConstantDescs.CD_double
+    );
+    private static final MethodTypeDesc MTD_UNBOX = MethodTypeDesc.of(
+        ConstantDescs.CD_double
+    );
+
+    /**
+     * Compile a tree into straight-line bytecode, reusing the class
+     *  generated for any structurally identical tree.
+     * Trees too large to be JIT compiled as a single method are compiled
+     *  to a {@link PostfixProgram} instead.
+     * @param root The root of the tree to compile.
+     * @return An evaluator equivalent to `root.evaluate`.
+     * @param <T> The terminal type.
+     * @param <O> The output type.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, O> CompiledTree<T, O> compile(
+        final ImmutableNode<T, ?, O, ?, ?> root
+    ) {
+        if (root.size() > MAXIMUM_INLINED_SIZE) {
+            return root.compile();
+        }
+        final CompiledTree<?, ?> cached = CACHE.get(root);
+        if (cached != null) {
+            return (CompiledTree<T, O>) cached;
+        }
+        final CompiledTree<T, O> compiled = define(root);
+        CACHE.putIfAbsent(root, compiled);
+        return compiled;
+    }
+
+    private static <T, O> CompiledTree<T, O> define(
+        final ImmutableNode<T, ?, O, ?, ?> root
+    ) {
+        final ConstantPool constants = new ConstantPool();
+        final byte[] bytes = generate(root, constants);
+        if (longestMethod(bytes) > HUGE_METHOD_LIMIT) {
+            return root.compile();
+        }
+
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup()
+                .defineHiddenClassWithClassData(bytes, constants.values(), true);
+            @SuppressWarnings("unchecked")
+            final CompiledTree<T, O> compiled = (CompiledTree<T, O>) lookup
+                .findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+                .invoke();
+            return compiled;
+        } catch (final Throwable e) {
+            throw new IllegalStateException(
+                "Failed to define a class for " + root.getExpression(), e
+            );
+        }
+    }
+
+    /**
+     * Generate the class file of a compiled tree.
+     * @param root The root of the tree to compile.
+     * @param constants The class data of the generated class.
+     * @return The bytes of the class file.
+     */
+    private static byte[] generate(
+        final ImmutableNode<?, ?, ?, ?, ?> root,
+        final ConstantPool constants
+    ) {
+        return ClassFile.of().build(
+            ClassDesc.of(BytecodeCompiler.class.getPackageName(), "GeneratedTree"),
+            classBuilder -> classBuilder
+                .withFlags(ClassFile.ACC_FINAL | ClassFile.ACC_SYNTHETIC)
+                .withSuperclass(ConstantDescs.CD_Object)
+                .withInterfaceSymbols(CD_COMPILED_TREE)
+                .withMethodBody(
+                    ConstantDescs.INIT_NAME, ConstantDescs.MTD_void,
+                    ClassFile.ACC_PUBLIC,
+                    code -> code.aload(0)
+                        .invokespecial(
+                            ConstantDescs.CD_Object,
+                            ConstantDescs.INIT_NAME,
+                            ConstantDescs.MTD_void
+                        ).return_()
+                ).withMethodBody(
+                    "evaluate", MTD_UNARY, ClassFile.ACC_PUBLIC,
+                    code -> {
+                        emit(code, root, constants);
+                        code.areturn();
+                    }
+                ).withMethodBody(
+                    "evaluateAsDouble", MTD_TO_DOUBLE, ClassFile.ACC_PUBLIC,
+                    code -> {
+                        emitDouble(code, root, constants);
+                        code.dreturn();
+                    }
+                )
+        );
+    }
+
+    /**
+     * @param bytes A class file.
+     * @return the number of bytes of code of the class's longest method.
+     */
+    static int longestMethod(final byte[] bytes) {
+        int longest = 0;
+        for (final MethodModel method : ClassFile.of().parse(bytes).methods()) {
+            if (method.code().orElse(null) instanceof CodeAttribute code) {
+                longest = Math.max(longest, code.codeLength());
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * Emit code that leaves the value of `node` on top of the operand stack.
+     * The receiver of each operator is pushed before its children so the
+     *  call can be made directly on the results of the children.
+     * @param code The code builder of the `evaluate` method.
+     * @param node The node to emit code for.
+     * @param constants The class data of the generated class.
+     */
+    private static void emit(
+        final CodeBuilder code,
+        final Node<?, ?, ?, ?, ?> node,
+        final ConstantPool constants
+    ) {
+        if (PostfixProgram.isDoubleSpecialised(node)) {
+            emitDouble(code, node, constants);
+            code.invokestatic(ConstantDescs.CD_Double, "valueOf", MTD_BOX);
+            return;
+        }
+        switch (node) {
+            case final Terminal<?, ?> term -> {
+                code.ldc(constants.load(term.extractor(), CD_UNARY));
+                code.aload(1);
+                code.invokeinterface(CD_UNARY, "produce", MTD_UNARY);
+            }
+            case final NonTerminal<?, ?, ?, ?> nonTerm -> {
+                final Node<?, ?, ?, ?, ?>[] children = nonTerm.children();
+                switch (PostfixProgram.opcodeOf(nonTerm.function(), children.length)) {
+                    case PostfixProgram.UNARY -> {
+                        code.ldc(constants.load(nonTerm.function(), CD_UNARY));
+                        emit(code, children[0], constants);
+                        code.invokeinterface(CD_UNARY, "produce", MTD_UNARY);
+                    }
+                    case PostfixProgram.BINARY -> {
+                        code.ldc(constants.load(nonTerm.function(), CD_BINARY));
+                        emit(code, children[0], constants);
+                        emit(code, children[1], constants);
+                        code.invokeinterface(CD_BINARY, "produce", MTD_BINARY);
+                    }
+                    case PostfixProgram.TERNARY -> {
+                        code.ldc(constants.load(nonTerm.function(), CD_TERNARY));
+                        emit(code, children[0], constants);
+                        emit(code, children[1], constants);
+                        emit(code, children[2], constants);
+                        code.invokeinterface(CD_TERNARY, "produce", MTD_TERNARY);
+                    }
+                    case PostfixProgram.LAZY -> {
+                        code.ldc(constants.load(
+                            PostfixProgram.compile(nonTerm), CD_COMPILED_TREE
+                        ));
+                        code.aload(1);
+                        code.invokeinterface(CD_COMPILED_TREE, "evaluate", MTD_UNARY);
+                    }
+                    default -> {
+                        code.ldc(constants.load(nonTerm.function(), CD_OPERATOR));
+                        code.ldc(constants.load(
+                            nonTerm.inputType(), ConstantDescs.CD_Class
+                        ));
+                        code.loadConstant(children.length);
+                        code.invokestatic(CD_ARRAY, "newInstance", MTD_NEW_ARRAY);
+                        code.checkcast(ConstantDescs.CD_Object.arrayType());
+                        for (int i = 0; i < children.length; i++) {
+                            code.dup();
+                            code.loadConstant(i);
+                            emit(code, children[i], constants);
+                            code.aastore();
+                        }
+                        code.invokeinterface(CD_OPERATOR, "produce", MTD_NARY);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Emit code that leaves the value of `node` on top of the operand stack
+     *  as a primitive double.
+     * Nodes that aren't double specialised are emitted generically and
+     *  their result is unboxed.
+     * @param code The code builder of the method being generated.
+     * @param node The node to emit code for.
+     * @param constants The class data of the generated class.
+     */
+    private static void emitDouble(
+        final CodeBuilder code,
+        final Node<?, ?, ?, ?, ?> node,
+        final ConstantPool constants
+    ) {
+        if (!PostfixProgram.isDoubleSpecialised(node)) {
+            emit(code, node, constants);
+            code.checkcast(ConstantDescs.CD_Number);
+            code.invokevirtual(ConstantDescs.CD_Number, "doubleValue", MTD_UNBOX);
+            return;
+        }
+        switch (node) {
+            case final Terminal<?, ?> term -> {
+                code.ldc(constants.load(term.extractor(), CD_TO_DOUBLE));
+                code.aload(1);
+                code.invokeinterface(CD_TO_DOUBLE, "applyAsDouble", MTD_TO_DOUBLE);
+            }
+            case final NonTerminal<?, ?, ?, ?> nonTerm -> {
+                final Node<?, ?, ?, ?, ?>[] children = nonTerm.children();
+                if (children.length == 1) {
+                    code.ldc(constants.load(nonTerm.function(), CD_DOUBLE_UNARY));
+                    emitDouble(code, children[0], constants);
+                    code.invokeinterface(
+                        CD_DOUBLE_UNARY, "applyAsDouble", MTD_DOUBLE_UNARY
+                    );
+                } else {
+                    code.ldc(constants.load(nonTerm.function(), CD_DOUBLE_BINARY));
+                    emitDouble(code, children[0], constants);
+                    emitDouble(code, children[1], constants);
+                    code.invokeinterface(
+                        CD_DOUBLE_BINARY, "applyAsDouble", MTD_DOUBLE_BINARY
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * The class data of a generated class, each distinct object is stored
+     *  once and loaded with a dynamic constant.
+     */
+    private static final class ConstantPool {
+        private final Map<Object, Integer> indices = new IdentityHashMap<>();
+        private final List<Object> values = new ArrayList<>();
+
+        DynamicConstantDesc<Object> load(final Object value, final ClassDesc type) {
+            final int index = indices.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+            return DynamicConstantDesc.ofNamed(
+                ConstantDescs.BSM_CLASS_DATA_AT,
+                ConstantDescs.DEFAULT_NAME,
+                type,
+                index
+            );
+        }
+
+        List<Object> values() {
+            return List.copyOf(values);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package gp.impl.individual.tree;
+
+import java.util.List;
+
+/**
+ * A tree that has been compiled into a form that can be evaluated
+ *  without walking the node graph.
+ * @param <Terminals> The terminal type the tree is evaluated on.
+ * @param <Output> The output type of the tree.
+ */
+@FunctionalInterface
+public interface CompiledTree<Terminals, Output> {
+    /**
+     * Evaluate the compiled tree on the given terminals.
+     * @param terminals The terminals to evaluate on.
+     * @return The output of the tree.
+     */
+    Output evaluate(Terminals terminals);
+
+    /**
+     * Evaluate the compiled tree on the given terminals,
+     *  borrowing any scratch space from the given context.
+     * @param terminals The terminals to evaluate on.
+     * @param context The context to borrow scratch space from.
+     * @return The output of the tree.
+     */
+    default Output evaluate(Terminals terminals, EvalContext context) {
+        return this.evaluate(terminals);
+    }
+
+    /**
+     * Evaluate the compiled tree on the given terminals as a primitive double.
+     * @param terminals The terminals to evaluate on.
+     * @return The output of the tree.
+     * @throws ClassCastException if the output of the tree is not a Number.
+     */
+    default double evaluateAsDouble(Terminals terminals) {
+        return ((Number) this.evaluate(terminals)).doubleValue();
+    }
+
+    /**
+     * Evaluate the compiled tree on the given terminals as a primitive double,
+     *  borrowing any scratch space from the given context.
+     * @param terminals The terminals to evaluate on.
+     * @param context The context to borrow scratch space from.
+     * @return The output of the tree.
+     * @throws ClassCastException if the output of the tree is not a Number.
+     */
+    default double evaluateAsDouble(Terminals terminals, EvalContext context) {
+        return ((Number) this.evaluate(terminals, context)).doubleValue();
+    }
+
+    /**
+     * Evaluate the compiled tree on every fitness case.
+     * @param cases The terminals of each fitness case.
+     * @return The output for each fitness case, in the same order as `cases`.
+     */
+    default List<Output> evaluateAll(List<Terminals> cases) {
+        return cases.stream().map(this::evaluate).toList();
+    }
+
+    /**
+     * Evaluate the compiled tree on every fitness case as primitive doubles.
+     * @param cases The terminals of each fitness case.
+     * @return The output for each fitness case, in the same order as `cases`.
+     * @throws ClassCastException if the output of the tree is not a Number.
+     */
+    default double[] evaluateAllAsDouble(List<Terminals> cases) {
+        final double[] outputs = new double[cases.size()];
+        int i = 0;
+        for (final Terminals terminals : cases) {
+            outputs[i++] = this.evaluateAsDouble(terminals);
+        }
+        return outputs;
+    }
+
+    /**
+     * Evaluate the compiled tree on every fitness case of a dataset,
+     *  reading terminals from their precomputed columns where possible.
+     * @param columns The fitness cases and their terminal columns.
+     * @return The output for each fitness case, in the same order as `cases()`.
+     */
+    default List<Output> evaluateAll(TerminalColumns<Terminals> columns) {
+        return this.evaluateAll(columns.cases());
+    }
+
+    /**
+     * Evaluate the compiled tree on every fitness case of a dataset as
+     *  primitive doubles, reading terminals from their precomputed columns
+     *  where possible.
+     * @param columns The fitness cases and their terminal columns.
+     * @return The output for each fitness case, in the same order as `cases()`.
+     * @throws ClassCastException if the output of the tree is not a Number.
+     */
+    default double[] evaluateAllAsDouble(TerminalColumns<Terminals> columns) {
+        return this.evaluateAllAsDouble(columns.cases());
+    }
+}
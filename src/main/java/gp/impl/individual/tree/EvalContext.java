@@ -0,0 +1,186 @@
+package gp.impl.individual.tree;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Scratch buffers for evaluating trees, reused between evaluations so a
+ *  steady-state evaluation loop doesn't allocate per node.
+ * Buffers are borrowed and returned, a borrowed buffer is never handed out
+ *  twice, so an operator can safely evaluate another tree while its own
+ *  inputs are still in use, it just won't be allocation-free.
+ * Operators must not keep a reference to their input array after
+ *  `produce` returns, it will be reused.
+ * A context is not thread safe, use {@link #current()} to get the
+ *  context of the calling thread.
+ */
+public final class EvalContext {
+    private static final ThreadLocal<EvalContext> CURRENT =
+        ThreadLocal.withInitial(EvalContext::create);
+
+    private Object[] objects = new Object[0];
+    private double[] doubles = new double[0];
+    private double[][] columns = new double[0][];
+    private Object[][] objectColumns = new Object[0][];
+    private final Map<Class<?>, Object[][]> inputs = new IdentityHashMap<>();
+
+    private EvalContext() { }
+
+    /**
+     * @return a new context with no buffers allocated yet.
+     */
+    public static EvalContext create() {
+        return new EvalContext();
+    }
+
+    /**
+     * @return the context of the calling thread.
+     */
+    public static EvalContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Borrow an operand stack of references.
+     * @param size The minimum length of the stack.
+     * @return A stack of at least `size` nulls.
+     */
+    Object[] borrowObjects(final int size) {
+        final Object[] stack = this.objects;
+        if (stack == null || stack.length < size) {
+            return new Object[size];
+        }
+        this.objects = null;
+        return stack;
+    }
+
+    /**
+     * Return an operand stack, clearing it so no outputs are retained.
+     * @param stack The stack from {@link #borrowObjects(int)}.
+     * @param used The number of slots of the stack that may have been written.
+     */
+    void returnObjects(final Object[] stack, final int used) {
+        Arrays.fill(stack, 0, used, null);
+        if (this.objects == null || this.objects.length < stack.length) {
+            this.objects = stack;
+        }
+    }
+
+    /**
+     * Borrow an operand stack of doubles.
+     * @param size The minimum length of the stack.
+     * @return A stack of at least `size` doubles.
+     */
+    double[] borrowDoubles(final int size) {
+        final double[] stack = this.doubles;
+        if (stack == null || stack.length < size) {
+            return new double[size];
+        }
+        this.doubles = null;
+        return stack;
+    }
+
+    /**
+     * Return an operand stack of doubles.
+     * @param stack The stack from {@link #borrowDoubles(int)}.
+     */
+    void returnDoubles(final double[] stack) {
+        if (this.doubles == null || this.doubles.length < stack.length) {
+            this.doubles = stack;
+        }
+    }
+
+    /**
+     * Borrow a stack of double columns.
+     * @param size The minimum number of columns.
+     * @param length The minimum length of each column.
+     * @return At least `size` columns of at least `length` doubles.
+     */
+    double[][] borrowColumns(final int size, final int length) {
+        final double[][] stack = this.columns;
+        if (stack == null || stack.length < size
+            || (size > 0 && stack[0].length < length)) {
+            return new double[size][length];
+        }
+        this.columns = null;
+        return stack;
+    }
+
+    /**
+     * Return a stack of double columns.
+     * @param stack The columns from {@link #borrowColumns(int, int)}.
+     */
+    void returnColumns(final double[][] stack) {
+        if (this.columns == null || this.columns.length <= stack.length) {
+            this.columns = stack;
+        }
+    }
+
+    /**
+     * Borrow a stack of reference columns.
+     * @param size The minimum number of columns.
+     * @param length The minimum length of each column.
+     * @return At least `size` columns of at least `length` nulls.
+     */
+    Object[][] borrowObjectColumns(final int size, final int length) {
+        final Object[][] stack = this.objectColumns;
+        if (stack == null || stack.length < size
+            || (size > 0 && stack[0].length < length)) {
+            return new Object[size][length];
+        }
+        this.objectColumns = null;
+        return stack;
+    }
+
+    /**
+     * Return a stack of reference columns, clearing it so no outputs
+     *  are retained.
+     * @param stack The columns from {@link #borrowObjectColumns(int, int)}.
+     * @param used The number of columns that may have been written.
+     * @param length The number of values of each column that may have
+     *  been written.
+     */
+    void returnObjectColumns(final Object[][] stack, final int used, final int length) {
+        for (int i = 0; i < used; i++) {
+            Arrays.fill(stack[i], 0, length, null);
+        }
+        if (this.objectColumns == null || this.objectColumns.length <= stack.length) {
+            this.objectColumns = stack;
+        }
+    }
+
+    /**
+     * Borrow an input array for an operator.
+     * @param type The component type of the array.
+     * @param arity The exact length of the array.
+     * @return An array of `type` of length `arity`.
+     */
+    Object[] borrowInputs(final Class<?> type, final int arity) {
+        final Object[][] byArity = this.inputs.get(type);
+        if (byArity == null || byArity.length <= arity || byArity[arity] == null) {
+            return (Object[]) Array.newInstance(type, arity);
+        }
+        final Object[] array = byArity[arity];
+        byArity[arity] = null;
+        return array;
+    }
+
+    /**
+     * Return an input array, clearing it so no operands are retained.
+     * @param array The array from {@link #borrowInputs(Class, int)}.
+     */
+    void returnInputs(final Object[] array) {
+        Arrays.fill(array, null);
+        final Class<?> type = array.getClass().getComponentType();
+        Object[][] byArity = this.inputs.get(type);
+        if (byArity == null || byArity.length <= array.length) {
+            byArity = byArity == null
+                ? new Object[array.length + 1][]
+                : Arrays.copyOf(byArity, array.length + 1);
+            this.inputs.put(type, byArity);
+        }
+        byArity[array.length] = array;
+    }
+}
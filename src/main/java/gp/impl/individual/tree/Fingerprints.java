@@ -0,0 +1,82 @@
+package gp.impl.individual.tree;
+
+/**
+ * Helpers for computing the 64-bit structural fingerprints of immutable nodes.
+ * Fingerprints are built from names and type names rather than identity
+ *  hashes, so the same tree has the same fingerprint in every run.
+ */
+enum Fingerprints {;
+    private static final long TERMINAL_SEED = 0x5DEECE66DL;
+    private static final long NON_TERMINAL_SEED = 0x2545F4914F6CDD1DL;
+
+    /**
+     * The fingerprint of a terminal.
+     * @param name The name of the terminal.
+     * @param returnType The return type of the terminal.
+     * @return The fingerprint of the terminal.
+     */
+    static long terminal(final String name, final Class<?> returnType) {
+        return combine(combine(TERMINAL_SEED, of(name)), of(returnType.getName()));
+    }
+
+    /**
+     * The fingerprint of a non-terminal, combining the fingerprints of its
+     *  children in order.
+     * @param name The name of the non-terminal.
+     * @param inputType The input type of the non-terminal.
+     * @param returnType The return type of the non-terminal.
+     * @param children The children of the non-terminal.
+     * @return The fingerprint of the non-terminal.
+     */
+    static long nonTerminal(
+        final String name,
+        final Class<?> inputType,
+        final Class<?> returnType,
+        final ImmutableNode<?, ?, ?, ?, ?>[] children
+    ) {
+        long hash = combine(NON_TERMINAL_SEED, of(name));
+        hash = combine(hash, of(inputType.getName()));
+        hash = combine(hash, of(returnType.getName()));
+        hash = combine(hash, children.length);
+        for (final ImmutableNode<?, ?, ?, ?, ?> child : children) {
+            hash = combine(hash, child.fingerprint());
+        }
+        return hash;
+    }
+
+    /**
+     * A 64-bit FNV-1a hash of a string, with a final avalanche step.
+     * @param string The string to hash.
+     * @return The hash of the string.
+     */
+    static long of(final String string) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < string.length(); i++) {
+            hash ^= string.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Combine a value into a running hash, the order of combination matters.
+     * @param hash The running hash.
+     * @param value The value to add.
+     * @return The new running hash.
+     */
+    static long combine(final long hash, final long value) {
+        return mix(hash * 0x9E3779B97F4A7C15L + value);
+    }
+
+    /**
+     * The SplitMix64 finaliser, every input bit affects every output bit.
+     * @param value The value to mix.
+     * @return The mixed value.
+     */
+    static long mix(final long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -15,4 +15,23 @@ public sealed interface ImmutableNode<
 > extends Node<
     Terminals, Input, Output,
     Mutable, Self
-> permits ImmutableTerminal, ImmutableNonTerminal {}
+> permits ImmutableTerminal, ImmutableNonTerminal {
+    /**
+     * Flatten this tree into a postfix program, the program is compiled
+     *  once and then shared by every subsequent call.
+     * @return The compiled form of this tree.
+     */
+    PostfixProgram<Terminals, Output> compile();
+
+    /**
+     * A 64-bit Merkle fingerprint of this tree's structure, computed once
+     *  when the node is created.
+     * Structurally identical trees always have the same fingerprint, in any
+     *  run, so it can be used to deduplicate, cache or checkpoint trees.
+     * Different trees collide with probability around 2^-64.
+     * The fingerprint is built from names and types, so primitives must have
+     *  unique names for it to tell them apart.
+     * @return The fingerprint of this tree.
+     */
+    long fingerprint();
+}
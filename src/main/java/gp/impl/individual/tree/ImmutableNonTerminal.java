@@ -1,14 +1,18 @@
 package gp.impl.individual.tree;
 
-import utils.ArrayUtils;
+import utils.WeakCache;
 import utils.operators.Operator;
 
 import java.util.Arrays;
-import java.util.Objects;
 
 
 /**
  * An immutable non-terminal node record implementation.
+ * Non-terminals are hash-consed, structurally identical subtrees are
+ *  shared between every tree in the population, so equality of two
+ *  non-terminals is equality of their children by identity.
+ * The canonical nodes are held weakly, so subtrees of dead individuals
+ *  can still be collected.
  *
  * @param <Terminals> The terminals that the leaves extract from.
  * @param <Input> The input type to this node.
@@ -22,17 +26,17 @@ public final class ImmutableNonTerminal<Terminals, Input, Output> extends NonTer
     ImmutableNonTerminal<Terminals, Input, Output>,
     MutableNonTerminal<Terminals, Input, Output>
     > {
+    /** Cache for hash-consing. */
+    private static final WeakCache<ImmutableNonTerminal<?, ?, ?>> CACHE =
+        WeakCache.empty();
+
     private final int maximumArity;
     private final int size;
+    private final int depth;
+    private final long fingerprint;
+    private volatile PostfixProgram<Terminals, Output> program;
 
-    /**
-     * @param name       The name of this non-terminal node
-     * @param function   The operator function
-     * @param children   The immutable child nodes
-     * @param inputType  The input type class
-     * @param returnType The output type class
-     */
-    public ImmutableNonTerminal(
+    private ImmutableNonTerminal(
         String name,
         Operator<Input, Output> function,
         ImmutableNode<Terminals, ?, Input, ?, ?>[] children,
@@ -41,7 +45,47 @@ public final class ImmutableNonTerminal<Terminals, Input, Output> extends NonTer
     ) {
         super(name, function, children, inputType, returnType);
         this.maximumArity = super.maximumArity();
-        this.size = super.size();
+        int size = 1;
+        int depth = 0;
+        for (final ImmutableNode<Terminals, ?, Input, ?, ?> child : children) {
+            size += child.size();
+            depth = Math.max(depth, child.depth());
+        }
+        this.size = size;
+        this.depth = depth + 1;
+        this.fingerprint = Fingerprints.nonTerminal(
+            name, inputType, returnType, children
+        );
+    }
+
+    /**
+     * Creates or retrieves the shared immutable non-terminal.
+     * @param <Terminals> The terminal type
+     * @param <Input> The input type
+     * @param <Output> The output type
+     * @param name       The name of this non-terminal node
+     * @param function   The operator function
+     * @param children   The immutable child nodes
+     * @param inputType  The input type class
+     * @param returnType The output type class
+     * @return The canonical non-terminal with this structure.
+     */
+    public static <Terminals, Input, Output> ImmutableNonTerminal<
+        Terminals, Input, Output
+    > of(
+        final String name,
+        final Operator<Input, Output> function,
+        final ImmutableNode<Terminals, ?, Input, ?, ?>[] children,
+        final Class<Input> inputType,
+        final Class<Output> returnType
+    ) {
+        final ImmutableNonTerminal<Terminals, Input, Output> nonTerm =
+            new ImmutableNonTerminal<>(name, function, children, inputType, returnType);
+
+        //noinspection unchecked
+        return (ImmutableNonTerminal<Terminals, Input, Output>) CACHE.getOrInsert(
+            nonTerm
+        );
     }
 
     @Override
@@ -49,28 +93,52 @@ public final class ImmutableNonTerminal<Terminals, Input, Output> extends NonTer
         return this;
     }
 
+    @Override
+    public PostfixProgram<Terminals, Output> compile() {
+        PostfixProgram<Terminals, Output> compiled = this.program;
+        if (compiled == null) {
+            compiled = PostfixProgram.compile(this);
+            this.program = compiled;
+        }
+        return compiled;
+    }
+
     @Override
     public int maximumArity() {
         return maximumArity;
     }
 
+    @Override
+    public long fingerprint() {
+        return this.fingerprint;
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(
-            name,
-            function,
-            Arrays.hashCode(children),
-            inputType,
-            returnType
-        );
+        return Long.hashCode(this.fingerprint);
     }
 
+    /**
+     * Evaluates this node on the given terminal inputs.
+     * The tree is flattened into a {@link PostfixProgram} the first time
+     *  it's evaluated and the program is kept, it's run with an explicit
+     *  operand stack, so deep trees can't overflow the call stack.
+     * @param terminals The terminal inputs
+     * @return The output value
+     */
     @Override
-    public Output evaluate(Terminals terminals) {
-        return this.manualOutput(ArrayUtils.map(
-            children, inputType,
-            c -> c.evaluate(terminals)
-        ));
+    public Output evaluate(final Terminals terminals) {
+        return this.compile().evaluate(terminals, EvalContext.current());
+    }
+
+    @Override
+    public Output evaluate(final Terminals terminals, final EvalContext context) {
+        return this.compile().evaluate(terminals, context);
+    }
+
+    @Override
+    public double evaluateAsDouble(final Terminals terminals) {
+        return this.compile().evaluateAsDouble(terminals, EvalContext.current());
     }
 
     @Override
@@ -85,13 +153,23 @@ public final class ImmutableNonTerminal<Terminals, Input, Output> extends NonTer
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) { return true; }
         if (o == null || getClass() != o.getClass()) { return false; }
 
+        // Children are already canonical, so comparing them by identity
+        //  is a structural comparison of the whole subtree.
         final ImmutableNonTerminal<?, ?, ?> that = (ImmutableNonTerminal<?, ?, ?>) o;
-        return this.maximumArity == that.maximumArity
-            && name.equals(that.name)
+        if (this.fingerprint != that.fingerprint
+            || children.length != that.children.length) {
+            return false;
+        }
+        for (int i = 0; i < children.length; i++) {
+            if (children[i] != that.children[i]) {
+                return false;
+            }
+        }
+        return name.equals(that.name)
             && function.equals(that.function)
-            && Arrays.equals(children, that.children)
             && inputType.equals(that.inputType)
             && returnType.equals(that.returnType);
     }
@@ -100,4 +178,9 @@ public final class ImmutableNonTerminal<Terminals, Input, Output> extends NonTer
     public int size() {
         return this.size;
     }
+
+    @Override
+    public int depth() {
+        return this.depth;
+    }
 }
@@ -1,6 +1,6 @@
 package gp.impl.individual.tree;
 
-import utils.Cache;
+import utils.WeakCache;
 import utils.operators.UnaryOperator;
 
 
@@ -18,12 +18,16 @@ public final class ImmutableTerminal<Terminals, Output>
         ImmutableTerminal<Terminals, Output>,
         MutableTerminal<Terminals, Output>
 > {
+    private final long fingerprint;
+    private volatile PostfixProgram<Terminals, Output> program;
+
     private ImmutableTerminal(
         String name,
         UnaryOperator<Terminals, Output> extractor,
         Class<Output> returnType
     ) {
         super(name, extractor, returnType);
+        this.fingerprint = Fingerprints.terminal(name, returnType);
     }
 
     @Override
@@ -31,8 +35,18 @@ public final class ImmutableTerminal<Terminals, Output>
         return this;
     }
 
+    @Override
+    public PostfixProgram<Terminals, Output> compile() {
+        PostfixProgram<Terminals, Output> compiled = this.program;
+        if (compiled == null) {
+            compiled = PostfixProgram.compile(this);
+            this.program = compiled;
+        }
+        return compiled;
+    }
+
     /** Cache for flyweight pattern. */
-    private static final Cache<ImmutableTerminal<?, ?>> CACHE = Cache.empty();
+    private static final WeakCache<ImmutableTerminal<?, ?>> CACHE = WeakCache.empty();
 
     /**
      * Creates or retrieves a singleton immutable terminal.
@@ -56,6 +70,28 @@ public final class ImmutableTerminal<Terminals, Output>
         return (ImmutableTerminal<Terminals, Output>) CACHE.getOrInsert(term);
     }
 
+    @Override
+    public long fingerprint() {
+        return this.fingerprint;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) { return true; }
+        if (o == null || getClass() != o.getClass()) { return false; }
+
+        final ImmutableTerminal<?, ?> that = (ImmutableTerminal<?, ?>) o;
+        return this.fingerprint == that.fingerprint
+            && name.equals(that.name)
+            && extractor.equals(that.extractor)
+            && returnType.equals(that.returnType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.fingerprint);
+    }
+
     @Override
     public String toString() {
         return "ImmutableTerminal[name="
@@ -42,6 +42,24 @@ public final class MutableNonTerminal<Terminals, Input, Output>
         super(name, operatorFunction, childList, inType, outType);
     }
 
+    /**
+     * Evaluates this node on the given terminal inputs.
+     * The tree may change between evaluations, so rather than compiling it
+     *  the nodes are walked directly by a {@link TreeEvaluator}.
+     * @param terminals The terminal inputs
+     * @return The output value
+     */
+    @Override
+    public Output evaluate(final Terminals terminals) {
+        return this.evaluate(terminals, EvalContext.current());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Output evaluate(final Terminals terminals, final EvalContext context) {
+        return (Output) TreeEvaluator.evaluate(this, terminals, context);
+    }
+
     /**
      * Sets the operator function.
      * @param newFunction The new function
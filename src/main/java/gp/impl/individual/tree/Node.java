@@ -59,7 +59,8 @@ public sealed interface Node<
     String name();
 
     /**
-     * Returns a stream of all nodes in this subtree.
+     * Returns a stream of all nodes in this subtree in preorder,
+     *  see {@link TreeCursor}.
      * @return A stream of all nodes
      */
     Stream<Node<Terminals, ?, ?, ?, ?>> stream();
@@ -77,6 +78,29 @@ public sealed interface Node<
      */
     Output evaluate(Terminals terminals);
 
+    /**
+     * Evaluates this node on the given terminal inputs,
+     *  borrowing any scratch space from the given context.
+     * @param terminals The terminal inputs
+     * @param context The context to borrow scratch space from
+     * @return The output value
+     */
+    default Output evaluate(final Terminals terminals, final EvalContext context) {
+        return this.evaluate(terminals);
+    }
+
+    /**
+     * Evaluates this node on the given terminal inputs as a primitive double.
+     * Subtrees built from double specialised operators never box
+     *  their intermediate results.
+     * @param terminals The terminal inputs
+     * @return The output value
+     * @throws ClassCastException if the output of this node is not a Number.
+     */
+    default double evaluateAsDouble(final Terminals terminals) {
+        return ((Number) this.evaluate(terminals)).doubleValue();
+    }
+
 //    List<Output> evaluateAll(List<Terminals> terminalsList);/
     /**
      * Creates a mutable copy of this node.
@@ -101,17 +125,12 @@ public sealed interface Node<
      * @return the total number of nodes.
      */
     default int size() {
-        return this.extract(new TreeExtractor<>() {
-            @Override
-            public Integer terminal(Terminal<?, ?> node) {
-                return 1;
-            }
-
-            @Override
-            public Integer nonTerminal(NonTerminal<?, ?, ?, ?> node) {
-                return Arrays.stream(node.children).mapToInt(c -> c.extract(this)).sum();
-            }
-        });
+        final TreeCursor<Terminals> cursor = TreeCursor.of(this);
+        int size = 0;
+        while (cursor.advance()) {
+            size++;
+        }
+        return size;
     }
 
     /**
@@ -150,7 +169,7 @@ public sealed interface Node<
             final Class<In> inputType,
             final Class<Out> outputType
     ) {
-        return new ImmutableNonTerminal<>(
+        return ImmutableNonTerminal.of(
                 name, function, children, inputType, outputType
         );
     }
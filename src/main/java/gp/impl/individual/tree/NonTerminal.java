@@ -1,9 +1,10 @@
 package gp.impl.individual.tree;
 
 import utils.ArrayUtils;
+import utils.operators.DoubleBinaryOperator;
+import utils.operators.DoubleUnaryOperator;
 import utils.operators.Operator;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Stream;
@@ -135,15 +136,16 @@ public abstract sealed class NonTerminal<
         return function().produce(inputs);
     }
 
-    @Override
-    public Output evaluate(Terminals terminals) {
-        @SuppressWarnings("unchecked")
-        final Input[] inputs = (Input[]) new Object[children.length];
-        for (int i=0; i < children.length; i++) {
-            inputs[i] = children[i].evaluate(terminals);
-        }
-
-        return this.manualOutput(inputs);
+    /**
+     * @return true if the function of this non-terminal applies directly
+     *  to primitive doubles.
+     */
+    boolean isDoubleSpecialised() {
+        return switch (this.function) {
+            case DoubleUnaryOperator _ -> children.length == 1;
+            case DoubleBinaryOperator _ -> children.length == 2;
+            default -> false;
+        };
     }
 
     @Override
@@ -162,7 +164,7 @@ public abstract sealed class NonTerminal<
 
     @Override
     public ImmutableNonTerminal<Terminals, Input, Output> immutableCopy() {
-        return new ImmutableNonTerminal<>(
+        return ImmutableNonTerminal.of(
                 this.name,
                 this.function,
                 ArrayUtils.map(
@@ -176,17 +178,17 @@ public abstract sealed class NonTerminal<
 
     @Override
     public Stream<Node<Terminals, ?, ?, ?, ?>> stream() {
-        return Stream.concat(
-                Stream.of(this),
-                Arrays.stream(this.children)
-                        .flatMap(Node::stream)
-        );
+        return TreeCursor.stream(this);
     }
 
     @Override
     public int depth() {
-        return 1 + Arrays.stream(children).mapToInt(Node::depth).max()
-                .orElseThrow();
+        final TreeCursor<Terminals> cursor = TreeCursor.of(this);
+        int depth = 0;
+        while (cursor.advance()) {
+            depth = Math.max(depth, cursor.level());
+        }
+        return depth;
     }
 
     @Override
@@ -0,0 +1,538 @@
+package gp.impl.individual.tree;
+
+import utils.operators.BinaryOperator;
+import utils.operators.DoubleBinaryOperator;
+import utils.operators.DoubleUnaryOperator;
+import utils.operators.LazyOperator;
+import utils.operators.Operator;
+import utils.operators.TernaryOperator;
+import utils.operators.ToDoubleOperator;
+import utils.operators.UnaryOperator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable tree flattened into a postfix program.
+ * Evaluating the program is a single loop over the instructions with an
+ *  explicit operand stack, so no recursion, megamorphic node dispatch
+ *  or per-node input arrays are needed for unary, binary and ternary
+ *  operators, they're called directly with their operands.
+ * When every node of the tree is double specialised the program runs on a
+ *  primitive double stack, so no intermediate results are boxed.
+ * The operands of a {@link LazyOperator} are compiled into separate programs,
+ *  which are only run when the operator asks for them.
+ * Batches of fitness cases are evaluated a column at a time, each
+ *  instruction is applied to every case before the next one runs.
+ * Operand stacks and input arrays are borrowed from an {@link EvalContext},
+ *  so evaluating a program doesn't allocate per node.
+ * @param <Terminals> The terminal type the program is evaluated on.
+ * @param <Output> The output type of the program.
+ */
+public final class PostfixProgram<Terminals, Output>
+    implements CompiledTree<Terminals, Output> {
+    /** Push the result of a terminal extractor. */
+    static final byte TERMINAL = 0;
+    /** Pop one operand and apply a unary operator. */
+    static final byte UNARY = 1;
+    /** Pop two operands and apply a binary operator. */
+    static final byte BINARY = 2;
+    /** Pop three operands and apply a ternary operator. */
+    static final byte TERNARY = 3;
+    /** Pop `arity` operands into an array and apply a general operator. */
+    static final byte NARY = 4;
+    /** Push the result of a lazy operator, which runs its own sub-programs. */
+    static final byte LAZY = 5;
+
+    private final byte[] opcodes;
+    private final Object[] operands;
+    private final int[] arities;
+    private final Class<?>[] inputTypes;
+    private final int maxStackSize;
+    private final boolean primitive;
+
+    private PostfixProgram(
+        final byte[] opcodes,
+        final Object[] operands,
+        final int[] arities,
+        final Class<?>[] inputTypes,
+        final int maxStackSize,
+        final boolean primitive
+    ) {
+        this.opcodes = opcodes;
+        this.operands = operands;
+        this.arities = arities;
+        this.inputTypes = inputTypes;
+        this.maxStackSize = maxStackSize;
+        this.primitive = primitive;
+    }
+
+    /**
+     * Flatten a tree into a postfix program.
+     * Mutable trees can be compiled too, but the program won't see any
+     *  later changes to them.
+     * @param root The root of the tree to compile.
+     * @return A program that evaluates identically to `root.evaluate`.
+     * @param <T> The terminal type.
+     * @param <O> The output type.
+     */
+    public static <T, O> PostfixProgram<T, O> compile(
+        final Node<T, ?, O, ?, ?> root
+    ) {
+        final List<Node<?, ?, ?, ?, ?>> postfix = flatten(root);
+
+        final int length = postfix.size();
+        final byte[] opcodes = new byte[length];
+        final Object[] operands = new Object[length];
+        final int[] arities = new int[length];
+        final Class<?>[] inputTypes = new Class<?>[length];
+
+        int stackSize = 0;
+        int maxStackSize = 0;
+        boolean primitive = true;
+        for (int i = 0; i < length; i++) {
+            primitive &= isDoubleSpecialised(postfix.get(i));
+            switch (postfix.get(i)) {
+                case final Terminal<?, ?> term -> {
+                    opcodes[i] = TERMINAL;
+                    operands[i] = term.extractor();
+                }
+                case final NonTerminal<?, ?, ?, ?> nonTerm
+                    when nonTerm.function() instanceof LazyOperator<?, ?> function -> {
+                    opcodes[i] = LAZY;
+                    operands[i] = LazyApplication.of(function, nonTerm.children());
+                }
+                case final NonTerminal<?, ?, ?, ?> nonTerm -> {
+                    final Operator<?, ?> function = nonTerm.function();
+                    arities[i] = nonTerm.numChildren();
+                    inputTypes[i] = nonTerm.inputType();
+                    operands[i] = function;
+                    opcodes[i] = opcodeOf(function, arities[i]);
+                }
+            }
+            stackSize += 1 - arities[i];
+            maxStackSize = Math.max(maxStackSize, stackSize);
+        }
+
+        return new PostfixProgram<>(
+            opcodes, operands, arities, inputTypes, maxStackSize, primitive
+        );
+    }
+
+    /**
+     * Check if a node can be evaluated on primitive doubles.
+     * @param node The node to check, its children are not checked.
+     * @return true if the node's operator applies directly to doubles.
+     */
+    static boolean isDoubleSpecialised(final Node<?, ?, ?, ?, ?> node) {
+        return switch (node) {
+            case final Terminal<?, ?> term -> term.isDoubleSpecialised();
+            case final NonTerminal<?, ?, ?, ?> nonTerm -> nonTerm.isDoubleSpecialised();
+            default -> false;
+        };
+    }
+
+    /**
+     * Pick the most specific instruction that can apply the function.
+     * @param function The operator of a non-terminal.
+     * @param arity The number of children of the non-terminal.
+     * @return The opcode to apply the operator with.
+     */
+    static byte opcodeOf(final Operator<?, ?> function, final int arity) {
+        if (function instanceof LazyOperator<?, ?>) {
+            return LAZY;
+        }
+        if (arity == 1 && function instanceof UnaryOperator<?, ?>) {
+            return UNARY;
+        }
+        if (arity == 2 && function instanceof BinaryOperator<?, ?>) {
+            return BINARY;
+        }
+        if (arity == 3 && function instanceof TernaryOperator<?, ?>) {
+            return TERNARY;
+        }
+        return NARY;
+    }
+
+    /**
+     * List the nodes of a tree in postfix order without recursing.
+     * Visiting each node before its children, last child first, gives
+     *  the postfix order reversed.
+     * @param root The root of the tree.
+     * @return Every node of the tree, each after all of its children,
+     *  except for the operands of lazy operators.
+     */
+    private static List<Node<?, ?, ?, ?, ?>> flatten(final Node<?, ?, ?, ?, ?> root) {
+        final List<Node<?, ?, ?, ?, ?>> postfix = new ArrayList<>();
+        final ArrayDeque<Node<?, ?, ?, ?, ?>> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            final Node<?, ?, ?, ?, ?> node = stack.pop();
+            postfix.add(node);
+            if (node instanceof NonTerminal<?, ?, ?, ?> nonTerminal
+                && !(nonTerminal.function() instanceof LazyOperator<?, ?>)) {
+                for (final Node<?, ?, ?, ?, ?> child : nonTerminal.children()) {
+                    stack.push(child);
+                }
+            }
+        }
+        Collections.reverse(postfix);
+        return postfix;
+    }
+
+    /**
+     * Evaluate the program on the given terminals,
+     *  using the evaluation context of the current thread.
+     * @param terminals The terminals to evaluate on.
+     * @return The output of the program.
+     */
+    @Override
+    public Output evaluate(final Terminals terminals) {
+        return this.evaluate(terminals, EvalContext.current());
+    }
+
+    /**
+     * Evaluate the program on the given terminals.
+     * @param terminals The terminals to evaluate on.
+     * @param context The context to borrow the operand stack from.
+     * @return The output of the program.
+     */
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Output evaluate(final Terminals terminals, final EvalContext context) {
+        if (primitive) {
+            return (Output) (Double) this.evaluateAsDouble(terminals, context);
+        }
+        final Object[] stack = context.borrowObjects(maxStackSize);
+        int top = 0;
+        for (int i = 0; i < opcodes.length; i++) {
+            switch (opcodes[i]) {
+                case TERMINAL -> stack[top++] =
+                    ((UnaryOperator<Terminals, ?>) operands[i]).produce(terminals);
+                case UNARY -> stack[top - 1] =
+                    ((UnaryOperator) operands[i]).produce(stack[top - 1]);
+                case BINARY -> {
+                    top--;
+                    stack[top - 1] = ((BinaryOperator) operands[i]).produce(
+                        stack[top - 1], stack[top]
+                    );
+                }
+                case TERNARY -> {
+                    top -= 2;
+                    stack[top - 1] = ((TernaryOperator) operands[i]).produce(
+                        stack[top - 1], stack[top], stack[top + 1]
+                    );
+                }
+                case LAZY -> stack[top++] =
+                    ((LazyApplication) operands[i]).evaluate(terminals, context);
+                default -> {
+                    final int arity = arities[i];
+                    final Object[] inputs = context.borrowInputs(inputTypes[i], arity);
+                    top -= arity;
+                    System.arraycopy(stack, top, inputs, 0, arity);
+                    stack[top++] = ((Operator) operands[i]).produce(inputs);
+                    context.returnInputs(inputs);
+                }
+            }
+        }
+        final Output output = (Output) stack[0];
+        context.returnObjects(stack, maxStackSize);
+        return output;
+    }
+
+    /**
+     * Evaluate the program on the given terminals as a primitive double,
+     *  using the evaluation context of the current thread.
+     * @param terminals The terminals to evaluate on.
+     * @return The output of the program.
+     */
+    @Override
+    public double evaluateAsDouble(final Terminals terminals) {
+        return this.evaluateAsDouble(terminals, EvalContext.current());
+    }
+
+    /**
+     * Evaluate the program on the given terminals as a primitive double.
+     * @param terminals The terminals to evaluate on.
+     * @param context The context to borrow the operand stack from.
+     * @return The output of the program.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public double evaluateAsDouble(final Terminals terminals, final EvalContext context) {
+        if (!primitive) {
+            return ((Number) this.evaluate(terminals, context)).doubleValue();
+        }
+        final double[] stack = context.borrowDoubles(maxStackSize);
+        int top = 0;
+        for (int i = 0; i < opcodes.length; i++) {
+            switch (opcodes[i]) {
+                case TERMINAL -> stack[top++] =
+                    ((ToDoubleOperator<Terminals>) operands[i]).applyAsDouble(terminals);
+                case UNARY -> stack[top - 1] = ((DoubleUnaryOperator) operands[i])
+                    .applyAsDouble(stack[top - 1]);
+                default -> {
+                    top--;
+                    stack[top - 1] = ((DoubleBinaryOperator) operands[i])
+                        .applyAsDouble(stack[top - 1], stack[top]);
+                }
+            }
+        }
+        final double output = stack[0];
+        context.returnDoubles(stack);
+        return output;
+    }
+
+    /**
+     * Evaluate the program on every fitness case, one instruction at a time.
+     * The stack holds a column of values per slot, so the dispatch on each
+     *  instruction is paid once per batch instead of once per case.
+     * The columns are borrowed from the current thread's {@link EvalContext},
+     *  only the output column is allocated.
+     * @param cases The terminals of each fitness case.
+     * @return The output for each fitness case, in the same order as `cases`.
+     */
+    @Override
+    public List<Output> evaluateAll(final List<Terminals> cases) {
+        return this.evaluateAll(cases.toArray(), null);
+    }
+
+    /**
+     * Evaluate the program on every fitness case of a dataset,
+     *  copying the precomputed column of each terminal.
+     * @param columns The fitness cases and their terminal columns.
+     * @return The output for each fitness case, in the same order as `cases()`.
+     */
+    @Override
+    public List<Output> evaluateAll(final TerminalColumns<Terminals> columns) {
+        return this.evaluateAll(columns.terminals(), columns);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Output> evaluateAll(
+        final Object[] terminals,
+        final TerminalColumns<Terminals> columns
+    ) {
+        if (primitive) {
+            return (List<Output>) (List<?>) Arrays.stream(
+                this.evaluateAllAsDouble(terminals, columns)
+            ).boxed().toList();
+        }
+        final int n = terminals.length;
+        final EvalContext context = EvalContext.current();
+        final Object[][] stack = context.borrowObjectColumns(maxStackSize, n);
+        int top = 0;
+        for (int i = 0; i < opcodes.length; i++) {
+            switch (opcodes[i]) {
+                case TERMINAL -> {
+                    final UnaryOperator extractor = (UnaryOperator) operands[i];
+                    final Object[] column = stack[top++];
+                    if (columns != null) {
+                        columns.fill(extractor, column);
+                        continue;
+                    }
+                    for (int j = 0; j < n; j++) {
+                        column[j] = extractor.produce(terminals[j]);
+                    }
+                }
+                case UNARY -> {
+                    final UnaryOperator function = (UnaryOperator) operands[i];
+                    final Object[] column = stack[top - 1];
+                    for (int j = 0; j < n; j++) {
+                        column[j] = function.produce(column[j]);
+                    }
+                }
+                case BINARY -> {
+                    final BinaryOperator function = (BinaryOperator) operands[i];
+                    top--;
+                    final Object[] left = stack[top - 1];
+                    final Object[] right = stack[top];
+                    for (int j = 0; j < n; j++) {
+                        left[j] = function.produce(left[j], right[j]);
+                    }
+                }
+                case TERNARY -> {
+                    final TernaryOperator function = (TernaryOperator) operands[i];
+                    top -= 2;
+                    final Object[] first = stack[top - 1];
+                    final Object[] second = stack[top];
+                    final Object[] third = stack[top + 1];
+                    for (int j = 0; j < n; j++) {
+                        first[j] = function.produce(first[j], second[j], third[j]);
+                    }
+                }
+                case LAZY -> {
+                    final LazyApplication function = (LazyApplication) operands[i];
+                    final Object[] column = stack[top++];
+                    for (int j = 0; j < n; j++) {
+                        column[j] = function.evaluate(terminals[j], context);
+                    }
+                }
+                default -> {
+                    final Operator function = (Operator) operands[i];
+                    final int arity = arities[i];
+                    final Object[] inputs = context.borrowInputs(inputTypes[i], arity);
+                    top -= arity;
+                    for (int j = 0; j < n; j++) {
+                        for (int k = 0; k < arity; k++) {
+                            inputs[k] = stack[top + k][j];
+                        }
+                        stack[top][j] = function.produce(inputs);
+                    }
+                    context.returnInputs(inputs);
+                    top++;
+                }
+            }
+        }
+        final Object[] outputs = Arrays.copyOf(stack[0], n);
+        context.returnObjectColumns(stack, maxStackSize, n);
+        return Collections.unmodifiableList(Arrays.asList((Output[]) outputs));
+    }
+
+    /**
+     * Evaluate the program on every fitness case as primitive doubles,
+     *  one instruction at a time.
+     * Unary and binary instructions are tight loops over double columns.
+     * The columns are borrowed from the current thread's {@link EvalContext},
+     *  only the output column is allocated.
+     * @param cases The terminals of each fitness case.
+     * @return The output for each fitness case, in the same order as `cases`.
+     */
+    @Override
+    public double[] evaluateAllAsDouble(final List<Terminals> cases) {
+        if (!primitive) {
+            return CompiledTree.super.evaluateAllAsDouble(cases);
+        }
+        return this.evaluateAllAsDouble(cases.toArray(), null);
+    }
+
+    /**
+     * Evaluate the program on every fitness case of a dataset as primitive
+     *  doubles, copying the precomputed column of each terminal.
+     * @param columns The fitness cases and their terminal columns.
+     * @return The output for each fitness case, in the same order as `cases()`.
+     */
+    @Override
+    public double[] evaluateAllAsDouble(final TerminalColumns<Terminals> columns) {
+        if (!primitive) {
+            return CompiledTree.super.evaluateAllAsDouble(columns);
+        }
+        return this.evaluateAllAsDouble(columns.terminals(), columns);
+    }
+
+    @SuppressWarnings("unchecked")
+    private double[] evaluateAllAsDouble(
+        final Object[] terminals,
+        final TerminalColumns<Terminals> columns
+    ) {
+        final int n = terminals.length;
+        final EvalContext context = EvalContext.current();
+        final double[][] stack = context.borrowColumns(maxStackSize, n);
+        int top = 0;
+        for (int i = 0; i < opcodes.length; i++) {
+            switch (opcodes[i]) {
+                case TERMINAL -> {
+                    final ToDoubleOperator<Terminals> extractor =
+                        (ToDoubleOperator<Terminals>) operands[i];
+                    final double[] column = stack[top++];
+                    if (columns != null) {
+                        columns.fill(extractor, column);
+                        continue;
+                    }
+                    for (int j = 0; j < n; j++) {
+                        column[j] = extractor.applyAsDouble((Terminals) terminals[j]);
+                    }
+                }
+                case UNARY -> {
+                    final DoubleUnaryOperator function =
+                        (DoubleUnaryOperator) operands[i];
+                    final double[] column = stack[top - 1];
+                    for (int j = 0; j < n; j++) {
+                        column[j] = function.applyAsDouble(column[j]);
+                    }
+                }
+                default -> {
+                    final DoubleBinaryOperator function =
+                        (DoubleBinaryOperator) operands[i];
+                    top--;
+                    final double[] left = stack[top - 1];
+                    final double[] right = stack[top];
+                    for (int j = 0; j < n; j++) {
+                        left[j] = function.applyAsDouble(left[j], right[j]);
+                    }
+                }
+            }
+        }
+        final double[] outputs = Arrays.copyOf(stack[0], n);
+        context.returnColumns(stack);
+        return outputs;
+    }
+
+    /**
+     * @return the number of instructions in this program.
+     */
+    public int length() {
+        return opcodes.length;
+    }
+
+    /**
+     * @return the largest number of operands on the stack at any point.
+     */
+    public int maxStackSize() {
+        return maxStackSize;
+    }
+
+    /**
+     * @return true if this program runs entirely on primitive doubles.
+     */
+    public boolean isPrimitive() {
+        return primitive;
+    }
+}
+
+/**
+ * A lazy operator along with the compiled programs of its operands.
+ * @param function The lazy operator.
+ * @param operands The program of each operand.
+ */
+record LazyApplication(
+    LazyOperator<Object, Object> function,
+    PostfixProgram<Object, Object>[] operands
+) {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static LazyApplication of(
+        final LazyOperator<?, ?> function,
+        final Node<?, ?, ?, ?, ?>[] children
+    ) {
+        final PostfixProgram[] operands = new PostfixProgram[children.length];
+        for (int i = 0; i < children.length; i++) {
+            operands[i] = children[i] instanceof ImmutableNode<?, ?, ?, ?, ?> child
+                ? child.compile()
+                : PostfixProgram.compile((Node) children[i]);
+        }
+        return new LazyApplication((LazyOperator<Object, Object>) function, operands);
+    }
+
+    /**
+     * Apply the operator, operands are evaluated on demand.
+     * @param terminals The terminals to evaluate the operands on.
+     * @param context The context the operands borrow their stacks from.
+     * @return The output of the operator.
+     */
+    Object evaluate(final Object terminals, final EvalContext context) {
+        return function.produce(new LazyOperator.Operands<>() {
+            @Override
+            public Object evaluate(final int index) {
+                return operands[index].evaluate(terminals, context);
+            }
+
+            @Override
+            public int size() {
+                return operands.length;
+            }
+        });
+    }
+}
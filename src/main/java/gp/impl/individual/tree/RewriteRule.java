@@ -0,0 +1,19 @@
+package gp.impl.individual.tree;
+
+import java.util.Optional;
+
+/**
+ * An algebraic rewrite applied by the {@link Simplifier}.
+ * Rules are only given nodes whose children are already simplified.
+ * Subtrees are hash-consed, so identical children can be compared with `==`.
+ */
+@FunctionalInterface
+public interface RewriteRule {
+    /**
+     * Try to rewrite a node into a simpler equivalent.
+     * The rewritten node must return a subtype of the node's return type.
+     * @param node The node to rewrite.
+     * @return The rewritten node, or empty if the rule doesn't apply.
+     */
+    Optional<ImmutableNode<?, ?, ?, ?, ?>> rewrite(ImmutableNode<?, ?, ?, ?, ?> node);
+}
@@ -0,0 +1,98 @@
+package gp.impl.individual.tree;
+
+import java.util.Optional;
+
+/**
+ * Common algebraic rewrite rules, each matches non-terminals by name.
+ * Note: for floating point operators these are only exact for finite values,
+ *  e.g. `(- x x)` is NaN rather than 0 when `x` is infinite.
+ */
+public enum RewriteRules {;
+    /**
+     * `(f (f x)) -> x`, e.g. negation.
+     * @param name The name of the self-inverse unary non-terminal.
+     * @return The rewrite rule.
+     */
+    public static RewriteRule involution(final String name) {
+        return node -> named(node, name, 1)
+            .flatMap(outer -> named(outer.children()[0], name, 1))
+            .map(inner -> inner.children()[0]);
+    }
+
+    /**
+     * `(f x x) -> x`, e.g. min or max.
+     * @param name The name of the idempotent binary non-terminal.
+     * @return The rewrite rule.
+     */
+    public static RewriteRule idempotent(final String name) {
+        return node -> named(node, name, 2)
+            .filter(nonTerm -> nonTerm.children()[0] == nonTerm.children()[1])
+            .map(nonTerm -> nonTerm.children()[0]);
+    }
+
+    /**
+     * `(f x x) -> c`, e.g. `(- x x) -> 0`.
+     * @param name The name of the binary non-terminal.
+     * @param value The value of the non-terminal when both operands are equal.
+     * @return The rewrite rule.
+     */
+    public static RewriteRule selfCancelling(final String name, final Object value) {
+        return node -> named(node, name, 2)
+            .filter(nonTerm -> nonTerm.children()[0] == nonTerm.children()[1])
+            .map(nonTerm -> Simplifier.constant(value, nonTerm.returnType()));
+    }
+
+    /**
+     * `(f x c) -> x` when `c` is the right identity, e.g. `(- x 0) -> x`.
+     * @param name The name of the binary non-terminal.
+     * @param identity The right identity element of the non-terminal.
+     * @return The rewrite rule.
+     */
+    public static RewriteRule rightIdentity(final String name, final Object identity) {
+        return node -> named(node, name, 2)
+            .filter(nonTerm -> Simplifier.constantValue(nonTerm.children()[1])
+                .filter(identity::equals)
+                .isPresent())
+            .map(nonTerm -> nonTerm.children()[0]);
+    }
+
+    /**
+     * `(f c x) -> x` when `c` is the left identity, e.g. `(* 1 x) -> x`.
+     * @param name The name of the binary non-terminal.
+     * @param identity The left identity element of the non-terminal.
+     * @return The rewrite rule.
+     */
+    public static RewriteRule leftIdentity(final String name, final Object identity) {
+        return node -> named(node, name, 2)
+            .filter(nonTerm -> Simplifier.constantValue(nonTerm.children()[0])
+                .filter(identity::equals)
+                .isPresent())
+            .map(nonTerm -> nonTerm.children()[1]);
+    }
+
+    /**
+     * `(f x c)` and `(f c x) -> x` when `c` is the identity of a
+     *  commutative operator, e.g. `(+ x 0) -> x`.
+     * @param name The name of the binary non-terminal.
+     * @param identity The identity element of the non-terminal.
+     * @return The rewrite rule.
+     */
+    public static RewriteRule identity(final String name, final Object identity) {
+        final RewriteRule right = rightIdentity(name, identity);
+        final RewriteRule left = leftIdentity(name, identity);
+        return node -> right.rewrite(node).or(() -> left.rewrite(node));
+    }
+
+    private static Optional<ImmutableNonTerminal<?, ?, ?>> named(
+        final Node<?, ?, ?, ?, ?> node,
+        final String name,
+        final int arity
+    ) {
+        if (node instanceof ImmutableNonTerminal<?, ?, ?> nonTerm
+            && nonTerm.numChildren() == arity
+            && nonTerm.name().equals(name)) {
+            return Optional.of(nonTerm);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,346 @@
+package gp.impl.individual.tree;
+
+import utils.Preconditions;
+import utils.operators.DoubleBinaryOperator;
+import utils.operators.DoubleUnaryOperator;
+import utils.operators.LazyOperator;
+import utils.operators.Operator;
+import utils.operators.ToDoubleOperator;
+import utils.operators.UnaryOperator;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of the outputs of subtrees over a fixed set of fitness cases.
+ * While the fitness cases don't change a subtree's output column is the same
+ *  in every individual it appears in, so each distinct subtree in the
+ *  population is only evaluated once.
+ * Subtrees are hash-consed, so the canonical node is the structural key.
+ * The least recently used columns are evicted once more than
+ *  `maximumValues` outputs are cached.
+ * @param <Terminals> The terminal type of the fitness cases.
+ */
+public final class SemanticCache<Terminals> {
+    private final List<Terminals> cases;
+    private final Object[] terminals;
+    private final long maximumValues;
+
+    /** Output columns, double[] for double specialised nodes, otherwise Object[]. */
+    private final Map<ImmutableNode<?, ?, ?, ?, ?>, Object> columns =
+        new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedValues;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private SemanticCache(final List<Terminals> cases, final long maximumValues) {
+        this.cases = List.copyOf(cases);
+        this.terminals = this.cases.toArray();
+        this.maximumValues = maximumValues;
+    }
+
+    /**
+     * Create an empty cache over the given fitness cases.
+     * @param cases The fitness cases every subtree is evaluated on.
+     * @param maximumValues The memory budget, the maximum number of subtree
+     *  outputs held at once. Each cached subtree costs `cases.size()` outputs.
+     * @return A new empty cache.
+     * @param <T> The terminal type.
+     * @throws IllegalArgumentException if maximumValues is negative.
+     */
+    public static <T> SemanticCache<T> of(final List<T> cases, final long maximumValues) {
+        Preconditions.assertTrue(
+            maximumValues >= 0, "The memory budget must be non-negative"
+        );
+        return new SemanticCache<>(cases, maximumValues);
+    }
+
+    /**
+     * @return the fitness cases this cache evaluates on.
+     */
+    public List<Terminals> cases() {
+        return cases;
+    }
+
+    /**
+     * Evaluate a tree on every fitness case, reusing the outputs of any
+     *  subtree that has been evaluated before.
+     * @param root The tree to evaluate.
+     * @return The output for each fitness case, in the same order as `cases()`.
+     * @param <O> The output type of the tree.
+     */
+    @SuppressWarnings("unchecked")
+    public <O> List<O> evaluateAll(final ImmutableNode<Terminals, ?, O, ?, ?> root) {
+        return Collections.unmodifiableList(Arrays.asList((O[]) asObjects(column(root))));
+    }
+
+    /**
+     * Evaluate a tree on every fitness case as primitive doubles, reusing
+     *  the outputs of any subtree that has been evaluated before.
+     * @param root The tree to evaluate.
+     * @return The output for each fitness case, in the same order as `cases()`.
+     * @throws ClassCastException if the output of the tree is not a Number.
+     */
+    public double[] evaluateAllAsDouble(final ImmutableNode<Terminals, ?, ?, ?, ?> root) {
+        return asDoubles(column(root)).clone();
+    }
+
+    /**
+     * @return the hit, miss and eviction counts of this cache.
+     */
+    public Stats stats() {
+        synchronized (columns) {
+            return new Stats(
+                hits.sum(), misses.sum(), evictions.sum(), columns.size(), cachedValues
+            );
+        }
+    }
+
+    /**
+     * Remove every cached column, the counters are kept.
+     */
+    public void clear() {
+        synchronized (columns) {
+            columns.clear();
+            cachedValues = 0;
+        }
+    }
+
+    /**
+     * Get the output column of a tree, evaluating the subtrees that aren't
+     *  cached in postfix order with an explicit stack, so deep trees can't
+     *  overflow the call stack.
+     * Columns computed during the walk are kept until it ends even if
+     *  they don't fit in the budget, so each subtree is evaluated once.
+     * @param root The tree to evaluate.
+     * @return The column of the tree, double[] if it's double specialised,
+     *  otherwise Object[].
+     */
+    private Object column(final ImmutableNode<?, ?, ?, ?, ?> root) {
+        final Object cached = lookup(root);
+        if (cached != null) {
+            return cached;
+        }
+        final Map<Node<?, ?, ?, ?, ?>, Object> computed = new IdentityHashMap<>();
+        final Set<Node<?, ?, ?, ?, ?>> looked = Collections.newSetFromMap(
+            new IdentityHashMap<>()
+        );
+        looked.add(root);
+        final Deque<ImmutableNode<?, ?, ?, ?, ?>> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            final ImmutableNode<?, ?, ?, ?, ?> node = stack.peek();
+            if (computed.containsKey(node)) {
+                // A subtree shared with another branch, computed there
+                stack.pop();
+                continue;
+            }
+            boolean ready = true;
+            if ((Node<?, ?, ?, ?, ?>) node instanceof NonTerminal<?, ?, ?, ?> nonTerm
+                && !(nonTerm.function() instanceof LazyOperator<?, ?>)) {
+                final Node<?, ?, ?, ?, ?>[] children = nonTerm.children();
+                for (int k = children.length - 1; k >= 0; k--) {
+                    final ImmutableNode<?, ?, ?, ?, ?> child =
+                        (ImmutableNode<?, ?, ?, ?, ?>) children[k];
+                    if (computed.containsKey(child)) {
+                        continue;
+                    }
+                    final Object column = looked.add(child) ? lookup(child) : null;
+                    if (column != null) {
+                        computed.put(child, column);
+                    } else {
+                        stack.push(child);
+                        ready = false;
+                    }
+                }
+            }
+            if (ready) {
+                stack.pop();
+                final Object column = compute(node, computed);
+                store(node, column);
+                computed.put(node, column);
+            }
+        }
+        return computed.get(root);
+    }
+
+    /**
+     * Evaluate a node on every fitness case from its children's columns.
+     * @param node The node to evaluate.
+     * @param computed The columns of the node's children.
+     * @return The column of the node, double[] if it's double specialised,
+     *  otherwise Object[].
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object compute(
+        final ImmutableNode<?, ?, ?, ?, ?> node,
+        final Map<Node<?, ?, ?, ?, ?>, Object> computed
+    ) {
+        final int n = terminals.length;
+        final boolean specialised = PostfixProgram.isDoubleSpecialised(node);
+        switch ((Node<?, ?, ?, ?, ?>) node) {
+            case final Terminal<?, ?> term when specialised -> {
+                final ToDoubleOperator<Object> extractor =
+                    (ToDoubleOperator<Object>) term.extractor();
+                final double[] column = new double[n];
+                for (int j = 0; j < n; j++) {
+                    column[j] = extractor.applyAsDouble(terminals[j]);
+                }
+                return column;
+            }
+            case final Terminal<?, ?> term -> {
+                final UnaryOperator extractor = term.extractor();
+                final Object[] column = new Object[n];
+                for (int j = 0; j < n; j++) {
+                    column[j] = extractor.produce(terminals[j]);
+                }
+                return column;
+            }
+            case final NonTerminal<?, ?, ?, ?> nonTerm
+                when nonTerm.function() instanceof LazyOperator<?, ?> -> {
+                // Operands of lazy operators are only evaluated where they're needed
+                final List<?> outputs = ((ImmutableNode) node).compile()
+                    .evaluateAll(cases);
+                final Object[] column = outputs.toArray();
+                return specialised ? asDoubles(column) : column;
+            }
+            case final NonTerminal<?, ?, ?, ?> nonTerm when specialised -> {
+                final Node<?, ?, ?, ?, ?>[] children = nonTerm.children();
+                final double[] left = asDoubles(computed.get(children[0]));
+                final double[] column = new double[n];
+                if (children.length == 1) {
+                    final DoubleUnaryOperator function =
+                        (DoubleUnaryOperator) nonTerm.function();
+                    for (int j = 0; j < n; j++) {
+                        column[j] = function.applyAsDouble(left[j]);
+                    }
+                } else {
+                    final double[] right = asDoubles(computed.get(children[1]));
+                    final DoubleBinaryOperator function =
+                        (DoubleBinaryOperator) nonTerm.function();
+                    for (int j = 0; j < n; j++) {
+                        column[j] = function.applyAsDouble(left[j], right[j]);
+                    }
+                }
+                return column;
+            }
+            case final NonTerminal<?, ?, ?, ?> nonTerm -> {
+                final Node<?, ?, ?, ?, ?>[] children = nonTerm.children();
+                final Object[][] inputs = new Object[children.length][];
+                for (int k = 0; k < children.length; k++) {
+                    inputs[k] = asObjects(computed.get(children[k]));
+                }
+                final Operator function = nonTerm.function();
+                final Object[] column = new Object[n];
+                for (int j = 0; j < n; j++) {
+                    final Object[] input = (Object[]) Array.newInstance(
+                        nonTerm.inputType(), children.length
+                    );
+                    for (int k = 0; k < children.length; k++) {
+                        input[k] = inputs[k][j];
+                    }
+                    column[j] = function.produce(input);
+                }
+                return column;
+            }
+            default -> throw new IllegalStateException("Unknown node " + node);
+        }
+    }
+
+    /**
+     * @param column A double[] or Object[] of Numbers.
+     * @return the column as primitive doubles, `column` if it already is.
+     */
+    private static double[] asDoubles(final Object column) {
+        if (column instanceof double[] primitive) {
+            return primitive;
+        }
+        final Object[] boxed = (Object[]) column;
+        final double[] primitive = new double[boxed.length];
+        for (int j = 0; j < boxed.length; j++) {
+            primitive[j] = ((Number) boxed[j]).doubleValue();
+        }
+        return primitive;
+    }
+
+    /**
+     * @param column A double[] or Object[].
+     * @return the column as objects, `column` if it already is.
+     */
+    private static Object[] asObjects(final Object column) {
+        if (column instanceof Object[] boxed) {
+            return boxed;
+        }
+        final double[] primitive = (double[]) column;
+        final Object[] boxed = new Object[primitive.length];
+        for (int j = 0; j < primitive.length; j++) {
+            boxed[j] = primitive[j];
+        }
+        return boxed;
+    }
+
+    private Object lookup(final ImmutableNode<?, ?, ?, ?, ?> node) {
+        final Object cached;
+        synchronized (columns) {
+            cached = columns.get(node);
+        }
+        if (cached == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return cached;
+    }
+
+    private void store(final ImmutableNode<?, ?, ?, ?, ?> node, final Object column) {
+        final int n = terminals.length;
+        if (n > maximumValues) {
+            return;
+        }
+        synchronized (columns) {
+            if (columns.putIfAbsent(node, column) != null) {
+                return;
+            }
+            cachedValues += n;
+            final Iterator<Object> eldest = columns.values().iterator();
+            while (cachedValues > maximumValues) {
+                eldest.next();
+                eldest.remove();
+                cachedValues -= n;
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * A snapshot of the counters of a semantic cache.
+     * @param hits The number of subtree lookups that found a cached column.
+     * @param misses The number of subtree lookups that had to evaluate.
+     * @param evictions The number of columns evicted to stay in budget.
+     * @param cachedSubtrees The number of subtrees currently cached.
+     * @param cachedValues The number of outputs currently cached.
+     */
+    public record Stats(
+        long hits, long misses, long evictions, int cachedSubtrees, long cachedValues
+    ) {
+        /**
+         * @return the proportion of lookups that were hits, 0 if there were none.
+         */
+        public double hitRate() {
+            final long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+}
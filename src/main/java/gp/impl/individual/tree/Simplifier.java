@@ -0,0 +1,236 @@
+package gp.impl.individual.tree;
+
+import utils.operators.Constant;
+import utils.operators.Operator;
+
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simplifies immutable trees by folding subtrees that don't depend on any
+ *  terminal into constant terminals, then applying a set of rewrite rules.
+ * Terminals are constant if their extractor is a {@link Constant},
+ *  as the ones created by ephemeral constants are.
+ * Operators are assumed to be pure, so folding never changes the output.
+ * The simplifier keeps a running total of the nodes it has removed.
+ */
+public final class Simplifier {
+    /** The maximum number of rewrites per tree, in case rules cycle. */
+    public static final int MAXIMUM_REWRITES = 256;
+
+    private final List<RewriteRule> rules;
+    private final LongAdder originalNodes = new LongAdder();
+    private final LongAdder simplifiedNodes = new LongAdder();
+
+    private Simplifier(final List<RewriteRule> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    /**
+     * @return a simplifier that only folds constants.
+     */
+    public static Simplifier constantFolding() {
+        return new Simplifier(List.of());
+    }
+
+    /**
+     * Create a simplifier that folds constants and applies the given rules.
+     * @param rules The rewrite rules, tried in order at every node.
+     * @return A new simplifier.
+     */
+    public static Simplifier of(final List<RewriteRule> rules) {
+        return new Simplifier(rules);
+    }
+
+    /**
+     * Simplify a tree.
+     * @param tree The tree to simplify.
+     * @return An equivalent tree that is no larger than `tree`.
+     * @param <T> The terminal type.
+     * @param <O> The output type.
+     */
+    public <T, O> ImmutableNode<T, ?, O, ?, ?> simplify(
+        final ImmutableNode<T, ?, O, ?, ?> tree
+    ) {
+        return this.report(tree).simplified();
+    }
+
+    /**
+     * Simplify a tree, reporting how much smaller it became.
+     * @param tree The tree to simplify.
+     * @return The original and simplified trees.
+     * @param <T> The terminal type.
+     * @param <O> The output type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T, O> Report<T, O> report(final ImmutableNode<T, ?, O, ?, ?> tree) {
+        final int[] budget = {MAXIMUM_REWRITES};
+        final ImmutableNode<T, ?, O, ?, ?> simplified =
+            (ImmutableNode<T, ?, O, ?, ?>) simplifyNode(tree, budget);
+        final Report<T, O> report = new Report<>(tree, simplified);
+        originalNodes.add(report.originalSize());
+        simplifiedNodes.add(report.simplifiedSize());
+        return report;
+    }
+
+    /**
+     * @return the total number of nodes in every tree given to this simplifier.
+     */
+    public long originalNodes() {
+        return originalNodes.sum();
+    }
+
+    /**
+     * @return the total number of nodes in every tree this simplifier produced.
+     */
+    public long simplifiedNodes() {
+        return simplifiedNodes.sum();
+    }
+
+    /**
+     * @return the proportion of nodes removed over every tree simplified,
+     *  0 if nothing has been simplified.
+     */
+    public double reduction() {
+        final long original = originalNodes();
+        return original == 0 ? 0.0 : 1.0 - (double) simplifiedNodes() / original;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ImmutableNode<?, ?, ?, ?, ?> simplifyNode(
+        final ImmutableNode<?, ?, ?, ?, ?> node,
+        final int[] budget
+    ) {
+        if (!(node instanceof ImmutableNonTerminal<?, ?, ?> nonTerm)) {
+            return node;
+        }
+        final ImmutableNode[] children = nonTerm.children();
+        ImmutableNode[] simplifiedChildren = children;
+        boolean constant = true;
+        for (int i = 0; i < children.length; i++) {
+            final ImmutableNode<?, ?, ?, ?, ?> child = simplifyNode(children[i], budget);
+            if (child != children[i]) {
+                if (simplifiedChildren == children) {
+                    simplifiedChildren = children.clone();
+                }
+                simplifiedChildren[i] = child;
+            }
+            constant &= constantValue(child).isPresent();
+        }
+
+        final ImmutableNonTerminal<?, ?, ?> rebuilt = simplifiedChildren == children
+            ? nonTerm
+            : ImmutableNonTerminal.of(
+                nonTerm.name(),
+                (Operator) nonTerm.function(),
+                simplifiedChildren,
+                (Class) nonTerm.inputType(),
+                nonTerm.returnType()
+            );
+        if (constant) {
+            return fold(rebuilt);
+        }
+
+        for (final RewriteRule rule : rules) {
+            if (budget[0] <= 0) {
+                break;
+            }
+            final ImmutableNode<?, ?, ?, ?, ?> rewritten = rule.rewrite(rebuilt)
+                .orElse(rebuilt);
+            if (rewritten != rebuilt) {
+                if (!rebuilt.returnType().isAssignableFrom(rewritten.returnType())) {
+                    throw new IllegalStateException(
+                        "Rewrite of " + rebuilt.getExpression() + " to "
+                            + rewritten.getExpression() + " changed its type"
+                    );
+                }
+                budget[0]--;
+                return simplifyNode(rewritten, budget);
+            }
+        }
+        return rebuilt;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ImmutableNode<?, ?, ?, ?, ?> fold(
+        final ImmutableNonTerminal<?, ?, ?> nonTerm
+    ) {
+        final Node<?, ?, ?, ?, ?>[] children = nonTerm.children();
+        final Object[] inputs = (Object[]) Array.newInstance(
+            nonTerm.inputType(), children.length
+        );
+        for (int i = 0; i < children.length; i++) {
+            inputs[i] = constantValue(children[i]).orElseThrow();
+        }
+        final Object value = ((Operator) nonTerm.function()).produce(inputs);
+        if (value == null) {
+            return nonTerm;
+        }
+        return constant(value, nonTerm.returnType());
+    }
+
+    /**
+     * Create a constant terminal.
+     * @param value The value of the constant.
+     * @param returnType The return type of the terminal.
+     * @return A terminal that always produces `value`.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static ImmutableNode<?, ?, ?, ?, ?> constant(
+        final Object value,
+        final Class<?> returnType
+    ) {
+        return ImmutableTerminal.of(
+            String.valueOf(value), Constant.of(value), (Class) returnType
+        );
+    }
+
+    /**
+     * Get the value of a constant terminal.
+     * @param node The node to check.
+     * @return The value of the node if it is a constant terminal,
+     *  otherwise empty.
+     */
+    public static Optional<Object> constantValue(final Node<?, ?, ?, ?, ?> node) {
+        if (node instanceof Terminal<?, ?> term
+            && term.extractor() instanceof Constant<?, ?> constant) {
+            return Optional.ofNullable(constant.value());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The result of simplifying a single tree.
+     * @param original The tree before simplification.
+     * @param simplified The tree after simplification.
+     * @param <T> The terminal type.
+     * @param <O> The output type.
+     */
+    public record Report<T, O>(
+        ImmutableNode<T, ?, O, ?, ?> original,
+        ImmutableNode<T, ?, O, ?, ?> simplified
+    ) {
+        /**
+         * @return the number of nodes in the original tree.
+         */
+        public int originalSize() {
+            return original.size();
+        }
+
+        /**
+         * @return the number of nodes in the simplified tree.
+         */
+        public int simplifiedSize() {
+            return simplified.size();
+        }
+
+        /**
+         * @return the number of nodes removed by simplification.
+         */
+        public int nodesRemoved() {
+            return originalSize() - simplifiedSize();
+        }
+    }
+}
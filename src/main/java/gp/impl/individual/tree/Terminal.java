@@ -1,5 +1,6 @@
 package gp.impl.individual.tree;
 
+import utils.operators.ToDoubleOperator;
 import utils.operators.UnaryOperator;
 
 import java.util.Objects;
@@ -95,6 +96,22 @@ public abstract sealed class Terminal<Terminals, Output> implements Node<
         return this.extractor.produce(input);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public double evaluateAsDouble(Terminals input) {
+        if (this.isDoubleSpecialised()) {
+            return ((ToDoubleOperator<Terminals>) this.extractor).applyAsDouble(input);
+        }
+        return Node.super.evaluateAsDouble(input);
+    }
+
+    /**
+     * @return true if the extractor of this terminal produces primitive doubles.
+     */
+    boolean isDoubleSpecialised() {
+        return this.extractor instanceof ToDoubleOperator<?>;
+    }
+
     @Override
     public Stream<Node<Terminals, ?, ?, ?, ?>> stream() {
         return Stream.of(this);
@@ -104,6 +121,11 @@ public abstract sealed class Terminal<Terminals, Output> implements Node<
     public int depth() {
         return 0;
     }
+
+    @Override
+    public int size() {
+        return 1;
+    }
     @Override
     public int numChildren() {
         return 0;
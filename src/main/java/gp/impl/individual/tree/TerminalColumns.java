@@ -0,0 +1,181 @@
+package gp.impl.individual.tree;
+
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.TypedTerminal;
+import utils.operators.Constant;
+import utils.operators.ToDoubleOperator;
+import utils.operators.UnaryOperator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A fixed set of fitness cases with the output of each terminal extractor
+ *  on every case precomputed into a column.
+ * Batch evaluation against the columns copies a terminal's column instead
+ *  of running its extractor on each case, and double extractors are stored
+ *  as primitive columns so they're never unboxed again.
+ * Columns are computed once per extractor, either up front for the terminals
+ *  of a primitive set or on first use, constants are never stored.
+ * A double column read by an object typed tree is boxed once and kept
+ *  alongside the primitive column.
+ * Columns are shared between evaluations and must not be modified.
+ * @param <Terminals> The terminal type of the fitness cases.
+ */
+public final class TerminalColumns<Terminals> {
+    private final List<Terminals> cases;
+    private final Object[] terminals;
+    private final Map<UnaryOperator<?, ?>, double[]> doubleColumns =
+        new ConcurrentHashMap<>();
+    private final Map<UnaryOperator<?, ?>, Object[]> objectColumns =
+        new ConcurrentHashMap<>();
+    /** Double columns boxed once, for object typed trees that read them. */
+    private final Map<UnaryOperator<?, ?>, Object[]> boxedColumns =
+        new ConcurrentHashMap<>();
+
+    private TerminalColumns(final List<Terminals> cases) {
+        this.cases = List.copyOf(cases);
+        this.terminals = this.cases.toArray();
+    }
+
+    /**
+     * Bind a list of fitness cases, columns are computed as they're needed.
+     * @param cases The fitness cases.
+     * @return The fitness cases with no columns computed.
+     * @param <T> The terminal type.
+     */
+    public static <T> TerminalColumns<T> of(final List<T> cases) {
+        return new TerminalColumns<>(cases);
+    }
+
+    /**
+     * Bind a list of fitness cases, computing the column of every terminal
+     *  in the primitive set now.
+     * Ephemeral constants aren't computed, they're constant on every case.
+     * @param cases The fitness cases.
+     * @param primitiveSet The primitive set whose terminals to compute.
+     * @return The fitness cases with the terminals' columns.
+     * @param <T> The terminal type.
+     */
+    public static <T> TerminalColumns<T> of(
+        final List<T> cases,
+        final PrimitiveSet<T> primitiveSet
+    ) {
+        final TerminalColumns<T> columns = new TerminalColumns<>(cases);
+        for (final TypedTerminal<T, ?> terminal : primitiveSet.terminals()) {
+            if (terminal.terminal() instanceof ToDoubleOperator<?>) {
+                columns.doubleColumn(terminal.terminal());
+            } else {
+                columns.objectColumn(terminal.terminal());
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * @return the fitness cases.
+     */
+    public List<Terminals> cases() {
+        return cases;
+    }
+
+    /**
+     * @return the number of fitness cases.
+     */
+    public int size() {
+        return terminals.length;
+    }
+
+    /**
+     * @return the fitness cases as an array, which must not be modified.
+     */
+    Object[] terminals() {
+        return terminals;
+    }
+
+    /**
+     * @return the number of columns computed so far.
+     */
+    public int numColumns() {
+        return doubleColumns.size() + objectColumns.size();
+    }
+
+    /**
+     * Write the output of a terminal extractor on every case into a column.
+     * @param extractor The extractor of a terminal.
+     * @param column The column to write to, of length `size()`.
+     */
+    void fill(final UnaryOperator<?, ?> extractor, final Object[] column) {
+        if (extractor instanceof Constant<?, ?> constant) {
+            Arrays.fill(column, 0, size(), constant.value());
+            return;
+        }
+        final double[] doubles = doubleColumns.get(extractor);
+        if (doubles != null) {
+            System.arraycopy(this.boxed(extractor, doubles), 0, column, 0, size());
+            return;
+        }
+        System.arraycopy(this.objectColumn(extractor), 0, column, 0, size());
+    }
+
+    /**
+     * Write the output of a double extractor on every case into a column.
+     * @param extractor The extractor of a double specialised terminal.
+     * @param column The column to write to, of length `size()`.
+     */
+    void fill(final ToDoubleOperator<?> extractor, final double[] column) {
+        if (extractor instanceof Constant<?, ?> constant) {
+            Arrays.fill(column, 0, size(), (Double) constant.value());
+            return;
+        }
+        System.arraycopy(this.doubleColumn(extractor), 0, column, 0, size());
+    }
+
+    private Object[] boxed(final UnaryOperator<?, ?> extractor, final double[] doubles) {
+        final Object[] computed = boxedColumns.get(extractor);
+        if (computed != null) {
+            return computed;
+        }
+        return boxedColumns.computeIfAbsent(extractor, e -> {
+            final Object[] column = new Object[doubles.length];
+            for (int j = 0; j < doubles.length; j++) {
+                column[j] = doubles[j];
+            }
+            return column;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private double[] doubleColumn(final UnaryOperator<?, ?> extractor) {
+        final double[] computed = doubleColumns.get(extractor);
+        if (computed != null) {
+            return computed;
+        }
+        return doubleColumns.computeIfAbsent(extractor, e -> {
+            final ToDoubleOperator<Object> primitive = (ToDoubleOperator<Object>) e;
+            final double[] column = new double[terminals.length];
+            for (int j = 0; j < column.length; j++) {
+                column[j] = primitive.applyAsDouble(terminals[j]);
+            }
+            return column;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object[] objectColumn(final UnaryOperator<?, ?> extractor) {
+        final Object[] computed = objectColumns.get(extractor);
+        if (computed != null) {
+            return computed;
+        }
+        return objectColumns.computeIfAbsent(extractor, e -> {
+            final UnaryOperator<Object, ?> function = (UnaryOperator<Object, ?>) e;
+            final Object[] column = new Object[terminals.length];
+            for (int j = 0; j < column.length; j++) {
+                column[j] = function.produce(terminals[j]);
+            }
+            return column;
+        });
+    }
+}
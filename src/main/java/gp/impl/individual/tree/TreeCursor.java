@@ -0,0 +1,164 @@
+package gp.impl.individual.tree;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A preorder cursor over a tree, walking it with an explicit stack
+ *  so arbitrarily deep trees can be traversed without recursion.
+ * Besides the current node the cursor knows its parent, its index in the
+ *  parent's children and its level, so callers that need those don't have
+ *  to allocate a record per node.
+ * The tree must not be restructured while a cursor is walking it.
+ * <pre>{@code
+ * final TreeCursor<T> cursor = TreeCursor.of(root);
+ * while (cursor.advance()) {
+ *     visit(cursor.node(), cursor.parent(), cursor.childIndex());
+ * }
+ * }</pre>
+ * @param <Terminals> The terminal type of the tree.
+ */
+public final class TreeCursor<Terminals> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Node<Terminals, ?, ?, ?, ?> root;
+    private NonTerminal<?, ?, ?, ?>[] parents =
+        new NonTerminal<?, ?, ?, ?>[INITIAL_CAPACITY];
+    private int[] indices = new int[INITIAL_CAPACITY];
+    private int top = 0;
+    private Node<Terminals, ?, ?, ?, ?> current = null;
+    private boolean finished = false;
+
+    private TreeCursor(final Node<Terminals, ?, ?, ?, ?> root) {
+        this.root = root;
+    }
+
+    /**
+     * Create a cursor positioned before the root of a tree.
+     * @param root The root of the tree to walk.
+     * @return A new cursor, call {@link #advance()} to move to the root.
+     * @param <T> The terminal type.
+     */
+    public static <T> TreeCursor<T> of(final Node<T, ?, ?, ?, ?> root) {
+        return new TreeCursor<>(root);
+    }
+
+    /**
+     * Lazily stream every node of a tree in preorder.
+     * @param root The root of the tree.
+     * @return A stream of the root followed by every node below it.
+     * @param <T> The terminal type.
+     */
+    public static <T> Stream<Node<T, ?, ?, ?, ?>> stream(
+        final Node<T, ?, ?, ?, ?> root
+    ) {
+        final TreeCursor<T> cursor = TreeCursor.of(root);
+        final Iterator<Node<T, ?, ?, ?, ?>> iterator = new Iterator<>() {
+            private boolean advanced = false;
+            private boolean hasNext = false;
+
+            @Override
+            public boolean hasNext() {
+                if (!advanced) {
+                    hasNext = cursor.advance();
+                    advanced = true;
+                }
+                return hasNext;
+            }
+
+            @Override
+            public Node<T, ?, ?, ?, ?> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                advanced = false;
+                return cursor.node();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+            iterator, Spliterator.ORDERED | Spliterator.NONNULL
+        ), false);
+    }
+
+    /**
+     * Move to the next node in preorder.
+     * @return false once every node has been visited.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean advance() {
+        if (finished) {
+            return false;
+        }
+        if (current == null) {
+            current = root;
+            return true;
+        }
+        if (current instanceof NonTerminal<?, ?, ?, ?> nonTerm
+            && nonTerm.numChildren() > 0) {
+            push(nonTerm);
+            current = (Node<Terminals, ?, ?, ?, ?>) nonTerm.children()[0];
+            return true;
+        }
+        while (top > 0) {
+            final NonTerminal<?, ?, ?, ?> parent = parents[top - 1];
+            final int next = indices[top - 1] + 1;
+            if (next < parent.numChildren()) {
+                indices[top - 1] = next;
+                current = (Node<Terminals, ?, ?, ?, ?>) parent.children()[next];
+                return true;
+            }
+            parents[--top] = null;
+        }
+        current = null;
+        finished = true;
+        return false;
+    }
+
+    private void push(final NonTerminal<?, ?, ?, ?> parent) {
+        if (top == parents.length) {
+            parents = Arrays.copyOf(parents, top * 2);
+            indices = Arrays.copyOf(indices, top * 2);
+        }
+        parents[top] = parent;
+        indices[top] = 0;
+        top++;
+    }
+
+    /**
+     * @return the node the cursor is on.
+     * @throws NoSuchElementException if the cursor isn't on a node.
+     */
+    public Node<Terminals, ?, ?, ?, ?> node() {
+        if (current == null) {
+            throw new NoSuchElementException("The cursor is not on a node");
+        }
+        return current;
+    }
+
+    /**
+     * @return the parent of the current node, or null if it's the root.
+     */
+    public NonTerminal<?, ?, ?, ?> parent() {
+        return top == 0 ? null : parents[top - 1];
+    }
+
+    /**
+     * @return the index of the current node in its parent's children,
+     *  or -1 if it's the root.
+     */
+    public int childIndex() {
+        return top == 0 ? -1 : indices[top - 1];
+    }
+
+    /**
+     * @return the number of edges between the root and the current node.
+     */
+    public int level() {
+        return top;
+    }
+}
@@ -0,0 +1,158 @@
+package gp.impl.individual.tree;
+
+import utils.operators.BinaryOperator;
+import utils.operators.LazyOperator;
+import utils.operators.Operator;
+import utils.operators.TernaryOperator;
+import utils.operators.UnaryOperator;
+
+import java.util.Arrays;
+
+/**
+ * Evaluates a tree by walking its nodes directly with an explicit stack,
+ *  so deep trees can't overflow the call stack.
+ * Nothing is compiled, so each evaluation sees the tree as it is now,
+ *  this is how mutable trees are evaluated, since a change anywhere below
+ *  a node can't invalidate a {@link PostfixProgram} cached on it.
+ * Operands are pushed onto a stack borrowed from an {@link EvalContext}
+ *  and unary, binary and ternary operators are called directly with them,
+ *  only the walk's stack of pending non-terminals is allocated.
+ * The operands of a {@link LazyOperator} are walked when it asks for them.
+ */
+final class TreeEvaluator {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final EvalContext context;
+    private NonTerminal<?, ?, ?, ?>[] pending =
+        new NonTerminal<?, ?, ?, ?>[INITIAL_CAPACITY];
+    private int[] evaluated = new int[INITIAL_CAPACITY];
+    private int depth = 0;
+    private Object[] values;
+    private int top = 0;
+    private int used = 0;
+
+    private TreeEvaluator(final EvalContext context) {
+        this.context = context;
+        this.values = context.borrowObjects(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Evaluate a tree on the given terminals.
+     * @param root The root of the tree.
+     * @param terminals The terminals to evaluate on.
+     * @param context The context to borrow the operand stack from.
+     * @return The output of the tree.
+     */
+    static Object evaluate(
+        final Node<?, ?, ?, ?, ?> root,
+        final Object terminals,
+        final EvalContext context
+    ) {
+        return new TreeEvaluator(context).run(root, terminals);
+    }
+
+    private Object run(final Node<?, ?, ?, ?, ?> root, final Object terminals) {
+        Node<?, ?, ?, ?, ?> node = root;
+        while (true) {
+            if (node instanceof NonTerminal<?, ?, ?, ?> nonTerm
+                && !(nonTerm.function() instanceof LazyOperator<?, ?>)) {
+                this.descend(nonTerm);
+            } else {
+                this.push(this.evaluateLeaf(node, terminals));
+            }
+            // Apply every non-terminal whose operands have all been pushed
+            while (depth > 0
+                && evaluated[depth - 1] == pending[depth - 1].numChildren()) {
+                depth--;
+                this.apply(pending[depth]);
+                pending[depth] = null;
+            }
+            if (depth == 0) {
+                break;
+            }
+            node = pending[depth - 1].children()[evaluated[depth - 1]++];
+        }
+        final Object output = values[0];
+        context.returnObjects(values, used);
+        return output;
+    }
+
+    private void descend(final NonTerminal<?, ?, ?, ?> nonTerm) {
+        if (depth == pending.length) {
+            pending = Arrays.copyOf(pending, depth * 2);
+            evaluated = Arrays.copyOf(evaluated, depth * 2);
+        }
+        pending[depth] = nonTerm;
+        evaluated[depth] = 0;
+        depth++;
+    }
+
+    private void push(final Object value) {
+        if (top == values.length) {
+            values = Arrays.copyOf(values, top * 2);
+        }
+        values[top++] = value;
+        used = Math.max(used, top);
+    }
+
+    /**
+     * Evaluate a terminal, or a lazy operator whose operands are walked
+     *  on demand.
+     * @param node The terminal or lazy non-terminal.
+     * @param terminals The terminals to evaluate on.
+     * @return The output of the node.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object evaluateLeaf(final Node<?, ?, ?, ?, ?> node, final Object terminals) {
+        if (node instanceof Terminal<?, ?> term) {
+            return ((UnaryOperator) term.extractor()).produce(terminals);
+        }
+        final NonTerminal<?, ?, ?, ?> nonTerm = (NonTerminal<?, ?, ?, ?>) node;
+        final Node<?, ?, ?, ?, ?>[] children = nonTerm.children();
+        return ((LazyOperator) nonTerm.function()).produce(new LazyOperator.Operands<>() {
+            @Override
+            public Object evaluate(final int index) {
+                return TreeEvaluator.evaluate(children[index], terminals, context);
+            }
+
+            @Override
+            public int size() {
+                return children.length;
+            }
+        });
+    }
+
+    /**
+     * Replace the operands of a non-terminal on the stack with its output.
+     * @param nonTerm The non-terminal whose operands are on top of the stack.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void apply(final NonTerminal<?, ?, ?, ?> nonTerm) {
+        final Operator function = nonTerm.function();
+        final int arity = nonTerm.numChildren();
+        switch (PostfixProgram.opcodeOf(function, arity)) {
+            case PostfixProgram.UNARY -> values[top - 1] =
+                ((UnaryOperator) function).produce(values[top - 1]);
+            case PostfixProgram.BINARY -> {
+                top--;
+                values[top - 1] = ((BinaryOperator) function).produce(
+                    values[top - 1], values[top]
+                );
+            }
+            case PostfixProgram.TERNARY -> {
+                top -= 2;
+                values[top - 1] = ((TernaryOperator) function).produce(
+                    values[top - 1], values[top], values[top + 1]
+                );
+            }
+            default -> {
+                final Object[] inputs = context.borrowInputs(nonTerm.inputType(), arity);
+                top -= arity;
+                System.arraycopy(values, top, inputs, 0, arity);
+                final Object output = function.produce(inputs);
+                context.returnInputs(inputs);
+                this.push(output);
+            }
+        }
+    }
+}
@@ -10,7 +10,6 @@ import utils.random.RandomSource;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.IntPredicate;
 
 /**
  * Base implementation of tree constructor using configurable
@@ -19,7 +18,7 @@ import java.util.function.IntPredicate;
  * @param <R> The return type
  * @param random The random number generator
  * @param primitiveSet The set of terminals and non-terminals
- * @param shouldTerminate Predicate to determine termination
+ * @param shouldTerminate Determines termination at a depth
  * @param populationSize The population size to create
  * @param maxTries Maximum attempts to create an individual
  * @param maxDepth Maximum tree depth
@@ -28,13 +27,26 @@ import java.util.function.IntPredicate;
 public record NodeInitialiser<T, R>(
         RandomSource random,
         PrimitiveSet<T> primitiveSet,
-        IntPredicate shouldTerminate,
+        Termination shouldTerminate,
         int populationSize,
         int maxTries,
         int maxDepth,
         Class<R> returnType
 ) implements TreeConstructor<T, R> {
 
+    /**
+     * Whether to stop growing a tree at a depth.
+     */
+    @FunctionalInterface
+    public interface Termination {
+        /**
+         * @param depth The current depth
+         * @param random The source of randomness for the tree being built
+         * @return True if construction should terminate
+         */
+        boolean test(int depth, RandomSource random);
+    }
+
     /**
      * Creates a BaseInitializer with the given parameters.
      * @throws IllegalArgumentException if the populationSize, or maxTries
@@ -78,7 +90,7 @@ public record NodeInitialiser<T, R>(
     ) {
         return new NodeInitialiser<>(
             random, primitiveSet,
-            depth -> depth >= maxDepth,
+            (depth, ignored) -> depth >= maxDepth,
             populationSize, maxTries, maxDepth,
             returnType
         );
@@ -108,8 +120,8 @@ public record NodeInitialiser<T, R>(
             / ((double) primitiveSet.numTerminals() + primitiveSet.numNonTerminals());
         return new NodeInitialiser<>(
             random, primitiveSet,
-            depth -> depth >= maxDepth
-                || random.nextDouble()
+            (depth, source) -> depth >= maxDepth
+                || source.nextDouble()
                 < probabilityOfSamplingTerminal,
             populationSize, maxTries, maxDepth,
             returnType
@@ -118,7 +130,12 @@ public record NodeInitialiser<T, R>(
 
     @Override
     public boolean shouldTerminate(final int depth) {
-        return shouldTerminate.test(depth);
+        return shouldTerminate.test(depth, random);
+    }
+
+    @Override
+    public boolean shouldTerminate(final int depth, final RandomSource source) {
+        return shouldTerminate.test(depth, source);
     }
 
     /**
@@ -130,9 +147,23 @@ public record NodeInitialiser<T, R>(
     @Override
     public ImmutableNode<T, ?, R, ?, ?> createIndividual()
             throws IndividualCreationException {
+        return this.createIndividual(random);
+    }
+
+    /**
+     * Creates an individual by recursively constructing a tree,
+     *  drawing from the given source.
+     * @param source The source of randomness for this individual
+     * @return The created individual
+     * @throws IndividualCreationException if creation fails after
+     *     maxTries attempts
+     */
+    @Override
+    public ImmutableNode<T, ?, R, ?, ?> createIndividual(final RandomSource source)
+            throws IndividualCreationException {
         for (int i = 0; i < maxTries; i++) {
             final Optional<ImmutableNode<T, ?, R, ?, ?>> possibleTree
-                    = this.recursivelyConstructIndividual(0, returnType
+                    = this.recursivelyConstructIndividual(0, returnType, source
             );
             if (possibleTree.isPresent()) {
                 return possibleTree.get();
@@ -29,10 +29,15 @@ public record ProbabilisticRampedHalfAndHalf<T, Out>(
 
     @Override
     public SingleTreeIndividual<T, Out> createIndividual() {
-        final int depth = random.nextInt(2, maxDepth + 1);
-        return RandomSampler.sampleOrThrow(List.of(full, grow), random)
+        return this.createIndividual(random);
+    }
+
+    @Override
+    public SingleTreeIndividual<T, Out> createIndividual(final RandomSource source) {
+        final int depth = source.nextInt(2, maxDepth + 1);
+        return RandomSampler.sampleOrThrow(List.of(full, grow), source)
             .apply(depth)
-            .createIndividual();
+            .createIndividual(source);
     }
 
     @Override
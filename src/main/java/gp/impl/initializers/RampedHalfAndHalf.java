@@ -6,7 +6,10 @@ import gp.core.initializer.Initialiser;
 import gp.core.initializer.PrimitiveSet;
 import gp.impl.individual.SingleTreeIndividual;
 import utils.Cache;
+import utils.CachePolicy;
+import utils.Parallelizeable;
 import utils.random.RandomSource;
+import utils.random.SplittableRandomSource;
 import utils.stream_utils.Product;
 
 import java.util.List;
@@ -24,6 +27,8 @@ import java.util.stream.IntStream;
 public class RampedHalfAndHalf<Terminal, R> implements Initialiser<
     SingleTreeIndividual<Terminal, R>
 > {
+    private static final Parallelizeable PARALLEL = Parallelizeable.of(5);
+
     private final int maxDepth;
     private final IntFunction<
         IndividualInitialiser<SingleTreeIndividual<Terminal, R>>
@@ -86,12 +91,36 @@ public class RampedHalfAndHalf<Terminal, R> implements Initialiser<
 
     @Override
     public Population<SingleTreeIndividual<Terminal, R>> initialize() {
+        return this.slots().stream()
+                .map(IndividualInitialiser::createIndividual)
+                .collect(Population.toPopulation());
+    }
+
+    /**
+     * Initializes the population in parallel, creating the `i`th individual
+     *  with the `i`th fork of a random source, so the population is the
+     *  same however many threads create it.
+     * @param forks The source to fork each individual's source from.
+     * @return The initialized population.
+     */
+    public Population<SingleTreeIndividual<Terminal, R>> initialize(
+            final SplittableRandomSource forks
+    ) {
+        return Population.of(PARALLEL.parallelize(
+                this.slots(), forks, (source, slot) -> slot.createIndividual(source)
+        ).toList());
+    }
+
+    /**
+     * @return the initializer of each individual in the population,
+     *  cycling through the depths with both methods.
+     */
+    List<IndividualInitialiser<SingleTreeIndividual<Terminal, R>>> slots() {
         return Product.cycle(
                 IntStream.range(2, maxDepth+1).boxed().toList(),
                 List.of(full, grow),
-                (depth, method) -> method.apply(depth).createIndividual()
-        ).limit(populationSize)
-                .collect(Population.toPopulation());
+                (depth, method) -> method.apply(depth)
+        ).limit(populationSize).toList();
     }
 
     /**
@@ -101,21 +130,62 @@ public class RampedHalfAndHalf<Terminal, R> implements Initialiser<
      *  attempt to enforce uniqueness.
      */
     public RampedHalfAndHalf<Terminal, R> attemptToEnforceUniqueness(int numTries) {
+        return this.attemptToEnforceUniqueness(numTries, CachePolicy.unbounded());
+    }
+
+    /**
+     * Attempt to enforce uniqueness of the individuals created by this initializer,
+     *  only remembering as many individuals as the policy allows.
+     * @param numTries The number of times to try creating an individual.
+     * @param policy The policy of the cache of created individuals.
+     * @return A new RampedHalfAndHalf initializer that will
+     *  attempt to enforce uniqueness.
+     */
+    public RampedHalfAndHalf<Terminal, R> attemptToEnforceUniqueness(
+        final int numTries,
+        final CachePolicy policy
+    ) {
         return new RampedHalfAndHalf<>(
             maxDepth, random, primitiveSet, populationSize, maxTries, returnType
         ) {
             @Override
-            public Population<SingleTreeIndividual<Terminal, R>> initialize() {
-                final Cache<SingleTreeIndividual<Terminal, R>> cache = Cache.empty();
-
-                return Product.cycle(
-                        IntStream.range(2, maxDepth+1).boxed().toList(),
-                        List.of(full, grow),
-                        (depth, method) -> cache.repeatUntilAbsent(
-                            method.apply(depth)::createIndividual, numTries
-                        )
-                ).limit(populationSize)
-                        .collect(Population.toPopulation());
+            List<IndividualInitialiser<SingleTreeIndividual<Terminal, R>>> slots() {
+                final Cache<SingleTreeIndividual<Terminal, R>> cache =
+                    Cache.withPolicy(policy);
+
+                return super.slots().stream()
+                        .map(slot -> unique(slot, cache, numTries))
+                        .toList();
+            }
+        };
+    }
+
+    private static <I> IndividualInitialiser<I> unique(
+        final IndividualInitialiser<I> slot,
+        final Cache<I> cache,
+        final int numTries
+    ) {
+        return new IndividualInitialiser<>() {
+            @Override
+            public I createIndividual() {
+                return cache.repeatUntilAbsent(slot::createIndividual, numTries);
+            }
+
+            @Override
+            public I createIndividual(final RandomSource source) {
+                return cache.repeatUntilAbsent(
+                    () -> slot.createIndividual(source), numTries
+                );
+            }
+
+            @Override
+            public int populationSize() {
+                return slot.populationSize();
+            }
+
+            @Override
+            public boolean shouldParallelize() {
+                return slot.shouldParallelize();
             }
         };
     }
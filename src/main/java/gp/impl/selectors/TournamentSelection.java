@@ -69,13 +69,29 @@ public record TournamentSelection<
     @Override
     public Sampler<AssessedIndividual<T, R, I, F>> selectorFrom(
         final List<AssessedIndividual<T, R, I, F>> items
+    ) {
+        return this.selectorFrom(items, random);
+    }
+
+    /**
+     * Creates a sampler from the provided collection,
+     *  that picks the entrants of each tournament with the given source.
+     *
+     * @param items the items to select from
+     * @param source the source of randomness used to select individuals
+     * @return a sampler that performs tournament selection
+     */
+    @Override
+    public Sampler<AssessedIndividual<T, R, I, F>> selectorFrom(
+        final List<AssessedIndividual<T, R, I, F>> items,
+        final RandomSource source
     ) {
         if (items.isEmpty()) {
             throw new IllegalArgumentException("Must be able to select an individual.");
         }
         return () -> IntStream.range(0, tournamentSize)
             .mapToObj(ignored -> RandomSampler.sampleOrThrow(
-                items, random
+                items, source
             )).reduce(this::selectBetter)
             .orElseThrow();
     }
@@ -111,6 +111,11 @@ public record RandomSampler<T>(
         return RandomSampler.sampleOrThrow(this.data, this.random);
     }
 
+    @Override
+    public T sample(final RandomSource source) {
+        return RandomSampler.sampleOrThrow(this.data, source);
+    }
+
     /**
      * Gets a random index into the data.
      * @return A random index
@@ -63,7 +63,17 @@ public record WeightedRandomSampler<T>(
      * @return A randomly selected element based on probabilities
      */
     public T sample() {
-        double sum = rand.nextDouble(0.0, 1.0);
+        return this.sample(rand);
+    }
+
+    /**
+     * Samples an element according to the probability distribution.
+     * @param random The source of randomness for this sample.
+     * @return A randomly selected element based on probabilities
+     */
+    @Override
+    public T sample(final RandomSource random) {
+        double sum = random.nextDouble(0.0, 1.0);
 
         for (final ProbabilisticElement<T> probabilisticElement : distribution) {
             sum -= probabilisticElement.probability();
@@ -1,18 +1,43 @@
 package utils;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
+/**
+ * A cache of canonical elements, used to tell if an element has been seen.
+ * By default a cache never evicts, a bounded {@link CachePolicy} makes it
+ *  forget the least recently seen elements once it's full, see {@link ClockCache}.
+ * Elements are their own keys, so they're always held strongly,
+ *  use a {@link WeakCache} to hold canonical elements weakly.
+ * @param <T> The type of the element inside the cache.
+ */
 public class Cache<T> {
-    final Map<T, T> cache = new ConcurrentHashMap<>();
+    final ClockCache<T, T> cache;
+
+    Cache(final CachePolicy policy) {
+        Preconditions.assertTrue(
+            policy.values() == CachePolicy.Strength.STRONG,
+            "Cached elements are their own keys so must be held strongly"
+        );
+        this.cache = ClockCache.of(policy);
+    }
 
     /**
      * @return a new empty cache of type T.
      * @param <T> The type of the element inside the cache.
      */
     public static <T> Cache<T> empty() {
-        return new Cache<>();
+        return new Cache<>(CachePolicy.unbounded());
+    }
+
+    /**
+     * Create an empty cache that evicts according to a policy.
+     * @param policy The capacity of the cache.
+     * @return a new empty cache of type T.
+     * @param <T> The type of the element inside the cache.
+     * @throws IllegalArgumentException if the policy holds values weakly or softly.
+     */
+    public static <T> Cache<T> withPolicy(final CachePolicy policy) {
+        return new Cache<>(policy);
     }
 
     /**
@@ -20,7 +45,7 @@ public class Cache<T> {
      * @return true if the element is in the cache.
      */
     public boolean seen(T element) {
-        return cache.containsKey(element);
+        return cache.get(element) != null;
     }
 
     /**
@@ -33,15 +58,11 @@ public class Cache<T> {
     public T repeatUntilAbsent(Supplier<T> getter, int maxTries) {
         for (int i=1; i < maxTries; i++) {
             final T t = getter.get();
-            if (!cache.containsKey(t)) {
-                cache.put(t, t);
+            if (cache.putIfAbsent(t, t) == null) {
                 return t;
             }
         }
-        return cache.computeIfAbsent(
-                getter.get(),
-                i -> i
-        );
+        return this.getOrInsert(getter.get());
     }
 
     /**
@@ -53,8 +74,7 @@ public class Cache<T> {
     public T repeatForeverUntilAbsent(Supplier<T> getter) {
         while (true) {
             final T t = getter.get();
-            if (!cache.containsKey(t)) {
-                cache.put(t, t);
+            if (cache.putIfAbsent(t, t) == null) {
                 return t;
             }
         }
@@ -69,4 +89,18 @@ public class Cache<T> {
     public T getOrInsert(T element) {
         return cache.computeIfAbsent(element, t -> t);
     }
+
+    /**
+     * @return the number of elements in the cache.
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * @return the hits, misses and evictions of this cache so far.
+     */
+    public ClockCache.Stats stats() {
+        return cache.stats();
+    }
 }
@@ -0,0 +1,100 @@
+package utils;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * How a {@link ClockCache} bounds and holds its entries.
+ * Bounded caches evict with the CLOCK algorithm, an entry that's been read
+ *  since the clock hand last passed it gets a second chance,
+ *  so frequently read entries stay while one-off entries are evicted first.
+ * Weak and soft values let the garbage collector drop entries early,
+ *  whether or not the cache is full, and entries can expire a fixed time
+ *  after they were inserted.
+ * @param capacity The maximum number of entries,
+ *  {@link Integer#MAX_VALUE} for an unbounded cache.
+ * @param values How strongly values are held.
+ * @param expireAfterWriteNanos The nanoseconds an entry lives for after
+ *  it's inserted, {@link Long#MAX_VALUE} if entries never expire.
+ */
+public record CachePolicy(int capacity, Strength values, long expireAfterWriteNanos) {
+    /** How strongly a cache refers to its values. */
+    public enum Strength {
+        /** Values stay until they are evicted. */
+        STRONG,
+        /** Values are dropped once nothing outside the cache refers to them. */
+        WEAK,
+        /** Values are dropped when the garbage collector needs memory. */
+        SOFT
+    }
+
+    /**
+     * Create a cache policy.
+     * @throws IllegalArgumentException if the capacity or expiry time isn't positive.
+     */
+    public CachePolicy {
+        Preconditions.assertTrue(capacity > 0, "Capacity must be positive");
+        Preconditions.assertTrue(
+            expireAfterWriteNanos > 0, "Expiry time must be positive"
+        );
+        Objects.requireNonNull(values);
+    }
+
+    /**
+     * @return a policy that never evicts and holds values strongly.
+     */
+    public static CachePolicy unbounded() {
+        return new CachePolicy(Integer.MAX_VALUE, Strength.STRONG, Long.MAX_VALUE);
+    }
+
+    /**
+     * Create a policy that holds at most `capacity` entries.
+     * @param capacity The maximum number of entries.
+     * @return A bounded policy that holds values strongly.
+     * @throws IllegalArgumentException if the capacity isn't positive.
+     */
+    public static CachePolicy bounded(final int capacity) {
+        return new CachePolicy(capacity, Strength.STRONG, Long.MAX_VALUE);
+    }
+
+    /**
+     * @return true if this policy never evicts entries.
+     */
+    public boolean isUnbounded() {
+        return capacity == Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return this policy with values held weakly.
+     */
+    public CachePolicy weakValues() {
+        return new CachePolicy(capacity, Strength.WEAK, expireAfterWriteNanos);
+    }
+
+    /**
+     * @return this policy with values held softly.
+     */
+    public CachePolicy softValues() {
+        return new CachePolicy(capacity, Strength.SOFT, expireAfterWriteNanos);
+    }
+
+    /**
+     * Make entries expire a fixed time after they're inserted.
+     * @param duration How long an entry lives for.
+     * @return this policy with entries expiring.
+     * @throws IllegalArgumentException if the duration isn't positive.
+     */
+    public CachePolicy expireAfterWrite(final Duration duration) {
+        Preconditions.assertTrue(
+            duration.isPositive(), "Expiry time must be positive"
+        );
+        return new CachePolicy(capacity, values, duration.toNanos());
+    }
+
+    /**
+     * @return true if entries of this policy expire.
+     */
+    public boolean expires() {
+        return expireAfterWriteNanos != Long.MAX_VALUE;
+    }
+}
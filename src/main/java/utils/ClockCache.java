@@ -0,0 +1,348 @@
+package utils;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A thread-safe map from keys to values, bounded by a {@link CachePolicy}.
+ * Reads are a lookup in a concurrent map and never lock, a hit only marks
+ *  the entry as recently used.
+ * Unbounded caches never lock, inserts into a bounded cache take a lock to
+ *  place the entry on the clock, evicting an entry which hasn't been read
+ *  since the hand last passed it if the cache is full.
+ * Values computed by {@link #computeIfAbsent} are computed outside the lock,
+ *  so two threads that miss on the same key may both compute it,
+ *  the first value inserted is kept.
+ * Entries whose values were dropped by the garbage collector or which have
+ *  expired are treated as missing, and their slots are reused first.
+ * Null keys and values aren't supported.
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public final class ClockCache<K, V> {
+    private final CachePolicy policy;
+    private final Map<K, Entry<K, V>> map = new ConcurrentHashMap<>();
+    private final ReferenceQueue<V> collected = new ReferenceQueue<>();
+    private final Entry<K, V>[] clock;
+    private int hand = 0;
+    private int filled = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    private ClockCache(final CachePolicy policy) {
+        this.policy = Objects.requireNonNull(policy);
+        this.clock = policy.isUnbounded()
+            ? null
+            : (Entry<K, V>[]) new Entry<?, ?>[policy.capacity()];
+    }
+
+    /**
+     * Create an empty cache.
+     * @param policy The capacity and value strength of the cache.
+     * @return A new empty cache.
+     * @param <K> The type of the keys.
+     * @param <V> The type of the values.
+     */
+    public static <K, V> ClockCache<K, V> of(final CachePolicy policy) {
+        return new ClockCache<>(policy);
+    }
+
+    /**
+     * @return the policy this cache was created with.
+     */
+    public CachePolicy policy() {
+        return this.policy;
+    }
+
+    /**
+     * Look up the value of a key, counting a hit or a miss.
+     * @param key The key to look up.
+     * @return The cached value, or null if there is none.
+     */
+    public V get(final K key) {
+        final Entry<K, V> entry = map.get(key);
+        if (entry != null) {
+            final V value = this.live(entry);
+            if (value == null) {
+                map.remove(key, entry);
+            } else {
+                // Only write when needed, so hits on hot entries don't contend
+                if (!entry.referenced) {
+                    entry.referenced = true;
+                }
+                hits.increment();
+                return value;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Get the value of a key, computing and inserting it on a miss.
+     * @param key The key to look up.
+     * @param function The function to compute the value of a missing key.
+     * @return The cached value of the key.
+     * @throws NullPointerException if the function returns null.
+     */
+    public V computeIfAbsent(
+        final K key,
+        final Function<? super K, ? extends V> function
+    ) {
+        final V cached = this.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final V value = Objects.requireNonNull(function.apply(key));
+        final V previous = this.putIfAbsent(key, value);
+        return previous != null ? previous : value;
+    }
+
+    /**
+     * Insert a value if the key has no value cached.
+     * @param key The key of the value.
+     * @param value The value to insert.
+     * @return The value already cached for the key,
+     *  or null if `value` was inserted.
+     */
+    public V putIfAbsent(final K key, final V value) {
+        Objects.requireNonNull(value);
+        this.expunge();
+        final Entry<K, V> entry = new Entry<>(
+            key, value, policy.values(), collected,
+            policy.expires() ? System.nanoTime() : 0
+        );
+        if (clock == null) {
+            return this.insert(key, entry);
+        }
+        synchronized (map) {
+            final V current = this.insert(key, entry);
+            if (current == null) {
+                clock[this.freeSlot()] = entry;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Map a key to an entry, unless it's mapped to a live entry already.
+     * @param key The key of the entry.
+     * @param entry The entry to insert.
+     * @return The value already cached for the key,
+     *  or null if `entry` was inserted.
+     */
+    private V insert(final K key, final Entry<K, V> entry) {
+        while (true) {
+            final Entry<K, V> existing = map.putIfAbsent(key, entry);
+            if (existing == null) {
+                return null;
+            }
+            final V current = this.live(existing);
+            if (current != null) {
+                return current;
+            }
+            if (map.replace(key, existing, entry)) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Remove a key from the cache.
+     * @param key The key to remove.
+     */
+    public void invalidate(final K key) {
+        map.remove(key);
+    }
+
+    /**
+     * Remove every entry from the cache, the statistics are kept.
+     */
+    public void clear() {
+        synchronized (map) {
+            map.clear();
+            if (clock != null) {
+                Arrays.fill(clock, null);
+            }
+            filled = 0;
+            hand = 0;
+            this.expunge();
+        }
+    }
+
+    /**
+     * @return the number of entries in the cache,
+     *  which may include values the garbage collector has dropped.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * @return the hits, misses and evictions of this cache so far.
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Find a slot on the clock for a new entry, evicting one if it's full.
+     * Slots of entries that were invalidated or collected are reused first
+     *  as the hand reaches them, a recently read entry has its mark cleared
+     *  and is passed over, so the hand stops within two turns.
+     * @return The index of a free slot.
+     */
+    private int freeSlot() {
+        if (filled < clock.length) {
+            return filled++;
+        }
+        while (true) {
+            final int slot = hand;
+            hand = (hand + 1) % clock.length;
+            final Entry<K, V> entry = clock[slot];
+            if (entry == null || map.get(entry.key) != entry) {
+                return slot;
+            }
+            if (this.live(entry) == null) {
+                map.remove(entry.key, entry);
+                return slot;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                continue;
+            }
+            map.remove(entry.key, entry);
+            evictions.increment();
+            return slot;
+        }
+    }
+
+    /**
+     * Get the value of an entry if it's neither collected nor expired.
+     * @param entry The entry to read.
+     * @return The value of the entry, or null if it's gone.
+     */
+    private V live(final Entry<K, V> entry) {
+        final V value = entry.value();
+        if (value != null && policy.expires()
+            && System.nanoTime() - entry.written > policy.expireAfterWriteNanos()) {
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * Remove the entries whose values have been dropped by the garbage collector.
+     */
+    private void expunge() {
+        Reference<? extends V> reference;
+        while ((reference = collected.poll()) != null) {
+            final Entry<?, ?> entry = ((ValueReference) reference).entry();
+            map.remove(entry.key, entry);
+        }
+    }
+
+    /**
+     * The number of hits, misses and evictions of a cache.
+     * @param hits The number of lookups that found a value.
+     * @param misses The number of lookups that found no value.
+     * @param evictions The number of entries evicted to make room for others.
+     */
+    public record Stats(long hits, long misses, long evictions) {
+        /**
+         * @return the total number of lookups.
+         */
+        public long requests() {
+            return hits + misses;
+        }
+
+        /**
+         * @return the proportion of lookups that hit, 0 if there were none.
+         */
+        public double hitRate() {
+            final long requests = this.requests();
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    /**
+     * A cached value and whether it's been read since the hand last passed it.
+     * @param <K> The type of the key.
+     * @param <V> The type of the value.
+     */
+    private static final class Entry<K, V> {
+        private final K key;
+        private final Object value;
+        private final boolean strong;
+        private final long written;
+        private volatile boolean referenced = false;
+
+        Entry(
+            final K key,
+            final V value,
+            final CachePolicy.Strength strength,
+            final ReferenceQueue<V> queue,
+            final long written
+        ) {
+            this.key = key;
+            this.written = written;
+            this.strong = strength == CachePolicy.Strength.STRONG;
+            this.value = switch (strength) {
+                case STRONG -> value;
+                case WEAK -> new WeakValue<>(value, queue, this);
+                case SOFT -> new SoftValue<>(value, queue, this);
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        V value() {
+            return strong ? (V) value : ((Reference<V>) value).get();
+        }
+    }
+
+    /** A reference to a value that knows which entry it belongs to. */
+    private interface ValueReference {
+        Entry<?, ?> entry();
+    }
+
+    private static final class WeakValue<V> extends WeakReference<V>
+        implements ValueReference {
+        private final Entry<?, ?> entry;
+
+        WeakValue(final V value, final ReferenceQueue<V> queue, final Entry<?, ?> entry) {
+            super(value, queue);
+            this.entry = entry;
+        }
+
+        @Override
+        public Entry<?, ?> entry() {
+            return entry;
+        }
+    }
+
+    private static final class SoftValue<V> extends SoftReference<V>
+        implements ValueReference {
+        private final Entry<?, ?> entry;
+
+        SoftValue(final V value, final ReferenceQueue<V> queue, final Entry<?, ?> entry) {
+            super(value, queue);
+            this.entry = entry;
+        }
+
+        @Override
+        public Entry<?, ?> entry() {
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,633 @@
+package utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * A dataset of double features and a double target stored column by column
+ *  in memory segments, rather than as a list of boxed rows.
+ * Columns are either views of heap arrays, or of a binary file mapped into
+ *  memory, which is read in place without copying it onto the heap.
+ * Row slices, column views and row views all read the same memory,
+ *  none of them copy it, and they're only valid until the dataset that
+ *  owns the memory is closed.
+ * <p>
+ * The binary format is little-endian, it's the magic number `GPDS`,
+ *  the format version, the number of columns and the number of rows,
+ *  then the name of each column as its UTF-8 length and bytes,
+ *  padded to a multiple of 8 bytes, then each column's doubles in turn
+ *  with the target last.
+ */
+public final class ColumnarDataSet implements AutoCloseable {
+    /** The layout of every value in a column. */
+    public static final ValueLayout.OfDouble LAYOUT =
+        ValueLayout.JAVA_DOUBLE.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private static final int MAGIC = 0x53445047;
+    private static final int VERSION = 1;
+    private static final ValueLayout.OfInt INT =
+        ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG =
+        ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfShort SHORT =
+        ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final List<Column> features;
+    private final Column target;
+    private final Arena arena;
+
+    private ColumnarDataSet(
+        final List<Column> features,
+        final Column target,
+        final Arena arena
+    ) {
+        for (final Column feature : features) {
+            Preconditions.assertTrue(
+                feature.size() == target.size(), "Every column must have a value per row"
+            );
+        }
+        this.features = List.copyOf(features);
+        this.target = target;
+        this.arena = arena;
+    }
+
+    /**
+     * A column of a dataset, a view of its memory.
+     * @param name The name of the column.
+     * @param segment The column's values in {@link #LAYOUT}.
+     */
+    public record Column(String name, MemorySegment segment) {
+        /**
+         * Create a column.
+         * @param name The name of the column.
+         * @param segment The column's values.
+         * @throws IllegalArgumentException if the segment isn't a whole number of values.
+         */
+        public Column {
+            Objects.requireNonNull(name);
+            Preconditions.assertTrue(
+                segment.byteSize() % LAYOUT.byteSize() == 0,
+                "A column must be a whole number of values"
+            );
+        }
+
+        /**
+         * @return the number of rows in this column.
+         */
+        public int size() {
+            return (int) (segment.byteSize() / LAYOUT.byteSize());
+        }
+
+        /**
+         * @param row The index of a row.
+         * @return the value of the row.
+         */
+        public double get(final int row) {
+            return segment.getAtIndex(LAYOUT, row);
+        }
+
+        /**
+         * @param from The first row, inclusive.
+         * @param to The last row, exclusive.
+         * @return a view of the rows between `from` and `to`.
+         */
+        public Column slice(final int from, final int to) {
+            return new Column(name, segment.asSlice(
+                from * LAYOUT.byteSize(), (to - from) * LAYOUT.byteSize()
+            ));
+        }
+
+        /**
+         * Copy values into an array.
+         * @param from The first row to copy.
+         * @param out The array to copy into.
+         * @param offset The index in `out` to copy the first row to.
+         * @param length The number of rows to copy.
+         */
+        public void copyTo(
+            final int from,
+            final double[] out,
+            final int offset,
+            final int length
+        ) {
+            MemorySegment.copy(
+                segment, LAYOUT, from * LAYOUT.byteSize(), out, offset, length
+            );
+        }
+
+        /**
+         * @return a copy of this column's values.
+         */
+        public double[] toArray() {
+            return segment.toArray(LAYOUT);
+        }
+    }
+
+    /**
+     * A row of a dataset, a view of its memory that reads through to the columns.
+     * @param dataSet The dataset the row is in.
+     * @param index The index of the row.
+     */
+    public record Row(ColumnarDataSet dataSet, int index) {
+        /**
+         * @param feature The index of a feature.
+         * @return the value of the feature in this row.
+         */
+        public double get(final int feature) {
+            return dataSet.features.get(feature).get(index);
+        }
+
+        /**
+         * @return the target of this row.
+         */
+        public double target() {
+            return dataSet.target.get(index);
+        }
+    }
+
+    /**
+     * Create a dataset that views heap arrays.
+     * On a little-endian platform the arrays aren't copied,
+     *  so they mustn't be modified while the dataset is in use.
+     * @param featureNames The name of each feature.
+     * @param features The values of each feature.
+     * @param targetName The name of the target.
+     * @param target The target values.
+     * @return A dataset of the arrays.
+     * @throws IllegalArgumentException if the columns have different lengths
+     *  or there isn't a name for each feature.
+     */
+    public static ColumnarDataSet of(
+        final List<String> featureNames,
+        final double[][] features,
+        final String targetName,
+        final double[] target
+    ) {
+        Preconditions.assertTrue(
+            featureNames.size() == features.length, "Every feature must have a name"
+        );
+        final List<Column> columns = new ArrayList<>(features.length);
+        for (int i = 0; i < features.length; i++) {
+            columns.add(new Column(featureNames.get(i), heapSegment(features[i])));
+        }
+        return new ColumnarDataSet(
+            columns, new Column(targetName, heapSegment(target)), null
+        );
+    }
+
+    private static MemorySegment heapSegment(final double[] values) {
+        if (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
+            return MemorySegment.ofArray(values);
+        }
+        final MemorySegment segment = MemorySegment.ofArray(new double[values.length]);
+        MemorySegment.copy(values, 0, segment, LAYOUT, 0, values.length);
+        return segment;
+    }
+
+    /**
+     * Map a binary dataset into memory, reading it in place.
+     * The file is unmapped when the dataset is closed.
+     * @param file The binary dataset.
+     * @return A dataset that views the file.
+     * @throws IOException if the file can't be read.
+     * @throws IllegalArgumentException if the file isn't a binary dataset.
+     */
+    public static ColumnarDataSet map(final Path file) throws IOException {
+        final Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final Header header = Header.read(channel, file);
+            final MemorySegment mapped = channel.map(
+                FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena
+            );
+            final List<Column> columns = new ArrayList<>(header.names().size());
+            for (int i = 0; i < header.names().size(); i++) {
+                columns.add(new Column(header.names().get(i), mapped.asSlice(
+                    header.columnOffset(i), header.rows() * LAYOUT.byteSize()
+                )));
+            }
+            return new ColumnarDataSet(
+                columns.subList(0, columns.size() - 1), columns.getLast(), arena
+            );
+        } catch (final IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The header of a binary dataset.
+     * @param names The name of every column, the target last.
+     * @param rows The number of rows.
+     * @param dataOffset The position of the first column in the file.
+     */
+    record Header(List<String> names, int rows, long dataOffset) {
+        /**
+         * The header of a new binary dataset, its columns start at the
+         *  first multiple of 8 bytes after the names.
+         * @param names The name of every column, the target last.
+         * @param rows The number of rows.
+         * @return The header.
+         * @throws IllegalArgumentException if a name is too long.
+         */
+        static Header of(final List<String> names, final int rows) {
+            long offset = 24;
+            for (final String name : names) {
+                final int length = name.getBytes(StandardCharsets.UTF_8).length;
+                Preconditions.assertTrue(length <= 0xFFFF, "Column name is too long");
+                offset += 2 + length;
+            }
+            return new Header(names, rows, align(offset));
+        }
+
+        /**
+         * @return the size of a file with this header.
+         */
+        long fileSize() {
+            return columnOffset(names.size());
+        }
+
+        /**
+         * Write this header to the start of a file.
+         * @param out The file's memory.
+         */
+        void write(final MemorySegment out) {
+            out.set(INT, 0, MAGIC);
+            out.set(INT, 4, VERSION);
+            out.set(INT, 8, names.size());
+            out.set(LONG, 16, rows);
+            long position = 24;
+            for (final String name : names) {
+                final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                out.set(SHORT, position, (short) bytes.length);
+                MemorySegment.copy(
+                    bytes, 0, out, ValueLayout.JAVA_BYTE, position + 2, bytes.length
+                );
+                position += 2 + bytes.length;
+            }
+        }
+
+        /**
+         * Read and check the header of a binary dataset.
+         * @param channel The dataset's file.
+         * @param file The path of the file, for error messages.
+         * @return The header of the file.
+         * @throws IOException if the file can't be read.
+         * @throws IllegalArgumentException if the file isn't a binary dataset.
+         */
+        static Header read(
+            final FileChannel channel,
+            final Path file
+        ) throws IOException {
+            final MemorySegment fixed = readFully(channel, 0, 24);
+            Preconditions.assertTrue(
+                fixed.get(INT, 0) == MAGIC, "Not a binary dataset: " + file
+            );
+            Preconditions.assertTrue(
+                fixed.get(INT, 4) == VERSION, "Unsupported dataset version"
+            );
+            final int numColumns = fixed.get(INT, 8);
+            final long rows = fixed.get(LONG, 16);
+            Preconditions.assertTrue(
+                numColumns > 0 && rows >= 0 && rows <= Integer.MAX_VALUE,
+                "Corrupt dataset header: " + file
+            );
+            long offset = 24;
+            final List<String> names = new ArrayList<>(numColumns);
+            for (int i = 0; i < numColumns; i++) {
+                final int length = Short.toUnsignedInt(
+                    readFully(channel, offset, 2).get(SHORT, 0)
+                );
+                final byte[] name = readFully(channel, offset + 2, length)
+                    .toArray(ValueLayout.JAVA_BYTE);
+                names.add(new String(name, StandardCharsets.UTF_8));
+                offset += 2 + length;
+            }
+            final Header header = new Header(names, (int) rows, align(offset));
+            Preconditions.assertTrue(
+                channel.size() == header.fileSize(), "Truncated dataset: " + file
+            );
+            return header;
+        }
+
+        /**
+         * @param column The index of a column.
+         * @return the position of the column in the file.
+         */
+        long columnOffset(final int column) {
+            return dataOffset + (long) column * rows * LAYOUT.byteSize();
+        }
+    }
+
+    /**
+     * Read bytes from a file.
+     * @param channel The file.
+     * @param position The position of the first byte.
+     * @param length The number of bytes.
+     * @return A heap segment of the bytes.
+     * @throws IOException if the file can't be read.
+     * @throws IllegalArgumentException if the file ends first.
+     */
+    static MemorySegment readFully(
+        final FileChannel channel,
+        final long position,
+        final int length
+    ) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, position + buffer.position());
+            Preconditions.assertTrue(read >= 0, "Unexpected end of dataset");
+        }
+        return MemorySegment.ofArray(buffer.array());
+    }
+
+    private static long align(final long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    /**
+     * Write this dataset in the binary format.
+     * @param file The file to write to, which is replaced if it exists.
+     * @throws IOException if the file can't be written.
+     */
+    public void write(final Path file) throws IOException {
+        final List<Column> columns = new ArrayList<>(features);
+        columns.add(target);
+        final Header header = Header.of(
+            columns.stream().map(Column::name).toList(), this.size()
+        );
+        final long columnBytes = (long) this.size() * LAYOUT.byteSize();
+        try (
+            FileChannel channel = create(file);
+            Arena writing = Arena.ofConfined()
+        ) {
+            final MemorySegment out = channel.map(
+                FileChannel.MapMode.READ_WRITE, 0, header.fileSize(), writing
+            );
+            header.write(out);
+            for (int i = 0; i < columns.size(); i++) {
+                MemorySegment.copy(
+                    columns.get(i).segment(), 0, out, header.columnOffset(i), columnBytes
+                );
+            }
+            out.force();
+        }
+    }
+
+    private static FileChannel create(final Path file) throws IOException {
+        return FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        );
+    }
+
+    /**
+     * Convert a CSV file of numbers to the binary format.
+     * The first line must be a header of column names,
+     *  and the last column is the target.
+     * The CSV is read twice, once to count its rows and once to write each
+     *  row's values straight into the mapped binary file, so neither file
+     *  is ever held on the heap.
+     * If the CSV can't be converted the binary file is deleted.
+     * @param csv The CSV file.
+     * @param binary The file to write the binary dataset to.
+     * @return The number of rows converted.
+     * @throws IOException if either file can't be read or written.
+     * @throws NumberFormatException if a value isn't a number.
+     * @throws IllegalArgumentException if a row has the wrong number of values.
+     */
+    public static int convertCsv(final Path csv, final Path binary) throws IOException {
+        final Header header = Header.of(csvNames(csv), countCsvRows(csv));
+        final int numColumns = header.names().size();
+        try (
+            FileChannel channel = create(binary);
+            Arena writing = Arena.ofConfined()
+        ) {
+            final MemorySegment out = channel.map(
+                FileChannel.MapMode.READ_WRITE, 0, header.fileSize(), writing
+            );
+            header.write(out);
+            readCsvRows(csv, numColumns, header.rows(), (values, row) -> {
+                final long offset = (long) row * LAYOUT.byteSize();
+                for (int c = 0; c < numColumns; c++) {
+                    out.set(LAYOUT, header.columnOffset(c) + offset, values[c]);
+                }
+            });
+            out.force();
+        } catch (final IOException | RuntimeException e) {
+            Files.deleteIfExists(binary);
+            throw e;
+        }
+        return header.rows();
+    }
+
+    /**
+     * Read a CSV file of numbers onto the heap.
+     * The first line must be a header of column names,
+     *  and the last column is the target.
+     * The rows are counted first, so each column is allocated once
+     *  at its final size.
+     * @param csv The CSV file.
+     * @return A dataset of the file's columns.
+     * @throws IOException if the file can't be read.
+     * @throws NumberFormatException if a value isn't a number.
+     * @throws IllegalArgumentException if a row has the wrong number of values.
+     */
+    public static ColumnarDataSet readCsv(final Path csv) throws IOException {
+        final List<String> names = csvNames(csv);
+        final int numColumns = names.size();
+        final int rows = countCsvRows(csv);
+        final double[][] columns = new double[numColumns][rows];
+        readCsvRows(csv, numColumns, rows, (values, row) -> {
+            for (int c = 0; c < numColumns; c++) {
+                columns[c][row] = values[c];
+            }
+        });
+        return of(
+            names.subList(0, numColumns - 1),
+            Arrays.copyOf(columns, numColumns - 1),
+            names.getLast(),
+            columns[numColumns - 1]
+        );
+    }
+
+    private static List<String> csvNames(final Path csv) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(csv)) {
+            final String header = reader.readLine();
+            Preconditions.assertTrue(header != null, "Missing header: " + csv);
+            return Arrays.stream(header.split(","))
+                .map(String::strip)
+                .toList();
+        }
+    }
+
+    private static int countCsvRows(final Path csv) throws IOException {
+        try (Stream<String> lines = Files.lines(csv)) {
+            final long rows = lines.skip(1).filter(line -> !line.isBlank()).count();
+            Preconditions.assertTrue(
+                rows <= Integer.MAX_VALUE, "Too many rows for a dataset: " + csv
+            );
+            return (int) rows;
+        }
+    }
+
+    /**
+     * Parse each row of a CSV file after its header, skipping blank lines.
+     * @param csv The CSV file.
+     * @param numColumns The number of values in every row.
+     * @param rows The number of rows counted in the file.
+     * @param sink Accepts the values of each row, which are overwritten
+     *  by the next row, and the index of the row.
+     * @throws IOException if the file can't be read.
+     * @throws NumberFormatException if a value isn't a number.
+     * @throws IllegalArgumentException if a row has the wrong number of values,
+     *  or the file no longer has `rows` rows.
+     */
+    private static void readCsvRows(
+        final Path csv,
+        final int numColumns,
+        final int rows,
+        final ObjIntConsumer<double[]> sink
+    ) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(csv)) {
+            reader.readLine();
+            final double[] values = new double[numColumns];
+            int row = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Preconditions.assertTrue(row < rows, "CSV changed while reading: " + csv);
+                int start = 0;
+                for (int c = 0; c < numColumns; c++) {
+                    final boolean last = c == numColumns - 1;
+                    final int end = line.indexOf(',', start);
+                    Preconditions.assertTrue(
+                        last == (end < 0),
+                        "Row " + (row + 1) + " has too "
+                            + (last ? "many" : "few") + " values"
+                    );
+                    values[c] = Double.parseDouble(
+                        line.substring(start, last ? line.length() : end).strip()
+                    );
+                    start = end + 1;
+                }
+                sink.accept(values, row++);
+            }
+            Preconditions.assertTrue(row == rows, "CSV changed while reading: " + csv);
+        }
+    }
+
+    /**
+     * @return the number of rows.
+     */
+    public int size() {
+        return target.size();
+    }
+
+    /**
+     * @return the number of features.
+     */
+    public int numFeatures() {
+        return features.size();
+    }
+
+    /**
+     * @param feature The index of a feature.
+     * @return a view of the feature's column.
+     */
+    public Column feature(final int feature) {
+        return features.get(feature);
+    }
+
+    /**
+     * @param name The name of a feature.
+     * @return a view of the feature's column.
+     * @throws IllegalArgumentException if there's no feature with the name.
+     */
+    public Column feature(final String name) {
+        return features.stream()
+            .filter(c -> c.name().equals(name))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("No feature: " + name));
+    }
+
+    /**
+     * @return views of every feature's column.
+     */
+    public List<Column> features() {
+        return features;
+    }
+
+    /**
+     * @return a view of the target column.
+     */
+    public Column target() {
+        return target;
+    }
+
+    /**
+     * A view of a range of rows, valid until this dataset is closed.
+     * Closing the slice itself does nothing.
+     * @param from The first row, inclusive.
+     * @param to The last row, exclusive.
+     * @return a dataset of the rows between `from` and `to`.
+     * @throws IndexOutOfBoundsException if the range isn't within this dataset.
+     */
+    public ColumnarDataSet slice(final int from, final int to) {
+        Objects.checkFromToIndex(from, to, this.size());
+        return new ColumnarDataSet(
+            features.stream().map(c -> c.slice(from, to)).toList(),
+            target.slice(from, to),
+            null
+        );
+    }
+
+    /**
+     * @return views of every row, e.g. to use as fitness cases.
+     */
+    public List<Row> rows() {
+        return new AbstractList<>() {
+            @Override
+            public Row get(final int index) {
+                Objects.checkIndex(index, ColumnarDataSet.this.size());
+                return new Row(ColumnarDataSet.this, index);
+            }
+
+            @Override
+            public int size() {
+                return ColumnarDataSet.this.size();
+            }
+        };
+    }
+
+    /**
+     * Unmap this dataset's file, if it was mapped from one.
+     */
+    @Override
+    public void close() {
+        if (arena != null) {
+            arena.close();
+        }
+    }
+}
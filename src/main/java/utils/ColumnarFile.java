@@ -0,0 +1,116 @@
+package utils;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A binary dataset written by {@link ColumnarDataSet#write} that's read
+ *  a range of rows at a time, for datasets too big to hold in memory.
+ * Only the header is read on opening, each call to {@link #read} reads
+ *  its rows of every column from the file onto the heap with positional
+ *  reads, so ranges can be read from several threads at once.
+ */
+public final class ColumnarFile implements AutoCloseable {
+    // Bytes read onto the heap are only byte aligned
+    private static final ValueLayout.OfDouble UNALIGNED =
+        ColumnarDataSet.LAYOUT.withByteAlignment(1);
+
+    private final FileChannel channel;
+    private final ColumnarDataSet.Header header;
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    private ColumnarFile(final FileChannel channel, final ColumnarDataSet.Header header) {
+        this.channel = channel;
+        this.header = header;
+    }
+
+    /**
+     * Open a binary dataset and read its header.
+     * @param file The binary dataset.
+     * @return The open dataset, which must be closed.
+     * @throws IOException if the file can't be read.
+     * @throws IllegalArgumentException if the file isn't a binary dataset.
+     */
+    public static ColumnarFile open(final Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new ColumnarFile(channel, ColumnarDataSet.Header.read(channel, file));
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of rows in the file.
+     */
+    public int size() {
+        return header.rows();
+    }
+
+    /**
+     * @return the name of each feature.
+     */
+    public List<String> featureNames() {
+        return header.names().subList(0, header.names().size() - 1);
+    }
+
+    /**
+     * @return the name of the target.
+     */
+    public String targetName() {
+        return header.names().getLast();
+    }
+
+    /**
+     * Read a range of rows into memory.
+     * @param from The first row, inclusive.
+     * @param to The last row, exclusive.
+     * @return A heap dataset of the rows, which doesn't need closing.
+     * @throws IOException if the file can't be read.
+     * @throws IllegalArgumentException if the range isn't within the file.
+     */
+    public ColumnarDataSet read(final int from, final int to) throws IOException {
+        Preconditions.assertTrue(
+            0 <= from && from <= to && to <= size(), "Row range out of bounds"
+        );
+        final int numColumns = header.names().size();
+        final long rowBytes = ColumnarDataSet.LAYOUT.byteSize();
+        final int length = Math.toIntExact((to - from) * rowBytes);
+        final List<double[]> columns = new ArrayList<>(numColumns);
+        for (int i = 0; i < numColumns; i++) {
+            final MemorySegment bytes = ColumnarDataSet.readFully(
+                channel,
+                header.columnOffset(i) + from * rowBytes,
+                length
+            );
+            columns.add(bytes.toArray(UNALIGNED));
+        }
+        bytesRead.addAndGet((long) length * numColumns);
+        return ColumnarDataSet.of(
+            featureNames(),
+            columns.subList(0, numColumns - 1).toArray(double[][]::new),
+            targetName(),
+            columns.getLast()
+        );
+    }
+
+    /**
+     * @return the number of column bytes read from the file so far.
+     */
+    public long bytesRead() {
+        return bytesRead.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -1,8 +1,10 @@
 package utils;
 
 import utils.random.RandomSource;
+import utils.random.SplittableRandomSource;
 import utils.stream_utils.StreamZipper;
 
+import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -143,6 +145,48 @@ public interface Parallelizeable {
         return randomStream.map(p -> p.reduce(mapper));
 
     }
-}
 
+    /**
+     * Parallelizes a stream operation, giving the `i`th item the `i`th fork
+     *  of a random source.
+     * Unlike zipping on sources from a supplier, no source is drawn in
+     *  series and the items' streams don't depend on the order they're
+     *  processed in, so the output is the same at any thread count.
+     *
+     * @param <T>    The input type
+     * @param <U>    The output type
+     * @param items  The inputs
+     * @param random The source to fork a stream for each input from
+     * @param mapper The mapping function
+     * @return The mapped stream, in the order of the inputs
+     */
+    default <T, U> Stream<U> parallelize(
+        List<T> items,
+        SplittableRandomSource random,
+        BiFunction<? super SplittableRandomSource, ? super T, ? extends U> mapper) {
+        return this.parallelize(
+            IntStream.range(0, items.size()).boxed(),
+            i -> mapper.apply(random.fork(i), items.get(i))
+        );
+    }
 
+    /**
+     * Generates n elements, giving the `i`th element the `i`th fork
+     *  of a random source.
+     *
+     * @param <T>       The element type
+     * @param generator Generates an element from its random source
+     * @param n         The number of elements to generate
+     * @param random    The source to fork a stream for each element from
+     * @return A generated stream
+     */
+    default <T> Stream<T> generateN(
+        Function<? super SplittableRandomSource, ? extends T> generator,
+        int n,
+        SplittableRandomSource random) {
+        return this.parallelize(
+            IntStream.range(0, n).boxed(),
+            i -> generator.apply(random.fork(i))
+        );
+    }
+}
@@ -0,0 +1,72 @@
+package utils;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.stream.Stream;
+
+/**
+ * A cache of canonical elements that only holds them weakly,
+ *  so an element is dropped once nothing outside the cache refers to it.
+ * The elements are split over several independently locked stripes,
+ *  so concurrent callers rarely contend.
+ * @param <T> The type of the element inside the cache.
+ */
+public final class WeakCache<T> {
+    private static final int STRIPES = 64;
+
+    private final List<Map<T, WeakReference<T>>> stripes;
+
+    private WeakCache() {
+        this.stripes = Stream.<Map<T, WeakReference<T>>>generate(WeakHashMap::new)
+                .limit(STRIPES)
+                .toList();
+    }
+
+    /**
+     * @return a new empty cache of type T.
+     * @param <T> The type of the element inside the cache.
+     */
+    public static <T> WeakCache<T> empty() {
+        return new WeakCache<>();
+    }
+
+    /**
+     * Get the cached value that is equivalent to element if it exists,
+     *  otherwise insert it into the cache and return it.
+     * @param element The element to return from the cache.
+     * @return The cached version of element, otherwise element.
+     */
+    public T getOrInsert(final T element) {
+        final Map<T, WeakReference<T>> stripe = stripeOf(element);
+        synchronized (stripe) {
+            final WeakReference<T> reference = stripe.get(element);
+            final T cached = reference == null ? null : reference.get();
+            if (cached != null) {
+                return cached;
+            }
+            stripe.put(element, new WeakReference<>(element));
+            return element;
+        }
+    }
+
+    /**
+     * @return the number of live elements in the cache,
+     *  elements which are no longer reachable may still be counted.
+     */
+    public int size() {
+        int size = 0;
+        for (final Map<T, WeakReference<T>> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private Map<T, WeakReference<T>> stripeOf(final T element) {
+        final int hash = element.hashCode();
+        return stripes.get((hash ^ (hash >>> 16)) & (STRIPES - 1));
+    }
+}
@@ -52,4 +52,9 @@ public interface BinaryOperator<I, O> extends Operator<I, O> {
     default BinaryOperator<I, O> cached() {
         return CacherCache.biCached(this);
     }
+
+    @Override
+    default BinaryOperator<I, O> cachedIn(final MemoScope scope) {
+        return scope == MemoScope.global() ? this.cached() : scope.biCached(this);
+    }
 }
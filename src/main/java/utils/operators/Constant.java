@@ -0,0 +1,62 @@
+package utils.operators;
+
+/**
+ * A terminal extractor that ignores its input and always produces the
+ *  same value, this lets constant terminals be recognised and folded.
+ * @param <I> The input type
+ * @param <O> The output type
+ */
+public interface Constant<I, O> extends UnaryOperator<I, O> {
+    /**
+     * @return the value this constant produces.
+     */
+    O value();
+
+    @Override
+    default O produce(final I parent) {
+        return value();
+    }
+
+    /**
+     * Create a constant, doubles are specialised so they can be
+     *  evaluated without boxing.
+     * @param value The value of the constant.
+     * @return A constant producing `value`.
+     * @param <I> The input type
+     * @param <O> The output type
+     */
+    @SuppressWarnings("unchecked")
+    static <I, O> Constant<I, O> of(final O value) {
+        if (value instanceof Double primitive) {
+            return (Constant<I, O>) new DoubleConstant<I>(primitive);
+        }
+        return new ObjectConstant<>(value);
+    }
+}
+
+/**
+ * A constant of any type.
+ * @param value The value of the constant.
+ * @param <I> The input type
+ * @param <O> The output type
+ */
+record ObjectConstant<I, O>(O value) implements Constant<I, O> { }
+
+/**
+ * A double constant.
+ * @param value The value of the constant.
+ * @param <I> The input type
+ */
+record DoubleConstant<I>(
+    Double value
+) implements Constant<I, Double>, ToDoubleOperator<I> {
+    @Override
+    public double applyAsDouble(final I parent) {
+        return value;
+    }
+
+    @Override
+    public Double produce(final I parent) {
+        return value;
+    }
+}
@@ -0,0 +1,49 @@
+package utils.operators;
+
+/**
+ * A binary operator on primitive doubles.
+ * Trees built from these operators are evaluated without boxing,
+ *  see {@link gp.impl.individual.tree.Node#evaluateAsDouble}.
+ */
+@FunctionalInterface
+public interface DoubleBinaryOperator extends BinaryOperator<Double, Double> {
+    /**
+     * Apply this operator to two primitive doubles.
+     * @param left The first operand.
+     * @param right The second operand.
+     * @return The result of the operator.
+     */
+    double applyAsDouble(double left, double right);
+
+    @Override
+    default Double produce(final Double parent1, final Double parent2) {
+        return applyAsDouble(parent1, parent2);
+    }
+
+    /**
+     * Specialise a boxed operator to a primitive one.
+     * @param operator The operator to specialise.
+     * @return `operator` if it is already primitive, otherwise a primitive
+     *  operator that delegates to it.
+     */
+    static DoubleBinaryOperator of(final BinaryOperator<Double, Double> operator) {
+        if (operator instanceof DoubleBinaryOperator primitive) {
+            return primitive;
+        }
+        return new BoxedDoubleBinaryOperator(operator);
+    }
+}
+
+/**
+ * A boxed binary operator viewed as a primitive one.
+ * It is a record so specialising the same operator twice gives equal results.
+ * @param operator The boxed operator.
+ */
+record BoxedDoubleBinaryOperator(
+    BinaryOperator<Double, Double> operator
+) implements DoubleBinaryOperator {
+    @Override
+    public double applyAsDouble(final double left, final double right) {
+        return operator.produce(left, right);
+    }
+}
@@ -0,0 +1,48 @@
+package utils.operators;
+
+/**
+ * A unary operator on primitive doubles.
+ * Trees built from these operators are evaluated without boxing,
+ *  see {@link gp.impl.individual.tree.Node#evaluateAsDouble}.
+ */
+@FunctionalInterface
+public interface DoubleUnaryOperator extends UnaryOperator<Double, Double> {
+    /**
+     * Apply this operator to a primitive double.
+     * @param operand The operand.
+     * @return The result of the operator.
+     */
+    double applyAsDouble(double operand);
+
+    @Override
+    default Double produce(final Double parent) {
+        return applyAsDouble(parent);
+    }
+
+    /**
+     * Specialise a boxed operator to a primitive one.
+     * @param operator The operator to specialise.
+     * @return `operator` if it is already primitive, otherwise a primitive
+     *  operator that delegates to it.
+     */
+    static DoubleUnaryOperator of(final UnaryOperator<Double, Double> operator) {
+        if (operator instanceof DoubleUnaryOperator primitive) {
+            return primitive;
+        }
+        return new BoxedDoubleUnaryOperator(operator);
+    }
+}
+
+/**
+ * A boxed unary operator viewed as a primitive one.
+ * It is a record so specialising the same operator twice gives equal results.
+ * @param operator The boxed operator.
+ */
+record BoxedDoubleUnaryOperator(
+    UnaryOperator<Double, Double> operator
+) implements DoubleUnaryOperator {
+    @Override
+    public double applyAsDouble(final double operand) {
+        return operator.produce(operand);
+    }
+}
@@ -0,0 +1,110 @@
+package utils.operators;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An operator that decides which of its operands to evaluate,
+ *  e.g. `if-then-else`, `and`/`or` or a guarded division.
+ * Instead of evaluated inputs it's given a handle to its operands,
+ *  an operand is only computed when the operator asks for it.
+ * Operands may be requested any number of times and in any order,
+ *  each request evaluates the operand again.
+ * @param <I> The input type
+ * @param <O> The output type
+ */
+public interface LazyOperator<I, O> extends Operator<I, O> {
+    /**
+     * Produces output, evaluating only the operands it needs.
+     * @param operands The operands of this operator.
+     * @return The produced output
+     */
+    O produce(Operands<I> operands);
+
+    /**
+     * Produces output from operands that have already been evaluated.
+     * @param parents The list of parents to operate on
+     * @return The produced output
+     */
+    @Override
+    default O produce(List<I> parents) {
+        return produce(Operands.of(parents));
+    }
+
+    /**
+     * Create a lazy operator from a function of its operands.
+     * @param arity The number of operands of the operator.
+     * @param function The function of the operands.
+     * @return A new lazy operator.
+     * @param <I> The input type
+     * @param <O> The output type
+     */
+    static <I, O> LazyOperator<I, O> of(
+        final int arity,
+        final Function<Operands<I>, O> function
+    ) {
+        return new FunctionalLazyOperator<>(arity, function);
+    }
+
+    /**
+     * A handle to the operands of a lazy operator.
+     * @param <I> The type of the operands.
+     */
+    interface Operands<I> {
+        /**
+         * Evaluate one of the operands.
+         * @param index The index of the operand, from 0 to `size() - 1`.
+         * @return The value of the operand.
+         */
+        I evaluate(int index);
+
+        /**
+         * @return the number of operands.
+         */
+        int size();
+
+        /**
+         * Wrap operands that have already been evaluated.
+         * @param values The values of the operands.
+         * @return A handle that returns the given values.
+         * @param <I> The type of the operands.
+         */
+        static <I> Operands<I> of(final List<I> values) {
+            return new EvaluatedOperands<>(values);
+        }
+    }
+}
+
+/**
+ * A lazy operator defined by a function of its operands.
+ * @param arity The number of operands.
+ * @param function The function of the operands.
+ * @param <I> The input type
+ * @param <O> The output type
+ */
+record FunctionalLazyOperator<I, O>(
+    Integer arity,
+    Function<LazyOperator.Operands<I>, O> function
+) implements LazyOperator<I, O> {
+    @Override
+    public O produce(final Operands<I> operands) {
+        return function.apply(operands);
+    }
+}
+
+/**
+ * Operands that have already been evaluated.
+ * @param values The values of the operands.
+ * @param <I> The type of the operands.
+ */
+record EvaluatedOperands<I>(List<I> values) implements LazyOperator.Operands<I> {
+    @Override
+    public I evaluate(final int index) {
+        return values.get(index);
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+}
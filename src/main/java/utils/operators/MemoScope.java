@@ -0,0 +1,221 @@
+package utils.operators;
+
+import utils.CachePolicy;
+import utils.ClockCache;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A group of memoised operators whose caches are bounded by the same policy
+ *  and are cleared together.
+ * Inputs are compared with `equals`, never just by their hash code,
+ *  and array inputs are copied before they're used as keys,
+ *  since callers may reuse them.
+ * Outputs are only memoised when they're not null.
+ * A scope can be tied to a generation or a dataset by clearing it when that
+ *  generation or dataset is finished with, {@link Operator#cached()} uses
+ *  the global scope, which is never cleared.
+ * A scope only holds its caches weakly, so an operator's cache is dropped
+ *  along with the operator rather than living as long as the scope.
+ */
+public final class MemoScope {
+    /** The number of inputs each operator in the global scope remembers. */
+    public static final int GLOBAL_CAPACITY = 1 << 16;
+
+    private static final MemoScope GLOBAL =
+        new MemoScope(CachePolicy.bounded(GLOBAL_CAPACITY));
+
+    private final CachePolicy policy;
+    private final List<WeakReference<ClockCache<?, ?>>> caches =
+        new CopyOnWriteArrayList<>();
+
+    private MemoScope(final CachePolicy policy) {
+        this.policy = Objects.requireNonNull(policy);
+    }
+
+    /**
+     * Create a scope in which each operator has its own cache.
+     * @param policy The policy of each operator's cache.
+     * @return A new scope with no operators.
+     */
+    public static MemoScope of(final CachePolicy policy) {
+        return new MemoScope(policy);
+    }
+
+    /**
+     * @return the scope used by {@link Operator#cached()}.
+     */
+    public static MemoScope global() {
+        return GLOBAL;
+    }
+
+    /**
+     * @return the policy of each operator's cache.
+     */
+    public CachePolicy policy() {
+        return this.policy;
+    }
+
+    /**
+     * Forget every memoised output in this scope,
+     *  the operators can still be used and will fill their caches again.
+     */
+    public void clear() {
+        this.live().forEach(ClockCache::clear);
+    }
+
+    /**
+     * @return the hits, misses and evictions of every operator in this scope.
+     */
+    public ClockCache.Stats stats() {
+        long hits = 0;
+        long misses = 0;
+        long evictions = 0;
+        for (final ClockCache<?, ?> cache : this.live()) {
+            final ClockCache.Stats stats = cache.stats();
+            hits += stats.hits();
+            misses += stats.misses();
+            evictions += stats.evictions();
+        }
+        return new ClockCache.Stats(hits, misses, evictions);
+    }
+
+    private List<ClockCache<?, ?>> live() {
+        final List<ClockCache<?, ?>> live = new ArrayList<>(caches.size());
+        for (final WeakReference<ClockCache<?, ?>> reference : caches) {
+            final ClockCache<?, ?> cache = reference.get();
+            if (cache != null) {
+                live.add(cache);
+            }
+        }
+        return live;
+    }
+
+    private <K, V> ClockCache<K, V> newCache() {
+        final ClockCache<K, V> cache = ClockCache.of(policy);
+        caches.removeIf(reference -> reference.get() == null);
+        caches.add(new WeakReference<>(cache));
+        return cache;
+    }
+
+    /**
+     * Memoise an operator in this scope.
+     * @param operator The operator to memoise.
+     * @return An operator that remembers the outputs for the inputs it's seen.
+     * @param <I> The input type of the operator.
+     * @param <O> The output type of the operator.
+     */
+    public <I, O> Operator<I, O> cached(final Operator<I, O> operator) {
+        final ClockCache<List<I>, O> cache = this.newCache();
+        return new Operator<>() {
+            @Override
+            public O produce(final List<I> parents) {
+                final O cached = cache.get(parents);
+                if (cached != null) {
+                    return cached;
+                }
+                final O output = operator.produce(parents);
+                if (output != null) {
+                    cache.putIfAbsent(new ArrayList<>(parents), output);
+                }
+                return output;
+            }
+
+            @Override
+            public Integer arity() {
+                return operator.arity();
+            }
+        };
+    }
+
+    /**
+     * Memoise a unary operator in this scope.
+     * @param operator The operator to memoise.
+     * @return An operator that remembers the outputs for the inputs it's seen.
+     * @param <I> The input type of the operator.
+     * @param <O> The output type of the operator.
+     */
+    public <I, O> UnaryOperator<I, O> unaryCached(final UnaryOperator<I, O> operator) {
+        final ClockCache<Object, O> cache = this.newCache();
+        return parent -> {
+            final Object key = parent == null ? NullKey.NULL : parent;
+            final O cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            final O output = operator.produce(parent);
+            if (output != null) {
+                cache.putIfAbsent(key, output);
+            }
+            return output;
+        };
+    }
+
+    /**
+     * Memoise a binary operator in this scope.
+     * @param operator The operator to memoise.
+     * @return An operator that remembers the outputs for the inputs it's seen.
+     * @param <I> The input type of the operator.
+     * @param <O> The output type of the operator.
+     */
+    public <I, O> BinaryOperator<I, O> biCached(final BinaryOperator<I, O> operator) {
+        final ClockCache<Arguments2, O> cache = this.newCache();
+        return (parent1, parent2) -> {
+            final Arguments2 key = new Arguments2(parent1, parent2);
+            final O cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            final O output = operator.produce(parent1, parent2);
+            if (output != null) {
+                cache.putIfAbsent(key, output);
+            }
+            return output;
+        };
+    }
+
+    /**
+     * Memoise a ternary operator in this scope.
+     * @param operator The operator to memoise.
+     * @return An operator that remembers the outputs for the inputs it's seen.
+     * @param <I> The input type of the operator.
+     * @param <O> The output type of the operator.
+     */
+    public <I, O> TernaryOperator<I, O> triCached(final TernaryOperator<I, O> operator) {
+        final ClockCache<Arguments3, O> cache = this.newCache();
+        return (parent1, parent2, parent3) -> {
+            final Arguments3 key = new Arguments3(parent1, parent2, parent3);
+            final O cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            final O output = operator.produce(parent1, parent2, parent3);
+            if (output != null) {
+                cache.putIfAbsent(key, output);
+            }
+            return output;
+        };
+    }
+
+    /** Stands in for a null input, which can't be a key. */
+    private enum NullKey { NULL }
+
+    /**
+     * The inputs of a binary operator.
+     * @param first The first input.
+     * @param second The second input.
+     */
+    private record Arguments2(Object first, Object second) { }
+
+    /**
+     * The inputs of a ternary operator.
+     * @param first The first input.
+     * @param second The second input.
+     * @param third The third input.
+     */
+    private record Arguments3(Object first, Object second, Object third) { }
+}
@@ -1,11 +1,12 @@
 package utils.operators;
 
 import gp.core.selector.Sampler;
+import utils.random.RandomSource;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
@@ -30,6 +31,20 @@ public interface Operator<I, O> {
     default O produce(I[] parents) {
         return produce(Arrays.asList(parents));
     }
+
+    /**
+     * Produces output from a list of parents, drawing from the given source
+     *  rather than the operator's own, so parallel tasks can each apply
+     *  the operator with a fork.
+     * By default the source is ignored, operators that draw random numbers
+     *  override this.
+     * @param parents The list of parents to operate on
+     * @param random The source of randomness for this application.
+     * @return The produced output
+     */
+    default O produce(List<I> parents, RandomSource random) {
+        return produce(parents);
+    }
     /**
      * Returns the number of parents this operator requires.
      * @return The expected size of the parents list.
@@ -52,6 +67,11 @@ public interface Operator<I, O> {
                 return wrapper.apply(Operator.this.produce(parents));
             }
 
+            @Override
+            public R produce(List<I> parents, RandomSource random) {
+                return wrapper.apply(Operator.this.produce(parents, random));
+            }
+
             @Override
             public Integer arity() {
                 return self.arity();
@@ -92,6 +112,29 @@ public interface Operator<I, O> {
         return produce(input);
     }
 
+    /**
+     * Produces output by sampling from a selector and mapping the
+     * results, drawing from the given source throughout.
+     * @param <T> The type of elements in the selector
+     * @param sampler The selector to sample from
+     * @param mapper A function to map selected elements to the input
+     *     type
+     * @param random The source of randomness for the selection and
+     *     the operator.
+     * @return The produced output
+     */
+    default <T> O sampleFrom(
+            final Sampler<T> sampler,
+            final Function<T, I> mapper,
+            final RandomSource random
+    ) {
+        final List<I> input = new ArrayList<>(arity());
+        for (int i = 0; i < arity(); i++) {
+            input.add(mapper.apply(sampler.sample(random)));
+        }
+        return produce(input, random);
+    }
+
     /**
      * Show a binary operator is a BinaryOperator.
      * @param <I> The input type
@@ -105,6 +148,19 @@ public interface Operator<I, O> {
         return operator;
     }
 
+    /**
+     * Show a ternary operator is a TernaryOperator.
+     * @param <I> The input type
+     * @param <O> The output type
+     * @param operator The ternary operator
+     * @return The same operator
+     */
+    static <I, O> TernaryOperator<I, O> ternary(
+            final TernaryOperator<I, O> operator
+    ) {
+        return operator;
+    }
+
     /**
      * Casts an operator to a UnaryOperator type.
      * @param <I> The input type
@@ -120,11 +176,25 @@ public interface Operator<I, O> {
 
     /**
      * Create a version of this operator that caches it's inputs.
+     * The same cached operator is returned every time, it remembers up to
+     *  {@link MemoScope#GLOBAL_CAPACITY} inputs, see {@link MemoScope#global()}.
      * @return a version of this operator that caches it's inputs.
      */
     default Operator<I, O> cached() {
         return CacherCache.cached(this);
     }
+
+    /**
+     * Create a version of this operator that caches it's inputs in a scope,
+     *  so they can be forgotten together with the rest of the scope.
+     * The global scope gives the same operator as {@link #cached()},
+     *  any other scope gives a new operator with its own cache.
+     * @param scope The scope to create the cache in.
+     * @return a version of this operator that caches it's inputs.
+     */
+    default Operator<I, O> cachedIn(final MemoScope scope) {
+        return scope == MemoScope.global() ? this.cached() : scope.cached(this);
+    }
 }
 
 /**
@@ -149,6 +219,12 @@ enum CacherCache {;
     private static final Map<BinaryOperator<?, ?>, BinaryOperator<?, ?>> BI_CACHE =
         new ConcurrentHashMap<>();
 
+    /**
+     * The cache to maintain singletons for ternary operators.
+     */
+    private static final Map<TernaryOperator<?, ?>, TernaryOperator<?, ?>> TRI_CACHE =
+        new ConcurrentHashMap<>();
+
     /**
      * Return a cached version of the operator.
      * @param operator The operator to make cached.
@@ -160,22 +236,7 @@ enum CacherCache {;
     static <I, O> Operator<I, O> cached(final Operator<I, O> operator) {
         return (Operator<I, O>) CACHE_CACHE.computeIfAbsent(
             operator,
-            op -> new Operator<I, O>() {
-                private final Map<Integer, O> cache = new ConcurrentHashMap<>();
-
-                @Override
-                public O produce(final List<I> parents) {
-                    return cache.computeIfAbsent(
-                        parents.hashCode(),
-                        _ -> ((Operator<I, O>) op).produce(parents)
-                    );
-                }
-
-                @Override
-                public Integer arity() {
-                    return op.arity();
-                }
-            }
+            op -> MemoScope.global().cached((Operator<I, O>) op)
         );
     }
 
@@ -192,23 +253,14 @@ enum CacherCache {;
     ) {
         return (UnaryOperator<I, O>) UNARY_CACHE.computeIfAbsent(
             operator,
-            _ -> new  UnaryOperator<I, O>() {
-                private final Map<I, O> cache = new ConcurrentHashMap<>();
-                @Override
-                public O produce(I parent) {
-                    return cache.computeIfAbsent(
-                        parent,
-                        operator::produce
-                    );
-                }
-            }
+            _ -> MemoScope.global().unaryCached(operator)
         );
     }
 
     /**
      * Return a cached version of the operator.
      * @param operator The operator to make cached.
-     * @return A unary operator that caches it's inputs.
+     * @return A binary operator that caches it's inputs.
      * @param <I> The input type of the operator.
      * @param <O> The output type of the operator.
      */
@@ -218,16 +270,24 @@ enum CacherCache {;
     ) {
         return (BinaryOperator<I, O>) BI_CACHE.computeIfAbsent(
             operator,
-            _ -> new BinaryOperator<I, O>() {
-                private final Map<Integer, O> cache = new ConcurrentHashMap<>();
-                @Override
-                public O produce(I parent1, I parent2) {
-                    return cache.computeIfAbsent(
-                        Objects.hash(parent1, parent2),
-                        _ -> operator.produce(parent1, parent2)
-                    );
-                }
-            }
+            _ -> MemoScope.global().biCached(operator)
+        );
+    }
+
+    /**
+     * Return a cached version of the operator.
+     * @param operator The operator to make cached.
+     * @return A ternary operator that caches it's inputs.
+     * @param <I> The input type of the operator.
+     * @param <O> The output type of the operator.
+     */
+    @SuppressWarnings("unchecked")
+    static <I, O> TernaryOperator<I, O> triCached(
+        final TernaryOperator<I, O> operator
+    ) {
+        return (TernaryOperator<I, O>) TRI_CACHE.computeIfAbsent(
+            operator,
+            _ -> MemoScope.global().triCached(operator)
         );
     }
 }
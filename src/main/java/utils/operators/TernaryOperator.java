@@ -0,0 +1,61 @@
+package utils.operators;
+
+import java.util.List;
+
+/**
+ * Ternary operator interface that applies an operation to exactly three parents.
+ * @param <I> The input type
+ * @param <O> The output type
+ */
+public interface TernaryOperator<I, O> extends Operator<I, O> {
+    /**
+     * Produces output from an array of parents by delegating
+     * to the three-parent method.
+     * @param parents An array containing exactly three parents
+     * @return The produced output
+     */
+    @Override
+    default O produce(I[] parents) {
+        assert parents.length == 3;
+        return produce(parents[0], parents[1], parents[2]);
+    }
+
+    /**
+     * Produces output from a list of parents by delegating
+     * to the three-parent method.
+     * @param parents A list containing exactly three parents
+     * @return The produced output
+     */
+    @Override
+    default O produce(List<I> parents) {
+        assert parents.size() == 3;
+        return produce(parents.getFirst(), parents.get(1), parents.get(2));
+    }
+
+    /**
+     * @return The number of operands, always 3 for ternary operators.
+     */
+    @Override
+    default Integer arity() {
+        return 3;
+    }
+
+    /**
+     * Produces an output from three parents.
+     * @param parent1 The first parent
+     * @param parent2 The second parent
+     * @param parent3 The third parent
+     * @return The produced output
+     */
+    O produce(I parent1, I parent2, I parent3);
+
+    @Override
+    default TernaryOperator<I, O> cached() {
+        return CacherCache.triCached(this);
+    }
+
+    @Override
+    default TernaryOperator<I, O> cachedIn(final MemoScope scope) {
+        return scope == MemoScope.global() ? this.cached() : scope.triCached(this);
+    }
+}
@@ -0,0 +1,49 @@
+package utils.operators;
+
+/**
+ * A terminal extractor that produces a primitive double.
+ * @param <I> The input type
+ */
+@FunctionalInterface
+public interface ToDoubleOperator<I> extends UnaryOperator<I, Double> {
+    /**
+     * Extract a primitive double from the input.
+     * @param parent The input to extract from.
+     * @return The extracted value.
+     */
+    double applyAsDouble(I parent);
+
+    @Override
+    default Double produce(final I parent) {
+        return applyAsDouble(parent);
+    }
+
+    /**
+     * Specialise a boxed extractor to a primitive one.
+     * @param operator The extractor to specialise.
+     * @return `operator` if it is already primitive, otherwise a primitive
+     *  extractor that delegates to it.
+     * @param <I> The input type.
+     */
+    static <I> ToDoubleOperator<I> of(final UnaryOperator<I, Double> operator) {
+        if (operator instanceof ToDoubleOperator<I> primitive) {
+            return primitive;
+        }
+        return new BoxedToDoubleOperator<>(operator);
+    }
+}
+
+/**
+ * A boxed extractor viewed as a primitive one.
+ * It is a record so specialising the same extractor twice gives equal results.
+ * @param operator The boxed extractor.
+ * @param <I> The input type
+ */
+record BoxedToDoubleOperator<I>(
+    UnaryOperator<I, Double> operator
+) implements ToDoubleOperator<I> {
+    @Override
+    public double applyAsDouble(final I parent) {
+        return operator.produce(parent);
+    }
+}
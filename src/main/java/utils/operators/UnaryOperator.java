@@ -35,5 +35,10 @@ public interface UnaryOperator<I, O> extends Operator<I, O> {
     default UnaryOperator<I, O> cached() {
         return CacherCache.unaryCached(this);
     }
+
+    @Override
+    default UnaryOperator<I, O> cachedIn(final MemoScope scope) {
+        return scope == MemoScope.global() ? this.cached() : scope.unaryCached(this);
+    }
 }
 
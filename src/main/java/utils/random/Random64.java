@@ -0,0 +1,130 @@
+package utils.random;
+
+import utils.Preconditions;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * The bounded and bulk methods of a splittable generator that produces
+ *  64 random bits at a time.
+ * Like {@link MersenneTwisterFast}, `nextInt()` and `nextLong()` are
+ *  uniform over their whole range and `nextDouble()` and `nextFloat()`
+ *  are uniform over [0, 1).
+ * Bounded ints use Lemire's multiply-shift method, which only divides when
+ *  a sample lands in the biased sliver of the range, and the bulk methods
+ *  work out the range and scale once for the whole array.
+ */
+abstract class Random64 implements SplittableRandomSource, Serializable {
+    @Serial
+    private static final long serialVersionUID = -2930917203858153434L;
+
+    private static final long INT_MASK = 0xFFFFFFFFL;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final float FLOAT_UNIT = 0x1.0p-24f;
+
+    @Override
+    public abstract long nextLong();
+
+    @Override
+    public int nextInt() {
+        return (int) (this.nextLong() >>> 32);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (this.nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    @Override
+    public float nextFloat() {
+        return (this.nextLong() >>> 40) * FLOAT_UNIT;
+    }
+
+    @Override
+    public int nextInt(final int lowerBound, final int upperBound) {
+        return lowerBound + this.nextBelow(intRange(lowerBound, upperBound));
+    }
+
+    /**
+     * A value in [0, range) for a range of at most 2^32.
+     * @param range The size of the range.
+     * @return The sampled value.
+     */
+    private int nextBelow(final long range) {
+        long m = (this.nextLong() >>> 32) * range;
+        if ((m & INT_MASK) < range) {
+            // Samples below 2^32 % range are biased towards the low values
+            final long threshold = (1L << 32) % range;
+            while ((m & INT_MASK) < threshold) {
+                m = (this.nextLong() >>> 32) * range;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    private static long intRange(final int lowerBound, final int upperBound) {
+        Preconditions.assertTrue(
+            upperBound > lowerBound, "Upper bound must be greater than lower bound"
+        );
+        return (long) upperBound - lowerBound;
+    }
+
+    @Override
+    public long nextLong(final long lowerBound, final long upperBound) {
+        Preconditions.assertTrue(
+            upperBound > lowerBound, "Upper bound must be greater than lower bound"
+        );
+        final long n = upperBound - lowerBound;
+        long r = this.nextLong();
+        if (n < 0) {
+            // The range doesn't fit in a long, so reject values outside of it
+            while (r < lowerBound || r >= upperBound) {
+                r = this.nextLong();
+            }
+            return r;
+        }
+        final long m = n - 1;
+        if ((n & m) == 0) {
+            return (r & m) + lowerBound;
+        }
+        // Reject the top partial block of values so every residue is equally likely
+        long u = r >>> 1;
+        r = u % n;
+        while (u + m - r < 0) {
+            u = this.nextLong() >>> 1;
+            r = u % n;
+        }
+        return r + lowerBound;
+    }
+
+    @Override
+    public float nextFloat(final float lowerBound, final float upperBound) {
+        return this.nextFloat() * (upperBound - lowerBound) + lowerBound;
+    }
+
+    @Override
+    public double nextDouble(final double lowerBound, final double upperBound) {
+        return this.nextDouble() * (upperBound - lowerBound) + lowerBound;
+    }
+
+    @Override
+    public void nextInts(final int[] out, final int lowerBound, final int upperBound) {
+        final long range = intRange(lowerBound, upperBound);
+        for (int i = 0; i < out.length; i++) {
+            out[i] = lowerBound + this.nextBelow(range);
+        }
+    }
+
+    @Override
+    public void nextDoubles(
+        final double[] out,
+        final double lowerBound,
+        final double upperBound
+    ) {
+        final double scale = (upperBound - lowerBound) * DOUBLE_UNIT;
+        for (int i = 0; i < out.length; i++) {
+            out[i] = (this.nextLong() >>> 11) * scale + lowerBound;
+        }
+    }
+}
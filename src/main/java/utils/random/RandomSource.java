@@ -14,6 +14,17 @@ public interface RandomSource {
         return new MersenneTwisterFast(seed);
     }
 
+    /**
+     * Creates a xoshiro256++ random source seeded with the provided value,
+     *  which is faster than the default and also splittable.
+     *
+     * @param seed the seed value
+     * @return a seeded xoshiro256++ random source
+     */
+    static SplittableRandomSource fast(long seed) {
+        return new Xoshiro256PlusPlus(seed);
+    }
+
     /**
      * Reseeds the source.
      *
@@ -92,4 +103,34 @@ public interface RandomSource {
      * @return a float sampled from [lowerBound, upperBound)
      */
     float nextFloat(float lowerBound, float upperBound);
+
+    /**
+     * Fills an array with integers randomly chosen between [lowerBound, upperBound).
+     * Implementations may override this to draw faster than filling
+     *  one at a time.
+     *
+     * @param out the array to fill
+     * @param lowerBound the lower bound inclusive
+     * @param upperBound the upper bound exclusive
+     */
+    default void nextInts(int[] out, int lowerBound, int upperBound) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = nextInt(lowerBound, upperBound);
+        }
+    }
+
+    /**
+     * Fills an array with doubles randomly chosen between [lowerBound, upperBound).
+     * Implementations may override this to draw faster than filling
+     *  one at a time.
+     *
+     * @param out the array to fill
+     * @param lowerBound the lower bound inclusive
+     * @param upperBound the upper bound exclusive
+     */
+    default void nextDoubles(double[] out, double lowerBound, double upperBound) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = nextDouble(lowerBound, upperBound);
+        }
+    }
 }
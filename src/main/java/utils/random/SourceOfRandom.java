@@ -5,6 +5,8 @@ import java.util.function.Supplier;
 
 /**
  * Supplies mutable random sources from a shared seed.
+ * The sources are splittable, so each can hand out independent forks
+ *  to parallel tasks.
  */
 public class SourceOfRandom implements Supplier<RandomSource> {
     private final RandomSource randomSource;
@@ -33,7 +35,7 @@ public class SourceOfRandom implements Supplier<RandomSource> {
      * @return a fresh random source
      */
     @Override
-    public RandomSource get() {
-        return RandomSource.of(randomSource.nextInt());
+    public SplittableRandomSource get() {
+        return SplittableRandomSource.of(randomSource.nextInt());
     }
 }
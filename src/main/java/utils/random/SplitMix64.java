@@ -0,0 +1,81 @@
+package utils.random;
+
+import java.io.Serial;
+
+/**
+ * The SplitMix64 generator, a 64-bit counter passed through a mixing
+ *  function, see Steele, Lea and Flood, "Fast Splittable Pseudorandom
+ *  Number Generators", OOPSLA 2014.
+ * The state is a single long, so forking and splitting are cheap enough
+ *  to do once per task.
+ * For the same seed `nextLong()` gives the same sequence as
+ *  {@link java.util.SplittableRandom}, but the bounded, floating point and
+ *  forking methods reduce those longs their own way, so they don't match
+ *  `SplittableRandom`'s.
+ * Not thread safe, give each thread its own fork instead.
+ */
+public final class SplitMix64 extends Random64 {
+    @Serial
+    private static final long serialVersionUID = 6488514447232516381L;
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long seed;
+    private long state;
+
+    /**
+     * Creates a generator with the given seed.
+     *
+     * @param seed the seed value
+     */
+    public SplitMix64(final long seed) {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    /**
+     * The SplitMix64 finaliser, a bijection that mixes every bit of its input
+     *  into every bit of its output.
+     *
+     * @param z the value to mix
+     * @return the mixed value
+     */
+    static long mix64(final long z) {
+        long x = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+
+    @Override
+    public void seed(final int newSeed) {
+        this.seed = newSeed;
+        this.state = newSeed;
+    }
+
+    /**
+     * The seed of the `index`th child of the stream with the given seed.
+     *
+     * @param seed the seed of the parent stream
+     * @param index the index of the child stream
+     * @return the seed of the child stream
+     */
+    static long forkSeed(final long seed, final long index) {
+        return mix64(seed ^ mix64((index + 1) * GOLDEN_GAMMA));
+    }
+
+    @Override
+    public SplittableRandomSource fork(final long index) {
+        return new SplitMix64(forkSeed(seed, index));
+    }
+
+    @Override
+    public SplittableRandomSource split() {
+        return new SplitMix64(this.nextLong());
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+}
@@ -0,0 +1,55 @@
+package utils.random;
+
+/**
+ * A random source that can derive independent random sources from itself,
+ *  so parallel tasks each get their own stream instead of sharing one.
+ * Forked streams are addressed by index rather than drawn in order,
+ *  so which stream a task gets doesn't depend on which thread runs it
+ *  or when, and a run is reproducible at any number of threads.
+ */
+public interface SplittableRandomSource extends RandomSource {
+    /**
+     * Creates a splittable random source seeded with the provided value.
+     *
+     * @param seed the seed value
+     * @return a seeded splittable random source
+     */
+    static SplittableRandomSource of(long seed) {
+        return new SplitMix64(seed);
+    }
+
+    /**
+     * Derives the `index`th child stream of this source.
+     * The child only depends on this source's seed and the index,
+     *  not on how many values have been drawn, so forking the same index
+     *  twice gives the same stream and different indices give
+     *  independent streams.
+     *
+     * @param index the index of the child stream
+     * @return the child stream
+     */
+    SplittableRandomSource fork(long index);
+
+    /**
+     * Derives a child stream by following a path of indices,
+     *  e.g. `forkAt(generation, slot)` for the stream of one slot
+     *  of one generation.
+     *
+     * @param path the index of the child at each level
+     * @return the child stream at the end of the path
+     */
+    default SplittableRandomSource forkAt(long... path) {
+        SplittableRandomSource source = this;
+        for (final long index : path) {
+            source = source.fork(index);
+        }
+        return source;
+    }
+
+    /**
+     * Splits off a new independent stream, advancing this one.
+     *
+     * @return a new random source seeded from this one
+     */
+    SplittableRandomSource split();
+}
@@ -0,0 +1,91 @@
+package utils.random;
+
+import java.io.Serial;
+
+/**
+ * The xoshiro256++ generator of Blackman and Vigna, "Scrambled Linear
+ *  Pseudorandom Number Generators", 2021.
+ * It has a period of 2^256 - 1 and passes BigCrush, with only four longs
+ *  of state, so it's a good default where the Mersenne Twister's
+ *  624 ints of state and tempering are more than a stage needs.
+ * The state is seeded by SplitMix64, as the authors recommend, and forks
+ *  are seeded the same way from the fork of the seed.
+ * Not thread safe, give each thread its own fork instead.
+ */
+public final class Xoshiro256PlusPlus extends Random64 {
+    @Serial
+    private static final long serialVersionUID = -4165208937051528915L;
+
+    private long seed;
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    /**
+     * Creates a generator with the given seed.
+     *
+     * @param seed the seed value
+     */
+    public Xoshiro256PlusPlus(final long seed) {
+        this.reseed(seed);
+    }
+
+    /**
+     * Creates a generator with the given state, which mustn't be all zero.
+     * There's no seed to fork from, so the seed forks are derived from is
+     *  a mix of the state, generators with different states fork differently.
+     *
+     * @param s0 the first word of the state
+     * @param s1 the second word of the state
+     * @param s2 the third word of the state
+     * @param s3 the fourth word of the state
+     */
+    Xoshiro256PlusPlus(final long s0, final long s1, final long s2, final long s3) {
+        this.s0 = s0;
+        this.s1 = s1;
+        this.s2 = s2;
+        this.s3 = s3;
+        this.seed = SplitMix64.mix64(
+            s0 ^ Long.rotateLeft(s1, 16)
+                ^ Long.rotateLeft(s2, 32) ^ Long.rotateLeft(s3, 48)
+        );
+    }
+
+    private void reseed(final long newSeed) {
+        final SplitMix64 seeder = new SplitMix64(newSeed);
+        this.seed = newSeed;
+        this.s0 = seeder.nextLong();
+        this.s1 = seeder.nextLong();
+        this.s2 = seeder.nextLong();
+        this.s3 = seeder.nextLong();
+    }
+
+    @Override
+    public void seed(final int newSeed) {
+        this.reseed(newSeed);
+    }
+
+    @Override
+    public SplittableRandomSource fork(final long index) {
+        return new Xoshiro256PlusPlus(SplitMix64.forkSeed(seed, index));
+    }
+
+    @Override
+    public SplittableRandomSource split() {
+        return new Xoshiro256PlusPlus(this.nextLong());
+    }
+
+    @Override
+    public long nextLong() {
+        final long result = Long.rotateLeft(s0 + s3, 23) + s0;
+        final long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+}
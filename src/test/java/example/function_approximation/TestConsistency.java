@@ -35,8 +35,8 @@ public class TestConsistency {
             final SourceOfRandom rand = new SourceOfRandom(42);
             System.out.println(rand.get().nextInt());
             final var params = ParameterBuilder.<Pair<Double, Double>, Double>of()
-                .initializer(new DefaultInitialiser(rand.get(), primitiveSet))
-                .breeder(new DefaultBreeder(rand.get(), primitiveSet))
+                .initializer(new DefaultInitialiser<>(rand.get(), primitiveSet, Double.class))
+                .breeder(new DefaultBreeder<>(rand.get(), primitiveSet))
                 .testEvaluator(new DefaultAssessor(rand.get(), 10))
                 .trainEvaluator(new DefaultAssessor(rand.get(), 600))
                 .build();
@@ -69,8 +69,8 @@ public class TestConsistency {
             final SourceOfRandom rand = new SourceOfRandom(i);
             System.out.println(rand.get().nextInt());
             final var params = ParameterBuilder.<Pair<Double, Double>, Double>of()
-                .initializer(new DefaultInitialiser(rand.get(), primitiveSet))
-                .breeder(new DefaultBreeder(rand.get(), primitiveSet))
+                .initializer(new DefaultInitialiser<>(rand.get(), primitiveSet, Double.class))
+                .breeder(new DefaultBreeder<>(rand.get(), primitiveSet))
                 .testEvaluator(new DefaultAssessor(rand.get(), 10))
                 .trainEvaluator(new DefaultAssessor(rand.get(), 600))
                 .build();
@@ -0,0 +1,59 @@
+package gp.assessor;
+
+import gp.impl.assessor.FitnessCaseProvider;
+import gp.impl.assessor.FitnessCases;
+import org.junit.jupiter.api.Test;
+import utils.random.RandomSource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FitnessCasesTest {
+    RandomSource random = RandomSource.of(4);
+
+    @Test
+    public void testTargetsAreComputedOnce() {
+        final AtomicInteger computed = new AtomicInteger();
+        final FitnessCases<Double> cases = FitnessCases.of(List.of(1.0, 2.0, 3.0), x -> {
+            computed.incrementAndGet();
+            return x * x;
+        });
+        assertArrayEquals(new double[]{1, 4, 9}, cases.targets());
+        assertEquals(List.of(1.0, 2.0, 3.0), cases.cases());
+        assertEquals(3, cases.size());
+        cases.targets();
+        assertEquals(3, computed.get());
+    }
+
+    @Test
+    public void testProviders() {
+        final FitnessCases<Double> fixed = FitnessCases.of(List.of(1.0), x -> x);
+        final FitnessCaseProvider<Double> perRun = FitnessCaseProvider.perRun(fixed);
+        assertSame(perRun.next(), perRun.next());
+
+        final FitnessCaseProvider<Double> perGeneration = FitnessCaseProvider.perGeneration(
+                () -> IntStream.range(0, 10).mapToObj(_ -> random.nextDouble(0, 1)).toList(),
+                x -> 2 * x
+        );
+        final FitnessCases<Double> first = perGeneration.next();
+        final FitnessCases<Double> second = perGeneration.next();
+        assertNotEquals(first.cases(), second.cases());
+        assertEquals(2 * second.cases().get(3), second.targets()[3]);
+    }
+
+    @Test
+    public void testEveryCaseNeedsATarget() {
+        final FitnessCases<Double> cases = FitnessCases.of(List.of(1.0, 2.0), x -> x);
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new FitnessCases<>(cases.columns(), new double[1])
+        );
+    }
+}
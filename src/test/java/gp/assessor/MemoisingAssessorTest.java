@@ -0,0 +1,167 @@
+package gp.assessor;
+
+import gp.Population;
+import gp.core.assessor.IndividualAssessor;
+import gp.core.fitness.Goal;
+import gp.core.fitness.SingleObjectiveFitness;
+import gp.core.individual.AssessedIndividual;
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import gp.impl.assessor.MemoisingAssessor;
+import gp.impl.assessor.SingleObjectiveAssessor;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.tree.ImmutableTerminal;
+import gp.impl.initializers.Initializers;
+import org.junit.jupiter.api.Test;
+import utils.operators.UnaryOperator;
+import utils.random.RandomSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MemoisingAssessorTest {
+    RandomSource random = RandomSource.of(3);
+    PrimitiveSet<Double> primitiveSet = PrimitiveSetBuilder.<Double>empty()
+            .addUncachedTerminal("x", x -> x, Double.class)
+            .addDoubleNonTerminal("add", Double::sum)
+            .addDoubleNonTerminal("neg", x -> -x)
+            .build();
+    AtomicInteger evaluations = new AtomicInteger();
+    SingleObjectiveAssessor<Double, Double, SingleTreeIndividual<Double, Double>> assessor =
+            SingleObjectiveAssessor.of(
+                    individual -> {
+                        evaluations.incrementAndGet();
+                        return individual.evaluate(2.0);
+                    },
+                    Goal.MINIMIZE
+            );
+
+    Population<SingleTreeIndividual<Double, Double>> population() {
+        // Distinct trees, so no two threads assess the same tree at once
+        final Set<Long> seen = new HashSet<>();
+        return Initializers.grow(random, primitiveSet, 50, 100, 4, Double.class)
+                .initialize()
+                .stream()
+                .filter(individual -> seen.add(individual.fingerprint()))
+                .collect(Population.toPopulation());
+    }
+
+    @Test
+    public void testRepeatedIndividualsAreOnlyEvaluatedOnce() {
+        final MemoisingAssessor<Double, Double, SingleTreeIndividual<Double, Double>,
+                SingleObjectiveFitness> memoised = MemoisingAssessor.ofTrees(assessor, 1_000);
+        final Population<SingleTreeIndividual<Double, Double>> population = population();
+
+        final var first = memoised.assess(population);
+        assertEquals(population.size(), evaluations.get());
+        assertEquals(0, memoised.savedLastGeneration());
+
+        // The next generation keeps the first half and adds copies of it
+        final List<SingleTreeIndividual<Double, Double>> next = new ArrayList<>();
+        for (int i = 0; i < population.size() / 2; i++) {
+            next.add(population.individuals().get(i));
+            next.add(population.individuals().get(i));
+        }
+        final var second = memoised.assess(Population.of(next));
+        assertEquals(population.size(), evaluations.get());
+        assertEquals(next.size(), memoised.savedLastGeneration());
+        assertEquals(next.size(), memoised.totalSaved());
+        for (int i = 0; i < next.size(); i++) {
+            assertEquals(
+                    first.individuals().get(i / 2).fitness(),
+                    second.individuals().get(i).fitness()
+            );
+        }
+    }
+
+    @Test
+    public void testInvalidationForcesReassessment() {
+        final MemoisingAssessor<Double, Double, SingleTreeIndividual<Double, Double>,
+                SingleObjectiveFitness> memoised = MemoisingAssessor.ofTrees(assessor, 1_000);
+        final Population<SingleTreeIndividual<Double, Double>> population = population();
+
+        memoised.assess(population);
+        memoised.invalidate();
+        memoised.assess(population);
+        assertEquals(2 * population.size(), evaluations.get());
+        assertEquals(0, memoised.savedLastGeneration());
+
+        memoised.invalidate(population.individuals().getFirst());
+        memoised.evaluate(population.individuals().getFirst());
+        assertEquals(2 * population.size() + 1, evaluations.get());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        final MemoisingAssessor<Double, Double, SingleTreeIndividual<Double, Double>,
+                SingleObjectiveFitness> memoised = MemoisingAssessor.ofTrees(assessor, 5);
+        final int size = memoised.assess(population()).size()
+                + memoised.assess(population()).size();
+        assertEquals(size, evaluations.get() + memoised.totalSaved());
+        assertEquals(
+                evaluations.get() - 5,
+                memoised.stats().evictions(),
+                "Every insertion past the capacity evicts an entry"
+        );
+    }
+
+    @Test
+    public void testPrimitivesWithTheSameNameDontShareFitness() {
+        final MemoisingAssessor<Double, Double, SingleTreeIndividual<Double, Double>,
+                SingleObjectiveFitness> memoised = MemoisingAssessor.ofTrees(assessor, 1_000);
+        final UnaryOperator<Double, Double> identity = x -> x;
+        final UnaryOperator<Double, Double> square = x -> x * x;
+        final SingleTreeIndividual<Double, Double> x = SingleTreeIndividual.of(
+                ImmutableTerminal.of("x", identity, Double.class)
+        );
+        final SingleTreeIndividual<Double, Double> x2 = SingleTreeIndividual.of(
+                ImmutableTerminal.of("x", square, Double.class)
+        );
+        assertEquals(x.fingerprint(), x2.fingerprint());
+
+        final var assessed = memoised.assess(Population.of(List.of(x, x2)));
+        assertEquals(2, evaluations.get());
+        assertEquals(2.0, assessed.individuals().get(0).fitness().score());
+        assertEquals(4.0, assessed.individuals().get(1).fitness().score());
+    }
+
+    @Test
+    public void testTheWrappedAssessorAssessesEachGeneration() {
+        final List<Integer> generations = new ArrayList<>();
+        final IndividualAssessor<Double, Double, SingleTreeIndividual<Double, Double>,
+                SingleObjectiveFitness> counting = new IndividualAssessor<>() {
+                    @Override
+                    public SingleObjectiveFitness evaluate(
+                            final SingleTreeIndividual<Double, Double> individual
+                    ) {
+                        return assessor.evaluate(individual);
+                    }
+
+                    @Override
+                    public Population<AssessedIndividual<Double, Double,
+                            SingleTreeIndividual<Double, Double>, SingleObjectiveFitness>>
+                    assess(final Population<SingleTreeIndividual<Double, Double>> population) {
+                        generations.add(population.size());
+                        return IndividualAssessor.super.assess(population);
+                    }
+                };
+        final MemoisingAssessor<Double, Double, SingleTreeIndividual<Double, Double>,
+                SingleObjectiveFitness> memoised = MemoisingAssessor.ofTrees(counting, 1_000);
+        final Population<SingleTreeIndividual<Double, Double>> population = population();
+        final List<SingleTreeIndividual<Double, Double>> doubled =
+                new ArrayList<>(population.individuals());
+        doubled.addAll(population.individuals());
+
+        memoised.assess(Population.of(doubled));
+        memoised.assess(population);
+        // Duplicates are assessed once, and nothing at all once they're remembered
+        assertEquals(List.of(population.size()), generations);
+        assertEquals(population.size(), evaluations.get());
+        assertEquals(population.size(), memoised.savedLastGeneration());
+    }
+}
@@ -0,0 +1,90 @@
+package gp.assessor;
+
+import gp.Population;
+import gp.core.fitness.SingleObjectiveFitness;
+import gp.core.individual.AssessedIndividual;
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import gp.impl.assessor.RacingAssessor;
+import gp.impl.assessor.RacingBound;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.initializers.Initializers;
+import org.junit.jupiter.api.Test;
+import utils.random.RandomSource;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RacingAssessorTest {
+    RandomSource random = RandomSource.of(21);
+    PrimitiveSet<Double> primitiveSet = PrimitiveSetBuilder.<Double>empty()
+            .addUncachedTerminal("x", x -> x, Double.class)
+            .addDoubleNonTerminal("add", Double::sum)
+            .addDoubleNonTerminal("mul", (a, b) -> a * b)
+            .addDoubleNonTerminal("neg", x -> -x)
+            .build();
+    List<Double> cases = IntStream.range(0, 200)
+            .mapToObj(_ -> random.nextDouble(-2, 2))
+            .toList();
+    Population<SingleTreeIndividual<Double, Double>> population =
+            Initializers.grow(random, primitiveSet, 100, 100, 5, Double.class).initialize();
+
+    @Test
+    public void testOnlyStoppedIndividualsLoseTheirExactError() {
+        final RacingAssessor<Double, SingleTreeIndividual<Double, Double>> assessor =
+                RacingAssessor.of(cases, x -> x * x + 1, RacingBound.quantile(0.25));
+        final Population<AssessedIndividual<Double, Double,
+                SingleTreeIndividual<Double, Double>, SingleObjectiveFitness>> exact =
+                assessor.assess(population);
+        assertEquals(population.size() * (long) cases.size(), assessor.casesLastGeneration());
+        assertEquals(0, assessor.abortedLastGeneration());
+
+        final double bound = assessor.bound();
+        final var raced = assessor.assess(population);
+        assertTrue(assessor.abortedLastGeneration() > 0);
+        assertTrue(assessor.casesLastGeneration() < population.size() * (long) cases.size());
+        assertEquals(
+                assessor.abortedLastGeneration(),
+                raced.stream().filter(i -> Double.isInfinite(i.fitness().score())).count()
+        );
+        for (int i = 0; i < population.size(); i++) {
+            final double full = exact.individuals().get(i).fitness().score();
+            final double partial = raced.individuals().get(i).fitness().score();
+            if (full <= bound) {
+                assertEquals(full, partial);
+            } else {
+                // Stopped individuals rank behind every fully evaluated one
+                assertTrue(partial == full || partial == Double.POSITIVE_INFINITY);
+            }
+        }
+    }
+
+    @Test
+    public void testResetBoundEvaluatesFully() {
+        final RacingAssessor<Double, SingleTreeIndividual<Double, Double>> assessor =
+                RacingAssessor.of(cases, x -> x, RacingBound.elite(5));
+        assessor.assess(population);
+        assessor.resetBound();
+        assessor.assess(population);
+        assertEquals(0, assessor.abortedLastGeneration());
+    }
+
+    @Test
+    public void testBounds() {
+        final double[] errors = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11};
+        assertEquals(Double.POSITIVE_INFINITY, RacingBound.none().bound(errors));
+        assertEquals(3, RacingBound.elite(3).bound(errors));
+        assertEquals(11, RacingBound.elite(20).bound(errors));
+        assertEquals(6, RacingBound.quantile(0.5).bound(errors));
+        // Worse than half the population wins a tournament of 2 half the time
+        assertEquals(6, RacingBound.tournament(2, 0.5).bound(errors));
+        assertTrue(RacingBound.tournament(7, 0.01).bound(errors) < 8);
+        assertThrows(IllegalArgumentException.class, () -> RacingBound.elite(0));
+        assertThrows(IllegalArgumentException.class, () -> RacingBound.quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> RacingBound.tournament(1, 0.1));
+    }
+}
@@ -0,0 +1,127 @@
+package gp.assessor;
+
+import gp.Population;
+import gp.core.fitness.Goal;
+import gp.core.fitness.SingleObjectiveFitness;
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import gp.impl.assessor.StreamingAssessor;
+import gp.impl.fitness.SingleObjectiveFit;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.initializers.Initializers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.ColumnarDataSet;
+import utils.ColumnarFile;
+import utils.random.RandomSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StreamingAssessorTest {
+    static final int ROWS = 1000;
+
+    RandomSource random = RandomSource.of(25);
+    PrimitiveSet<ColumnarDataSet.Row> primitiveSet =
+            PrimitiveSetBuilder.<ColumnarDataSet.Row>empty()
+                    .addUncachedTerminal("x", row -> row.get(0), Double.class)
+                    .addUncachedTerminal("y", row -> row.get(1), Double.class)
+                    .addDoubleNonTerminal("add", Double::sum)
+                    .addDoubleNonTerminal("mul", (a, b) -> a * b)
+                    .build();
+    Population<SingleTreeIndividual<ColumnarDataSet.Row, Double>> population =
+            Initializers.grow(random, primitiveSet, 50, 50, 5, Double.class).initialize();
+
+    @TempDir
+    Path directory;
+
+    ColumnarDataSet dataSet() {
+        final double[] x = new double[ROWS];
+        final double[] y = new double[ROWS];
+        final double[] target = new double[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            x[i] = random.nextDouble(-2, 2);
+            y[i] = random.nextDouble(-2, 2);
+            target[i] = x[i] * y[i] + x[i];
+        }
+        return ColumnarDataSet.of(List.of("x", "y"), new double[][] {x, y}, "z", target);
+    }
+
+    double[] inMemoryErrors(final ColumnarDataSet dataSet) {
+        final double[] errors = new double[population.size()];
+        for (int i = 0; i < population.size(); i++) {
+            for (final ColumnarDataSet.Row row : dataSet.rows()) {
+                final double output = population.get(i).evaluate(row);
+                errors[i] += Math.abs(output - row.target());
+            }
+        }
+        return errors;
+    }
+
+    @Test
+    public void testStreamedErrorMatchesInMemoryError() throws IOException {
+        final ColumnarDataSet dataSet = dataSet();
+        final Path path = directory.resolve("data.gpds");
+        dataSet.write(path);
+        final double[] expected = inMemoryErrors(dataSet);
+        try (ColumnarFile file = ColumnarFile.open(path)) {
+            for (final int chunkSize : new int[] {ROWS, 300, 7, 1}) {
+                final StreamingAssessor<SingleTreeIndividual<ColumnarDataSet.Row, Double>,
+                        SingleObjectiveFitness> assessor = StreamingAssessor.<
+                                SingleTreeIndividual<ColumnarDataSet.Row, Double>,
+                                SingleObjectiveFitness>of(
+                                file, error -> SingleObjectiveFit.of(error, Goal.MINIMIZE)
+                        ).withChunkSize(chunkSize);
+                final var assessed = assessor.assess(population);
+                for (int i = 0; i < population.size(); i++) {
+                    assertEquals(population.get(i), assessed.get(i).individual());
+                    assertEquals(
+                            expected[i], assessed.get(i).fitness().score(),
+                            1e-9 * Math.max(1, Math.abs(expected[i]))
+                    );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEachChunkIsReadOncePerGeneration() throws IOException {
+        final Path path = directory.resolve("data.gpds");
+        dataSet().write(path);
+        try (ColumnarFile file = ColumnarFile.open(path)) {
+            final var assessor = StreamingAssessor.<
+                    SingleTreeIndividual<ColumnarDataSet.Row, Double>,
+                    SingleObjectiveFitness>of(
+                    file, error -> SingleObjectiveFit.of(error, Goal.MINIMIZE)
+            ).withChunkSize(128);
+            final long pass = 3L * ROWS * Double.BYTES;
+            assessor.assess(population);
+            assertEquals(pass, file.bytesRead());
+            assessor.assess(population);
+            assertEquals(2 * pass, file.bytesRead());
+        }
+    }
+
+    @Test
+    public void testReadRange() throws IOException {
+        final ColumnarDataSet dataSet = dataSet();
+        final Path path = directory.resolve("data.gpds");
+        dataSet.write(path);
+        try (ColumnarFile file = ColumnarFile.open(path)) {
+            assertEquals(ROWS, file.size());
+            assertEquals(List.of("x", "y"), file.featureNames());
+            assertEquals("z", file.targetName());
+            final ColumnarDataSet range = file.read(100, 150);
+            assertEquals(50, range.size());
+            for (int i = 0; i < range.size(); i++) {
+                assertEquals(dataSet.feature(1).get(100 + i), range.feature("y").get(i));
+                assertEquals(dataSet.target().get(100 + i), range.target().get(i));
+            }
+            assertThrows(IllegalArgumentException.class, () -> file.read(990, 1001));
+        }
+    }
+}
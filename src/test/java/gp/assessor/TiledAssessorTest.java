@@ -0,0 +1,97 @@
+package gp.assessor;
+
+import gp.Population;
+import gp.core.fitness.Goal;
+import gp.core.fitness.SingleObjectiveFitness;
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import gp.impl.assessor.TiledAssessor;
+import gp.impl.fitness.SingleObjectiveFit;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.initializers.Initializers;
+import org.junit.jupiter.api.Test;
+import utils.Pair;
+import utils.random.RandomSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TiledAssessorTest {
+    RandomSource random = RandomSource.of(8);
+    PrimitiveSet<Pair<Double, Double>> primitiveSet = PrimitiveSetBuilder.<Pair<Double, Double>>empty()
+            .addUncachedTerminal("x", Pair::first, Double.class)
+            .addUncachedTerminal("y", Pair::second, Double.class)
+            .addDoubleNonTerminal("add", Double::sum)
+            .addDoubleNonTerminal("mul", (a, b) -> a * b)
+            .addDoubleNonTerminal("neg", x -> -x)
+            .build();
+    List<Pair<Double, Double>> cases = IntStream.range(0, 50)
+            .mapToObj(_ -> Pair.of(random.nextDouble(-3, 3), random.nextDouble(-3, 3)))
+            .toList();
+    Population<SingleTreeIndividual<Pair<Double, Double>, Double>> population =
+            Initializers.grow(random, primitiveSet, 37, 100, 5, Double.class).initialize();
+
+    static double target(final Pair<Double, Double> p) {
+        return p.first() * p.first() + p.second();
+    }
+
+    TiledAssessor<Pair<Double, Double>, SingleTreeIndividual<Pair<Double, Double>, Double>,
+            SingleObjectiveFitness> assessor() {
+        return TiledAssessor.of(
+                cases,
+                TiledAssessorTest::target,
+                errors -> SingleObjectiveFit.of(Arrays.stream(errors).sum(), Goal.MINIMIZE)
+        );
+    }
+
+    @Test
+    public void testErrorMatrixMatchesEvaluatingEachIndividual() {
+        // Tile sizes that don't divide the population or the dataset
+        final var assessor = assessor().withTiles(3, 7);
+        final double[][] errors = assessor.errors(population, cases);
+        assertEquals(population.size(), errors.length);
+        for (int i = 0; i < population.size(); i++) {
+            final double[] outputs = population.individuals().get(i).evaluateAllAsDouble(cases);
+            final double[] expected = new double[cases.size()];
+            for (int j = 0; j < cases.size(); j++) {
+                expected[j] = Math.abs(outputs[j] - target(cases.get(j)));
+            }
+            assertArrayEquals(expected, errors[i]);
+        }
+    }
+
+    @Test
+    public void testFitnessIsReducedFromEachRow() {
+        final var assessor = assessor().withTiles(5, 16);
+        final var assessed = assessor.assess(population);
+        final double[][] errors = assessor.errors(population, cases);
+        for (int i = 0; i < population.size(); i++) {
+            assertEquals(population.individuals().get(i), assessed.individuals().get(i).individual());
+            assertEquals(
+                    Arrays.stream(errors[i]).sum(),
+                    assessed.individuals().get(i).fitness().score()
+            );
+        }
+
+        // Squared error over a different dataset
+        final List<Pair<Double, Double>> other = cases.subList(0, 10);
+        final var squared = assessor.withError((output, expected) ->
+                (output - expected) * (output - expected)
+        ).errors(population, other);
+        assertEquals(10, squared[0].length);
+        final double output = population.individuals().getFirst().evaluateAsDouble(other.get(3));
+        final double difference = output - target(other.get(3));
+        assertEquals(difference * difference, squared[0][3]);
+    }
+
+    @Test
+    public void testTileSizesMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> assessor().withTiles(0, 8));
+        assertThrows(IllegalArgumentException.class, () -> assessor().withTiles(8, 0));
+    }
+}
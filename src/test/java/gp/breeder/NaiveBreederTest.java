@@ -0,0 +1,84 @@
+package gp.breeder;
+
+import gp.Population;
+import gp.core.fitness.Goal;
+import gp.core.fitness.SingleObjectiveFitness;
+import gp.core.individual.AssessedIndividual;
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import gp.impl.breeder.NaiveBreeder;
+import gp.impl.fitness.SingleObjectiveFit;
+import gp.impl.genetic_operators.CrossOver;
+import gp.impl.genetic_operators.Identity;
+import gp.impl.genetic_operators.SubtreeMutation;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.initializers.Initializers;
+import gp.impl.selectors.Elitism;
+import gp.impl.selectors.TournamentSelection;
+import gp.impl.selectors.random.DistributionBuilder;
+import org.junit.jupiter.api.Test;
+import utils.operators.Operator;
+import utils.random.RandomSource;
+import utils.random.SplittableRandomSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class NaiveBreederTest {
+    static final int SIZE = 300;
+
+    PrimitiveSet<Double> primitiveSet = PrimitiveSetBuilder.<Double>empty()
+            .addUncachedTerminal("x", x -> x, Double.class)
+            .addUncachedTerminal("square", x -> x * x, Double.class)
+            .addNonTerminal("max", Operator.bin(Math::max), Double.class, Double.class)
+            .addNonTerminal("neg", Operator.unary(x -> -x), Double.class, Double.class)
+            .build();
+
+    NaiveBreeder<Double, Double, SingleTreeIndividual<Double, Double>, SingleObjectiveFitness>
+    breeder(final RandomSource random) {
+        final var operators = DistributionBuilder.startingWith(
+                0.2, SingleTreeIndividual.<Double, Double>operator(
+                        new SubtreeMutation<>(random, primitiveSet, 6, 100)
+                ))
+                .addElement(0.6, SingleTreeIndividual.operator(new CrossOver<>(random)))
+                .addDefault(new Identity<>())
+                .toSampler(random);
+        return new NaiveBreeder<
+                Double, Double, SingleTreeIndividual<Double, Double>, SingleObjectiveFitness
+        >(
+                operators,
+                SIZE,
+                new TournamentSelection<>(random, 4),
+                new Elitism<>(3, _ -> SingleObjectiveFitness::compareTo)
+        );
+    }
+
+    Population<AssessedIndividual<
+            Double, Double, SingleTreeIndividual<Double, Double>, SingleObjectiveFitness
+    >> parents() {
+        return Initializers.grow(RandomSource.of(5), primitiveSet, SIZE, 100, 5, Double.class)
+                .initialize(SplittableRandomSource.of(5))
+                .stream()
+                .map(i -> AssessedIndividual.of(i, (SingleObjectiveFitness)
+                        SingleObjectiveFit.of(i.tree().size(), Goal.MINIMIZE)
+                ))
+                .collect(Population.toPopulation());
+    }
+
+    @Test
+    public void testForkedBreedingOnlyDrawsFromTheForks() {
+        final RandomSource own = RandomSource.of(11);
+        final var breeder = breeder(own);
+        final var parents = parents();
+        final SplittableRandomSource forks = SplittableRandomSource.of(8);
+
+        final var children = breeder.breed(parents, forks);
+        assertEquals(SIZE, children.size());
+        assertEquals(children.individuals(), breeder.breed(parents, forks).individuals());
+        assertNotEquals(
+                children.individuals(), breeder.breed(parents, forks.fork(1)).individuals()
+        );
+        // None of the operators, selectors or samplers drew from their own source
+        assertEquals(RandomSource.of(11).nextDouble(), own.nextDouble());
+    }
+}
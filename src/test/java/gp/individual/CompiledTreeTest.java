@@ -0,0 +1,345 @@
+package gp.individual;
+
+import gp.Population;
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.TieredTreeIndividual;
+import gp.impl.individual.tree.BytecodeCompiler;
+import gp.impl.individual.tree.ImmutableNode;
+import gp.impl.individual.tree.ImmutableNonTerminal;
+import gp.impl.individual.tree.ImmutableTerminal;
+import gp.impl.individual.tree.Node;
+import gp.impl.individual.tree.NonTerminal;
+import gp.impl.individual.tree.PostfixProgram;
+import gp.impl.individual.tree.SemanticCache;
+import gp.impl.individual.tree.Terminal;
+import gp.impl.individual.tree.TreeCursor;
+import gp.impl.initializers.Initializers;
+import org.junit.jupiter.api.Test;
+import utils.operators.BinaryOperator;
+import utils.operators.DoubleUnaryOperator;
+import utils.operators.Operator;
+import utils.operators.TernaryOperator;
+import utils.operators.ToDoubleOperator;
+import utils.operators.UnaryOperator;
+import utils.random.RandomSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompiledTreeTest {
+    RandomSource random = RandomSource.of(12);
+    Operator<Double, Double> sum3 = new Operator<>() {
+        @Override
+        public Double produce(List<Double> parents) {
+            return parents.get(0) + parents.get(1) + parents.get(2);
+        }
+
+        @Override
+        public Integer arity() {
+            return 3;
+        }
+    };
+    PrimitiveSet<Double> primitiveSet = PrimitiveSetBuilder.<Double>empty()
+            .addUncachedTerminal("x", x -> x, Double.class)
+            .addUncachedTerminal("square", x -> x*x, Double.class)
+            .addNonTerminal("max", Operator.bin(Math::max), Double.class, Double.class)
+            .addDoubleNonTerminal("min", Math::min)
+            .addDoubleNonTerminal("neg", x -> -x)
+            .addNonTerminal("sum3", sum3, Double.class, Double.class)
+            .addNonTerminal("toStr", Operator.unary(Object::toString), Object.class, String.class)
+            .build();
+    List<Double> cases = IntStream.range(0, 50)
+            .mapToObj(_ -> random.nextDouble(-10, 10))
+            .toList();
+
+    @Test
+    public void testDoubleTreesMatchRecursiveEvaluation() {
+        final Population<SingleTreeIndividual<Double, Double>> population = Initializers.grow(
+                random, primitiveSet, 200, 100, 6, Double.class
+        ).initialize();
+        final Population<SingleTreeIndividual<Double, Double>> tiered =
+                TieredTreeIndividual.<Double, Double>tiered(0).apply(population);
+
+        for (final SingleTreeIndividual<Double, Double> individual : tiered.individuals()) {
+            final List<Double> expected = interpretAll(individual.tree(), cases);
+            final double[] expectedDoubles = expected.stream()
+                    .mapToDouble(d -> d)
+                    .toArray();
+            final SingleTreeIndividual<Double, Double> interpreted =
+                    SingleTreeIndividual.of(individual.tree());
+
+            assertEquals(expected, interpreted.evaluateAll(cases));
+            assertArrayEquals(expectedDoubles, interpreted.evaluateAllAsDouble(cases));
+            assertEquals(expected.getFirst(), interpreted.evaluate(cases.getFirst()));
+            assertEquals(expected.getFirst(), interpreted.evaluateAsDouble(cases.getFirst()));
+            assertEquals(expected, cases.stream().map(mutable(individual)::evaluate).toList());
+
+            assertEquals(expected, individual.evaluateAll(cases));
+            assertArrayEquals(expectedDoubles, individual.evaluateAllAsDouble(cases));
+            assertTrue(((TieredTreeIndividual<Double, Double>) individual).isPromoted());
+        }
+    }
+
+    /**
+     * A chain of generic nodes, each with `x` as all but its last child.
+     * @param operator The operator of every node.
+     * @param length The number of non-terminals.
+     * @return The root of the chain.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ImmutableNode<Double, ?, Double, ?, ?> chain(
+            final Operator<Double, Double> operator,
+            final int length
+    ) {
+        final ImmutableTerminal<Double, Double> x =
+                ImmutableTerminal.of("x", (UnaryOperator<Double, Double>) v -> v, Double.class);
+        ImmutableNode<Double, ?, Double, ?, ?> tree = x;
+        for (int i = 0; i < length; i++) {
+            final ImmutableNode[] children = new ImmutableNode[operator.arity()];
+            Arrays.fill(children, x);
+            children[children.length - 1] = tree;
+            tree = ImmutableNonTerminal.of(
+                    "chain", operator, children, Double.class, Double.class
+            );
+        }
+        return tree;
+    }
+
+    @Test
+    public void testTreesTooBigToJitFallBackToPostfix() {
+        final BinaryOperator<Double, Double> max = Operator.bin(Math::max);
+        final ImmutableNode<Double, ?, Double, ?, ?> small = chain(max, 50);
+        assertFalse(BytecodeCompiler.compile(small) instanceof PostfixProgram<?, ?>);
+
+        final ImmutableNode<Double, ?, Double, ?, ?> tooManyNodes =
+                chain(max, BytecodeCompiler.MAXIMUM_INLINED_SIZE / 2 + 1);
+        assertTrue(BytecodeCompiler.compile(tooManyNodes) instanceof PostfixProgram<?, ?>);
+
+        // General operators build an array of their inputs, so their code
+        //  passes the method size limit before the node limit
+        final int links = BytecodeCompiler.MAXIMUM_INLINED_SIZE / 3 - 1;
+        final ImmutableNode<Double, ?, Double, ?, ?> tooMuchCode = chain(sum3, links);
+        assertTrue(tooMuchCode.size() <= BytecodeCompiler.MAXIMUM_INLINED_SIZE);
+        assertTrue(BytecodeCompiler.compile(tooMuchCode) instanceof PostfixProgram<?, ?>);
+        for (final double x : cases) {
+            assertEquals(x, BytecodeCompiler.compile(small).evaluate(x));
+            assertEquals(
+                    x * (2 * links + 1),
+                    BytecodeCompiler.compile(tooMuchCode).evaluate(x),
+                    1e-9 * links
+            );
+        }
+    }
+
+    @Test
+    public void testGenericTreesMatchRecursiveEvaluation() {
+        final Population<SingleTreeIndividual<Double, String>> population = Initializers.grow(
+                random, primitiveSet, 200, 100, 6, String.class
+        ).initialize();
+
+        for (final SingleTreeIndividual<Double, String> individual : population.individuals()) {
+            final List<String> expected = interpretAll(individual.tree(), cases);
+            final TieredTreeIndividual<Double, String> tiered =
+                    TieredTreeIndividual.of(individual.tree(), 0);
+
+            assertEquals(expected, individual.evaluateAll(cases));
+            assertEquals(expected.getFirst(), individual.evaluate(cases.getFirst()));
+            assertEquals(expected, tiered.evaluateAll(cases));
+            assertEquals(expected.getFirst(), tiered.evaluate(cases.getFirst()));
+            assertEquals(expected, cases.stream().map(mutable(individual)::evaluate).toList());
+        }
+    }
+
+    /** A ternary operator that fails if it's applied through a list of operands. */
+    TernaryOperator<Double, Double> ifPositive = new TernaryOperator<>() {
+        @Override
+        public Double produce(Double condition, Double then, Double otherwise) {
+            return condition > 0 ? then : otherwise;
+        }
+
+        @Override
+        public Double produce(List<Double> parents) {
+            throw new AssertionError("Ternary operators should be called directly");
+        }
+
+        @Override
+        public Double produce(Double[] parents) {
+            throw new AssertionError("Ternary operators should be called directly");
+        }
+    };
+
+    /**
+     * A reference evaluator independent of the ones under test, a recursive
+     *  walk over the children that applies every operator to a list of its
+     *  inputs, except ternary ones, which can't be.
+     * @param node The root of the tree.
+     * @param terminals The terminals to evaluate on.
+     * @return The output of the tree.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object interpret(final Node<Double, ?, ?, ?, ?> node, final Double terminals) {
+        return switch ((Node) node) {
+            case final Terminal term -> term.extractor().produce(terminals);
+            case final NonTerminal nonTerm -> {
+                final List<Object> inputs = new ArrayList<>();
+                for (final Object child : nonTerm.children()) {
+                    inputs.add(interpret((Node<Double, ?, ?, ?, ?>) child, terminals));
+                }
+                yield nonTerm.function() instanceof TernaryOperator ternary
+                        ? ternary.produce(inputs.get(0), inputs.get(1), inputs.get(2))
+                        : nonTerm.function().produce(inputs);
+            }
+            default -> throw new IllegalStateException();
+        };
+    }
+
+    /**
+     * Evaluate a tree on every case with {@link #interpret}.
+     * @param tree The tree to evaluate.
+     * @param cases The terminals of each case.
+     * @return The output of the tree on each case.
+     * @param <O> The output type of the tree.
+     */
+    @SuppressWarnings("unchecked")
+    static <O> List<O> interpretAll(
+            final Node<Double, ?, O, ?, ?> tree,
+            final List<Double> cases
+    ) {
+        return cases.stream().map(terminals -> (O) interpret(tree, terminals)).toList();
+    }
+
+    /**
+     * @param individual The individual to copy.
+     * @return A mutable copy of the individual's tree, which is walked rather
+     *  than compiled when it's evaluated.
+     * @param <O> The output type of the tree.
+     */
+    static <O> Node<Double, ?, O, ?, ?> mutable(
+            final SingleTreeIndividual<Double, O> individual
+    ) {
+        return individual.tree().mutableCopy();
+    }
+
+    @Test
+    public void testTernaryOperatorsAreAppliedDirectly() {
+        final PrimitiveSet<Double> ternarySet = PrimitiveSetBuilder.<Double>empty()
+                .addUncachedTerminal("x", x -> x, Double.class)
+                .addNonTerminal("-", (a, b) -> a - b, Double.class, Double.class)
+                .addNonTerminal("if", (a, b, c) -> a > 0 ? b : c, Double.class, Double.class)
+                .addNonTerminal("if2", ifPositive, Double.class, Double.class)
+                .build();
+        final Population<SingleTreeIndividual<Double, Double>> population = Initializers.grow(
+                random, ternarySet, 200, 100, 5, Double.class
+        ).initialize();
+
+        for (final SingleTreeIndividual<Double, Double> individual : population.individuals()) {
+            final List<Object> expected = cases.stream()
+                    .map(terminals -> interpret(individual.tree(), terminals))
+                    .toList();
+            final TieredTreeIndividual<Double, Double> tiered =
+                    TieredTreeIndividual.of(individual.tree(), 0);
+
+            assertEquals(expected, individual.evaluateAll(cases));
+            assertEquals(expected.getFirst(), individual.evaluate(cases.getFirst()));
+            assertEquals(expected, tiered.evaluateAll(cases));
+            assertEquals(expected, cases.stream().map(mutable(individual)::evaluate).toList());
+        }
+    }
+
+    @Test
+    public void testSemanticCacheMatchesRecursiveEvaluation() {
+        final Population<SingleTreeIndividual<Double, Double>> doubles = Initializers.grow(
+                random, primitiveSet, 200, 100, 6, Double.class
+        ).initialize();
+        final Population<SingleTreeIndividual<Double, String>> strings = Initializers.grow(
+                random, primitiveSet, 200, 100, 6, String.class
+        ).initialize();
+        final SemanticCache<Double> cache = SemanticCache.of(cases, 1_000_000);
+
+        for (int generation = 0; generation < 2; generation++) {
+            for (final SingleTreeIndividual<Double, Double> individual : doubles.individuals()) {
+                final double[] expected = interpretAll(individual.tree(), cases).stream()
+                        .mapToDouble(d -> d)
+                        .toArray();
+                assertArrayEquals(expected, cache.evaluateAllAsDouble(individual.tree()));
+            }
+            for (final SingleTreeIndividual<Double, String> individual : strings.individuals()) {
+                final List<String> expected = interpretAll(individual.tree(), cases);
+                assertEquals(expected, cache.evaluateAll(individual.tree()));
+            }
+        }
+
+        final SemanticCache.Stats stats = cache.stats();
+        assertTrue(stats.hits() >= doubles.size() + strings.size());
+        assertEquals(0, stats.evictions());
+    }
+
+    @Test
+    public void testSemanticCacheStaysInBudget() {
+        final Population<SingleTreeIndividual<Double, Double>> population = Initializers.full(
+                random, primitiveSet, 200, 100, 5, Double.class
+        ).initialize();
+        final long budget = 20L * cases.size();
+        final SemanticCache<Double> cache = SemanticCache.of(cases, budget);
+
+        for (final SingleTreeIndividual<Double, Double> individual : population.individuals()) {
+            final double[] expected = interpretAll(individual.tree(), cases).stream()
+                    .mapToDouble(d -> d)
+                    .toArray();
+            assertArrayEquals(expected, cache.evaluateAllAsDouble(individual.tree()));
+            assertTrue(cache.stats().cachedValues() <= budget);
+        }
+        assertTrue(cache.stats().evictions() > 0);
+
+        cache.clear();
+        assertEquals(0, cache.stats().cachedSubtrees());
+
+        // Each distinct subtree misses once, then the root's column is a hit
+        final ImmutableNode<Double, ?, Double, ?, ?> tree =
+                population.individuals().getFirst().tree();
+        final long distinct = TreeCursor.stream(tree)
+                .map(node -> (Object) node)
+                .collect(Collectors.toCollection(
+                        () -> Collections.newSetFromMap(new IdentityHashMap<>())
+                ))
+                .size();
+        final SemanticCache.Stats before = cache.stats();
+        cache.evaluateAllAsDouble(tree);
+        final SemanticCache.Stats filled = cache.stats();
+        assertEquals(distinct, filled.misses() - before.misses());
+        assertEquals(before.hits(), filled.hits());
+        cache.evaluateAllAsDouble(tree);
+        assertEquals(filled.hits() + 1, cache.stats().hits());
+        assertEquals(filled.misses(), cache.stats().misses());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testSemanticCacheEvaluatesDeepTrees() {
+        final DoubleUnaryOperator negate = x -> -x;
+        ImmutableNode<Double, ?, Double, ?, ?> tree = ImmutableTerminal.of(
+                "x", ToDoubleOperator.<Double>of(x -> x), Double.class
+        );
+        for (int i = 0; i < 100_000; i++) {
+            tree = ImmutableNonTerminal.of(
+                    "neg", negate, new ImmutableNode[] {tree}, Double.class, Double.class
+            );
+        }
+        final SemanticCache<Double> cache = SemanticCache.of(cases, 0);
+        final double[] expected = cases.stream().mapToDouble(x -> x).toArray();
+        assertArrayEquals(expected, cache.evaluateAllAsDouble(tree));
+        assertEquals(expected[0], cache.evaluateAll(tree).getFirst());
+    }
+}
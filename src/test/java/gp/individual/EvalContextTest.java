@@ -0,0 +1,186 @@
+package gp.individual;
+
+import gp.Population;
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.tree.CompiledTree;
+import gp.impl.individual.tree.EvalContext;
+import gp.impl.individual.tree.ImmutableNode;
+import gp.impl.individual.tree.ImmutableNonTerminal;
+import gp.impl.individual.tree.ImmutableTerminal;
+import gp.impl.individual.tree.TerminalColumns;
+import gp.impl.initializers.Initializers;
+import org.junit.jupiter.api.Test;
+import utils.operators.Operator;
+import utils.random.RandomSource;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EvalContextTest {
+    static final int WARMUP = 20_000;
+    static final int EVALUATIONS = 100_000;
+    static final int BATCH = 256;
+    static final int BATCHES = 1_000;
+
+    RandomSource random = RandomSource.of(12);
+
+    /** Returns its first input, so evaluating it allocates nothing itself. */
+    Operator<Object, Object> first = new Operator<>() {
+        @Override
+        public Object produce(List<Object> parents) {
+            return parents.getFirst();
+        }
+
+        @Override
+        public Object produce(Object[] parents) {
+            return parents[0];
+        }
+
+        @Override
+        public Integer arity() {
+            return 3;
+        }
+    };
+
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+
+    @Test
+    public void testDoubleEvaluationDoesNotAllocate() {
+        final PrimitiveSet<Double> primitiveSet = PrimitiveSetBuilder.<Double>empty()
+                .addDoubleTerminal("x", x -> x)
+                .addDoubleNonTerminal("+", Double::sum)
+                .addDoubleNonTerminal("*", (a, b) -> a * b)
+                .addDoubleNonTerminal("neg", x -> -x)
+                .build();
+        final Population<SingleTreeIndividual<Double, Double>> population = Initializers.full(
+                random, primitiveSet, 20, 100, 6, Double.class
+        ).initialize();
+        final Double[] cases = IntStream.range(0, 64)
+                .mapToObj(i -> (double) i)
+                .toArray(Double[]::new);
+        final EvalContext context = EvalContext.create();
+        final List<SingleTreeIndividual<Double, Double>> individuals = population.individuals();
+
+        double sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += individuals.get(i % individuals.size())
+                    .evaluateAsDouble(cases[i % cases.length], context);
+        }
+        final long before = allocatedBytes();
+        for (int i = 0; i < EVALUATIONS; i++) {
+            sink += individuals.get(i % individuals.size())
+                    .evaluateAsDouble(cases[i % cases.length], context);
+        }
+        final long allocated = allocatedBytes() - before;
+
+        // Anything allocated per evaluation would be at least 16 bytes each time
+        assertTrue(allocated < EVALUATIONS, allocated + " bytes allocated, sink " + sink);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testGenericEvaluationReusesInputs() {
+        final Object input = new Object();
+        final ImmutableNode<Object, ?, Object, ?, ?> x = ImmutableTerminal.of(
+                "x", t -> t, Object.class
+        );
+        ImmutableNode<Object, ?, Object, ?, ?> tree = x;
+        for (int i = 0; i < 4; i++) {
+            tree = ImmutableNonTerminal.of(
+                    "first", first, new ImmutableNode[]{tree, x, tree}, Object.class, Object.class
+            );
+        }
+        final EvalContext context = EvalContext.create();
+
+        Object result = null;
+        for (int i = 0; i < WARMUP; i++) {
+            result = tree.evaluate(input, context);
+        }
+        final long before = allocatedBytes();
+        for (int i = 0; i < EVALUATIONS; i++) {
+            result = tree.evaluate(input, context);
+        }
+        final long allocated = allocatedBytes() - before;
+
+        assertEquals(input, result);
+        assertTrue(allocated < EVALUATIONS, allocated + " bytes allocated");
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testGenericBatchEvaluationBorrowsItsColumns() {
+        final Object input = new Object();
+        final ImmutableNode<Object, ?, Object, ?, ?> x = ImmutableTerminal.of(
+                "x", t -> t, Object.class
+        );
+        ImmutableNode<Object, ?, Object, ?, ?> tree = x;
+        for (int i = 0; i < 8; i++) {
+            tree = ImmutableNonTerminal.of(
+                    "first", first, new ImmutableNode[]{tree, x, tree}, Object.class, Object.class
+            );
+        }
+        final CompiledTree<Object, Object> program = tree.compile();
+        final TerminalColumns<Object> columns = TerminalColumns.of(
+                Collections.nCopies(BATCH, input)
+        );
+
+        List<Object> outputs = List.of();
+        for (int i = 0; i < WARMUP / BATCH; i++) {
+            outputs = program.evaluateAll(columns);
+        }
+        final long before = allocatedBytes();
+        for (int i = 0; i < BATCHES; i++) {
+            outputs = program.evaluateAll(columns);
+        }
+        final long allocated = allocatedBytes() - before;
+
+        assertEquals(Collections.nCopies(BATCH, input), outputs);
+        // Only the outputs are allocated, a reference is at most 8 bytes,
+        //  the stack of this tree would be 17 columns of them
+        final long perBatch = allocated / BATCHES;
+        assertTrue(perBatch < 4L * BATCH * Long.BYTES, perBatch + " bytes allocated per batch");
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testNestedEvaluationIsSafe() {
+        final ImmutableNode<Double, ?, Double, ?, ?> x = ImmutableTerminal.of(
+                "x", t -> t, Double.class
+        );
+        final ImmutableNode<Double, ?, Double, ?, ?> inner = ImmutableNonTerminal.of(
+                "+", Operator.bin(Double::sum), new ImmutableNode[]{x, x}, Double.class, Double.class
+        );
+        // Evaluates `inner` on the thread's context while its own inputs are borrowed
+        final Operator<Double, Double> nested = new Operator<>() {
+            @Override
+            public Double produce(List<Double> parents) {
+                return parents.get(0) + inner.evaluate(parents.get(1)) + parents.get(2);
+            }
+
+            @Override
+            public Integer arity() {
+                return 3;
+            }
+        };
+        final ImmutableNode<Double, ?, Double, ?, ?> tree = ImmutableNonTerminal.of(
+                "nested", nested, new ImmutableNode[]{inner, x, inner}, Double.class, Double.class
+        );
+
+        assertEquals(2.0 + 2.0 + 2.0, tree.evaluate(1.0));
+        assertEquals(2.0 + 2.0 + 2.0, tree.evaluate(1.0, EvalContext.current()));
+        assertEquals(
+                List.of(6.0, 12.0),
+                tree.compile().evaluateAll(List.of(1.0, 2.0))
+        );
+    }
+}
@@ -0,0 +1,120 @@
+package gp.individual;
+
+import gp.Population;
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.tree.ImmutableNode;
+import gp.impl.individual.tree.ImmutableNonTerminal;
+import gp.impl.initializers.Initializers;
+import org.junit.jupiter.api.Test;
+import utils.WeakCache;
+import utils.operators.Operator;
+import utils.random.RandomSource;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HashConsingTest {
+    RandomSource random = RandomSource.of(12);
+    PrimitiveSet<Double> primitiveSet = PrimitiveSetBuilder.<Double>empty()
+            .addUncachedTerminal("x", x -> x, Double.class)
+            .addUncachedTerminal("square", x -> x*x, Double.class)
+            .addNonTerminal("max", Operator.bin(Math::max), Double.class, Double.class)
+            .addNonTerminal("min", Operator.bin(Math::min), Double.class, Double.class)
+            .addNonTerminal("neg", Operator.unary(x -> -x), Double.class, Double.class)
+            .build();
+
+    @Test
+    public void testCopiesAreShared() {
+        final Population<SingleTreeIndividual<Double, Double>> population = Initializers.grow(
+                random, primitiveSet, 200, 100, 6, Double.class
+        ).initialize();
+
+        for (final SingleTreeIndividual<Double, Double> individual : population.individuals()) {
+            final ImmutableNode<Double, ?, Double, ?, ?> tree = individual.tree();
+            assertSame(tree, tree.mutableCopy().immutableCopy());
+        }
+    }
+
+    @Test
+    public void testIdenticalSubtreesAreShared() {
+        final Population<SingleTreeIndividual<Double, Double>> population = Initializers.full(
+                random, primitiveSet, 200, 100, 4, Double.class
+        ).initialize();
+
+        final var subtrees = population.stream()
+                .flatMap(individual -> individual.tree().stream())
+                .collect(Collectors.groupingBy(Function.identity()));
+
+        assertTrue(subtrees.values().stream().anyMatch(copies -> copies.size() > 1));
+        for (final var copies : subtrees.values()) {
+            final Set<Object> identities = Collections.newSetFromMap(new IdentityHashMap<>());
+            identities.addAll(copies);
+            assertEquals(1, identities.size());
+        }
+    }
+
+    @Test
+    public void testSharedNodesKeepStructuralEquality() {
+        final Population<SingleTreeIndividual<Double, Double>> population = Initializers.full(
+                random, primitiveSet, 50, 100, 3, Double.class
+        ).initialize();
+
+        for (final SingleTreeIndividual<Double, Double> individual : population.individuals()) {
+            final ImmutableNonTerminal<?, ?, ?> root = (ImmutableNonTerminal<?, ?, ?>) individual.tree();
+            final ImmutableNode<Double, ?, Double, ?, ?> copy = individual.tree()
+                    .mutableCopy()
+                    .immutableCopy();
+            assertEquals(individual.tree(), copy);
+            assertEquals(individual.tree().hashCode(), copy.hashCode());
+            assertSame(root.children()[0], ((ImmutableNonTerminal<?, ?, ?>) copy).children()[0]);
+        }
+    }
+
+    @Test
+    public void testWeakCacheReturnsCanonicalElement() {
+        final WeakCache<String> cache = WeakCache.empty();
+        final String first = new String("subtree");
+        final String second = new String("subtree");
+
+        assertNotSame(first, second);
+        assertSame(first, cache.getOrInsert(first));
+        assertSame(first, cache.getOrInsert(second));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testFingerprintsIdentifyStructure() {
+        final Population<SingleTreeIndividual<Double, Double>> population = Initializers.grow(
+                random, primitiveSet, 500, 100, 7, Double.class
+        ).initialize();
+        final Map<Long, String> expressions = new HashMap<>();
+
+        population.stream()
+                .flatMap(individual -> individual.tree().stream())
+                .map(node -> ((ImmutableNode<?, ?, ?, ?, ?>) node))
+                .forEach(node -> {
+                    final String previous = expressions.putIfAbsent(
+                            node.fingerprint(), node.getExpression()
+                    );
+                    if (previous != null) {
+                        assertEquals(previous, node.getExpression());
+                    }
+                    assertEquals(
+                            node.fingerprint(),
+                            node.mutableCopy().immutableCopy().fingerprint()
+                    );
+                });
+    }
+}
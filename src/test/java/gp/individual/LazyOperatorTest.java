@@ -0,0 +1,96 @@
+package gp.individual;
+
+import gp.Population;
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.TieredTreeIndividual;
+import gp.impl.individual.tree.ImmutableNode;
+import gp.impl.individual.tree.ImmutableNonTerminal;
+import gp.impl.individual.tree.ImmutableTerminal;
+import gp.impl.individual.tree.SemanticCache;
+import gp.impl.initializers.Initializers;
+import org.junit.jupiter.api.Test;
+import utils.operators.LazyOperator;
+import utils.random.RandomSource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LazyOperatorTest {
+    RandomSource random = RandomSource.of(12);
+    LazyOperator<Double, Double> ifPositive = LazyOperator.of(
+            3, operands -> operands.evaluate(0) > 0 ? operands.evaluate(1) : operands.evaluate(2)
+    );
+    PrimitiveSet<Double> primitiveSet = PrimitiveSetBuilder.<Double>empty()
+            .addUncachedTerminal("x", x -> x, Double.class)
+            .addNonTerminal("-", (a, b) -> a - b, Double.class, Double.class)
+            .addDoubleNonTerminal("*", (a, b) -> a * b)
+            .addNonTerminal("if", ifPositive, Double.class, Double.class)
+            .addLazyNonTerminal(
+                    "or", 2, operands -> operands.evaluate(0) > 0 ? 1.0 : operands.evaluate(1),
+                    Double.class, Double.class
+            )
+            .build();
+    List<Double> cases = IntStream.range(0, 50)
+            .mapToObj(_ -> random.nextDouble(-10, 10))
+            .toList();
+
+    @Test
+    public void testLazyTreesMatchEagerEvaluation() {
+        final Population<SingleTreeIndividual<Double, Double>> population = Initializers.grow(
+                random, primitiveSet, 200, 100, 6, Double.class
+        ).initialize();
+        final SemanticCache<Double> cache = SemanticCache.of(cases, 1_000_000);
+
+        for (final SingleTreeIndividual<Double, Double> individual : population.individuals()) {
+            final List<Object> expected = cases.stream()
+                    .map(terminals -> CompiledTreeTest.interpret(individual.tree(), terminals))
+                    .toList();
+            final TieredTreeIndividual<Double, Double> tiered =
+                    TieredTreeIndividual.of(individual.tree(), 0);
+
+            assertEquals(expected, individual.evaluateAll(cases));
+            assertEquals(expected.getFirst(), individual.evaluate(cases.getFirst()));
+            assertEquals(expected, tiered.evaluateAll(cases));
+            assertEquals(expected, cache.evaluateAll(individual.tree()));
+            assertEquals(
+                    expected,
+                    cases.stream().map(CompiledTreeTest.mutable(individual)::evaluate).toList()
+            );
+        }
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testOnlyTheTakenBranchIsEvaluated() {
+        final AtomicInteger thenCount = new AtomicInteger();
+        final AtomicInteger elseCount = new AtomicInteger();
+        final ImmutableNode<Double, ?, Double, ?, ?> x = ImmutableTerminal.of(
+                "x", t -> t, Double.class
+        );
+        final ImmutableNode<Double, ?, Double, ?, ?> then = ImmutableTerminal.of(
+                "then", t -> (double) thenCount.incrementAndGet(), Double.class
+        );
+        final ImmutableNode<Double, ?, Double, ?, ?> otherwise = ImmutableTerminal.of(
+                "else", t -> (double) elseCount.incrementAndGet(), Double.class
+        );
+        final ImmutableNode<Double, ?, Double, ?, ?> tree = ImmutableNonTerminal.of(
+                "if", ifPositive, new ImmutableNode[]{x, then, otherwise},
+                Double.class, Double.class
+        );
+        final TieredTreeIndividual<Double, Double> tiered = TieredTreeIndividual.of(tree, 0);
+
+        tree.evaluate(1.0);
+        tree.compile().evaluateAll(List.of(1.0, 2.0, -1.0));
+        tiered.evaluate(1.0);
+        SemanticCache.of(List.of(-1.0, -2.0), 100).evaluateAll(tree);
+        tree.mutableCopy().evaluate(-1.0);
+
+        assertEquals(1 + 2 + 1, thenCount.get());
+        assertEquals(1 + 2 + 1, elseCount.get());
+    }
+}
@@ -0,0 +1,148 @@
+package gp.individual;
+
+import gp.Population;
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import gp.impl.genetic_operators.LinearCrossOver;
+import gp.impl.genetic_operators.LinearSubtreeMutation;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.linear.LinearTreeIndividual;
+import gp.impl.individual.linear.OpcodeTable;
+import gp.impl.individual.tree.ImmutableNode;
+import gp.impl.individual.tree.ImmutableNonTerminal;
+import gp.impl.individual.tree.ImmutableTerminal;
+import gp.impl.initializers.Initializers;
+import org.junit.jupiter.api.Test;
+import utils.operators.Operator;
+import utils.random.RandomSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LinearGenomeTest {
+    RandomSource random = RandomSource.of(7);
+    PrimitiveSet<Double> primitiveSet = PrimitiveSetBuilder.<Double>empty()
+            .addUncachedTerminal("x", x -> x, Double.class)
+            .addEphemeralConstant(() -> (double) random.nextInt(-2, 3), Double.class)
+            .addDoubleNonTerminal("add", Double::sum)
+            .addDoubleNonTerminal("mul", (a, b) -> a * b)
+            .addNonTerminal("neg", Operator.unary((Double x) -> -x), Double.class, Double.class)
+            .build();
+
+    List<LinearTreeIndividual<Double, Double>> population(final OpcodeTable<Double> table) {
+        final Population<SingleTreeIndividual<Double, Double>> population = Initializers.grow(
+                random, primitiveSet, 100, 100, 6, Double.class
+        ).initialize();
+        return population.stream()
+                .map(individual -> LinearTreeIndividual.of(individual.tree(), table))
+                .toList();
+    }
+
+    /** Check the sizes and types of an individual against its rebuilt tree. */
+    static void assertConsistent(final LinearTreeIndividual<Double, Double> individual) {
+        final ImmutableNode<Double, ?, Double, ?, ?> tree = individual.tree();
+        final LinearTreeIndividual<Double, Double> flattened =
+                LinearTreeIndividual.of(tree, individual.table());
+        assertEquals(flattened, individual);
+        assertEquals(tree.size(), individual.length());
+        assertEquals(tree.depth(), individual.depth());
+        final Class<?>[] slots = individual.slotTypes();
+        for (int i = 0; i < individual.length(); i++) {
+            assertEquals(flattened.subtreeSize(i), individual.subtreeSize(i));
+            assertEquals(individual.slotType(i), slots[i]);
+            assertTrue(individual.slotType(i).isAssignableFrom(individual.returnType(i)));
+        }
+        for (final double x : new double[] {-1.5, 0, 2}) {
+            assertEquals(tree.evaluate(x), individual.evaluate(x));
+        }
+    }
+
+    @Test
+    public void testRoundTripReturnsTheSameTree() {
+        final OpcodeTable<Double> table = OpcodeTable.empty();
+        for (final LinearTreeIndividual<Double, Double> individual : population(table)) {
+            final ImmutableNode<Double, ?, Double, ?, ?> tree = individual.tree();
+            final LinearTreeIndividual<Double, Double> decoded = LinearTreeIndividual.of(
+                    tree, table
+            ).replace(0, individual, 0);
+            // Hash-consing means rebuilding gives back the canonical tree
+            assertSame(tree, decoded.tree());
+            assertConsistent(individual);
+        }
+    }
+
+    @Test
+    public void testSizesAndLevels() {
+        final ImmutableNode<Double, ?, Double, ?, ?> x = ImmutableTerminal.of(
+                "x", Operator.unary(t -> t), Double.class
+        );
+        final Operator<Double, Double> add = Operator.bin(Double::sum);
+        final ImmutableNode<Double, ?, Double, ?, ?> sum = ImmutableNonTerminal.of(
+                "add", add, new ImmutableNode[] {x, x}, Double.class, Double.class
+        );
+        final ImmutableNode<Double, ?, Double, ?, ?> root = ImmutableNonTerminal.of(
+                "add", add, new ImmutableNode[] {sum, x}, Double.class, Double.class
+        );
+        final OpcodeTable<Double> table = OpcodeTable.empty();
+        final LinearTreeIndividual<Double, Double> individual = LinearTreeIndividual.of(
+                root, table
+        );
+
+        assertEquals(2, table.size());
+        assertEquals(5, individual.length());
+        assertEquals(List.of(5, 3, 1, 1, 1), List.of(
+                individual.subtreeSize(0), individual.subtreeSize(1),
+                individual.subtreeSize(2), individual.subtreeSize(3),
+                individual.subtreeSize(4)
+        ));
+        assertEquals(List.of(-1, 0, 1, 1, 0), List.of(
+                individual.parent(0), individual.parent(1), individual.parent(2),
+                individual.parent(3), individual.parent(4)
+        ));
+        assertEquals(2, individual.level(3));
+        assertEquals(2, individual.depth());
+
+        final LinearTreeIndividual<Double, Double> grown = individual.replace(4, individual, 0);
+        assertEquals(9, grown.length());
+        assertEquals(9, grown.subtreeSize(0));
+        assertEquals(3, grown.depth());
+        assertConsistent(grown);
+    }
+
+    @Test
+    public void testCrossOverAndMutationProduceValidTrees() {
+        final OpcodeTable<Double> table = OpcodeTable.empty();
+        final List<LinearTreeIndividual<Double, Double>> population = population(table);
+        final LinearCrossOver<Double, Double> crossOver = new LinearCrossOver<>(random);
+        final LinearSubtreeMutation<Double, Double> mutation = new LinearSubtreeMutation<>(
+                random, primitiveSet, 8, 100
+        );
+
+        for (int i = 0; i + 1 < population.size(); i += 2) {
+            final LinearTreeIndividual<Double, Double> parent1 = population.get(i);
+            final LinearTreeIndividual<Double, Double> parent2 = population.get(i + 1);
+            final List<LinearTreeIndividual<Double, Double>> offspring =
+                    crossOver.produce(parent1, parent2);
+            assertEquals(2, offspring.size());
+            assertEquals(
+                    parent1.length() + parent2.length(),
+                    offspring.get(0).length() + offspring.get(1).length()
+            );
+            offspring.forEach(LinearGenomeTest::assertConsistent);
+            mutation.produce(offspring.get(0)).forEach(LinearGenomeTest::assertConsistent);
+        }
+    }
+
+    @Test
+    public void testSplicingRequiresTheSameTable() {
+        final LinearTreeIndividual<Double, Double> first =
+                population(OpcodeTable.empty()).getFirst();
+        final LinearTreeIndividual<Double, Double> second =
+                population(OpcodeTable.empty()).getFirst();
+        assertThrows(IllegalArgumentException.class, () -> first.replace(0, second, 0));
+    }
+}
@@ -0,0 +1,155 @@
+package gp.individual;
+
+import gp.Population;
+import gp.core.fitness.Goal;
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.linear.LinearTreeIndividual;
+import gp.impl.individual.linear.OffHeapPopulation;
+import gp.impl.individual.linear.OpcodeTable;
+import gp.impl.initializers.Initializers;
+import org.junit.jupiter.api.Test;
+import utils.random.RandomSource;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffHeapPopulationTest {
+    RandomSource random = RandomSource.of(3);
+    PrimitiveSet<Double> primitiveSet = PrimitiveSetBuilder.<Double>empty()
+            .addUncachedTerminal("x", x -> x, Double.class)
+            .addEphemeralConstant(() -> (double) random.nextInt(-2, 3), Double.class)
+            .addDoubleNonTerminal("add", Double::sum)
+            .addDoubleNonTerminal("mul", (a, b) -> a * b)
+            .build();
+    OpcodeTable<Double> table = OpcodeTable.empty();
+
+    List<LinearTreeIndividual<Double, Double>> individuals(final int size) {
+        final Population<SingleTreeIndividual<Double, Double>> population = Initializers.grow(
+                random, primitiveSet, size, 100, 6, Double.class
+        ).initialize();
+        return population.stream()
+                .map(individual -> LinearTreeIndividual.of(individual.tree(), table))
+                .toList();
+    }
+
+    @Test
+    public void testIndividualsRoundTrip() {
+        final List<LinearTreeIndividual<Double, Double>> individuals = individuals(200);
+        try (OffHeapPopulation<Double, Double> population = OffHeapPopulation.of(
+                individuals, table, Goal.MINIMIZE
+        )) {
+            assertEquals(individuals.size(), population.size());
+            assertEquals(
+                    individuals.stream().mapToLong(LinearTreeIndividual::length).sum(),
+                    population.nodes()
+            );
+            for (int i = 0; i < individuals.size(); i++) {
+                assertEquals(individuals.get(i), population.genome(i));
+                assertSame(individuals.get(i).tree(), population.get(i).tree());
+                assertEquals(individuals.get(i).evaluate(1.5), population.get(i).evaluate(1.5));
+            }
+        }
+    }
+
+    @Test
+    public void testFitnessIsStoredOffHeap() {
+        final List<LinearTreeIndividual<Double, Double>> individuals = individuals(100);
+        try (OffHeapPopulation<Double, Double> population = OffHeapPopulation.of(
+                individuals, table, Goal.MINIMIZE
+        )) {
+            assertFalse(population.isAssessed(0));
+            assertThrows(IllegalStateException.class, () -> population.assessed(0));
+
+            population.assess(individual -> individual.tree().size());
+            for (int i = 0; i < population.size(); i++) {
+                assertTrue(population.isAssessed(i));
+                assertEquals(individuals.get(i).length(), population.fitness(i));
+                assertEquals(
+                        individuals.get(i).length(),
+                        population.assessed(i).fitness().score()
+                );
+                assertEquals(Goal.MINIMIZE, population.assessed(i).fitness().goal());
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentAppendsAndCapacity() {
+        final List<LinearTreeIndividual<Double, Double>> individuals = individuals(500);
+        final long nodes = individuals.stream().mapToLong(LinearTreeIndividual::length).sum();
+        try (OffHeapPopulation<Double, Double> population = OffHeapPopulation.allocate(
+                table, Goal.MAXIMIZE, individuals.size(), nodes
+        )) {
+            final int[] indices = individuals.parallelStream()
+                    .mapToInt(population::add)
+                    .toArray();
+            assertEquals(individuals.size(), population.size());
+            assertEquals(
+                    IntStream.range(0, individuals.size()).boxed().toList(),
+                    IntStream.of(indices).sorted().boxed().toList()
+            );
+            for (int i = 0; i < individuals.size(); i++) {
+                assertEquals(individuals.get(i), population.genome(indices[i]));
+            }
+            assertThrows(
+                    IllegalStateException.class,
+                    () -> population.add(individuals.getFirst())
+            );
+        }
+    }
+
+    @Test
+    public void testOverflowingTheNodesLeavesNoPhantomIndividual() {
+        final List<LinearTreeIndividual<Double, Double>> individuals = individuals(20);
+        final LinearTreeIndividual<Double, Double> first = individuals.getFirst();
+        try (OffHeapPopulation<Double, Double> population = OffHeapPopulation.allocate(
+                table, Goal.MINIMIZE, individuals.size(), first.length()
+        )) {
+            assertEquals(0, population.add(first));
+            for (final LinearTreeIndividual<Double, Double> individual : individuals) {
+                assertThrows(IllegalStateException.class, () -> population.add(individual));
+            }
+            assertEquals(1, population.size());
+            assertEquals(first.length(), population.nodes());
+            assertEquals(first, population.genome(0));
+            assertThrows(IndexOutOfBoundsException.class, () -> population.genome(1));
+        }
+    }
+
+    @Test
+    public void testOverflowingTheIndicesLeavesNoPhantomNodes() {
+        final List<LinearTreeIndividual<Double, Double>> individuals = individuals(20);
+        final long total = individuals.stream().mapToLong(LinearTreeIndividual::length).sum();
+        try (OffHeapPopulation<Double, Double> population = OffHeapPopulation.allocate(
+                table, Goal.MINIMIZE, 2, total
+        )) {
+            population.add(individuals.get(0));
+            population.add(individuals.get(1));
+            final long nodes = population.nodes();
+            for (final LinearTreeIndividual<Double, Double> individual : individuals) {
+                assertThrows(IllegalStateException.class, () -> population.add(individual));
+            }
+            assertEquals(2, population.size());
+            assertEquals(nodes, population.nodes());
+            assertEquals(individuals.get(1), population.genome(1));
+        }
+    }
+
+    @Test
+    public void testClosedPopulationCannotBeRead() {
+        final OffHeapPopulation<Double, Double> population = OffHeapPopulation.of(
+                individuals(10), table, Goal.MINIMIZE
+        );
+        final SingleTreeIndividual<Double, Double> view = population.get(0);
+        population.close();
+        assertThrows(IllegalStateException.class, view::tree);
+    }
+}
@@ -0,0 +1,137 @@
+package gp.individual;
+
+import gp.Population;
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.TieredTreeIndividual;
+import gp.impl.individual.tree.ImmutableNode;
+import gp.impl.individual.tree.ImmutableNonTerminal;
+import gp.impl.individual.tree.ImmutableTerminal;
+import gp.impl.individual.tree.RewriteRules;
+import gp.impl.individual.tree.Simplifier;
+import gp.impl.initializers.Initializers;
+import org.junit.jupiter.api.Test;
+import utils.operators.Constant;
+import utils.operators.DoubleBinaryOperator;
+import utils.operators.DoubleUnaryOperator;
+import utils.operators.Operator;
+import utils.random.RandomSource;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SimplifierTest {
+    RandomSource random = RandomSource.of(12);
+    DoubleBinaryOperator plus = Double::sum;
+    DoubleBinaryOperator sub = (a, b) -> a - b;
+    DoubleBinaryOperator mul = (a, b) -> a * b;
+    DoubleBinaryOperator max = Math::max;
+    DoubleUnaryOperator neg = a -> -a;
+    PrimitiveSet<Double> primitiveSet = PrimitiveSetBuilder.<Double>empty()
+            .addUncachedTerminal("x", x -> x, Double.class)
+            .addEphemeralConstant(() -> (double) random.nextInt(-2, 3), Double.class)
+            .addDoubleNonTerminal("+", plus)
+            .addDoubleNonTerminal("-", sub)
+            .addDoubleNonTerminal("*", mul)
+            .addDoubleNonTerminal("neg", neg)
+            .addDoubleNonTerminal("max", max)
+            .build();
+    Simplifier simplifier = Simplifier.of(List.of(
+            RewriteRules.involution("neg"),
+            RewriteRules.idempotent("max"),
+            RewriteRules.identity("+", 0.0),
+            RewriteRules.identity("*", 1.0),
+            RewriteRules.rightIdentity("-", 0.0),
+            RewriteRules.selfCancelling("-", 0.0)
+    ));
+    List<Double> cases = IntStream.range(0, 50)
+            .mapToObj(_ -> random.nextDouble(-10, 10))
+            .toList();
+
+    ImmutableNode<Double, ?, Double, ?, ?> x =
+            ImmutableTerminal.of("x", x -> x, Double.class);
+
+    ImmutableNode<Double, ?, Double, ?, ?> constant(final double value) {
+        return ImmutableTerminal.of(String.valueOf(value), Constant.of(value), Double.class);
+    }
+
+    @SafeVarargs
+    final ImmutableNode<Double, ?, Double, ?, ?> apply(
+            final String name,
+            final Operator<Double, Double> function,
+            final ImmutableNode<Double, ?, Double, ?, ?>... children
+    ) {
+        return ImmutableNonTerminal.of(name, function, children, Double.class, Double.class);
+    }
+
+    @Test
+    public void testConstantSubtreesAreFolded() {
+        final ImmutableNode<Double, ?, Double, ?, ?> tree = apply(
+                "+", plus, x, apply("*", mul, constant(2.0), apply("neg", neg, constant(3.0)))
+        );
+        final ImmutableNode<Double, ?, Double, ?, ?> simplified =
+                Simplifier.constantFolding().simplify(tree);
+
+        assertSame(apply("+", plus, x, constant(-6.0)), simplified);
+        assertEquals(Optional.of(-6.0), Simplifier.constantValue(
+                ((ImmutableNonTerminal<?, ?, ?>) simplified).children()[1]
+        ));
+    }
+
+    @Test
+    public void testRewriteRules() {
+        assertSame(x, simplifier.simplify(apply("neg", neg, apply("neg", neg, x))));
+        assertSame(x, simplifier.simplify(apply("max", max, x, x)));
+        assertSame(x, simplifier.simplify(apply("*", mul, constant(1.0), x)));
+        assertSame(x, simplifier.simplify(apply("+", plus, x, apply("-", sub, x, x))));
+        assertEquals(
+                Optional.of(0.0),
+                Simplifier.constantValue(simplifier.simplify(apply("-", sub, x, x)))
+        );
+    }
+
+    @Test
+    public void testSimplifiedTreesEvaluateIdentically() {
+        final Population<SingleTreeIndividual<Double, Double>> population = Initializers.grow(
+                random, primitiveSet, 300, 100, 6, Double.class
+        ).initialize();
+
+        for (final SingleTreeIndividual<Double, Double> individual : population.individuals()) {
+            final Simplifier.Report<Double, Double> report = simplifier.report(individual.tree());
+            assertTrue(report.simplifiedSize() <= report.originalSize());
+            for (final Double terminals : cases) {
+                final double expected = individual.tree().evaluate(terminals);
+                if (Double.isFinite(expected)) {
+                    assertEquals(
+                            expected,
+                            report.simplified().evaluate(terminals),
+                            1e-9 * Math.max(1, Math.abs(expected)),
+                            report.original().getExpression()
+                    );
+                }
+            }
+        }
+        assertTrue(simplifier.reduction() > 0);
+    }
+
+    @Test
+    public void testTieredIndividualsEvaluateThePhenotype() {
+        final ImmutableNode<Double, ?, Double, ?, ?> tree = apply(
+                "-", sub, apply("neg", neg, apply("neg", neg, x)), constant(0.0)
+        );
+        final TieredTreeIndividual<Double, Double> individual =
+                TieredTreeIndividual.of(tree, simplifier, 0);
+
+        assertSame(tree, individual.tree());
+        assertSame(x, individual.phenotype());
+        for (final Double terminals : cases) {
+            assertEquals(terminals, individual.evaluate(terminals));
+        }
+    }
+}
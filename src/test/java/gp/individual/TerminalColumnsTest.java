@@ -0,0 +1,133 @@
+package gp.individual;
+
+import gp.Population;
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import gp.core.initializer.TypedTerminal;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.TieredTreeIndividual;
+import gp.impl.individual.tree.ImmutableNode;
+import gp.impl.individual.tree.ImmutableNonTerminal;
+import gp.impl.individual.tree.ImmutableTerminal;
+import gp.impl.individual.tree.TerminalColumns;
+import gp.impl.initializers.Initializers;
+import org.junit.jupiter.api.Test;
+import utils.Pair;
+import utils.operators.Operator;
+import utils.operators.UnaryOperator;
+import utils.random.RandomSource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TerminalColumnsTest {
+    RandomSource random = RandomSource.of(5);
+    AtomicInteger extractions = new AtomicInteger();
+    PrimitiveSet<Pair<Double, Double>> primitiveSet = PrimitiveSetBuilder.<Pair<Double, Double>>empty()
+            .addUncachedTerminal("x", p -> {
+                extractions.incrementAndGet();
+                return p.first();
+            }, Double.class)
+            .addUncachedTerminal("y", Pair::second, Double.class)
+            .addEphemeralConstant(() -> (double) random.nextInt(-2, 3), Double.class)
+            .addDoubleNonTerminal("add", Double::sum)
+            .addDoubleNonTerminal("mul", (a, b) -> a * b)
+            .addNonTerminal("max", Operator.bin(Math::max), Double.class, Double.class)
+            .build();
+    List<Pair<Double, Double>> cases = IntStream.range(0, 64)
+            .mapToObj(_ -> Pair.of(random.nextDouble(-3, 3), random.nextDouble(-3, 3)))
+            .toList();
+
+    Population<SingleTreeIndividual<Pair<Double, Double>, Double>> population() {
+        return Initializers.grow(random, primitiveSet, 200, 100, 6, Double.class).initialize();
+    }
+
+    @Test
+    public void testColumnsMatchEvaluatingEachCase() {
+        final TerminalColumns<Pair<Double, Double>> columns = TerminalColumns.of(
+                cases, primitiveSet
+        );
+        final Population<SingleTreeIndividual<Pair<Double, Double>, Double>> population =
+                population();
+        for (final SingleTreeIndividual<Pair<Double, Double>, Double> individual
+                : population.individuals()) {
+            assertArrayEquals(
+                    individual.evaluateAllAsDouble(cases),
+                    individual.evaluateAllAsDouble(columns)
+            );
+            assertEquals(
+                    individual.evaluateAll(cases),
+                    individual.tree().compile().evaluateAll(columns)
+            );
+        }
+
+        // Promoted individuals fall back to evaluating each case
+        final Population<SingleTreeIndividual<Pair<Double, Double>, Double>> tiered =
+                TieredTreeIndividual.<Pair<Double, Double>, Double>tiered(0).apply(population);
+        for (final SingleTreeIndividual<Pair<Double, Double>, Double> individual
+                : tiered.individuals()) {
+            assertArrayEquals(
+                    individual.evaluateAllAsDouble(cases),
+                    individual.evaluateAllAsDouble(columns)
+            );
+        }
+    }
+
+    @Test
+    public void testExtractorsRunOncePerCase() {
+        final TerminalColumns<Pair<Double, Double>> columns = TerminalColumns.of(
+                cases, primitiveSet
+        );
+        assertEquals(cases.size(), extractions.get());
+        assertEquals(2, columns.numColumns());
+
+        for (final SingleTreeIndividual<Pair<Double, Double>, Double> individual
+                : population().individuals()) {
+            individual.evaluateAllAsDouble(columns);
+            individual.tree().compile().evaluateAll(columns);
+        }
+        assertEquals(cases.size(), extractions.get());
+        // Ephemeral constants are never stored
+        assertEquals(2, columns.numColumns());
+    }
+
+    @Test
+    public void testColumnsAreComputedOnFirstUse() {
+        final TerminalColumns<Pair<Double, Double>> columns = TerminalColumns.of(cases);
+        assertEquals(0, columns.numColumns());
+        for (final SingleTreeIndividual<Pair<Double, Double>, Double> individual
+                : population().individuals()) {
+            individual.evaluateAllAsDouble(columns);
+        }
+        assertEquals(cases.size(), extractions.get());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testDoubleColumnsAreBoxedOnceForObjectTrees() {
+        final TerminalColumns<Pair<Double, Double>> columns = TerminalColumns.of(
+                cases, primitiveSet
+        );
+        final TypedTerminal<Pair<Double, Double>, ?> x = primitiveSet.terminals().getFirst();
+        final ImmutableTerminal<Pair<Double, Double>, Double> leaf = ImmutableTerminal.of(
+                x.name(), (UnaryOperator<Pair<Double, Double>, Double>) x.terminal(),
+                Double.class
+        );
+        final ImmutableNode<Pair<Double, Double>, ?, Double, ?, ?> first =
+                ImmutableNonTerminal.of(
+                        "first", Operator.<Double, Double>bin((a, b) -> a),
+                        new ImmutableNode[] {leaf, leaf}, Double.class, Double.class
+                );
+        final List<Double> once = first.compile().evaluateAll(columns);
+        final List<Double> twice = first.compile().evaluateAll(columns);
+        for (int j = 0; j < cases.size(); j++) {
+            assertEquals(cases.get(j).first(), once.get(j));
+            assertSame(once.get(j), twice.get(j));
+        }
+    }
+}
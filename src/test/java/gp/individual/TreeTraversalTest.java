@@ -0,0 +1,130 @@
+package gp.individual;
+
+import gp.Population;
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import gp.impl.individual.SingleTreeIndividual;
+import gp.impl.individual.tree.ImmutableNode;
+import gp.impl.individual.tree.ImmutableNonTerminal;
+import gp.impl.individual.tree.ImmutableTerminal;
+import gp.impl.individual.tree.MutableNode;
+import gp.impl.individual.tree.Node;
+import gp.impl.individual.tree.NonTerminal;
+import gp.impl.individual.tree.TreeCursor;
+import gp.impl.initializers.Initializers;
+import org.junit.jupiter.api.Test;
+import utils.operators.Operator;
+import utils.random.RandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TreeTraversalTest {
+    RandomSource random = RandomSource.of(12);
+    Operator<Double, Double> neg = Operator.unary(x -> -x);
+    PrimitiveSet<Double> primitiveSet = PrimitiveSetBuilder.<Double>empty()
+            .addUncachedTerminal("x", x -> x, Double.class)
+            .addNonTerminal("max", Operator.bin(Math::max), Double.class, Double.class)
+            .addDoubleNonTerminal("min", Math::min)
+            .addNonTerminal("neg", neg, Double.class, Double.class)
+            .build();
+
+    static void preorder(final Node<Double, ?, ?, ?, ?> node, final List<Node<?, ?, ?, ?, ?>> out) {
+        out.add(node);
+        if (node instanceof NonTerminal<?, ?, ?, ?> nonTerminal) {
+            for (final Node<?, ?, ?, ?, ?> child : nonTerminal.children()) {
+                //noinspection unchecked
+                preorder((Node<Double, ?, ?, ?, ?>) child, out);
+            }
+        }
+    }
+
+    static int depth(final Node<?, ?, ?, ?, ?> node) {
+        if (node instanceof NonTerminal<?, ?, ?, ?> nonTerminal) {
+            int depth = 0;
+            for (final Node<?, ?, ?, ?, ?> child : nonTerminal.children()) {
+                depth = Math.max(depth, depth(child));
+            }
+            return depth + 1;
+        }
+        return 0;
+    }
+
+    @Test
+    public void testTraversalMatchesRecursiveDefinitions() {
+        final Population<SingleTreeIndividual<Double, Double>> population = Initializers.grow(
+                random, primitiveSet, 200, 100, 6, Double.class
+        ).initialize();
+
+        for (final SingleTreeIndividual<Double, Double> individual : population.individuals()) {
+            final ImmutableNode<Double, ?, Double, ?, ?> tree = individual.tree();
+            final MutableNode<Double, ?, Double, ?, ?> mutable = tree.mutableCopy();
+            final List<Node<?, ?, ?, ?, ?>> expected = new ArrayList<>();
+            preorder(tree, expected);
+
+            assertEquals(expected, tree.stream().toList());
+            assertEquals(expected.size(), tree.size());
+            assertEquals(expected.size(), mutable.size());
+            assertEquals(depth(tree), tree.depth());
+            assertEquals(depth(tree), mutable.depth());
+            assertEquals(tree.evaluate(0.5), mutable.evaluate(0.5));
+        }
+    }
+
+    @Test
+    public void testCursorTracksParents() {
+        final ImmutableNode<Double, ?, Double, ?, ?> x = ImmutableTerminal.of(
+                "x", x1 -> x1, Double.class
+        );
+        final ImmutableNonTerminal<Double, Double, Double> inner = ImmutableNonTerminal.of(
+                "neg", neg, new ImmutableNode[]{x}, Double.class, Double.class
+        );
+        final ImmutableNonTerminal<Double, Double, Double> root = ImmutableNonTerminal.of(
+                "max", Operator.bin(Math::max), new ImmutableNode[]{inner, x},
+                Double.class, Double.class
+        );
+
+        final TreeCursor<Double> cursor = TreeCursor.of(root);
+        cursor.advance();
+        assertSame(root, cursor.node());
+        assertNull(cursor.parent());
+        assertEquals(-1, cursor.childIndex());
+        cursor.advance();
+        assertSame(inner, cursor.node());
+        assertSame(root, cursor.parent());
+        assertEquals(0, cursor.childIndex());
+        cursor.advance();
+        assertSame(x, cursor.node());
+        assertSame(inner, cursor.parent());
+        assertEquals(2, cursor.level());
+        cursor.advance();
+        assertSame(x, cursor.node());
+        assertSame(root, cursor.parent());
+        assertEquals(1, cursor.childIndex());
+        assertEquals(false, cursor.advance());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testDeepTreesDoNotOverflowTheStack() {
+        final int depth = 200_000;
+        ImmutableNode<Double, ?, Double, ?, ?> tree = ImmutableTerminal.of(
+                "x", x -> x, Double.class
+        );
+        for (int i = 0; i < depth; i++) {
+            tree = ImmutableNonTerminal.of(
+                    "neg", neg, new ImmutableNode[]{tree}, Double.class, Double.class
+            );
+        }
+
+        assertEquals(depth, tree.depth());
+        assertEquals(depth + 1, tree.size());
+        assertEquals(depth + 1, tree.stream().count());
+        assertEquals(2.0, tree.evaluate(2.0));
+        assertEquals(2.0, tree.evaluateAsDouble(2.0));
+    }
+}
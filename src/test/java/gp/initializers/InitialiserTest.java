@@ -4,10 +4,13 @@ import gp.Population;
 import gp.core.initializer.*;
 import gp.impl.individual.SingleTreeIndividual;
 import gp.impl.initializers.Initializers;
+import gp.impl.initializers.RampedHalfAndHalf;
 import utils.operators.Operator;
 import org.junit.jupiter.api.Test;
 import utils.random.RandomSource;
+import utils.random.SplittableRandomSource;
 
+import java.util.List;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,6 +44,27 @@ public class InitialiserTest {
         System.out.println("Time taken: " + (System.currentTimeMillis() - startTime) + "ms");
     }
 
+    @Test
+    public void testForkedPopulationsDontDependOnThreads() {
+        final SplittableRandomSource forks = SplittableRandomSource.of(seed);
+        final IndividualInitialiser<SingleTreeIndividual<Double, Double>> grow =
+                Initializers.grow(random, primitiveSet, 500, 100, 6, Double.class);
+        final List<SingleTreeIndividual<Double, Double>> serial = IntStream.range(0, 500)
+                .mapToObj(i -> grow.createIndividual(forks.fork(i)))
+                .toList();
+        assertEquals(serial, grow.initialize(forks).individuals());
+        assertEquals(serial, grow.initialize(forks).individuals());
+        assertNotEquals(serial, grow.initialize(forks.fork(1)).individuals());
+
+        final RampedHalfAndHalf<Double, Double> ramped = Initializers.rampedHalfAndHalf(
+                6, random, primitiveSet, 500, 100, Double.class
+        );
+        assertEquals(
+                ramped.initialize(forks).individuals(),
+                ramped.initialize(forks).individuals()
+        );
+    }
+
     @Test
     public void testIllegalMaxDepth() {
         assertThrows(
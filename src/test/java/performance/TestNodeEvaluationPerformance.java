@@ -1,19 +1,27 @@
 package performance;
 
 import example.function_approximation.DefaultInitialiser;
-import gp.Population;
 import gp.core.initializer.PrimitiveSet;
 import gp.core.initializer.PrimitiveSetBuilder;
-import gp.impl.initializers.Initializers;
+import gp.impl.individual.TieredTreeIndividual;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
-import utils.Pair;
 import utils.Repeat;
-import utils.RepeatTest;
 import utils.operators.Operator;
-import utils.random.RandomSource;
+import utils.random.SplittableRandomSource;
 
-import java.util.Random;
+import java.util.List;
+import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A benchmark of the ways a tree can be evaluated, which isn't part of the
+ *  unit tests, run it with `mvn test -Pperformance`.
+ * Mutable trees are walked node by node, immutable ones run a compiled program.
+ */
+@Tag("performance")
 public class TestNodeEvaluationPerformance {
     PrimitiveSet<Double> primitiveSet = PrimitiveSetBuilder.<Double>empty()
         .addUncachedTerminal("x", x -> x, Double.class)
@@ -21,32 +29,66 @@ public class TestNodeEvaluationPerformance {
         .addNonTerminal("max", Operator.bin(Math::max), Double.class, Double.class)
         .addNonTerminal("min", Operator.bin(Math::min), Double.class, Double.class)
         .addNonTerminal("neg", Operator.unary(x -> -x), Double.class, Double.class)
-        .addNonTerminal("toStr", Operator.unary(Object::toString), Object.class, String.class)
         .build();
     @Test
     public void checkNodeEvaluationTimes() {
-        final RandomSource rand = RandomSource.of(12);
-        final var pop = new DefaultInitialiser(rand, primitiveSet).initialize();
+        final SplittableRandomSource rand = SplittableRandomSource.of(12);
+        final var pop = new DefaultInitialiser<>(rand, primitiveSet, Double.class).initialize();
+        pop.individuals().forEach(p -> assertTrue(p.tree().compile().isPrimitive()));
+        final var walked = pop.individuals().stream().map(p -> p.tree().mutableCopy()).toList();
         System.out.println("WARMUP");
         Repeat.of(
             100,
-            () -> pop.individuals().forEach(p -> p.evaluate(Pair.of(
-                rand.nextDouble(-10, 10),
-                rand.nextDouble(-10, 10))
-            ))
+            () -> IntStream.range(0, pop.size()).forEach(i -> {
+                final double x = rand.nextDouble(-10, 10);
+                final Double expected = walked.get(i).evaluate(x);
+                assertEquals(expected, pop.get(i).evaluate(x));
+                assertEquals(expected, pop.get(i).evaluateAsDouble(x));
+            })
         );
 
-        final long start = System.currentTimeMillis();
         final int testEvals = 1000;
+        final long walkedStart = System.currentTimeMillis();
+        Repeat.of(
+            testEvals,
+            () -> walked.forEach(p -> p.evaluate(rand.nextDouble(-10, 10)))
+        );
+        final long walkedTime = System.currentTimeMillis() - walkedStart;
+
+        final long compiledStart = System.currentTimeMillis();
+        Repeat.of(
+            testEvals,
+            () -> pop.individuals().forEach(p -> p.evaluateAsDouble(rand.nextDouble(-10, 10)))
+        );
+        final long compiledTime = System.currentTimeMillis() - compiledStart;
+
+        final List<Double> cases = IntStream.range(0, testEvals)
+            .mapToObj(_ -> rand.nextDouble(-10, 10))
+            .toList();
+        final long batchStart = System.currentTimeMillis();
+        pop.individuals().forEach(p -> p.evaluateAllAsDouble(cases));
+        final long batchTime = System.currentTimeMillis() - batchStart;
+
+        final var tiered = TieredTreeIndividual.<Double, Double>tiered(100).apply(pop);
+        Repeat.of(
+            100,
+            () -> tiered.individuals().forEach(p -> {
+                final double x = rand.nextDouble(-10, 10);
+                assertEquals(p.tree().evaluate(x), p.evaluate(x));
+                assertEquals(p.tree().evaluate(x), p.evaluateAsDouble(x));
+            })
+        );
+        final long bytecodeStart = System.currentTimeMillis();
         Repeat.of(
-            1000,
-            () -> pop.individuals().forEach(p -> p.evaluate(Pair.of(
-                rand.nextDouble(-10, 10),
-                rand.nextDouble(-10, 10))
-            ))
+            testEvals,
+            () -> tiered.individuals().forEach(p -> p.evaluateAsDouble(rand.nextDouble(-10, 10)))
         );
+        final long bytecodeTime = System.currentTimeMillis() - bytecodeStart;
 
-        System.out.println(pop.size()*testEvals + " evals in" + (System.currentTimeMillis() - start) + "ms");
+        System.out.println(pop.size()*testEvals + " walked evals in " + walkedTime + "ms");
+        System.out.println(pop.size()*testEvals + " compiled evals in " + compiledTime + "ms");
+        System.out.println(pop.size()*testEvals + " batched evals in " + batchTime + "ms");
+        System.out.println(pop.size()*testEvals + " bytecode evals in " + bytecodeTime + "ms");
         System.out.println("Average individual size: "+ pop.individuals().stream().mapToInt(p -> p.tree().depth()).average().orElse(0.0));
     }
 }
@@ -0,0 +1,78 @@
+package performance;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import utils.Repeat;
+import utils.random.RandomSource;
+import utils.random.SplittableRandomSource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A benchmark of the random sources, which isn't part of the unit tests,
+ *  run it with `mvn test -Pperformance`.
+ */
+@Tag("performance")
+public class TestRandomSourcePerformance {
+    static final int SIZE = 1 << 16;
+    static final int ROUNDS = 500;
+
+    Map<String, Supplier<RandomSource>> sources() {
+        final Map<String, Supplier<RandomSource>> sources = new LinkedHashMap<>();
+        sources.put("MersenneTwisterFast", () -> RandomSource.of(12));
+        sources.put("SplitMix64", () -> SplittableRandomSource.of(12));
+        sources.put("xoshiro256++", () -> RandomSource.fast(12));
+        return sources;
+    }
+
+    long time(final Runnable runnable) {
+        final long start = System.nanoTime();
+        Repeat.of(ROUNDS, runnable);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Test
+    public void compareGenerators() {
+        final double[] doubles = new double[SIZE];
+        final int[] ints = new int[SIZE];
+        double sink = 0;
+        for (final Map.Entry<String, Supplier<RandomSource>> entry : sources().entrySet()) {
+            final RandomSource random = entry.getValue().get();
+            System.out.println("WARMUP " + entry.getKey());
+            time(() -> {
+                random.nextDoubles(doubles, -1, 1);
+                random.nextInts(ints, 0, 7);
+                for (int i = 0; i < SIZE; i++) {
+                    doubles[i] = random.nextDouble(-1, 1);
+                    ints[i] = random.nextInt(0, 1000);
+                }
+            });
+
+            final long scalarDoubles = time(() -> {
+                for (int i = 0; i < SIZE; i++) {
+                    doubles[i] = random.nextDouble(-1, 1);
+                }
+            });
+            final long bulkDoubles = time(() -> random.nextDoubles(doubles, -1, 1));
+            // A tournament of 7 over a population of 1000
+            final long scalarInts = time(() -> {
+                for (int i = 0; i < SIZE; i++) {
+                    ints[i] = random.nextInt(0, 1000);
+                }
+            });
+            final long bulkInts = time(() -> random.nextInts(ints, 0, 1000));
+            sink += doubles[SIZE - 1] + ints[SIZE - 1];
+
+            final long draws = (long) SIZE * ROUNDS;
+            System.out.println(entry.getKey() + ": " + draws + " doubles in "
+                + scalarDoubles + "ms scalar, " + bulkDoubles + "ms bulk");
+            System.out.println(entry.getKey() + ": " + draws + " ints in "
+                + scalarInts + "ms scalar, " + bulkInts + "ms bulk");
+        }
+        assertTrue(Double.isFinite(sink));
+    }
+}
@@ -0,0 +1,136 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClockCacheTest {
+
+    @Test
+    public void testUnboundedCacheNeverEvicts() {
+        final ClockCache<Integer, String> cache = ClockCache.of(CachePolicy.unbounded());
+        for (int i = 0; i < 10_000; i++) {
+            assertNull(cache.putIfAbsent(i, String.valueOf(i)));
+        }
+        assertEquals(10_000, cache.size());
+        assertEquals("42", cache.get(42));
+        assertEquals(0, cache.stats().evictions());
+    }
+
+    @Test
+    public void testBoundedCacheStaysWithinCapacity() {
+        final ClockCache<Integer, Integer> cache = ClockCache.of(CachePolicy.bounded(100));
+        for (int i = 0; i < 1_000; i++) {
+            cache.computeIfAbsent(i, k -> k * 2);
+            assertTrue(cache.size() <= 100);
+        }
+        assertEquals(100, cache.size());
+        assertEquals(900, cache.stats().evictions());
+    }
+
+    @Test
+    public void testRecentlyReadEntriesGetASecondChance() {
+        final ClockCache<Integer, Integer> cache = ClockCache.of(CachePolicy.bounded(4));
+        for (int i = 0; i < 4; i++) {
+            cache.putIfAbsent(i, i);
+        }
+        cache.get(0);
+        cache.putIfAbsent(4, 4);
+
+        assertEquals(0, cache.get(0));
+        assertNull(cache.get(1));
+        assertEquals(4, cache.get(4));
+    }
+
+    @Test
+    public void testStatisticsCountHitsAndMisses() {
+        final ClockCache<String, Integer> cache = ClockCache.of(CachePolicy.bounded(8));
+        final AtomicInteger computed = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            cache.computeIfAbsent("key", k -> computed.incrementAndGet());
+        }
+        assertEquals(1, computed.get());
+        assertEquals(new ClockCache.Stats(9, 1, 0), cache.stats());
+        assertEquals(0.9, cache.stats().hitRate(), 1e-12);
+    }
+
+    @Test
+    public void testInvalidateAndClear() {
+        final ClockCache<Integer, Integer> cache = ClockCache.of(CachePolicy.bounded(2));
+        cache.putIfAbsent(1, 1);
+        cache.putIfAbsent(2, 2);
+        cache.invalidate(1);
+        assertNull(cache.get(1));
+
+        // The invalidated slot is reused without evicting a live entry
+        cache.putIfAbsent(3, 3);
+        assertEquals(2, cache.get(2));
+        assertEquals(0, cache.stats().evictions());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(2));
+    }
+
+    @Test
+    public void testConcurrentAccessStaysWithinCapacity() {
+        final ClockCache<Integer, Integer> cache = ClockCache.of(CachePolicy.bounded(64));
+        IntStream.range(0, 100_000).parallel().forEach(i -> {
+            final int key = i % 200;
+            assertEquals(key + 1, cache.computeIfAbsent(key, k -> k + 1));
+        });
+        assertTrue(cache.size() <= 64);
+        assertEquals(100_000, cache.stats().requests());
+    }
+
+    @Test
+    public void testConcurrentUnboundedInsertsKeepTheFirstValue() {
+        final ClockCache<Integer, Object> cache = ClockCache.of(CachePolicy.unbounded());
+        final Object[] winners = new Object[500];
+        IntStream.range(0, 100_000).parallel().forEach(i -> {
+            final int key = i % winners.length;
+            final Object value = new Object();
+            final Object previous = cache.putIfAbsent(key, value);
+            final Object kept = previous == null ? value : previous;
+            synchronized (winners) {
+                if (winners[key] == null) {
+                    winners[key] = cache.get(key);
+                }
+                assertSame(winners[key], kept);
+            }
+        });
+        assertEquals(winners.length, cache.size());
+    }
+
+    @Test
+    public void testWeakValuesAreDropped() throws InterruptedException {
+        final ClockCache<Integer, Object> cache = ClockCache.of(
+                CachePolicy.unbounded().weakValues()
+        );
+        cache.putIfAbsent(1, new Object());
+        for (int i = 0; i < 50 && cache.get(1) != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testElementCacheRespectsPolicy() {
+        final Cache<Integer> cache = Cache.withPolicy(CachePolicy.bounded(10));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, cache.getOrInsert(i));
+        }
+        assertEquals(10, cache.size());
+        assertTrue(cache.seen(99));
+        assertFalse(cache.seen(0));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Cache.withPolicy(CachePolicy.bounded(10).softValues())
+        );
+        assertThrows(IllegalArgumentException.class, () -> CachePolicy.bounded(0));
+    }
+}
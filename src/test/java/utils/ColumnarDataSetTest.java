@@ -0,0 +1,122 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ColumnarDataSetTest {
+    @TempDir
+    Path directory;
+
+    ColumnarDataSet heap() {
+        return ColumnarDataSet.of(
+                List.of("x", "y"),
+                new double[][]{{1, 2, 3, 4}, {-1, -2, -3, -4}},
+                "z",
+                new double[]{0.5, 1.5, 2.5, 3.5}
+        );
+    }
+
+    @Test
+    public void testColumnsAndRowsViewTheSameValues() {
+        final ColumnarDataSet dataSet = heap();
+        assertEquals(4, dataSet.size());
+        assertEquals(2, dataSet.numFeatures());
+        assertEquals(3, dataSet.feature("x").get(2));
+        assertEquals(-2, dataSet.feature(1).get(1));
+        assertArrayEquals(new double[]{0.5, 1.5, 2.5, 3.5}, dataSet.target().toArray());
+
+        final ColumnarDataSet.Row row = dataSet.rows().get(3);
+        assertEquals(4, row.get(0));
+        assertEquals(-4, row.get(1));
+        assertEquals(3.5, row.target());
+
+        final ColumnarDataSet slice = dataSet.slice(1, 3);
+        assertEquals(2, slice.size());
+        assertArrayEquals(new double[]{-2, -3}, slice.feature("y").toArray());
+        assertEquals(2.5, slice.rows().get(1).target());
+
+        final double[] out = new double[3];
+        dataSet.feature(0).copyTo(1, out, 0, 3);
+        assertArrayEquals(new double[]{2, 3, 4}, out);
+        assertThrows(IndexOutOfBoundsException.class, () -> dataSet.slice(2, 5));
+        assertThrows(IllegalArgumentException.class, () -> dataSet.feature("w"));
+    }
+
+    @Test
+    public void testBinaryRoundTripIsMapped() throws IOException {
+        final Path file = directory.resolve("data.gpds");
+        heap().write(file);
+        try (ColumnarDataSet mapped = ColumnarDataSet.map(file)) {
+            assertEquals(4, mapped.size());
+            assertEquals(List.of("x", "y"), mapped.features().stream()
+                    .map(ColumnarDataSet.Column::name).toList());
+            assertEquals("z", mapped.target().name());
+            assertArrayEquals(new double[]{1, 2, 3, 4}, mapped.feature(0).toArray());
+            assertArrayEquals(new double[]{0.5, 1.5, 2.5, 3.5}, mapped.target().toArray());
+            assertEquals(true, mapped.target().segment().isMapped());
+        }
+    }
+
+    @Test
+    public void testCsvConversion() throws IOException {
+        final Path csv = directory.resolve("data.csv");
+        final StringBuilder contents = new StringBuilder("a, b,target\n");
+        for (int i = 0; i < 3000; i++) {
+            contents.append(i).append(',').append(i * 0.5).append(", ").append(-i).append('\n');
+        }
+        Files.writeString(csv, contents);
+        final Path binary = directory.resolve("data.gpds");
+        assertEquals(3000, ColumnarDataSet.convertCsv(csv, binary));
+        try (ColumnarDataSet mapped = ColumnarDataSet.map(binary)) {
+            assertEquals(3000, mapped.size());
+            assertEquals("b", mapped.feature(1).name());
+            assertEquals(1234 * 0.5, mapped.feature("b").get(1234));
+            assertEquals(-2999, mapped.rows().get(2999).target());
+        }
+
+        try (ColumnarDataSet heap = ColumnarDataSet.readCsv(csv)) {
+            assertEquals(3000, heap.size());
+            assertEquals(1234 * 0.5, heap.feature("b").get(1234));
+            assertEquals(-2999, heap.rows().get(2999).target());
+        }
+
+        Files.writeString(csv, "a,b\n1\n");
+        assertThrows(IllegalArgumentException.class, () -> ColumnarDataSet.readCsv(csv));
+        assertThrows(IllegalArgumentException.class, () -> ColumnarDataSet.map(csv));
+    }
+
+    @Test
+    public void testCsvRowsWithExtraValuesAreRejected() throws IOException {
+        final Path csv = directory.resolve("data.csv");
+        Files.writeString(csv, "a,b\n1,2\n\n3,4,5\n");
+        final Path binary = directory.resolve("data.gpds");
+        final IllegalArgumentException e = assertThrows(
+                IllegalArgumentException.class, () -> ColumnarDataSet.readCsv(csv)
+        );
+        assertEquals("Row 2 has too many values", e.getMessage());
+        assertThrows(
+                IllegalArgumentException.class, () -> ColumnarDataSet.convertCsv(csv, binary)
+        );
+        assertFalse(Files.exists(binary));
+    }
+
+    @Test
+    public void testColumnOffsetsPastTwoBillionValues() {
+        final int rows = 3_000_000;
+        final ColumnarDataSet.Header header = new ColumnarDataSet.Header(
+                Collections.nCopies(1001, "x"), rows, 64
+        );
+        assertEquals(64 + 1000L * rows * Double.BYTES, header.columnOffset(1000));
+    }
+}
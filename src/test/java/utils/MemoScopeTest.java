@@ -0,0 +1,170 @@
+package utils;
+
+import gp.core.initializer.PrimitiveSet;
+import gp.core.initializer.PrimitiveSetBuilder;
+import org.junit.jupiter.api.Test;
+import utils.operators.BinaryOperator;
+import utils.operators.MemoScope;
+import utils.operators.Operator;
+import utils.operators.UnaryOperator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoScopeTest {
+
+    @Test
+    public void testCollidingInputsGiveTheirOwnOutputs() {
+        // "Aa" and "BB" have the same hash code
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        final Operator<String, String> concat = Operator.<String, String>bin(
+                (a, b) -> a + b
+        ).cached();
+        assertEquals("AaBB", concat.produce(List.of("Aa", "BB")));
+        assertEquals("BBAa", concat.produce(List.of("BB", "Aa")));
+
+        final Operator<String, String> general = new Operator<String, String>() {
+            @Override
+            public String produce(final List<String> parents) {
+                return String.join("", parents);
+            }
+
+            @Override
+            public Integer arity() {
+                return 1;
+            }
+        }.cached();
+        assertEquals("Aa", general.produce(List.of("Aa")));
+        assertEquals("BB", general.produce(List.of("BB")));
+    }
+
+    @Test
+    public void testCachedReturnsTheSameOperator() {
+        final UnaryOperator<Integer, Integer> square = x -> x * x;
+        assertSame(square.cached(), square.cached());
+    }
+
+    @Test
+    public void testTheGlobalScopeSharesTheCachedOperator() {
+        final UnaryOperator<Integer, Integer> square = x -> x * x;
+        final BinaryOperator<Integer, Integer> add = Integer::sum;
+        assertSame(square.cached(), square.cachedIn(MemoScope.global()));
+        assertSame(add.cached(), add.cachedIn(MemoScope.global()));
+        assertNotSame(
+                square.cached(), square.cachedIn(MemoScope.of(CachePolicy.unbounded()))
+        );
+    }
+
+    @Test
+    public void testAddingTheSameCachedTerminalTwiceThrows() {
+        final UnaryOperator<String, Integer> length = String::length;
+        final PrimitiveSetBuilder<String> builder = PrimitiveSetBuilder.<String>empty()
+                .addTerminal("length", length, Integer.class);
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> builder.addTerminal("length", length, Integer.class)
+        );
+    }
+
+    @Test
+    public void testReusedInputArraysAreCopied() {
+        final MemoScope scope = MemoScope.of(CachePolicy.bounded(16));
+        final Operator<Integer, Integer> sum = new Operator<Integer, Integer>() {
+            @Override
+            public Integer produce(final List<Integer> parents) {
+                return parents.stream().mapToInt(Integer::intValue).sum();
+            }
+
+            @Override
+            public Integer arity() {
+                return 2;
+            }
+        }.cachedIn(scope);
+        final Integer[] inputs = {1, 2};
+        assertEquals(3, sum.produce(inputs));
+        inputs[1] = 5;
+        assertEquals(6, sum.produce(inputs));
+        inputs[1] = 2;
+        assertEquals(3, sum.produce(inputs));
+    }
+
+    @Test
+    public void testScopeIsBoundedAndCanBeCleared() {
+        final MemoScope scope = MemoScope.of(CachePolicy.bounded(10));
+        final AtomicInteger calls = new AtomicInteger();
+        final UnaryOperator<Integer, Integer> uncached = x -> {
+            calls.incrementAndGet();
+            return -x;
+        };
+        final UnaryOperator<Integer, Integer> negate = uncached.cachedIn(scope);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(-i, negate.produce(i));
+        }
+        assertEquals(90, scope.stats().evictions());
+        assertEquals(-99, negate.produce(99));
+        assertEquals(100, calls.get());
+
+        scope.clear();
+        assertEquals(-99, negate.produce(99));
+        assertEquals(101, calls.get());
+        assertEquals(new ClockCache.Stats(1, 101, 90), scope.stats());
+    }
+
+    @Test
+    public void testNullsAreNotCached() {
+        final MemoScope scope = MemoScope.of(CachePolicy.bounded(10));
+        final AtomicInteger calls = new AtomicInteger();
+        final BinaryOperator<Integer, Integer> firstOrNull = Operator.<Integer, Integer>bin(
+                (a, b) -> {
+                    calls.incrementAndGet();
+                    return b == null ? null : a;
+                }
+        ).cachedIn(scope);
+        assertNull(firstOrNull.produce(1, null));
+        assertNull(firstOrNull.produce(1, null));
+        assertEquals(2, calls.get());
+        assertEquals(1, firstOrNull.produce(1, 2));
+        assertEquals(1, firstOrNull.produce(1, 2));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testEntriesExpire() throws InterruptedException {
+        final ClockCache<Integer, Integer> cache = ClockCache.of(
+                CachePolicy.bounded(10).expireAfterWrite(Duration.ofMillis(20))
+        );
+        cache.putIfAbsent(1, 1);
+        assertEquals(1, cache.get(1));
+        Thread.sleep(50);
+        assertNull(cache.get(1));
+        assertNull(cache.putIfAbsent(1, 2));
+        assertEquals(2, cache.get(1));
+    }
+
+    @Test
+    public void testTerminalsAreMemoisedInTheBuildersScope() {
+        final AtomicInteger calls = new AtomicInteger();
+        final MemoScope scope = MemoScope.of(CachePolicy.bounded(8));
+        final PrimitiveSet<String> primitiveSet = PrimitiveSetBuilder.<String>empty()
+                .memoiseIn(scope)
+                .addTerminal("length", s -> {
+                    calls.incrementAndGet();
+                    return s.length();
+                }, Integer.class)
+                .build();
+        final UnaryOperator<String, ?> length =
+                primitiveSet.terminals().getFirst().terminal();
+        assertEquals(3, length.produce("abc"));
+        assertEquals(3, length.produce("abc"));
+        assertEquals(1, calls.get());
+        assertEquals(1, scope.stats().hits());
+
+        scope.clear();
+        assertEquals(3, length.produce("abc"));
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,77 @@
+package utils.random;
+
+import org.junit.jupiter.api.Test;
+import utils.Parallelizeable;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SplitMix64Test {
+
+    @Test
+    public void testMatchesTheReferenceSequence() {
+        // SplittableRandom seeded directly is SplitMix64 with the golden gamma,
+        //  only the raw longs match, bounded values are reduced differently
+        final SplittableRandom reference = new SplittableRandom(1234567);
+        final SplitMix64 random = new SplitMix64(1234567);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(reference.nextLong(), random.nextLong());
+        }
+    }
+
+    @Test
+    public void testBoundedValuesStayInRange() {
+        final SplittableRandomSource random = SplittableRandomSource.of(9);
+        final int[] counts = new int[6];
+        for (int i = 0; i < 60_000; i++) {
+            final int value = random.nextInt(-3, 3);
+            counts[value + 3]++;
+            final double d = random.nextDouble(-1, 1);
+            assertTrue(d >= -1 && d < 1);
+            final long l = random.nextLong(Long.MIN_VALUE, Long.MAX_VALUE);
+            assertTrue(l < Long.MAX_VALUE);
+        }
+        for (final int count : counts) {
+            assertTrue(Math.abs(count - 10_000) < 500);
+        }
+        assertThrows(IllegalArgumentException.class, () -> random.nextInt(3, 3));
+    }
+
+    @Test
+    public void testForksAreAddressedByIndex() {
+        final SplittableRandomSource run = SplittableRandomSource.of(42);
+        final long first = run.forkAt(3, 17).nextLong();
+
+        // Drawing from the parent doesn't change its forks
+        run.nextLong();
+        assertEquals(first, run.forkAt(3, 17).nextLong());
+        assertEquals(first, run.fork(3).fork(17).nextLong());
+        assertNotEquals(first, run.forkAt(3, 18).nextLong());
+        assertNotEquals(first, run.forkAt(17, 3).nextLong());
+        assertNotEquals(run.split().nextLong(), run.split().nextLong());
+    }
+
+    @Test
+    public void testParallelOutputDoesNotDependOnThreads() {
+        final List<Integer> items = IntStream.range(0, 10_000).boxed().toList();
+        final SplittableRandomSource random = SplittableRandomSource.of(7);
+        final List<Integer> serial = Parallelizeable.of(1).parallelize(
+                items.stream(), i -> random.fork(i).nextInt(0, 1000) + i
+        ).toList();
+        for (final int batchSize : new int[]{1, 7, 64}) {
+            assertEquals(serial, Parallelizeable.of(batchSize).parallelize(
+                    items, random, (source, i) -> source.nextInt(0, 1000) + i
+            ).toList());
+        }
+        assertEquals(
+                Parallelizeable.of(1).generateN(s -> s.nextLong(), 500, random).toList(),
+                Parallelizeable.of(32).generateN(s -> s.nextLong(), 500, random).toList()
+        );
+    }
+}
@@ -0,0 +1,90 @@
+package utils.random;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class Xoshiro256PlusPlusTest {
+
+    @Test
+    public void testMatchesTheReferenceSequence() {
+        final Xoshiro256PlusPlus random = new Xoshiro256PlusPlus(1, 2, 3, 4);
+        final long[] expected = {
+                41943041L, 58720359L, 3588806011781223L, 3591011842654386L,
+                Long.parseUnsignedLong("9228616714210784205")
+        };
+        for (final long value : expected) {
+            assertEquals(value, random.nextLong());
+        }
+    }
+
+    @Test
+    public void testGeneratorsWithDifferentStatesForkDifferently() {
+        final long fork = new Xoshiro256PlusPlus(1, 2, 3, 4).fork(0).nextLong();
+        assertEquals(fork, new Xoshiro256PlusPlus(1, 2, 3, 4).fork(0).nextLong());
+        assertNotEquals(fork, new Xoshiro256PlusPlus(4, 3, 2, 1).fork(0).nextLong());
+        assertNotEquals(fork, new Xoshiro256PlusPlus(1, 2, 3, 5).fork(0).nextLong());
+    }
+
+    @Test
+    public void testBulkFillsMatchScalarDraws() {
+        for (final RandomSource random : new RandomSource[]{
+                RandomSource.fast(3), SplittableRandomSource.of(3), RandomSource.of(3)
+        }) {
+            final RandomSource copy = random instanceof SplittableRandomSource s
+                    ? s.fork(0) : RandomSource.of(4);
+            final RandomSource same = random instanceof SplittableRandomSource s
+                    ? s.fork(0) : RandomSource.of(4);
+            final int[] ints = new int[1000];
+            copy.nextInts(ints, -5, 1 << 30);
+            final double[] doubles = new double[1000];
+            copy.nextDoubles(doubles, -2.5, 7.5);
+            for (final int value : ints) {
+                assertEquals(value, same.nextInt(-5, 1 << 30));
+            }
+            for (final double value : doubles) {
+                assertEquals(value, same.nextDouble(-2.5, 7.5));
+                assertTrue(value >= -2.5 && value < 7.5);
+            }
+        }
+    }
+
+    @Test
+    public void testBoundedIntsAreUniform() {
+        final RandomSource random = RandomSource.fast(11);
+        final int[] values = new int[70_000];
+        random.nextInts(values, 10, 17);
+        final int[] counts = new int[7];
+        Arrays.stream(values).forEach(v -> counts[v - 10]++);
+        for (final int count : counts) {
+            assertTrue(Math.abs(count - 10_000) < 500);
+        }
+        // The whole int range fits
+        random.nextInts(values, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        assertTrue(Arrays.stream(values).anyMatch(v -> v < 0));
+        assertThrows(IllegalArgumentException.class, () -> random.nextInts(values, 2, 1));
+    }
+
+    @Test
+    public void testForksAreIndependentOfDraws() {
+        final SplittableRandomSource random = RandomSource.fast(5);
+        final long forked = random.forkAt(1, 2).nextLong();
+        random.nextLong();
+        assertEquals(forked, random.forkAt(1, 2).nextLong());
+        assertNotEquals(forked, random.forkAt(2, 1).nextLong());
+
+        random.seed(5);
+        final double[] first = new double[10];
+        random.nextDoubles(first, 0, 1);
+        random.seed(5);
+        final double[] second = new double[10];
+        random.nextDoubles(second, 0, 1);
+        assertArrayEquals(first, second);
+    }
+}